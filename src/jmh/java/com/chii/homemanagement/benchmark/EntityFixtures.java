@@ -0,0 +1,135 @@
+package com.chii.homemanagement.benchmark;
+
+import com.chii.homemanagement.entity.Entity;
+import com.chii.homemanagement.entity.Tag;
+import com.chii.homemanagement.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试用的实体数据
+ * 使用固定随机种子生成，同样的数量每次得到相同的数据，便于不同提交之间比较：
+ * 约20%为空间，其余为物品，每个实体挂在随机的已有空间下，约5%的物品已丢弃，每个实体0~3个标签
+ */
+public final class EntityFixtures {
+
+    public static final long USER_ID = 1L;
+
+    private static final int ROOT_COUNT = 10;
+
+    private static final int TAG_COUNT = 50;
+
+    private final List<Entity> entities;
+
+    private final Map<Long, List<Tag>> tagsByEntityId;
+
+    private final User user;
+
+    private EntityFixtures(List<Entity> entities, Map<Long, List<Tag>> tagsByEntityId, User user) {
+        this.entities = entities;
+        this.tagsByEntityId = tagsByEntityId;
+        this.user = user;
+    }
+
+    /**
+     * 生成指定数量的实体
+     *
+     * @param count 实体数量
+     * @return 数据
+     */
+    public static EntityFixtures generate(int count) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        List<Tag> tags = new ArrayList<>(TAG_COUNT);
+        for (long i = 1; i <= TAG_COUNT; i++) {
+            Tag tag = new Tag();
+            tag.setId(i);
+            tag.setName("标签" + i);
+            tag.setColor(String.format("#%06x", random.nextInt(0x1000000)));
+            tag.setUserId(USER_ID);
+            tags.add(tag);
+        }
+
+        List<Entity> entities = new ArrayList<>(count);
+        List<Entity> spaces = new ArrayList<>();
+        Map<Long, List<Tag>> tagsByEntityId = new HashMap<>(count * 2);
+        for (long id = 1; id <= count; id++) {
+            boolean root = id <= ROOT_COUNT;
+            boolean space = root || random.nextInt(5) == 0;
+
+            Entity entity = new Entity();
+            entity.setId(id);
+            entity.setUserId(USER_ID);
+            entity.setCreateUserId(USER_ID);
+            entity.setType(space ? "space" : "item");
+            entity.setName((space ? "空间" : "物品") + id);
+            entity.setSort((int) id);
+            entity.setCreateTime(now.minusMinutes(id));
+            entity.setUpdateTime(now);
+            if (root) {
+                // getEntityTree以parentId为0识别顶层实体
+                entity.setParentId(0L);
+                entity.setLevel(0);
+                entity.setPath("");
+            } else {
+                Entity parent = spaces.get(random.nextInt(spaces.size()));
+                entity.setParentId(parent.getId());
+                entity.setLevel(parent.getLevel() + 1);
+                entity.setPath(parent.getPath().isEmpty() ? parent.getId().toString() : parent.getPath() + "," + parent.getId());
+            }
+            if (space) {
+                spaces.add(entity);
+            } else {
+                entity.setQuantity(1 + random.nextInt(5));
+                entity.setPrice(BigDecimal.valueOf(random.nextInt(100_000), 2));
+                entity.setPurchaseDate(LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1800)));
+                entity.setWarrantyPeriod(12);
+                entity.setWarrantyEndDate(entity.getPurchaseDate().plusMonths(12));
+                entity.setStatus(random.nextInt(20) == 0 ? "discarded" : "normal");
+                entity.setDescription("基准测试物品" + id);
+            }
+            entities.add(entity);
+
+            int tagCount = random.nextInt(4);
+            if (tagCount > 0) {
+                List<Tag> entityTags = new ArrayList<>(tagCount);
+                for (int i = 0; i < tagCount; i++) {
+                    entityTags.add(tags.get(random.nextInt(TAG_COUNT)));
+                }
+                tagsByEntityId.put(id, entityTags);
+            }
+        }
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUserId(USER_ID);
+        user.setUsername("benchmark");
+        return new EntityFixtures(entities, tagsByEntityId, user);
+    }
+
+    /**
+     * 全部实体，每次调用返回新列表，元素共享
+     */
+    public List<Entity> entities() {
+        return new ArrayList<>(entities);
+    }
+
+    /**
+     * 实体的标签，没有标签时返回空列表
+     */
+    public List<Tag> tagsOf(Long entityId) {
+        return tagsByEntityId.getOrDefault(entityId, List.of());
+    }
+
+    public User user() {
+        return user;
+    }
+}
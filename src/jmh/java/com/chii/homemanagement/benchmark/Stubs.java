@@ -0,0 +1,59 @@
+package com.chii.homemanagement.benchmark;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 基准测试用的桩对象工具
+ * 用动态代理实现服务和Mapper接口，只响应基准测试用到的方法，其他方法调用时抛出异常
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * 创建接口桩对象
+     *
+     * @param type    接口类型
+     * @param answers 方法名到返回值函数的映射，函数参数为调用参数
+     * @return 桩对象
+     */
+    public static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " 未在基准测试中实现");
+        });
+        return type.cast(stub);
+    }
+
+    /**
+     * 设置字段值（包括父类中的私有字段），用于替代依赖注入
+     *
+     * @param target 目标对象
+     * @param name   字段名
+     * @param value  字段值
+     */
+    public static void inject(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + " 没有字段 " + name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
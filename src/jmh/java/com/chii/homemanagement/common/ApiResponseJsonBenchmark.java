@@ -0,0 +1,48 @@
+package com.chii.homemanagement.common;
+
+import com.chii.homemanagement.benchmark.EntityFixtures;
+import com.chii.homemanagement.entity.Entity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体列表响应的JSON序列化基准测试
+ * ObjectMapper与Spring Boot默认配置一致，输出写入空输出流，只测量序列化本身
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ApiResponseJsonBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int entityCount;
+
+    private ObjectMapper objectMapper;
+
+    private ApiResponse<List<Entity>> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        response = ApiResponse.success(EntityFixtures.generate(entityCount).entities());
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+}
@@ -0,0 +1,80 @@
+package com.chii.homemanagement.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.chii.homemanagement.benchmark.EntityFixtures;
+import com.chii.homemanagement.benchmark.Stubs;
+import com.chii.homemanagement.entity.Entity;
+import com.chii.homemanagement.mapper.EntityMapper;
+import com.chii.homemanagement.service.EntityTagService;
+import com.chii.homemanagement.service.UserService;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体服务基准测试
+ * 数据库和关联服务由内存桩对象代替，测量的是树形组装、统计和信息填充本身的开销；
+ * 搜索的桩Mapper忽略查询条件返回全部实体，主要测量对结果的信息填充
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EntityServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int entityCount;
+
+    private EntityFixtures fixtures;
+
+    private EntityServiceImpl entityService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = EntityFixtures.generate(entityCount);
+
+        // LambdaQueryWrapper解析列名需要实体的表信息
+        if (TableInfoHelper.getTableInfo(Entity.class) == null) {
+            TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Entity.class);
+        }
+
+        EntityMapper entityMapper = Stubs.of(EntityMapper.class, Map.of(
+                "selectList", args -> fixtures.entities()));
+        UserService userService = Stubs.of(UserService.class, Map.of(
+                "getUserById", args -> fixtures.user()));
+        EntityTagService entityTagService = Stubs.of(EntityTagService.class, Map.of(
+                "getTagsByEntityId", args -> fixtures.tagsOf((Long) args[0])));
+
+        entityService = new EntityServiceImpl();
+        Stubs.inject(entityService, "baseMapper", entityMapper);
+        Stubs.inject(entityService, "entityMapper", entityMapper);
+        Stubs.inject(entityService, "userService", userService);
+        Stubs.inject(entityService, "entityTagService", entityTagService);
+    }
+
+    @Benchmark
+    public List<Entity> getEntityTree() {
+        return entityService.getEntityTree(EntityFixtures.USER_ID);
+    }
+
+    @Benchmark
+    public List<Object> statEntitiesByParent() {
+        return entityService.statEntitiesByParent(EntityFixtures.USER_ID);
+    }
+
+    @Benchmark
+    public List<Entity> searchEntities() {
+        return entityService.searchEntities(EntityFixtures.USER_ID, "物品");
+    }
+}
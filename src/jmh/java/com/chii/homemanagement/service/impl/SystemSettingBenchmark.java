@@ -0,0 +1,64 @@
+package com.chii.homemanagement.service.impl;
+
+import com.chii.homemanagement.benchmark.Stubs;
+import com.chii.homemanagement.entity.SystemSetting;
+import com.chii.homemanagement.mapper.SystemSettingMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 设置转换基准测试
+ * 设置值混合布尔值、整数、小数和字符串，与默认系统设置的构成相近；
+ * 缓存用户数上限设为0，每次读取都经过桩Mapper查询和转换，测量的是未命中缓存时的解析开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SystemSettingBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    private static final String[] VALUES = {"true", "false", "30", "7", "0.75", "02:00", "daily", "zh-CN", "#1890ff", ""};
+
+    @Param({"20", "200"})
+    private int settingCount;
+
+    private SystemSettingServiceImpl systemSettingService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<SystemSetting> settings = new ArrayList<>(settingCount);
+        for (int i = 0; i < settingCount; i++) {
+            SystemSetting setting = new SystemSetting();
+            setting.setId((long) i + 1);
+            setting.setType("USER");
+            setting.setUserId(USER_ID);
+            setting.setSettingKey("setting" + i);
+            setting.setSettingValue(VALUES[i % VALUES.length]);
+            settings.add(setting);
+        }
+
+        SystemSettingMapper systemSettingMapper = Stubs.of(SystemSettingMapper.class, Map.of(
+                "findByTypeAndUserId", args -> settings));
+        systemSettingService = new SystemSettingServiceImpl();
+        Stubs.inject(systemSettingService, "systemSettingMapper", systemSettingMapper);
+        Stubs.inject(systemSettingService, "maxCachedUsers", 0);
+    }
+
+    @Benchmark
+    public Map<String, Object> getUserSettingsAsMap() {
+        return systemSettingService.getUserSettingsAsMap(USER_ID);
+    }
+}
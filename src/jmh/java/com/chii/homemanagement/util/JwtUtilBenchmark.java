@@ -0,0 +1,57 @@
+package com.chii.homemanagement.util;
+
+import com.chii.homemanagement.benchmark.Stubs;
+import com.chii.homemanagement.common.LoginUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT令牌基准测试，结果为每秒处理的令牌数
+ * 多线程运行，同时检验共享的JwtParser在并发下的吞吐
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+
+    private LoginUser loginUser;
+
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        Stubs.inject(jwtUtil, "secret", "benchmarkSecretKeyWhichIsAtLeast32BytesLongForHS512Algorithm");
+        jwtUtil.init();
+        loginUser = new LoginUser(1L, "benchmark", null, List.of("USER"));
+        token = jwtUtil.generateToken(loginUser);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(loginUser);
+    }
+
+    @Benchmark
+    public JwtUtil.TokenClaims parseOnce() {
+        return jwtUtil.parseOnce(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, "benchmark");
+    }
+}
@@ -0,0 +1,68 @@
+package com.chii.homemanagement.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 单个虚拟用户单个场景的耗时记录，只由一个线程写入，结束后合并
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+
+    private int count;
+
+    private int errors;
+
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    void error() {
+        errors++;
+    }
+
+    void mergeInto(LatencyRecorder target) {
+        for (int i = 0; i < count; i++) {
+            target.record(samples[i]);
+        }
+        target.errors += errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    /**
+     * 计算统计结果，会对样本排序
+     *
+     * @param seconds 测量时长（秒）
+     */
+    Summary summarize(double seconds) {
+        Arrays.sort(samples, 0, count);
+        return new Summary(count, errors, count / seconds,
+                percentile(0.50), percentile(0.90), percentile(0.99), percentile(0.999),
+                count > 0 ? samples[count - 1] / 1e6 : 0);
+    }
+
+    private double percentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * count) - 1;
+        return samples[Math.max(0, Math.min(index, count - 1))] / 1e6;
+    }
+
+    /**
+     * 统计结果，耗时单位为毫秒
+     */
+    record Summary(int requests, int errors, double throughput,
+                   double p50, double p90, double p99, double p999, double max) {
+    }
+}
@@ -0,0 +1,266 @@
+package com.chii.homemanagement.loadtest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 压测工具
+ * 使用数据生成命令写出的清单文件，对运行中的实例按权重混合执行各场景，输出每个接口的吞吐量和耗时分位数。
+ * 先生成数据（见LoadTestDataGenerator），再启动服务，登录限流需放宽，否则登录场景会被限流：
+ * <pre>
+ * java -jar app.jar --security.login.username-burst=1000000 --security.login.ip-burst=1000000 --security.login.ip-per-minute=1000000
+ * ./gradlew loadTest -Ploadtest.baseUrl=http://localhost:26000 -Ploadtest.concurrency=64 -Ploadtest.duration=120
+ * </pre>
+ * 参数（系统属性）：
+ * <ul>
+ *     <li>loadtest.baseUrl：服务地址，默认http://localhost:26000</li>
+ *     <li>loadtest.manifest：清单文件，默认loadtest-data.json</li>
+ *     <li>loadtest.concurrency：并发虚拟用户数，默认32</li>
+ *     <li>loadtest.warmup / loadtest.duration：预热和测量时长（秒），默认10和60，预热期间的请求不计入结果</li>
+ *     <li>loadtest.scenarios：场景及权重，默认login:1,tree:2,search:5,dashboard:3,image:6,upload:1</li>
+ *     <li>loadtest.seed：随机种子，默认42，相同种子和参数下请求序列相同</li>
+ *     <li>loadtest.report：结果JSON文件，默认build/loadtest/loadtest-时间.json</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+
+    private final int concurrency;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    private final long seed;
+
+    private final Map<Scenario, Integer> weights;
+
+    private final int totalWeight;
+
+    private final List<VirtualUser> users;
+
+    private final HttpClient client;
+
+    private LoadTest(String baseUrl, int concurrency, Duration warmup, Duration duration, long seed,
+                     Map<Scenario, Integer> weights, List<VirtualUser> users) {
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.seed = seed;
+        this.weights = weights;
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        this.users = users;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:26000").replaceAll("/+$", "");
+        Path manifestPath = Paths.get(System.getProperty("loadtest.manifest", "loadtest-data.json"));
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 60));
+        long seed = Long.getLong("loadtest.seed", 42L);
+        Map<Scenario, Integer> weights = parseWeights(
+                System.getProperty("loadtest.scenarios", "login:1,tree:2,search:5,dashboard:3,image:6,upload:1"));
+        Path report = Paths.get(System.getProperty("loadtest.report", "build/loadtest/loadtest-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json"));
+
+        JsonNode manifest = MAPPER.readTree(manifestPath.toFile());
+        String password = manifest.path("password").asText();
+        List<VirtualUser> users = new ArrayList<>();
+        manifest.path("users").forEach(node -> users.add(VirtualUser.fromManifest(node, password)));
+        if (users.isEmpty()) {
+            throw new IllegalStateException("清单文件中没有用户: " + manifestPath.toAbsolutePath());
+        }
+
+        System.out.printf("压测开始: 地址=%s, 用户=%d, 并发=%d, 预热=%ds, 测量=%ds, 场景=%s%n",
+                baseUrl, users.size(), concurrency, warmup.toSeconds(), duration.toSeconds(), weights);
+        new LoadTest(baseUrl, concurrency, warmup, duration, seed, weights, users).run(report);
+    }
+
+    private void run(Path report) throws Exception {
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+
+        List<Future<Map<Scenario, LatencyRecorder>>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int worker = i;
+                futures.add(executor.submit(() -> runWorker(worker, measureStart, end)));
+            }
+        }
+
+        Map<Scenario, LatencyRecorder> merged = new EnumMap<>(Scenario.class);
+        for (Future<Map<Scenario, LatencyRecorder>> future : futures) {
+            future.get().forEach((scenario, recorder) ->
+                    recorder.mergeInto(merged.computeIfAbsent(scenario, k -> new LatencyRecorder())));
+        }
+        report(merged, duration.toMillis() / 1000.0, report);
+    }
+
+    /**
+     * 单个虚拟用户：登录后按权重循环选择场景，直到测量结束
+     */
+    private Map<Scenario, LatencyRecorder> runWorker(int worker, long measureStart, long end) throws IOException, InterruptedException {
+        Random random = new Random(seed + worker);
+        VirtualUser user = users.get(worker % users.size());
+        Map<Scenario, LatencyRecorder> recorders = new EnumMap<>(Scenario.class);
+        String token = login(user, random);
+
+        while (System.nanoTime() < end) {
+            Scenario scenario = choose(random);
+            if (!scenario.applicableTo(user)) {
+                continue;
+            }
+            HttpRequest.Builder builder = scenario.request(baseUrl, user, random).timeout(Duration.ofSeconds(60));
+            if (token != null && scenario != Scenario.LOGIN) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            long begin = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<byte[]> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+                success = isSuccess(scenario, response);
+                if (success && scenario == Scenario.LOGIN) {
+                    token = tokenOf(response.body());
+                }
+            } catch (IOException e) {
+                success = false;
+            }
+            long elapsed = System.nanoTime() - begin;
+            if (begin >= measureStart) {
+                LatencyRecorder recorder = recorders.computeIfAbsent(scenario, k -> new LatencyRecorder());
+                if (success) {
+                    recorder.record(elapsed);
+                } else {
+                    recorder.error();
+                }
+            }
+        }
+        return recorders;
+    }
+
+    private String login(VirtualUser user, Random random) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(Scenario.LOGIN.request(baseUrl, user, random).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (!isSuccess(Scenario.LOGIN, response)) {
+            throw new IllegalStateException("登录失败: " + user.username() + ", 响应=" + new String(response.body()));
+        }
+        return tokenOf(response.body());
+    }
+
+    private Scenario choose(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Scenario, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static boolean isSuccess(Scenario scenario, HttpResponse<byte[]> response) throws IOException {
+        if (response.statusCode() >= 400) {
+            return false;
+        }
+        return !scenario.isApiResponse() || apiCode(response.body()) == 200;
+    }
+
+    /**
+     * 读取ApiResponse顶层的code字段，跳过其他字段的内容，不构建整个JSON树
+     */
+    private static int apiCode(byte[] body) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return -1;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if ("code".equals(name)) {
+                    return parser.getIntValue();
+                }
+                parser.skipChildren();
+            }
+            return -1;
+        }
+    }
+
+    private static String tokenOf(byte[] body) throws IOException {
+        return MAPPER.readTree(body).path("data").path("token").asText(null);
+    }
+
+    private static Map<Scenario, Integer> parseWeights(String spec) {
+        Map<Scenario, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(Scenario.of(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("没有可执行的压测场景: " + spec);
+        }
+        return weights;
+    }
+
+    private void report(Map<Scenario, LatencyRecorder> recorders, double seconds, Path report) throws IOException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        System.out.printf("%n%-10s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "场景", "请求数", "错误", "吞吐(/s)", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Scenario scenario : weights.keySet()) {
+            LatencyRecorder recorder = recorders.getOrDefault(scenario, new LatencyRecorder());
+            LatencyRecorder.Summary summary = recorder.summarize(seconds);
+            results.put(scenario.key(), summary);
+            System.out.printf("%-10s %9d %7d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", scenario.key(),
+                    summary.requests(), summary.errors(), summary.throughput(),
+                    summary.p50(), summary.p90(), summary.p99(), summary.p999(), summary.max());
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("baseUrl", baseUrl);
+        document.put("users", users.size());
+        document.put("concurrency", concurrency);
+        document.put("warmupSeconds", warmup.toSeconds());
+        document.put("durationSeconds", duration.toSeconds());
+        document.put("seed", seed);
+        document.put("scenarios", results);
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(report.toFile(), document);
+        System.out.println("\n结果已写入 " + report.toAbsolutePath());
+    }
+}
@@ -0,0 +1,407 @@
+package com.chii.homemanagement.loadtest;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import com.chii.homemanagement.entity.Entity;
+import com.chii.homemanagement.entity.EntityImage;
+import com.chii.homemanagement.entity.EntityTag;
+import com.chii.homemanagement.entity.Reminder;
+import com.chii.homemanagement.entity.Tag;
+import com.chii.homemanagement.entity.User;
+import com.chii.homemanagement.mapper.ReminderMapper;
+import com.chii.homemanagement.service.EntityImageService;
+import com.chii.homemanagement.service.EntityService;
+import com.chii.homemanagement.service.EntityTagService;
+import com.chii.homemanagement.service.TagService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 压测数据生成命令
+ * 位于压测源码集中，不打包进应用；由Gradle任务以应用主类启动，使用应用配置的数据源，生成数据后退出：
+ * <pre>
+ * ./gradlew generateLoadTestData -Ploadtest.users=100 -Ploadtest.items-per-user=2000
+ * </pre>
+ * 所有日期都从基准日期（loadtest.base-date）推算，同样的种子和基准日期每次生成同样的数据。
+ * 每个用户一套住宅：住宅→房间→柜子→收纳盒，物品分布在房间、柜子和收纳盒中，越深的层级物品越多；
+ * 标签按热门程度倾斜分配，约三分之一的物品有图片，保修和定期维护物品带有提醒。
+ * 生成的用户名、用户ID和部分实体、图片ID及搜索关键词写入清单文件，供压测工具使用（见src/loadtest）
+ */
+@Slf4j
+@Component
+public class LoadTestDataGenerator implements CommandLineRunner {
+
+    private static final String[] ROOMS = {"客厅", "主卧", "次卧", "书房", "厨房", "卫生间", "阳台", "储藏室"};
+
+    private static final String[] CABINETS = {"电视柜", "衣柜", "书柜", "橱柜", "鞋柜", "抽屉柜", "储物架"};
+
+    private static final String[] ITEMS = {"螺丝刀", "充电器", "数据线", "电池", "毛巾", "剪刀", "胶带", "手电筒", "雨伞",
+            "药箱", "体温计", "耳机", "移动电源", "台灯", "保温杯", "茶叶", "相机", "遥控器", "插线板", "工具箱",
+            "羽绒服", "运动鞋", "笔记本", "钢笔", "收音机", "吹风机", "电饭煲", "榨汁机", "路由器", "硬盘"};
+
+    private static final String[] BRANDS = {"小米", "华为", "美的", "飞利浦", "得力", "无印良品", "宜家", "公牛"};
+
+    private static final String[] TAGS = {"常用", "电子产品", "工具", "厨房用品", "衣物", "药品", "文具", "易碎",
+            "贵重", "季节性", "待维修", "借出", "礼物", "收藏", "备用", "消耗品", "户外", "清洁", "书籍", "证件"};
+
+    private static final String[] FREQUENCIES = {"daily", "weekly", "monthly", "rarely"};
+
+    /**
+     * 生成的用户数量，为0时不执行
+     */
+    @Value("${loadtest.users:0}")
+    private int userCount;
+
+    @Value("${loadtest.items-per-user:2000}")
+    private int itemsPerUser;
+
+    @Value("${loadtest.seed:42}")
+    private long seed;
+
+    /**
+     * 基准日期，购买日期、保修到期和提醒日期都相对该日期生成
+     */
+    @Value("${loadtest.base-date:2025-01-01}")
+    private String baseDateValue;
+
+    private LocalDate baseDate;
+
+    @Value("${loadtest.password:loadtest123}")
+    private String password;
+
+    /**
+     * 清单文件路径
+     */
+    @Value("${loadtest.manifest:loadtest-data.json}")
+    private String manifestPath;
+
+    @Value("${loadtest.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    private EntityService entityService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private EntityTagService entityTagService;
+
+    @Autowired
+    private EntityImageService entityImageService;
+
+    @Autowired
+    private ReminderMapper reminderMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Override
+    public void run(String... args) {
+        if (userCount <= 0) {
+            return;
+        }
+        int exitCode = 0;
+        try {
+            generate();
+        } catch (Exception e) {
+            log.error("生成压测数据失败", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private void generate() throws IOException {
+        long startTime = System.currentTimeMillis();
+        baseDate = LocalDate.parse(baseDateValue.trim());
+        Random random = new Random(seed);
+        List<byte[]> images = createImages(random);
+        // 所有用户密码相同，只需计算一次哈希
+        String encodedPassword = passwordEncoder.encode(password);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<Map<String, Object>> users = new ArrayList<>(userCount);
+        for (int i = 1; i <= userCount; i++) {
+            String username = "loadtest-" + seed + "-" + i;
+            Map<String, Object> summary = transaction.execute(status ->
+                    generateUser(username, encodedPassword, new Random(seed * 31 + username.hashCode()), images));
+            users.add(summary);
+            log.info("已生成压测用户 {}/{}: {}", i, userCount, username);
+        }
+
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("seed", seed);
+        manifest.put("baseDate", baseDate.toString());
+        manifest.put("password", password);
+        manifest.put("itemsPerUser", itemsPerUser);
+        manifest.put("users", users);
+        Path path = Paths.get(manifestPath).toAbsolutePath();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), manifest);
+        log.info("压测数据生成完成: 用户={}, 每用户物品={}, 清单={}, 耗时={}ms",
+                userCount, itemsPerUser, path, System.currentTimeMillis() - startTime);
+    }
+
+    private Map<String, Object> generateUser(String username, String encodedPassword, Random random, List<byte[]> images) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(encodedPassword);
+        user.setNickname(username);
+        user.setEmail(username + "@loadtest.local");
+        user.setRoles("USER");
+        user.setStatus("active");
+        Db.save(user);
+        Long userId = user.getId();
+
+        List<Tag> tags = new ArrayList<>(TAGS.length);
+        for (String name : TAGS) {
+            Tag tag = new Tag();
+            tag.setName(name);
+            tag.setColor(String.format("#%06x", random.nextInt(0x1000000)));
+            tag.setUserId(userId);
+            tag.setCreateUserId(userId);
+            tags.add(tag);
+        }
+        tagService.saveBatch(tags, batchSize);
+
+        // 空间逐层写入，下一层需要上一层的ID计算路径
+        Entity house = space(userId, null, "我的家");
+        entityService.save(house);
+        List<Entity> rooms = new ArrayList<>();
+        for (int i = 0, n = 4 + random.nextInt(5); i < n; i++) {
+            rooms.add(space(userId, house, ROOMS[i % ROOMS.length] + (i >= ROOMS.length ? i : "")));
+        }
+        entityService.saveBatch(rooms, batchSize);
+        List<Entity> cabinets = new ArrayList<>();
+        for (Entity room : rooms) {
+            for (int i = 0, n = 2 + random.nextInt(4); i < n; i++) {
+                cabinets.add(space(userId, room, room.getName() + CABINETS[random.nextInt(CABINETS.length)] + (i + 1)));
+            }
+        }
+        entityService.saveBatch(cabinets, batchSize);
+        List<Entity> boxes = new ArrayList<>();
+        for (Entity cabinet : cabinets) {
+            for (int i = 0, n = 1 + random.nextInt(4); i < n; i++) {
+                boxes.add(space(userId, cabinet, cabinet.getName() + "收纳盒" + (i + 1)));
+            }
+        }
+        entityService.saveBatch(boxes, batchSize);
+
+        List<Entity> items = new ArrayList<>(itemsPerUser);
+        for (int i = 0; i < itemsPerUser; i++) {
+            // 约60%在收纳盒，30%在柜子，10%直接放在房间
+            int roll = random.nextInt(10);
+            List<Entity> parents = roll < 6 ? boxes : roll < 9 ? cabinets : rooms;
+            items.add(item(userId, parents.get(random.nextInt(parents.size())), random));
+        }
+        entityService.saveBatch(items, batchSize);
+
+        List<EntityTag> entityTags = new ArrayList<>();
+        List<EntityImage> entityImages = new ArrayList<>();
+        List<Reminder> reminders = new ArrayList<>();
+        List<Reminder> recurring = new ArrayList<>();
+        LocalDate today = baseDate;
+        for (Entity item : items) {
+            // 标签按平方分布选择，排在前面的标签更常用
+            int tagCount = random.nextInt(4);
+            long usedTags = 0;
+            for (int i = 0; i < tagCount; i++) {
+                int index = (int) (tags.size() * Math.pow(random.nextDouble(), 2));
+                if ((usedTags & (1L << index)) != 0) {
+                    continue;
+                }
+                usedTags |= 1L << index;
+                EntityTag entityTag = new EntityTag();
+                entityTag.setEntityId(item.getId());
+                entityTag.setTagId(tags.get(index).getId());
+                entityTags.add(entityTag);
+            }
+
+            int roll = random.nextInt(100);
+            int imageCount = roll < 25 ? 1 : roll < 35 ? 2 + random.nextInt(3) : 0;
+            for (int i = 0; i < imageCount; i++) {
+                byte[] data = images.get(random.nextInt(images.size()));
+                EntityImage image = new EntityImage();
+                image.setEntityId(item.getId());
+                image.setImageData(data);
+                image.setImageType(i == 0 ? "normal" : "receipt");
+                image.setContentType("image/jpeg");
+                image.setFileName("loadtest-" + item.getId() + "-" + i + ".jpg");
+                image.setFileSize((long) data.length);
+                image.setSortOrder(i);
+                entityImages.add(image);
+            }
+
+            if (item.getWarrantyEndDate() != null && random.nextInt(5) == 0) {
+                Reminder reminder = reminder(userId, item, "warranty", item.getWarrantyEndDate().minusDays(30), today);
+                reminder.setContent(item.getName() + "的保修将于" + item.getWarrantyEndDate() + "到期");
+                reminder.setDaysInAdvance(30);
+                reminders.add(reminder);
+            }
+            if (random.nextInt(20) == 0) {
+                Reminder reminder = reminder(userId, item, "maintenance", today.plusDays(random.nextInt(60) - 30), today);
+                reminder.setContent("维护" + item.getName());
+                reminder.setIsRecurring(true);
+                reminder.setRecurringCycle(random.nextBoolean() ? "monthly" : "yearly");
+                recurring.add(reminder);
+            }
+        }
+        entityTagService.saveBatch(entityTags, batchSize);
+        // 图片数据较大，分小批写入，避免单条语句超过max_allowed_packet
+        entityImageService.saveBatch(entityImages, 50);
+        Db.saveBatch(reminders, batchSize);
+        if (!recurring.isEmpty()) {
+            Db.saveBatch(recurring, batchSize);
+            List<Long> ids = recurring.stream().map(Reminder::getId).toList();
+            for (int i = 0; i < ids.size(); i += batchSize) {
+                reminderMapper.update(null, new LambdaUpdateWrapper<Reminder>()
+                        .setSql("series_id = id")
+                        .in(Reminder::getId, ids.subList(i, Math.min(i + batchSize, ids.size()))));
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("username", username);
+        summary.put("userId", userId);
+        summary.put("spaces", 1 + rooms.size() + cabinets.size() + boxes.size());
+        summary.put("items", items.size());
+        summary.put("images", entityImages.size());
+        summary.put("reminders", reminders.size() + recurring.size());
+        summary.put("itemIds", sample(items.stream().map(Entity::getId).toList(), 100, random));
+        summary.put("imageIds", sample(entityImages.stream().map(EntityImage::getId).toList(), 100, random));
+        summary.put("keywords", List.of(ITEMS[random.nextInt(ITEMS.length)], BRANDS[random.nextInt(BRANDS.length)],
+                ROOMS[random.nextInt(ROOMS.length)], String.valueOf(random.nextInt(10))));
+        return summary;
+    }
+
+    private Entity space(Long userId, Entity parent, String name) {
+        Entity entity = new Entity();
+        entity.setName(name);
+        entity.setType("space");
+        entity.setStatus("normal");
+        entity.setUserId(userId);
+        entity.setCreateUserId(userId);
+        setParent(entity, parent);
+        return entity;
+    }
+
+    private Entity item(Long userId, Entity parent, Random random) {
+        Entity entity = new Entity();
+        String name = ITEMS[random.nextInt(ITEMS.length)];
+        entity.setName(BRANDS[random.nextInt(BRANDS.length)] + name + random.nextInt(1000));
+        entity.setType("item");
+        entity.setSpecification(random.nextInt(3) == 0 ? "标准版" : null);
+        entity.setQuantity(random.nextInt(10) == 0 ? 2 + random.nextInt(10) : 1);
+        // 价格大致为对数均匀分布，1元到1万元
+        entity.setPrice(BigDecimal.valueOf(Math.pow(10, random.nextDouble() * 4)).setScale(2, RoundingMode.HALF_UP));
+        entity.setPurchaseDate(baseDate.minusDays(random.nextInt(365 * 5)));
+        if (random.nextInt(10) < 6) {
+            entity.setWarrantyPeriod(random.nextBoolean() ? 12 : 24);
+            entity.setWarrantyEndDate(entity.getPurchaseDate().plusMonths(entity.getWarrantyPeriod()));
+        }
+        entity.setUsageFrequency(FREQUENCIES[random.nextInt(FREQUENCIES.length)]);
+        entity.setStatus(random.nextInt(20) == 0 ? "discarded" : "normal");
+        entity.setBarcode(random.nextInt(4) == 0 ? String.format("69%011d", random.nextLong(100_000_000_000L)) : null);
+        entity.setUserId(userId);
+        entity.setCreateUserId(userId);
+        setParent(entity, parent);
+        return entity;
+    }
+
+    private void setParent(Entity entity, Entity parent) {
+        if (parent == null) {
+            // 与实体树接口一致，顶层实体的parentId为0
+            entity.setParentId(0L);
+            entity.setLevel(0);
+            entity.setPath("");
+        } else {
+            entity.setParentId(parent.getId());
+            entity.setLevel(parent.getLevel() + 1);
+            entity.setPath(parent.getPath().isEmpty() ? parent.getId().toString() : parent.getPath() + "," + parent.getId());
+        }
+    }
+
+    private Reminder reminder(Long userId, Entity item, String type, LocalDate remindDate, LocalDate today) {
+        Reminder reminder = new Reminder();
+        reminder.setUserId(userId);
+        reminder.setEntityId(item.getId());
+        reminder.setType(type);
+        reminder.setRemindDate(remindDate);
+        reminder.setRemindTime(LocalTime.of(9, 0));
+        reminder.setStatus(remindDate.isBefore(today) ? "processed" : "pending");
+        reminder.setNotificationMethods("system");
+        reminder.setIsRecurring(false);
+        reminder.setCreateTime(today.atStartOfDay());
+        return reminder;
+    }
+
+    private List<Long> sample(List<Long> ids, int size, Random random) {
+        if (ids.size() <= size) {
+            return ids;
+        }
+        List<Long> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(ids.get(random.nextInt(ids.size())));
+        }
+        return result;
+    }
+
+    /**
+     * 生成几张带噪点的JPEG图片，大小与手机拍摄后压缩的缩略图相近
+     */
+    private List<byte[]> createImages(Random random) throws IOException {
+        List<byte[]> images = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(new Color(random.nextInt(0x1000000)));
+            graphics.fillRect(0, 0, 640, 480);
+            graphics.dispose();
+            for (int y = 0; y < 480; y += 2) {
+                for (int x = 0; x < 640; x += 2) {
+                    image.setRGB(x, y, image.getRGB(x, y) ^ (random.nextInt(0x40) * 0x010101));
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "jpg", out);
+            images.add(out.toByteArray());
+        }
+        return images;
+    }
+}
@@ -0,0 +1,57 @@
+package com.chii.homemanagement.loadtest;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 上传场景使用的multipart请求体
+ */
+final class Multipart {
+
+    private static final byte[] SAMPLE_JPEG = createSampleJpeg();
+
+    private Multipart() {
+    }
+
+    /**
+     * 构建只含一个图片文件字段的请求体
+     */
+    static byte[] image(String boundary, String field, String fileName, byte[] data) {
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + 256);
+        out.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(data);
+        out.writeBytes(tail.getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    static byte[] sampleJpeg() {
+        return SAMPLE_JPEG;
+    }
+
+    private static byte[] createSampleJpeg() {
+        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int i = 0; i < 20; i++) {
+            graphics.setColor(new Color(i * 12, 255 - i * 12, 128));
+            graphics.fillRect(i * 40, 0, 40, 600);
+        }
+        graphics.dispose();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "jpg", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.chii.homemanagement.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 压测场景
+ * 每个场景对应一个接口，由虚拟用户按权重随机选择执行
+ */
+public enum Scenario {
+
+    LOGIN("login", true) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user, Random random) {
+            String body = "{\"username\":\"" + user.username() + "\",\"password\":\"" + user.password() + "\"}";
+            return HttpRequest.newBuilder(uri(baseUrl, "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+
+    TREE("tree", true) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user, Random random) {
+            return HttpRequest.newBuilder(uri(baseUrl, "/api/entities/tree?userId=" + user.userId())).GET();
+        }
+    },
+
+    SEARCH("search", true) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user, Random random) {
+            String keyword = URLEncoder.encode(pick(user.keywords(), random), StandardCharsets.UTF_8);
+            return HttpRequest.newBuilder(uri(baseUrl, "/api/entities/search?userId=" + user.userId() + "&keyword=" + keyword)).GET();
+        }
+    },
+
+    DASHBOARD("dashboard", true) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user, Random random) {
+            return HttpRequest.newBuilder(uri(baseUrl, "/api/dashboard/statistics?userId=" + user.userId())).GET();
+        }
+    },
+
+    IMAGE("image", false) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user, Random random) {
+            return HttpRequest.newBuilder(uri(baseUrl, "/api/entity-images/" + pick(user.imageIds(), random))).GET();
+        }
+    },
+
+    UPLOAD("upload", true) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user, Random random) {
+            String boundary = "----loadtest" + Long.toHexString(random.nextLong());
+            byte[] body = Multipart.image(boundary, "image", "loadtest.jpg", Multipart.sampleJpeg());
+            return HttpRequest.newBuilder(uri(baseUrl, "/api/entity-images/entity/" + pick(user.itemIds(), random) + "?userId=" + user.userId()))
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        }
+    };
+
+    private final String key;
+
+    /**
+     * 响应是否为ApiResponse，是时以响应中的code判断成功与否
+     */
+    private final boolean apiResponse;
+
+    Scenario(String key, boolean apiResponse) {
+        this.key = key;
+        this.apiResponse = apiResponse;
+    }
+
+    /**
+     * 构建请求，不包含认证头
+     */
+    abstract HttpRequest.Builder request(String baseUrl, VirtualUser user, Random random);
+
+    /**
+     * 当前用户是否具备执行该场景所需的数据
+     */
+    boolean applicableTo(VirtualUser user) {
+        return switch (this) {
+            case IMAGE -> !user.imageIds().isEmpty();
+            case UPLOAD -> !user.itemIds().isEmpty();
+            case SEARCH -> !user.keywords().isEmpty();
+            default -> true;
+        };
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public boolean isApiResponse() {
+        return apiResponse;
+    }
+
+    public static Scenario of(String key) {
+        for (Scenario scenario : values()) {
+            if (scenario.key.equalsIgnoreCase(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("未知的压测场景: " + key);
+    }
+
+    private static URI uri(String baseUrl, String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.chii.homemanagement.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 压测用户，来自数据生成命令写出的清单文件
+ *
+ * @param username 用户名
+ * @param password 密码
+ * @param userId   用户ID
+ * @param itemIds  部分物品ID
+ * @param imageIds 部分图片ID
+ * @param keywords 搜索关键词
+ */
+public record VirtualUser(String username, String password, Long userId,
+                          List<Long> itemIds, List<Long> imageIds, List<String> keywords) {
+
+    static VirtualUser fromManifest(JsonNode node, String password) {
+        return new VirtualUser(node.path("username").asText(), password, node.path("userId").asLong(),
+                longs(node.path("itemIds")), longs(node.path("imageIds")), strings(node.path("keywords")));
+    }
+
+    private static List<Long> longs(JsonNode array) {
+        List<Long> values = new ArrayList<>(array.size());
+        array.forEach(value -> values.add(value.asLong()));
+        return values;
+    }
+
+    private static List<String> strings(JsonNode array) {
+        List<String> values = new ArrayList<>(array.size());
+        array.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+}
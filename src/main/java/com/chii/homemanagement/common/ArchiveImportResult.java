@@ -0,0 +1,39 @@
+package com.chii.homemanagement.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 账户数据包导入结果
+ */
+@Data
+@Schema(description = "账户数据包导入结果")
+public class ArchiveImportResult {
+
+    @Schema(description = "新建的标签数，同名标签合并到已有标签")
+    private int tags;
+
+    @Schema(description = "导入的实体数")
+    private int entities;
+
+    @Schema(description = "导入的实体标签关联数")
+    private int entityTags;
+
+    @Schema(description = "导入的图片数")
+    private int images;
+
+    @Schema(description = "导入的维护记录数")
+    private int maintenances;
+
+    @Schema(description = "导入的提醒数")
+    private int reminders;
+
+    @Schema(description = "导入的个人设置数")
+    private int settings;
+
+    @Schema(description = "因引用缺失或缺少文件内容而跳过的记录数")
+    private int skipped;
+
+    @Schema(description = "耗时（毫秒）")
+    private long elapsedMs;
+}
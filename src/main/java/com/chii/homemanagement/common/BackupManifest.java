@@ -0,0 +1,75 @@
+package com.chii.homemanagement.common;
+
+import com.chii.homemanagement.util.ChunkedZipWriter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 备份清单
+ * 每个备份目录中的manifest.json，备份全部写入完成后才生成，没有清单的目录视为未完成的备份
+ */
+@Data
+@Schema(description = "备份清单")
+public class BackupManifest {
+
+    public static final String TYPE_FULL = "full";
+
+    public static final String TYPE_INCREMENTAL = "incremental";
+
+    @Schema(description = "备份ID，按时间排序")
+    private String id;
+
+    @Schema(description = "备份类型：full-全量，incremental-增量")
+    private String type;
+
+    @Schema(description = "增量备份所基于的上一个备份ID")
+    private String parentId;
+
+    @Schema(description = "数据库快照时间（数据库时间），下一次增量备份从该时间前的重叠窗口开始读取")
+    private LocalDateTime snapshotTime;
+
+    @Schema(description = "开始时间")
+    private LocalDateTime startTime;
+
+    @Schema(description = "完成时间")
+    private LocalDateTime finishTime;
+
+    @Schema(description = "各表的备份行数")
+    private Map<String, TableStat> tables = new LinkedHashMap<>();
+
+    @Schema(description = "上传目录中的文件总数")
+    private int fileCount;
+
+    @Schema(description = "本次写入备份的文件数（新增或内容变化）")
+    private int changedFiles;
+
+    @Schema(description = "本次写入备份的文件字节数")
+    private long changedFileBytes;
+
+    @Schema(description = "文件索引的SHA-256")
+    private String fileIndexSha256;
+
+    @Schema(description = "分卷列表")
+    private List<ChunkedZipWriter.Chunk> chunks = new ArrayList<>();
+
+    @JsonIgnore
+    public boolean isFull() {
+        return TYPE_FULL.equals(type);
+    }
+
+    /**
+     * 单表备份统计
+     *
+     * @param changedRows 本次写入备份的行数
+     * @param totalRows   快照时表中的总行数，恢复后据此校验
+     */
+    public record TableStat(long changedRows, long totalRows) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.chii.homemanagement.common;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 注入当前登录用户
+ * 可用于Long类型（用户ID）或{@link LoginUser}类型的控制器方法参数，未登录时返回用户未登录错误
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
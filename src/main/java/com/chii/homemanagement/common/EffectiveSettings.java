@@ -0,0 +1,84 @@
+package com.chii.homemanagement.common;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 用户的生效设置
+ * 按用户个人设置、系统设置值、系统预设值的优先级合并后的只读结果，值已解析为布尔值、数字或字符串
+ */
+public final class EffectiveSettings {
+
+    private final Map<String, Object> values;
+
+    public EffectiveSettings(Map<String, Object> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * 获取设置值
+     *
+     * @param key 设置键
+     * @return 设置值，不存在时返回null
+     */
+    public Object get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * 获取字符串设置值
+     *
+     * @param key          设置键
+     * @param defaultValue 不存在时的默认值
+     * @return 设置值
+     */
+    public String getString(String key, String defaultValue) {
+        Object value = values.get(key);
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    /**
+     * 获取布尔设置值
+     *
+     * @param key          设置键
+     * @param defaultValue 不存在或不是布尔值时的默认值
+     * @return 设置值
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return values.get(key) instanceof Boolean value ? value : defaultValue;
+    }
+
+    /**
+     * 获取整数设置值
+     *
+     * @param key          设置键
+     * @param defaultValue 不存在或不是整数时的默认值
+     * @return 设置值
+     */
+    public int getInt(String key, int defaultValue) {
+        return values.get(key) instanceof Integer value ? value : defaultValue;
+    }
+
+    public String getLanguage() {
+        return getString("language", "zh_CN");
+    }
+
+    public String getTheme() {
+        return getString("theme", "light");
+    }
+
+    public String getDateFormat() {
+        return getString("dateFormat", "yyyy-MM-dd");
+    }
+
+    public String getCurrency() {
+        return getString("currency", "CNY");
+    }
+
+    /**
+     * 全部设置的只读Map
+     */
+    public Map<String, Object> asMap() {
+        return values;
+    }
+}
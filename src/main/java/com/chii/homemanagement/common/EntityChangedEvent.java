@@ -0,0 +1,36 @@
+package com.chii.homemanagement.common;
+
+import com.chii.homemanagement.entity.Entity;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 实体变更事件
+ * 实体被创建、修改或删除后发布，用于计算仪表盘统计的增量
+ */
+@Getter
+public class EntityChangedEvent extends ApplicationEvent {
+
+    /**
+     * 变更前的实体，创建时为空
+     */
+    private final Entity before;
+
+    /**
+     * 变更后的实体，删除时为空
+     */
+    private final Entity after;
+
+    public EntityChangedEvent(Object source, Entity before, Entity after) {
+        super(source);
+        this.before = before;
+        this.after = after;
+    }
+
+    /**
+     * 实体所属用户ID
+     */
+    public Long getUserId() {
+        return after != null ? after.getUserId() : before.getUserId();
+    }
+}
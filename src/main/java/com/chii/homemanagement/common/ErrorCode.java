@@ -2,6 +2,9 @@ package com.chii.homemanagement.common;
 
 import lombok.Getter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 错误码枚举
  */
@@ -62,6 +65,14 @@ public enum ErrorCode {
     DATA_HAS_BEEN_LOCKED(6005, "数据已被锁定"),
     DATA_VALIDATE_FAILED(6006, "数据验证失败");
 
+    private static final Map<Integer, ErrorCode> BY_CODE = new HashMap<>();
+
+    static {
+        for (ErrorCode ele : values()) {
+            BY_CODE.putIfAbsent(ele.code, ele);
+        }
+    }
+
     private final Integer code;
     private final String message;
 
@@ -92,11 +103,6 @@ public enum ErrorCode {
      * @return 对应的枚举对象
      */
     public static ErrorCode getByCode(Integer code) {
-        for (ErrorCode ele : values()) {
-            if (ele.getCode().equals(code)) {
-                return ele;
-            }
-        }
-        return COMMON_FAIL;
+        return BY_CODE.getOrDefault(code, COMMON_FAIL);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.chii.homemanagement.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导入结果
+ */
+@Data
+@Schema(description = "批量导入结果")
+public class ImportResult {
+
+    /**
+     * 最多返回的错误明细数量
+     */
+    private static final int MAX_ERRORS = 1000;
+
+    @Schema(description = "读取的数据行数")
+    private int total;
+
+    @Schema(description = "导入成功的行数")
+    private int succeeded;
+
+    @Schema(description = "导入失败的行数")
+    private int failed;
+
+    @Schema(description = "错误明细，最多返回1000条")
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * 记录一行导入失败
+     *
+     * @param row     行号（从1开始，含表头）
+     * @param message 错误信息
+     */
+    public void addError(int row, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    /**
+     * 单行错误
+     *
+     * @param row     行号
+     * @param message 错误信息
+     */
+    public record RowError(int row, String message) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.chii.homemanagement.common;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 当前登录用户
+ * 作为认证信息中的主体，携带用户ID和角色；携带用户ID的JWT令牌可直接由声明构建，无需查询用户表
+ */
+public class LoginUser implements UserDetails {
+
+    private final Long userId;
+
+    private final String username;
+
+    /**
+     * 密码哈希，仅在登录校验时存在，由令牌构建时为null
+     */
+    private final String password;
+
+    /**
+     * 角色列表，如USER、ADMIN
+     */
+    private final List<String> roles;
+
+    private final List<GrantedAuthority> authorities;
+
+    public LoginUser(Long userId, String username, String password, List<String> roles) {
+        this.userId = userId;
+        this.username = username;
+        this.password = password;
+        this.roles = roles != null ? List.copyOf(roles) : Collections.emptyList();
+        List<GrantedAuthority> list = new ArrayList<>(this.roles.size() + 1);
+        list.add(new SimpleGrantedAuthority("ROLE_USER"));
+        for (String role : this.roles) {
+            if (!"USER".equals(role)) {
+                list.add(new SimpleGrantedAuthority("ROLE_" + role));
+            }
+        }
+        this.authorities = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 解析用户表中以逗号分隔的角色字段
+     *
+     * @param roles 角色字段
+     * @return 角色列表
+     */
+    public static List<String> parseRoles(String roles) {
+        if (roles == null || roles.isBlank()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(roles.split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .toList();
+    }
+
+    /**
+     * 获取当前请求的登录用户
+     *
+     * @return 登录用户，未登录时返回null
+     */
+    public static LoginUser current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof LoginUser loginUser) {
+            return loginUser;
+        }
+        return null;
+    }
+
+    /**
+     * 获取当前请求的登录用户ID
+     *
+     * @return 用户ID，未登录时返回null
+     */
+    public static Long currentUserId() {
+        LoginUser loginUser = current();
+        return loginUser != null ? loginUser.getUserId() : null;
+    }
+
+    /**
+     * 返回使用新密码哈希的副本
+     *
+     * @param newPassword 新密码哈希
+     * @return 登录用户
+     */
+    public LoginUser withPassword(String newPassword) {
+        return new LoginUser(userId, username, newPassword, roles);
+    }
+
+    /**
+     * 是否拥有指定角色
+     *
+     * @param role 角色，如ADMIN
+     * @return 是否拥有
+     */
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return "LoginUser[userId=" + userId + ", username=" + username + ", roles=" + roles + "]";
+    }
+}
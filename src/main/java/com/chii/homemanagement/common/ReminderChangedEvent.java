@@ -0,0 +1,29 @@
+package com.chii.homemanagement.common;
+
+import com.chii.homemanagement.entity.Reminder;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 提醒变更事件
+ * 提醒被创建、修改、删除或处理后发布，用于向前端推送提醒状态变化
+ */
+@Getter
+public class ReminderChangedEvent extends ApplicationEvent {
+
+    /**
+     * 变更后的提醒，删除时为删除前的提醒
+     */
+    private final Reminder reminder;
+
+    /**
+     * 变更类型: created, updated, deleted, processed
+     */
+    private final String action;
+
+    public ReminderChangedEvent(Object source, Reminder reminder, String action) {
+        super(source);
+        this.reminder = reminder;
+        this.action = action;
+    }
+}
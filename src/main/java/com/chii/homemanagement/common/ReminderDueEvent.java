@@ -0,0 +1,33 @@
+package com.chii.homemanagement.common;
+
+import com.chii.homemanagement.entity.Reminder;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 提醒到期事件
+ * 提醒在到期时刻被标记为已提醒后发布，由各通知渠道监听处理
+ */
+@Getter
+public class ReminderDueEvent extends ApplicationEvent {
+
+    /**
+     * 到期的提醒
+     */
+    private final Reminder reminder;
+
+    /**
+     * 发布方是否已批量写入通知发件箱，已写入时监听方不再逐条写入
+     */
+    private final boolean outboxQueued;
+
+    public ReminderDueEvent(Object source, Reminder reminder) {
+        this(source, reminder, false);
+    }
+
+    public ReminderDueEvent(Object source, Reminder reminder, boolean outboxQueued) {
+        super(source);
+        this.reminder = reminder;
+        this.outboxQueued = outboxQueued;
+    }
+}
@@ -0,0 +1,28 @@
+package com.chii.homemanagement.common;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 设置变更事件
+ * 系统设置或用户个人设置保存、删除后发布，事务提交后刷新本地设置缓存
+ */
+@Getter
+public class SettingsChangedEvent extends ApplicationEvent {
+
+    /**
+     * 用户ID，为空表示系统设置
+     */
+    private final Long userId;
+
+    /**
+     * 变更后的缓存版本号
+     */
+    private final long version;
+
+    public SettingsChangedEvent(Object source, Long userId, long version) {
+        super(source);
+        this.userId = userId;
+        this.version = version;
+    }
+}
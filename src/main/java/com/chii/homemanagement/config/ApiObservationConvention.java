@@ -0,0 +1,37 @@
+package com.chii.homemanagement.config;
+
+import com.chii.homemanagement.common.ErrorCode;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * 请求观测约定
+ * 在http.server.requests上增加code标签，取值为响应ApiResponse中错误码对应的ErrorCode名称，
+ * 业务错误大多以HTTP 200返回，只看status无法区分；响应不是ApiResponse时为NONE
+ */
+public class ApiObservationConvention extends DefaultServerRequestObservationConvention {
+
+    /**
+     * 保存ApiResponse错误码的请求属性
+     */
+    public static final String API_CODE_ATTRIBUTE = ApiObservationConvention.class.getName() + ".code";
+
+    private static final KeyValue CODE_NONE = KeyValue.of("code", "NONE");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(code(context));
+    }
+
+    private KeyValue code(ServerRequestObservationContext context) {
+        Object code = context.getCarrier().getAttribute(API_CODE_ATTRIBUTE);
+        if (!(code instanceof Integer value)) {
+            return CODE_NONE;
+        }
+        ErrorCode errorCode = ErrorCode.getByCode(value);
+        // 未定义的错误码统一归为COMMON_FAIL，标签取值有限
+        return KeyValue.of("code", errorCode.name());
+    }
+}
@@ -0,0 +1,37 @@
+package com.chii.homemanagement.config;
+
+import com.chii.homemanagement.common.CurrentUser;
+import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.common.LoginUser;
+import com.chii.homemanagement.exception.BusinessException;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * 当前登录用户参数解析器
+ * 从认证信息中的{@link LoginUser}取值，不访问数据库
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        if (!parameter.hasParameterAnnotation(CurrentUser.class)) {
+            return false;
+        }
+        Class<?> type = parameter.getParameterType();
+        return Long.class.equals(type) || LoginUser.class.equals(type);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        LoginUser loginUser = LoginUser.current();
+        if (loginUser == null || loginUser.getUserId() == null) {
+            throw new BusinessException(ErrorCode.USER_NOT_LOGIN.getCode(), ErrorCode.USER_NOT_LOGIN.getMessage());
+        }
+        return LoginUser.class.equals(parameter.getParameterType()) ? loginUser : loginUser.getUserId();
+    }
+}
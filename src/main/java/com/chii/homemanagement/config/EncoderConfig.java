@@ -1,15 +1,70 @@
 package com.chii.homemanagement.config;
 
+import com.chii.homemanagement.util.TimedPasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+/**
+ * 密码编码器配置
+ * BCrypt强度可直接配置，也可按目标耗时在启动时自动选择；
+ * 强度低于当前配置的已有密码会在用户下次登录成功时自动以新强度重新加密
+ */
 @Configuration
+@Slf4j
 public class EncoderConfig {
 
+    private static final int MIN_STRENGTH = 10;
+
+    private static final int MAX_STRENGTH = 14;
+
+    /**
+     * BCrypt强度，target-hash-ms大于0时作为自动选择的下限
+     */
+    @Value("${security.password.bcrypt-strength:10}")
+    private int strength;
+
+    /**
+     * 单次哈希的目标耗时（毫秒），0表示不自动选择
+     */
+    @Value("${security.password.target-hash-ms:0}")
+    private long targetHashMs;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int effectiveStrength = targetHashMs > 0 ? tuneStrength() : Math.max(4, Math.min(31, strength));
+        log.info("密码编码器: BCrypt强度={}", effectiveStrength);
+        long slowThresholdMs = targetHashMs > 0 ? targetHashMs * 3 : 1000;
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(effectiveStrength), slowThresholdMs);
+    }
+
+    /**
+     * 选择耗时不超过目标值的最大强度（强度每加1耗时翻倍）
+     */
+    private int tuneStrength() {
+        int chosen = Math.max(MIN_STRENGTH, strength);
+        long elapsedMs = measure(chosen);
+        while (chosen < MAX_STRENGTH && elapsedMs * 2 <= targetHashMs) {
+            chosen++;
+            elapsedMs *= 2;
+        }
+        log.info("按目标耗时{}ms选择BCrypt强度: {}, 预计耗时{}ms", targetHashMs, chosen, elapsedMs);
+        return chosen;
+    }
+
+    private long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        // 预热后取多次中的最小值，减少JIT和调度的影响
+        encoder.encode("warmup");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode("benchmark");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Math.max(1, best / 1_000_000);
     }
-}
\ No newline at end of file
+}
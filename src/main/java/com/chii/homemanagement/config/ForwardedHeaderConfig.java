@@ -1,8 +1,12 @@
 package com.chii.homemanagement.config;
 
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.ForwardedHeaderFilter;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
 
 /**
  * 转发头配置
@@ -12,14 +16,32 @@ import org.springframework.web.filter.ForwardedHeaderFilter;
 public class ForwardedHeaderConfig {
 
     /**
-     * 创建 ForwardedHeaderFilter 实例
-     * 此过滤器将处理 X-Forwarded-Host, X-Forwarded-Port, X-Forwarded-Proto 等HTTP头，
-     * 使Spring MVC能正确生成重定向URL和绝对URLs
+     * 受信任的代理地址（正则表达式），为空时使用Tomcat默认值（回环和内网地址）；
+     * 部署在负载均衡之后时应配置为负载均衡的地址
+     */
+    @Value("${security.trusted-proxies:}")
+    private String trustedProxies;
+
+    /**
+     * 创建 RemoteIpFilter 实例
+     * 此过滤器处理 X-Forwarded-For, X-Forwarded-Proto, X-Forwarded-Host, X-Forwarded-Port 等HTTP头，
+     * 只有直接连接的对端是受信任代理时才采用这些头；客户端地址从X-Forwarded-For右侧开始跳过受信任代理，
+     * 取第一个不受信任的地址，客户端自行添加在左侧的地址不会被采用。
+     * 排在所有过滤器之前，登录限流、安全配置和监控指标看到的都是解析后的客户端地址
      *
-     * @return ForwardedHeaderFilter 实例
+     * @return RemoteIpFilter 注册信息
      */
     @Bean
-    public ForwardedHeaderFilter forwardedHeaderFilter() {
-        return new ForwardedHeaderFilter();
+    public FilterRegistrationBean<RemoteIpFilter> remoteIpFilter() {
+        FilterRegistrationBean<RemoteIpFilter> registration = new FilterRegistrationBean<>(new RemoteIpFilter());
+        registration.addInitParameter("remoteIpHeader", "X-Forwarded-For");
+        registration.addInitParameter("protocolHeader", "X-Forwarded-Proto");
+        registration.addInitParameter("hostHeader", "X-Forwarded-Host");
+        registration.addInitParameter("portHeader", "X-Forwarded-Port");
+        if (StringUtils.hasText(trustedProxies)) {
+            registration.addInitParameter("internalProxies", trustedProxies);
+        }
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
     }
-} 
\ No newline at end of file
+}
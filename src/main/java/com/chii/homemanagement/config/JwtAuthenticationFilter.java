@@ -1,5 +1,7 @@
 package com.chii.homemanagement.config;
 
+import com.chii.homemanagement.service.TokenRevocationService;
+import com.chii.homemanagement.util.JwtAuthenticationCache;
 import com.chii.homemanagement.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,6 +12,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,12 +25,20 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String EVENT_STREAM_PATH = "/api/events/stream";
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -40,32 +51,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
         String jwt = null;
+        String streamTicket = null;
 
         // 检查Authorization头是否存在且格式正确
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.getUsernameFromToken(jwt);
-            } catch (Exception e) {
-                logger.warn("JWT令牌解析失败: " + e.getMessage());
-            }
+        } else if (EVENT_STREAM_PATH.equals(request.getServletPath())) {
+            // 浏览器EventSource无法设置请求头，实时事件接口通过参数传递短期一次性订阅票据，不接受访问令牌
+            streamTicket = request.getParameter("ticket");
         }
 
-        // 如果成功提取了用户名且当前SecurityContext中没有认证信息
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // 加载用户详情
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            // 验证令牌
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+        // 如果提取了令牌且当前SecurityContext中没有认证信息
+        if ((jwt != null || streamTicket != null) && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = jwt != null ? resolveUserDetails(jwt) : resolveStreamTicket(streamTicket);
+            if (userDetails != null) {
                 // 创建认证对象
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                
+
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
+
                 // 设置认证信息到SecurityContext
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
@@ -74,4 +80,76 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 继续过滤链
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 解析令牌对应的用户详情
+     * 已验证过的令牌直接命中缓存；否则只解析一次令牌（同时校验签名和过期时间），
+     * 令牌携带用户ID时直接由声明构建登录用户，早期签发的令牌再按用户名从缓存或数据库加载用户详情。
+     * 两种情况都检查令牌是否已吊销，以及是否签发于用户的令牌失效水位之前（用户已删除、修改过密码或状态）
+     *
+     * @param jwt JWT令牌
+     * @return 用户详情，令牌无效时返回null
+     */
+    private UserDetails resolveUserDetails(String jwt) {
+        JwtAuthenticationCache.CachedToken cached = jwtAuthenticationCache.getByToken(jwt);
+        if (cached != null) {
+            boolean revoked = tokenRevocationService.isRevoked(cached.tokenId(), cached.tokenExpiresAt())
+                    || tokenRevocationService.isRevokedForUser(cached.userDetails().getUsername(), cached.tokenIssuedAt());
+            return revoked ? null : cached.userDetails();
+        }
+
+        JwtUtil.TokenClaims claims;
+        try {
+            claims = jwtUtil.parseOnce(jwt);
+        } catch (Exception e) {
+            logger.warn("JWT令牌解析失败: " + e.getMessage());
+            return null;
+        }
+        String username = claims.subject();
+        // 订阅票据只能在实时事件接口上使用一次，不能作为访问令牌
+        if (username == null || claims.isExpired() || claims.isStreamTicket()
+                || tokenRevocationService.isRevoked(claims.id(), claims.expiresAt())
+                || tokenRevocationService.isRevokedForUser(username, claims.issuedAt())) {
+            return null;
+        }
+
+        UserDetails userDetails = claims.toLoginUser();
+        if (userDetails == null) {
+            userDetails = jwtAuthenticationCache.getByUsername(username);
+        }
+        if (userDetails == null) {
+            try {
+                userDetails = userDetailsService.loadUserByUsername(username);
+            } catch (UsernameNotFoundException e) {
+                logger.warn("JWT令牌对应的用户不存在: " + username);
+                return null;
+            }
+            jwtAuthenticationCache.putUser(userDetails);
+        }
+        jwtAuthenticationCache.putToken(jwt, userDetails, claims);
+        return userDetails;
+    }
+
+    /**
+     * 校验实时事件订阅票据：必须是未过期的订阅票据，且首次使用；使用后立即吊销
+     *
+     * @param ticket 订阅票据
+     * @return 用户详情，票据无效或已使用时返回null
+     */
+    private UserDetails resolveStreamTicket(String ticket) {
+        JwtUtil.TokenClaims claims;
+        try {
+            claims = jwtUtil.parseOnce(ticket);
+        } catch (Exception e) {
+            logger.warn("订阅票据解析失败: " + e.getMessage());
+            return null;
+        }
+        // 吊销成功说明是首次使用，多实例部署时同一票据也只能使用一次
+        if (!claims.isStreamTicket() || claims.subject() == null
+                || tokenRevocationService.isRevokedForUser(claims.subject(), claims.issuedAt())
+                || !tokenRevocationService.revoke(claims)) {
+            return null;
+        }
+        return claims.toLoginUser();
+    }
+}
@@ -0,0 +1,97 @@
+package com.chii.homemanagement.config;
+
+import com.baomidou.dynamic.datasource.DynamicRoutingDataSource;
+import com.chii.homemanagement.service.EventStreamService;
+import com.chii.homemanagement.util.TimedPasswordEncoder;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.jdbc.DataSourcePoolMetrics;
+import org.springframework.boot.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监控指标配置
+ * 指标通过/actuator/prometheus导出。JVM、Tomcat线程池和接口耗时（http.server.requests）由Spring Boot自动注册，
+ * 这里补充错误码标签、每个请求的数据库耗时和报文大小，以及连接池、实时连接和密码哈希的指标
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 在http.server.requests上增加ApiResponse错误码标签
+     */
+    @Bean
+    public ServerRequestObservationConvention apiObservationConvention() {
+        return new ApiObservationConvention();
+    }
+
+    /**
+     * 请求级指标过滤器，排在请求观测过滤器之后、安全过滤器之前，被拒绝的请求也会记录
+     */
+    @Bean
+    public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(MeterRegistry registry) {
+        FilterRegistrationBean<RequestMetricsFilter> registration = new FilterRegistrationBean<>(new RequestMetricsFilter(registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    /**
+     * SQL耗时拦截器，由MyBatis-Plus自动配置加入插件链
+     */
+    @Bean
+    public SqlTimingInterceptor sqlTimingInterceptor() {
+        return new SqlTimingInterceptor();
+    }
+
+    /**
+     * 动态数据源中各连接池的活动、空闲和最大连接数；动态数据源本身不是连接池，Spring Boot无法自动识别
+     */
+    @Bean
+    public MeterBinder dynamicDataSourcePoolMetrics(ObjectProvider<DynamicRoutingDataSource> dataSource,
+                                                    List<DataSourcePoolMetadataProvider> metadataProviders) {
+        return registry -> dataSource.ifAvailable(routing -> routing.getDataSources().forEach((name, pool) ->
+                new DataSourcePoolMetrics(pool, metadataProviders, name, Tags.empty()).bindTo(registry)));
+    }
+
+    /**
+     * 实时事件推送的连接数
+     */
+    @Bean
+    public MeterBinder eventStreamMetrics(EventStreamService eventStreamService) {
+        return registry -> Gauge.builder("events.stream.connections", eventStreamService, EventStreamService::getConnectionCount)
+                .description("当前SSE连接数")
+                .register(registry);
+    }
+
+    /**
+     * 密码哈希的次数、总耗时和最大耗时
+     */
+    @Bean
+    public MeterBinder passwordEncoderMetrics(PasswordEncoder passwordEncoder) {
+        return registry -> {
+            if (!(passwordEncoder instanceof TimedPasswordEncoder timed)) {
+                return;
+            }
+            FunctionTimer.builder("security.password.hash", timed,
+                            TimedPasswordEncoder::getCount, TimedPasswordEncoder::getTotalNanos, TimeUnit.NANOSECONDS)
+                    .description("密码加密和校验")
+                    .register(registry);
+            Gauge.builder("security.password.hash.max", timed, encoder -> encoder.getMaxNanos() / 1e9)
+                    .description("单次密码哈希的最大耗时")
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+}
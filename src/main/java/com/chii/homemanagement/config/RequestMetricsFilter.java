@@ -0,0 +1,211 @@
+package com.chii.homemanagement.config;
+
+import com.chii.homemanagement.util.RequestMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求级指标过滤器
+ * 按接口记录每个请求的数据库耗时、SQL语句数、请求和响应大小；接口耗时和错误码由http.server.requests记录。
+ * 指标对象按“方法+接口路径”缓存，每个请求只增加一次Map查找和少量计数
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final double[] SIZE_BUCKETS = {1024, 10 * 1024, 100 * 1024, 1024 * 1024, 10 * 1024 * 1024};
+
+    private static final double[] STATEMENT_BUCKETS = {1, 2, 5, 10, 20, 50, 100, 500};
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public RequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestMetrics metrics = RequestMetrics.start();
+        CountingResponse countingResponse = new CountingResponse(response);
+        try {
+            chain.doFilter(request, countingResponse);
+        } finally {
+            RequestMetrics.clear();
+            Meters requestMeters = meters.computeIfAbsent(request.getMethod() + " " + uri(request, response),
+                    key -> createMeters(request.getMethod(), key.substring(key.indexOf(' ') + 1)));
+            requestMeters.db.record(metrics.getDbNanos(), TimeUnit.NANOSECONDS);
+            requestMeters.statements.record(metrics.getStatements());
+            long requestSize = request.getContentLengthLong();
+            if (requestSize >= 0) {
+                requestMeters.requestSize.record(requestSize);
+            }
+            // 异步请求（SSE等）的响应仍在继续写入，不记录大小
+            if (!request.isAsyncStarted()) {
+                requestMeters.responseSize.record(countingResponse.bytes);
+            }
+        }
+    }
+
+    /**
+     * 与http.server.requests的uri标签取值一致，未匹配到接口时不使用原始路径，避免标签数量无限增长
+     */
+    private String uri(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        int status = response.getStatus();
+        if (status == HttpServletResponse.SC_NOT_FOUND) {
+            return "NOT_FOUND";
+        }
+        return status >= 300 && status < 400 ? "REDIRECTION" : "UNKNOWN";
+    }
+
+    private Meters createMeters(String method, String uri) {
+        Timer db = Timer.builder("http.server.requests.db")
+                .description("每个请求中SQL执行的总耗时")
+                .tags("method", method, "uri", uri)
+                .register(registry);
+        DistributionSummary statements = DistributionSummary.builder("http.server.db.statements")
+                .description("每个请求执行的SQL语句数")
+                .tags("method", method, "uri", uri)
+                .serviceLevelObjectives(STATEMENT_BUCKETS)
+                .register(registry);
+        DistributionSummary requestSize = DistributionSummary.builder("http.server.request.size")
+                .description("请求体大小")
+                .baseUnit("bytes")
+                .tags("method", method, "uri", uri)
+                .serviceLevelObjectives(SIZE_BUCKETS)
+                .register(registry);
+        DistributionSummary responseSize = DistributionSummary.builder("http.server.response.size")
+                .description("响应体大小")
+                .baseUnit("bytes")
+                .tags("method", method, "uri", uri)
+                .serviceLevelObjectives(SIZE_BUCKETS)
+                .register(registry);
+        return new Meters(db, statements, requestSize, responseSize);
+    }
+
+    private record Meters(Timer db, DistributionSummary statements,
+                          DistributionSummary requestSize, DistributionSummary responseSize) {
+    }
+
+    /**
+     * 统计写出字节数的响应包装，不缓冲内容
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private long bytes;
+
+        private ServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new CountingWriter(super.getWriter()));
+            }
+            return writer;
+        }
+
+        private final class CountingOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            CountingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                delegate.write(b);
+                bytes++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                delegate.write(b, off, len);
+                bytes += len;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                delegate.setWriteListener(listener);
+            }
+        }
+
+        /**
+         * 按字符数近似统计，通过Writer输出的只有少量页面
+         */
+        private final class CountingWriter extends Writer {
+
+            private final Writer delegate;
+
+            CountingWriter(Writer delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(char[] buffer, int off, int len) throws IOException {
+                delegate.write(buffer, off, len);
+                bytes += len;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+        }
+    }
+}
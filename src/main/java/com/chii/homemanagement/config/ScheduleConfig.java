@@ -1,11 +1,7 @@
 package com.chii.homemanagement.config;
 
-import com.chii.homemanagement.entity.Entity;
-import com.chii.homemanagement.entity.Reminder;
-import com.chii.homemanagement.entity.User;
-import com.chii.homemanagement.service.EntityService;
 import com.chii.homemanagement.service.ReminderService;
-import com.chii.homemanagement.service.UserService;
+import com.chii.homemanagement.util.ShardedJobRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,10 +9,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.List;
-
 /**
  * 定时任务配置
  */
@@ -28,126 +20,45 @@ public class ScheduleConfig {
 
     @Autowired
     private ReminderService reminderService;
-    
-    @Autowired
-    private EntityService entityService;
-    
+
     @Autowired
-    private UserService userService;
+    private ShardedJobRunner shardedJobRunner;
 
     /**
      * 每天凌晨1点处理提醒状态
-     * 将到期提醒的状态从pending更新为sent
+     * 补发调度器遗漏的往日待提醒记录：标记为sent并发布到期事件，按用户ID范围分片并发执行
      */
     @Scheduled(cron = "0 0 1 * * ?")
     public void processReminders() {
-        reminderService.processExpiredReminders();
+        int count = shardedJobRunner.run("processReminders",
+                shard -> reminderService.processExpiredReminders(shard.fromUserId(), shard.toUserId()));
+        logger.info("提醒状态处理任务执行完成，共更新 {} 条提醒", count);
     }
 
+    /**
+     * 每天凌晨2点为重复提醒生成滚动窗口内的后续提醒，按用户ID范围分片并发执行
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void materializeRecurringReminders() {
+        int count = shardedJobRunner.run("materializeRecurringReminders",
+                shard -> reminderService.materializeRecurringReminders(shard.fromUserId(), shard.toUserId()));
+        logger.info("重复提醒生成任务执行完成，共生成 {} 条提醒", count);
+    }
 
     /**
      * 每天凌晨3点执行，检查即将过期和已过期的物品，生成提醒
+     * 以集合查询找出缺少有效提醒的物品，按用户ID范围分片并发执行，分批批量插入
      */
     @Scheduled(cron = "0 0 3 * * ?")
     public void checkExpiringAndExpiredItems() {
         logger.info("开始执行物品过期检查任务");
-        
-        // 获取所有用户
-        List<User> users = userService.getAllUsers();
-        
-        for (User user : users) {
-            try {
-                Long userId = user.getUserId();
-                logger.info("检查用户 ID: {} 的物品过期情况", userId);
-                
+
+        int count = shardedJobRunner.run("checkExpiringAndExpiredItems", shard ->
                 // 检查即将过期的物品（30天内）
-                checkExpiringItems(userId, 30);
-                
-                // 检查已过期的物品
-                checkExpiredItems(userId);
-                
-            } catch (Exception e) {
-                logger.error("处理用户 ID: {} 的过期物品时发生错误", user.getUserId(), e);
-            }
-        }
-        
-        logger.info("物品过期检查任务执行完成");
-    }
-    
-    /**
-     * 检查即将过期的物品并生成提醒
-     * 
-     * @param userId 用户ID
-     * @param days 提前天数
-     */
-    private void checkExpiringItems(Long userId, int days) {
-        List<Entity> expiringEntities = entityService.listExpiringEntities(days, userId);
-        logger.info("用户 ID: {} 有 {} 个物品即将在{}天内过期", userId, expiringEntities.size(), days);
-        
-        for (Entity entity : expiringEntities) {
-            // 检查是否已经存在相同类型的提醒
-            List<Reminder> existingReminders = reminderService.getRemindersByEntityId(entity.getId());
-            boolean hasWarrantyReminder = existingReminders.stream()
-                    .anyMatch(r -> "warranty".equals(r.getType()) && 
-                              ("pending".equals(r.getStatus()) || "sent".equals(r.getStatus())));
-            
-            if (!hasWarrantyReminder) {
-                // 创建保修到期提醒
-                Reminder reminder = Reminder.builder()
-                        .entityId(entity.getId())
-                        .type("warranty")
-                        .content("物品 [" + entity.getName() + "] 的保修将在" + days + "天内到期，到期日期：" + entity.getWarrantyEndDate())
-                        .remindDate(LocalDate.now())
-                        .status("pending")
-                        .userId(userId)
-                        .notificationMethods("system")
-                        .daysInAdvance(days)
-                        .isRecurring(false)
-                        .createTime(LocalDateTime.now())
-                        .updateTime(LocalDateTime.now())
-                        .build();
-                
-                reminderService.createReminder(reminder);
-                logger.info("为物品 ID: {} 创建了保修到期提醒", entity.getId());
-            }
-        }
-    }
-    
-    /**
-     * 检查已过期的物品并生成提醒
-     * 
-     * @param userId 用户ID
-     */
-    private void checkExpiredItems(Long userId) {
-        List<Entity> expiredEntities = entityService.listExpiredEntities(userId);
-        logger.info("用户 ID: {} 有 {} 个物品已过期", userId, expiredEntities.size());
-        
-        for (Entity entity : expiredEntities) {
-            // 检查是否已经存在相同类型的提醒
-            List<Reminder> existingReminders = reminderService.getRemindersByEntityId(entity.getId());
-            boolean hasExpiryReminder = existingReminders.stream()
-                    .anyMatch(r -> "expiry".equals(r.getType()) && 
-                              ("pending".equals(r.getStatus()) || "sent".equals(r.getStatus())));
-            
-            if (!hasExpiryReminder) {
-                // 创建物品过期提醒
-                Reminder reminder = Reminder.builder()
-                        .entityId(entity.getId())
-                        .type("expiry")
-                        .content("物品 [" + entity.getName() + "] 的保修已于 " + entity.getWarrantyEndDate() + " 过期，请注意处理")
-                        .remindDate(LocalDate.now())
-                        .status("pending")
-                        .userId(userId)
-                        .notificationMethods("system")
-                        .daysInAdvance(0)
-                        .isRecurring(false)
-                        .createTime(LocalDateTime.now())
-                        .updateTime(LocalDateTime.now())
-                        .build();
-                
-                reminderService.createReminder(reminder);
-                logger.info("为物品 ID: {} 创建了过期提醒", entity.getId());
-            }
-        }
+                reminderService.generateExpiringWarrantyReminders(30, shard.fromUserId(), shard.toUserId())
+                        // 检查已过期的物品
+                        + reminderService.generateExpiredWarrantyReminders(shard.fromUserId(), shard.toUserId()));
+
+        logger.info("物品过期检查任务执行完成，共创建 {} 条提醒", count);
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,21 @@
 package com.chii.homemanagement.config;
 
+import com.chii.homemanagement.service.TokenRevocationService;
 import com.chii.homemanagement.service.UserService;
+import com.chii.homemanagement.util.JwtAuthenticationCache;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.MetricsEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -13,14 +24,21 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
 import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String EVENT_STREAM_PATH = "/api/events/stream";
+
     @Autowired
     private UserService userService;
     
@@ -30,21 +48,58 @@ public class SecurityConfig {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    /**
+     * 允许抓取监控指标的网段，多个用逗号分隔；默认只允许本机，
+     * 负载均衡通常位于内网，放行内网网段会使经负载均衡转发的外部请求也能抓取指标
+     */
+    @Value("${metrics.scrape.allowed-networks:127.0.0.1/32,::1/128}")
+    private List<String> scrapeNetworks;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(authorizeRequests ->
                         authorizeRequests
                                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // 明确允许所有OPTIONS请求
+                                // 实时事件流结束时的异步再次分发，首次请求已用订阅票据完成认证；其他接口的异步分发仍需认证
+                                .requestMatchers(request -> request.getDispatcherType() == DispatcherType.ASYNC
+                                        && EVENT_STREAM_PATH.equals(request.getServletPath())).permitAll()
 //                                .requestMatchers("/test","/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/auth/**", "/api/auth/**", "/css/**", "/js/**", "/img/**", "/static/**", "/webjars/**", "/uploads/**").permitAll()
                                 .requestMatchers("/test","/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/api/auth/**","/uploads/**").permitAll()
+                                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                                // Prometheus无法携带登录令牌，按来源网段放行；跨主机抓取时应使用单独的管理端口，不经过负载均衡
+                                .requestMatchers(EndpointRequest.to(PrometheusScrapeEndpoint.class)).access(scrapeAccess())
+                                // 指标明细包含接口路径和运行状态，仅管理员可查看
+                                .requestMatchers(EndpointRequest.to(MetricsEndpoint.class)).hasRole("ADMIN")
                                 .anyRequest().authenticated()
                 )
+                // 未认证（令牌无效、已吊销或用户已删除）时返回401，前端据此刷新令牌或跳转登录
+                .exceptionHandling(exceptions ->
+                        exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
                 // 禁用Spring Security表单登录，我们使用自定义的REST API登录
                 .formLogin(formLogin -> formLogin.disable())
                 .logout(logout ->
                         logout
                                 .logoutUrl("/api/auth/logout")  // 修改登出URL与前端一致
+                                .addLogoutHandler((request, response, authentication) -> {
+                                    // 吊销当前访问令牌并清除认证缓存
+                                    String header = request.getHeader("Authorization");
+                                    if (header != null && header.startsWith("Bearer ")) {
+                                        String token = header.substring(7);
+                                        tokenRevocationService.revoke(token);
+                                        jwtAuthenticationCache.evictToken(token);
+                                    }
+                                    // 同时吊销刷新令牌（通过请求头或参数传递）
+                                    String refreshToken = request.getHeader("X-Refresh-Token");
+                                    tokenRevocationService.revoke(refreshToken != null ? refreshToken : request.getParameter("refreshToken"));
+                                })
                                 .logoutSuccessUrl("/auth/login?logout=true")
                                 .permitAll()
                 )
@@ -65,11 +120,23 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private AuthorizationManager<RequestAuthorizationContext> scrapeAccess() {
+        List<IpAddressMatcher> networks = scrapeNetworks.stream()
+                .map(String::trim)
+                .filter(network -> !network.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        return (authentication, context) -> new AuthorizationDecision(
+                networks.stream().anyMatch(network -> network.matches(context.getRequest())));
+    }
+
     @Bean
     public AuthenticationManager authenticationManager() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        // 密码哈希强度低于当前配置时，登录成功后自动重新加密
+        authProvider.setUserDetailsPasswordService(userService);
         return new ProviderManager(authProvider);
     }
 } 
\ No newline at end of file
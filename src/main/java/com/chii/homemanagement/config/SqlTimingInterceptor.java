@@ -0,0 +1,41 @@
+package com.chii.homemanagement.config;
+
+import com.chii.homemanagement.util.RequestMetrics;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * SQL耗时拦截器
+ * 将请求线程上执行的SQL耗时和语句数累加到当前请求的统计中，不在请求中时直接执行
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "flushStatements", args = {})
+})
+public class SqlTimingInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics == null) {
+            return invocation.proceed();
+        }
+        boolean outermost = metrics.enter();
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            metrics.exit(outermost, System.nanoTime() - start, !"flushStatements".equals(invocation.getMethod().getName()));
+        }
+    }
+}
@@ -2,12 +2,17 @@ package com.chii.homemanagement.controller;
 
 import com.chii.homemanagement.common.ApiResponse;
 import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.common.LoginUser;
 import com.chii.homemanagement.entity.User;
+import com.chii.homemanagement.service.LoginThrottleService;
+import com.chii.homemanagement.service.TokenRevocationService;
 import com.chii.homemanagement.service.UserService;
 import com.chii.homemanagement.util.JwtUtil;
 
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,7 +22,6 @@ import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -44,21 +48,33 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+
     /**
      * 用户登录
      *
      * @param loginRequest 登录请求参数
+     * @param request      HTTP请求
      * @return 登录结果
      */
     @PostMapping("/login")
     @Operation(summary = "用户登录", description = "用户登录接口，返回用户信息和token")
-    public ApiResponse<Map<String, Object>> login(@RequestBody Map<String, String> loginRequest) {
+    public ApiResponse<Map<String, Object>> login(@RequestBody Map<String, String> loginRequest, HttpServletRequest request) {
         String username = loginRequest.get("username");
         String password = loginRequest.get("password");
         
         if (username == null || password == null) {
             return ApiResponse.error(ErrorCode.PARAM_NOT_COMPLETE.getCode(), ErrorCode.PARAM_NOT_COMPLETE.getMessage());
         }
+
+        // 在计算密码哈希之前限流，避免暴力破解消耗CPU；客户端地址已由RemoteIpFilter按受信任代理解析
+        if (!loginThrottleService.tryAcquire(username, request.getRemoteAddr())) {
+            return ApiResponse.error(ErrorCode.TOO_MANY_REQUESTS.getCode(), "登录尝试过于频繁，请稍后再试");
+        }
         
         try {
             // 使用Spring Security进行身份验证
@@ -67,19 +83,20 @@ public class AuthController {
             );
             
             // 如果没有抛出异常，则认证成功
+            loginThrottleService.onSuccess(username, request.getRemoteAddr());
             SecurityContextHolder.getContext().setAuthentication(authentication);
             
             // 获取认证用户详情
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            LoginUser loginUser = (LoginUser) authentication.getPrincipal();
             
             // 获取用户实体信息
-            User user = userService.getUserByUsername(userDetails.getUsername());
+            User user = userService.getUserByUsername(loginUser.getUsername());
             
-            // 生成JWT令牌
-            String token = jwtUtil.generateToken(userDetails.getUsername());
+            // 生成JWT令牌（携带用户ID和角色）
+            String token = jwtUtil.generateToken(loginUser);
             
             // 生成刷新令牌
-            String refreshToken = jwtUtil.generateRefreshToken(userDetails.getUsername());
+            String refreshToken = jwtUtil.generateRefreshToken(loginUser.getUsername());
             
             // 准备返回数据
             Map<String, Object> responseData = new HashMap<>();
@@ -152,13 +169,21 @@ public class AuthController {
         }
         
         try {
-            // 验证刷新令牌
-            if (!jwtUtil.validateRefreshToken(refreshTokenValue)) {
+            // 验证刷新令牌（只解析一次）
+            JwtUtil.TokenClaims claims;
+            try {
+                claims = jwtUtil.parseOnce(refreshTokenValue);
+            } catch (JwtException | IllegalArgumentException e) {
+                return ApiResponse.error(ErrorCode.REFRESH_TOKEN_INVALID.getCode(), ErrorCode.REFRESH_TOKEN_INVALID.getMessage());
+            }
+            if (!claims.isRefreshToken() || claims.isExpired()
+                    || tokenRevocationService.isRevoked(claims.id(), claims.expiresAt())
+                    || tokenRevocationService.isRevokedForUser(claims.subject(), claims.issuedAt())) {
                 return ApiResponse.error(ErrorCode.REFRESH_TOKEN_INVALID.getCode(), ErrorCode.REFRESH_TOKEN_INVALID.getMessage());
             }
             
             // 获取用户名
-            String username = jwtUtil.getUsernameFromToken(refreshTokenValue);
+            String username = claims.subject();
             
             // 检查用户是否存在
             User user = userService.getUserByUsername(username);
@@ -166,8 +191,14 @@ public class AuthController {
                 return ApiResponse.error(ErrorCode.USER_ACCOUNT_NOT_EXIST.getCode(), ErrorCode.USER_ACCOUNT_NOT_EXIST.getMessage());
             }
             
-            // 生成新的访问令牌和刷新令牌
-            String newToken = jwtUtil.generateToken(username);
+            // 刷新令牌只能使用一次：先吊销，只有完成吊销的请求才能签发新令牌，并发刷新时其余请求失败
+            if (!tokenRevocationService.revoke(claims)) {
+                return ApiResponse.error(ErrorCode.REFRESH_TOKEN_INVALID.getCode(), ErrorCode.REFRESH_TOKEN_INVALID.getMessage());
+            }
+
+            // 生成新的访问令牌和刷新令牌，角色以刷新时的用户信息为准
+            LoginUser loginUser = new LoginUser(user.getUserId(), user.getUsername(), null, LoginUser.parseRoles(user.getRoles()));
+            String newToken = jwtUtil.generateToken(loginUser);
             String newRefreshToken = jwtUtil.generateRefreshToken(username);
             
             // 准备返回数据
@@ -0,0 +1,72 @@
+package com.chii.homemanagement.controller;
+
+import com.chii.homemanagement.common.ApiResponse;
+import com.chii.homemanagement.common.BackupManifest;
+import com.chii.homemanagement.common.CurrentUser;
+import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.common.LoginUser;
+import com.chii.homemanagement.exception.BusinessException;
+import com.chii.homemanagement.service.BackupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 备份管理控制器
+ * 恢复会覆盖全部数据，只能通过命令行执行，见BackupRestoreRunner
+ */
+@RestController
+@RequestMapping("/api/backups")
+@Tag(name = "备份管理", description = "数据备份相关接口，仅管理员可用")
+@Slf4j
+public class BackupController {
+
+    @Autowired
+    private BackupService backupService;
+
+    /**
+     * 获取备份列表
+     */
+    @GetMapping
+    @Operation(summary = "获取备份列表", description = "获取已完成的备份，按时间升序")
+    public ApiResponse<List<BackupManifest>> listBackups(@Parameter(hidden = true) @CurrentUser LoginUser currentUser) {
+        checkAdmin(currentUser);
+        return ApiResponse.success(backupService.listBackups());
+    }
+
+    /**
+     * 立即备份
+     */
+    @PostMapping
+    @Operation(summary = "立即备份", description = "立即执行一次备份，默认在上一个备份的基础上增量备份")
+    public ApiResponse<BackupManifest> backup(
+            @Parameter(description = "是否强制全量备份") @RequestParam(value = "full", defaultValue = "false") boolean full,
+            @Parameter(hidden = true) @CurrentUser LoginUser currentUser) {
+        checkAdmin(currentUser);
+        log.info("手动备份: full={}, 操作人={}", full, currentUser.getUsername());
+        return ApiResponse.success(backupService.backup(full));
+    }
+
+    /**
+     * 校验备份
+     */
+    @PostMapping("/{id}/verify")
+    @Operation(summary = "校验备份", description = "校验备份链是否完整以及各分卷的校验和，返回发现的问题")
+    public ApiResponse<List<String>> verify(
+            @Parameter(description = "备份ID") @PathVariable("id") String id,
+            @Parameter(hidden = true) @CurrentUser LoginUser currentUser) {
+        checkAdmin(currentUser);
+        return ApiResponse.success(backupService.verify(id));
+    }
+
+    private void checkAdmin(LoginUser currentUser) {
+        if (!currentUser.hasRole("ADMIN")) {
+            throw new BusinessException(ErrorCode.PERMISSION_DENIED.getCode(), ErrorCode.PERMISSION_DENIED.getMessage());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.chii.homemanagement.controller;
 
 import com.chii.homemanagement.common.ApiResponse;
+import com.chii.homemanagement.common.CurrentUser;
 import com.chii.homemanagement.common.ErrorCode;
 import com.chii.homemanagement.entity.Entity;
 import com.chii.homemanagement.entity.Reminder;
@@ -48,7 +49,7 @@ public class DashboardController {
      */
     @GetMapping("/statistics")
     @Operation(summary = "获取仪表盘统计数据", description = "获取仪表盘展示所需的统计数据")
-    public ApiResponse<Map<String, Object>> getDashboardStatistics(@RequestParam Long userId) {
+    public ApiResponse<Map<String, Object>> getDashboardStatistics(@Parameter(hidden = true) @CurrentUser Long userId) {
         try {
             log.info("获取仪表盘统计数据: userId={}", userId);
             Map<String, Object> result = new HashMap<>();
@@ -187,7 +188,7 @@ public class DashboardController {
     @Operation(summary = "获取最近添加的实体", description = "获取最近添加的实体数据")
     public ApiResponse<List<Entity>> getRecentEntities(
             @RequestParam(defaultValue = "5") Integer limit,
-            @RequestParam Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         try {
             // 这里需要实现获取最近添加实体的逻辑
             List<Entity> recentEntities = entityService.getRecentEntities(userId, limit);
@@ -208,7 +209,7 @@ public class DashboardController {
     @Operation(summary = "获取最近的提醒", description = "获取最近的提醒数据")
     public ApiResponse<List<Reminder>> getRecentReminders(
             @RequestParam(defaultValue = "5") Integer limit,
-            @RequestParam Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         try {
             // 这里需要实现获取最近提醒的逻辑
             List<Reminder> recentReminders = reminderService.getRecentReminders(userId, limit);
@@ -222,7 +223,7 @@ public class DashboardController {
     @GetMapping("/stat/by-parent")
     @Operation(summary = "根据父实体统计子实体", description = "根据父实体统计子实体数量和价值")
     public ApiResponse<List<Object>> statEntitiesByParent(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
 
         try {
             log.info("根据父实体统计子实体: userId={}", userId);
@@ -237,7 +238,7 @@ public class DashboardController {
     @GetMapping("/stat/by-tag")
     @Operation(summary = "根据标签统计物品", description = "根据标签统计物品数量和价值")
     public ApiResponse<List<Object>> statEntitiesByTag(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
 
         try {
             log.info("根据标签统计物品: userId={}", userId);
@@ -252,7 +253,7 @@ public class DashboardController {
     @GetMapping("/stat/by-usage-frequency")
     @Operation(summary = "根据使用频率统计物品", description = "根据使用频率统计物品数量")
     public ApiResponse<List<Object>> statEntitiesByUsageFrequency(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
 
         try {
             log.info("根据使用频率统计物品: userId={}", userId);
@@ -267,7 +268,7 @@ public class DashboardController {
     @GetMapping("/sum-value")
     @Operation(summary = "统计物品总价值", description = "统计所有者物品总价值")
     public ApiResponse<Double> sumEntitiesValue(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
 
         try {
             log.info("统计物品总价值: userId={}", userId);
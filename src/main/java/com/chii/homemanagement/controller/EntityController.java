@@ -3,14 +3,19 @@ package com.chii.homemanagement.controller;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.chii.homemanagement.entity.*;
+import com.chii.homemanagement.service.EntityExportService;
+import com.chii.homemanagement.service.EntityImportService;
 import com.chii.homemanagement.service.EntityService;
 import com.chii.homemanagement.service.EntityTagService;
 import com.chii.homemanagement.service.EntityImageService;
 import com.chii.homemanagement.service.FileStorageService;
 import com.chii.homemanagement.common.ApiResponse;
+import com.chii.homemanagement.common.CurrentUser;
 import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.common.ImportResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -21,11 +26,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -46,6 +53,8 @@ public class EntityController {
     private final EntityTagService entityTagService;
     private final EntityImageService entityImageService;
     private final FileStorageService fileStorageService;
+    private final EntityImportService entityImportService;
+    private final EntityExportService entityExportService;
 
     @GetMapping("/page")
     @Operation(summary = "分页查询实体列表", description = "根据条件分页查询实体列表")
@@ -57,7 +66,7 @@ public class EntityController {
             @Parameter(description = "规格") @RequestParam(value = "specification", required = false) String specification,
             @Parameter(description = "状态") @RequestParam(value = "status", required = false) String status,
             @Parameter(description = "使用频率") @RequestParam(value = "usageFrequency", required = false) String usageFrequency,
-            @Parameter(description = "使用人ID") @RequestParam(value = "userId") Long userId,
+            @Parameter(hidden = true) @CurrentUser Long userId,
             @Parameter(description = "父实体ID") @RequestParam(value = "parentId", required = false) Long parentId) {
 
         try {
@@ -137,6 +146,33 @@ public class EntityController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "批量导入实体", description = "从CSV或XLSX文件批量导入实体，第一行为表头，所属空间和标签按名称匹配，返回每行的错误信息")
+    public ApiResponse<ImportResult> importEntities(
+            @Parameter(description = "CSV或XLSX文件") @RequestParam("file") MultipartFile file,
+            @Parameter(hidden = true) @CurrentUser Long userId) {
+        log.info("批量导入实体: userId={}, 文件={}, 大小={}", userId, file.getOriginalFilename(), file.getSize());
+        return ApiResponse.success(entityImportService.importEntities(file, userId));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "导出实体", description = "以CSV、XLSX或JSON格式导出当前用户的全部实体，逐行写入响应，可选gzip压缩；CSV和XLSX的表头与导入格式一致")
+    public void exportEntities(
+            @Parameter(description = "导出格式：csv、xlsx或json") @RequestParam(value = "format", defaultValue = "csv") String format,
+            @Parameter(description = "是否gzip压缩") @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @Parameter(hidden = true) @CurrentUser Long userId,
+            HttpServletResponse response) throws IOException {
+        EntityExportService.Format exportFormat = EntityExportService.Format.of(format);
+        String filename = "实体-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + "." + exportFormat.getExtension()
+                + (gzip ? ".gz" : "");
+        String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
+        log.info("导出实体: userId={}, 格式={}, gzip={}", userId, exportFormat.getExtension(), gzip);
+
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename);
+        entityExportService.exportEntities(userId, exportFormat, gzip, response.getOutputStream());
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "更新实体", description = "更新实体信息，图片上传请使用 EntityImageController 的上传接口")
     public ApiResponse<Boolean> updateEntity(
@@ -193,7 +229,7 @@ public class EntityController {
     @GetMapping("/tree")
     @Operation(summary = "获取实体树", description = "获取所有者下的实体树结构")
     public ApiResponse<List<Entity>> getEntityTree(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
 
         try {
             log.info("获取实体树: userId={}", userId);
@@ -230,7 +266,7 @@ public class EntityController {
     @Operation(summary = "获取子实体列表", description = "获取指定父实体下的子实体列表")
     public ApiResponse<List<Entity>> listChildEntities(
             @Parameter(description = "父实体ID") @RequestParam(value = "parentId") Long parentId,
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("获取子实体列表: parentId={}, userId={}", parentId, userId);
@@ -245,7 +281,7 @@ public class EntityController {
     @GetMapping("/list/by-user")
     @Operation(summary = "获取用户使用的物品列表", description = "获取指定用户使用的物品列表")
     public ApiResponse<List<Entity>> listEntitiesByUser(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("获取用户使用的物品列表: userId={}", userId);
@@ -260,7 +296,7 @@ public class EntityController {
     @GetMapping("/search")
     @Operation(summary = "搜索实体", description = "根据关键词搜索实体")
     public ApiResponse<List<Entity>> searchEntities(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId,
+            @Parameter(hidden = true) @CurrentUser Long userId,
             @Parameter(description = "关键词") @RequestParam(value = "keyword") String keyword) {
         
         try {
@@ -277,7 +313,7 @@ public class EntityController {
     @Operation(summary = "根据状态获取物品列表", description = "获取指定状态的物品列表")
     public ApiResponse<List<Entity>> listEntitiesByStatus(
             @Parameter(description = "状态: normal-正常, damaged-损坏, discarded-丢弃, expired-过期") @RequestParam(value = "status") String status,
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("根据状态获取物品列表: status={}, userId={}", status, userId);
@@ -293,7 +329,7 @@ public class EntityController {
     @Operation(summary = "获取即将过保的物品列表", description = "获取未来指定天数内即将过保的物品列表")
     public ApiResponse<List<Entity>> listExpiringEntities(
             @Parameter(description = "天数") @RequestParam(value = "days", defaultValue = "30") Integer days,
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("获取即将过保的物品列表: days={}, userId={}", days, userId);
@@ -308,7 +344,7 @@ public class EntityController {
     @GetMapping("/list/expired")
     @Operation(summary = "获取已过保的物品列表", description = "获取已过保的物品列表")
     public ApiResponse<List<Entity>> listExpiredEntities(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("获取已过保的物品列表: userId={}", userId);
@@ -324,7 +360,7 @@ public class EntityController {
     @Operation(summary = "根据标签获取实体列表", description = "获取具有指定标签的实体列表")
     public ApiResponse<List<Entity>> listEntitiesByTag(
             @Parameter(description = "标签ID") @RequestParam(value = "tagId") Long tagId,
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("根据标签获取实体列表: tagId={}, userId={}", tagId, userId);
@@ -341,7 +377,7 @@ public class EntityController {
     public ApiResponse<List<Entity>> listEntitiesByPurchaseDateRange(
             @Parameter(description = "开始日期") @RequestParam(value = "startDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
             @Parameter(description = "结束日期") @RequestParam(value = "endDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("根据购买日期范围获取物品列表: startDate={}, endDate={}, userId={}", startDate, endDate, userId);
@@ -358,7 +394,7 @@ public class EntityController {
     public ApiResponse<List<Entity>> listEntitiesByPriceRange(
             @Parameter(description = "最小价格") @RequestParam(value = "minPrice", required = false) Double minPrice,
             @Parameter(description = "最大价格") @RequestParam(value = "maxPrice", required = false) Double maxPrice,
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("根据价格范围获取物品列表: minPrice={}, maxPrice={}, userId={}", minPrice, maxPrice, userId);
@@ -389,7 +425,7 @@ public class EntityController {
     @Operation(summary = "获取最近添加的实体列表", description = "获取指定天数内添加的实体列表")
     public ApiResponse<List<Entity>> getRecentEntities(
             @Parameter(description = "天数") @RequestParam(value = "days", defaultValue = "7") Integer days,
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("获取最近添加的实体列表: userId={}, days={}", userId, days);
@@ -407,7 +443,7 @@ public class EntityController {
     @Operation(summary = "根据条形码查询实体", description = "根据条形码查询实体信息")
     public ApiResponse<Entity> getEntityByBarcode(
             @Parameter(description = "条形码") @RequestParam(value = "barcode") String barcode,
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("根据条形码查询实体: barcode={}, userId={}", barcode, userId);
@@ -430,7 +466,7 @@ public class EntityController {
     @Operation(summary = "根据二维码查询实体", description = "根据二维码查询实体信息")
     public ApiResponse<Entity> getEntityByQRCode(
             @Parameter(description = "二维码") @RequestParam(value = "qrcode") String qrcode,
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         
         try {
             log.info("根据二维码查询实体: qrcode={}, userId={}", qrcode, userId);
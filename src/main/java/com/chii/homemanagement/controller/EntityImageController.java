@@ -2,6 +2,7 @@ package com.chii.homemanagement.controller;
 
 import com.chii.homemanagement.entity.EntityImage;
 import com.chii.homemanagement.common.ApiResponse;
+import com.chii.homemanagement.common.CurrentUser;
 import com.chii.homemanagement.common.ErrorCode;
 import com.chii.homemanagement.service.EntityImageService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -53,7 +54,7 @@ public class EntityImageController {
     @Operation(summary = "上传图片", description = "上传图片到数据库或文件系统")
     public ApiResponse<EntityImage> uploadEntityImage(
             @Parameter(description = "实体ID") @PathVariable(value = "entityId") Long entityId,
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId,
+            @Parameter(hidden = true) @CurrentUser Long userId,
             @Parameter(description = "图片") @RequestParam(value = "image") MultipartFile image,
             @Parameter(description = "图片类型") @RequestParam(value = "imageType", required = false, defaultValue = "normal") String imageType) {
         
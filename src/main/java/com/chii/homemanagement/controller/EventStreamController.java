@@ -0,0 +1,68 @@
+package com.chii.homemanagement.controller;
+
+import com.chii.homemanagement.common.ApiResponse;
+import com.chii.homemanagement.common.CurrentUser;
+import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.common.LoginUser;
+import com.chii.homemanagement.exception.BusinessException;
+import com.chii.homemanagement.service.EventStreamService;
+import com.chii.homemanagement.util.JwtUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 实时事件控制器
+ */
+@Tag(name = "实时事件", description = "提醒和仪表盘的实时推送接口")
+@RestController
+@RequestMapping("/api/events")
+@Slf4j
+public class EventStreamController {
+
+    @Autowired
+    private EventStreamService eventStreamService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    /**
+     * 获取实时事件订阅票据
+     * 浏览器EventSource无法设置请求头，先携带访问令牌获取票据，再以/api/events/stream?ticket=票据建立连接；
+     * 票据30秒内有效且只能使用一次，断线重连时需重新获取
+     */
+    @Operation(summary = "获取订阅票据", description = "返回建立实时事件连接所需的短期一次性票据")
+    @PostMapping("/ticket")
+    public ApiResponse<Map<String, Object>> ticket() {
+        LoginUser loginUser = LoginUser.current();
+        if (loginUser == null) {
+            throw new BusinessException(ErrorCode.USER_NOT_LOGIN.getCode(), "用户未登录");
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("ticket", jwtUtil.generateStreamTicket(loginUser));
+        data.put("expiresIn", jwtUtil.getStreamTicketExpiresIn());
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 订阅当前用户的实时事件
+     * 事件类型: reminder-提醒状态变化, dashboard-仪表盘统计增量, resync-需重新拉取数据；
+     * 浏览器EventSource通过ticket参数传递订阅票据，其他客户端可直接使用Authorization请求头
+     */
+    @Operation(summary = "订阅实时事件", description = "以Server-Sent Events推送当前用户的提醒和仪表盘变化")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@Parameter(hidden = true) @CurrentUser Long userId) {
+        return eventStreamService.subscribe(userId);
+    }
+}
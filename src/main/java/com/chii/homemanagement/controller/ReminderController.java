@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.chii.homemanagement.entity.Entity;
 import com.chii.homemanagement.entity.Reminder;
 import com.chii.homemanagement.common.ApiResponse;
+import com.chii.homemanagement.common.CurrentUser;
 import com.chii.homemanagement.common.ErrorCode;
 import com.chii.homemanagement.service.ReminderService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,7 +36,7 @@ public class ReminderController {
     @Operation(summary = "获取提醒列表", description = "获取提醒列表，支持分页和筛选")
     @GetMapping("/page")
     public ApiResponse<IPage<Reminder>> pageReminders(
-            @Parameter(description = "用户ID") @RequestParam(required = false) Long userId,
+            @Parameter(hidden = true) @CurrentUser Long userId,
             @Parameter(description = "物品ID") @RequestParam(required = false) Long entityId,
             @Parameter(description = "物品名称") @RequestParam(required = false) String entityName,
             @Parameter(description = "提醒类型") @RequestParam(required = false) String type,
@@ -57,7 +58,7 @@ public class ReminderController {
     @Operation(summary = "获取提醒列表", description = "获取提醒列表")
     @GetMapping
     public ApiResponse<List<Reminder>> getReminders(
-            @Parameter(description = "用户ID") @RequestParam(required = false) Long userId,
+            @Parameter(hidden = true) @CurrentUser Long userId,
             @Parameter(description = "物品ID") @RequestParam(required = false) Long entityId,
             @Parameter(description = "物品名称") @RequestParam(required = false) String entityName,
             @Parameter(description = "提醒类型") @RequestParam(required = false) String type,
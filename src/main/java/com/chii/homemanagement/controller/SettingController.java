@@ -1,19 +1,17 @@
 package com.chii.homemanagement.controller;
 
 import com.chii.homemanagement.common.ApiResponse;
+import com.chii.homemanagement.common.CurrentUser;
 import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.common.LoginUser;
 import com.chii.homemanagement.entity.SystemSetting;
-import com.chii.homemanagement.entity.User;
 import com.chii.homemanagement.service.SystemSettingService;
-import com.chii.homemanagement.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -38,8 +36,6 @@ public class SettingController {
 
     @Autowired
     private SystemSettingService systemSettingService;
-    @Autowired
-    private UserService userService;
 
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
@@ -49,26 +45,9 @@ public class SettingController {
      */
     @GetMapping("/system")
     @Operation(summary = "获取系统设置", description = "获取系统参数设置")
-    public ApiResponse<Map<String, Object>> getSystemSettings() {
+    public ApiResponse<Map<String, Object>> getSystemSettings(@Parameter(hidden = true) @CurrentUser LoginUser currentUser) {
         try {
             log.info("获取系统设置");
-            
-            // 获取当前认证用户
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            
-            if (authentication == null || !authentication.isAuthenticated() || 
-                "anonymousUser".equals(authentication.getPrincipal())) {
-                return ApiResponse.error(ErrorCode.USER_NOT_LOGIN.getCode(), ErrorCode.USER_NOT_LOGIN.getMessage());
-            }
-            
-            // 获取用户名
-            String username = authentication.getName();
-            
-            // 获取用户实体信息
-            User currentUser = userService.getUserByUsername(username);
-            if (currentUser == null) {
-                return ApiResponse.error(ErrorCode.USER_ACCOUNT_NOT_EXIST.getCode(), "用户不存在");
-            }
 
             Map<String, Object> settings = systemSettingService.getSystemSettingsAsMap();
             return ApiResponse.success(settings);
@@ -83,29 +62,13 @@ public class SettingController {
      */
     @PutMapping("/system")
     @Operation(summary = "更新系统设置", description = "更新系统参数设置")
-    public ApiResponse<Boolean> updateSystemSettings(@RequestBody Map<String, Object> params) {
+    public ApiResponse<Boolean> updateSystemSettings(@RequestBody Map<String, Object> params,
+                                                     @Parameter(hidden = true) @CurrentUser LoginUser currentUser) {
         try {
             log.info("更新系统设置: {}", params.keySet());
             
-            // 获取当前认证用户
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            
-            if (authentication == null || !authentication.isAuthenticated() || 
-                "anonymousUser".equals(authentication.getPrincipal())) {
-                return ApiResponse.error(ErrorCode.USER_NOT_LOGIN.getCode(), ErrorCode.USER_NOT_LOGIN.getMessage());
-            }
-            
-            // 获取用户名
-            String username = authentication.getName();
-            
-            // 获取用户实体信息
-            User currentUser = userService.getUserByUsername(username);
-            if (currentUser == null) {
-                return ApiResponse.error(ErrorCode.USER_ACCOUNT_NOT_EXIST.getCode(), "用户不存在");
-            }
-            
             // 检查是否有管理员权限
-            if (currentUser.getRoles() == null || !currentUser.getRoles().equals("ADMIN")) {
+            if (!currentUser.hasRole("ADMIN")) {
                 return ApiResponse.error(ErrorCode.PERMISSION_DENIED.getCode(), ErrorCode.PERMISSION_DENIED.getMessage());
             }
 
@@ -132,29 +95,12 @@ public class SettingController {
      */
     @PostMapping("/system/init")
     @Operation(summary = "初始化默认系统设置", description = "初始化默认的系统参数设置")
-    public ApiResponse<Boolean> initSystemSettings() {
+    public ApiResponse<Boolean> initSystemSettings(@Parameter(hidden = true) @CurrentUser LoginUser currentUser) {
         try {
             log.info("初始化默认系统设置");
             
-            // 获取当前认证用户
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            
-            if (authentication == null || !authentication.isAuthenticated() || 
-                "anonymousUser".equals(authentication.getPrincipal())) {
-                return ApiResponse.error(ErrorCode.USER_NOT_LOGIN.getCode(), ErrorCode.USER_NOT_LOGIN.getMessage());
-            }
-            
-            // 获取用户名
-            String username = authentication.getName();
-            
-            // 获取用户实体信息
-            User currentUser = userService.getUserByUsername(username);
-            if (currentUser == null) {
-                return ApiResponse.error(ErrorCode.USER_ACCOUNT_NOT_EXIST.getCode(), "用户不存在");
-            }
-            
             // 检查是否有管理员权限
-            if (currentUser.getRoles() == null || !currentUser.getRoles().equals("ADMIN")) {
+            if (!currentUser.hasRole("ADMIN")) {
                 return ApiResponse.error(ErrorCode.PERMISSION_DENIED.getCode(), ErrorCode.PERMISSION_DENIED.getMessage());
             }
             
@@ -173,29 +119,13 @@ public class SettingController {
      */
     @DeleteMapping("/system/{key}")
     @Operation(summary = "删除系统设置", description = "删除指定的系统参数设置")
-    public ApiResponse<Boolean> deleteSystemSetting(@PathVariable("key") String key) {
+    public ApiResponse<Boolean> deleteSystemSetting(@PathVariable("key") String key,
+                                                    @Parameter(hidden = true) @CurrentUser LoginUser currentUser) {
         try {
             log.info("删除系统设置: key={}", key);
             
-            // 获取当前认证用户
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            
-            if (authentication == null || !authentication.isAuthenticated() || 
-                "anonymousUser".equals(authentication.getPrincipal())) {
-                return ApiResponse.error(ErrorCode.USER_NOT_LOGIN.getCode(), ErrorCode.USER_NOT_LOGIN.getMessage());
-            }
-            
-            // 获取用户名
-            String username = authentication.getName();
-            
-            // 获取用户实体信息
-            User currentUser = userService.getUserByUsername(username);
-            if (currentUser == null) {
-                return ApiResponse.error(ErrorCode.USER_ACCOUNT_NOT_EXIST.getCode(), "用户不存在");
-            }
-            
             // 检查是否有管理员权限
-            if (currentUser.getRoles() == null || !currentUser.getRoles().equals("ADMIN")) {
+            if (!currentUser.hasRole("ADMIN")) {
                 return ApiResponse.error(ErrorCode.PERMISSION_DENIED.getCode(), ErrorCode.PERMISSION_DENIED.getMessage());
             }
             
@@ -214,29 +144,13 @@ public class SettingController {
      */
     @PostMapping("/logo")
     @Operation(summary = "上传系统Logo", description = "上传系统Logo图片")
-    public ApiResponse<Map<String, String>> uploadSystemLogo(@RequestParam("file") MultipartFile file) {
+    public ApiResponse<Map<String, String>> uploadSystemLogo(@RequestParam("file") MultipartFile file,
+                                                         @Parameter(hidden = true) @CurrentUser LoginUser currentUser) {
         try {
             log.info("上传系统Logo");
             
-            // 获取当前认证用户
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            
-            if (authentication == null || !authentication.isAuthenticated() || 
-                "anonymousUser".equals(authentication.getPrincipal())) {
-                return ApiResponse.error(ErrorCode.USER_NOT_LOGIN.getCode(), ErrorCode.USER_NOT_LOGIN.getMessage());
-            }
-            
-            // 获取用户名
-            String username = authentication.getName();
-            
-            // 获取用户实体信息
-            User currentUser = userService.getUserByUsername(username);
-            if (currentUser == null) {
-                return ApiResponse.error(ErrorCode.USER_ACCOUNT_NOT_EXIST.getCode(), "用户不存在");
-            }
-            
             // 检查是否有管理员权限
-            if (currentUser.getRoles() == null || !currentUser.getRoles().equals("ADMIN")) {
+            if (!currentUser.hasRole("ADMIN")) {
                 return ApiResponse.error(ErrorCode.PERMISSION_DENIED.getCode(), ErrorCode.PERMISSION_DENIED.getMessage());
             }
 
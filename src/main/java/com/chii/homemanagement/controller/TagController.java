@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.chii.homemanagement.entity.Tag;
 import com.chii.homemanagement.service.TagService;
 import com.chii.homemanagement.common.ApiResponse;
+import com.chii.homemanagement.common.CurrentUser;
 import com.chii.homemanagement.common.ErrorCode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -37,7 +38,7 @@ public class TagController {
     public ApiResponse<IPage<Tag>> pageTags(
             @Parameter(description = "当前页码") @RequestParam(value = "current", defaultValue = "1") Integer current,
             @Parameter(description = "每页大小") @RequestParam(value = "size", defaultValue = "10") Integer size,
-            @Parameter(description = "使用人ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
 
         try {
             log.info("分页查询实体列表: userId={}, current={}, size={}", userId, current, size);
@@ -63,7 +64,7 @@ public class TagController {
     @Operation(summary = "获取标签列表", description = "获取用户的所有标签")
 
     public ApiResponse<List<Tag>> listTags(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+            @Parameter(hidden = true) @CurrentUser Long userId) {
         try {
             log.info("获取标签列表: userId={}", userId);
             List<Tag> tags = tagService.getTagsByUserId(userId);
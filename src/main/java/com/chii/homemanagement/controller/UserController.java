@@ -1,18 +1,24 @@
 package com.chii.homemanagement.controller;
 
 import com.chii.homemanagement.common.ApiResponse;
+import com.chii.homemanagement.common.ArchiveImportResult;
+import com.chii.homemanagement.common.CurrentUser;
 import com.chii.homemanagement.common.ErrorCode;
 
 import com.chii.homemanagement.entity.SystemSetting;
 import com.chii.homemanagement.entity.User;
 import com.chii.homemanagement.service.SystemSettingService;
+import com.chii.homemanagement.service.UserArchiveService;
 import com.chii.homemanagement.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
@@ -23,8 +29,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -42,6 +52,9 @@ public class UserController {
     
     @Autowired
     private SystemSettingService systemSettingService;
+
+    @Autowired
+    private UserArchiveService userArchiveService;
     
     /**
      * 获取当前用户信息 (适用于前端导航栏和认证检查)
@@ -49,9 +62,13 @@ public class UserController {
     @GetMapping("/info/{userId}")
     @Operation(summary = "获取当前用户基本信息", description = "获取当前登录用户的基本信息，用于导航栏显示和认证检查")
     public ApiResponse<Map<String, Object>> getUserInfo(
-            @Parameter(description = "用户ID") @PathVariable(value = "userId") Long userId) {
+            @Parameter(description = "用户ID") @PathVariable(value = "userId") Long userId,
+            @Parameter(hidden = true) @CurrentUser Long currentUserId) {
         try {
             log.info("获取当前用户基本信息");
+            if (!userId.equals(currentUserId)) {
+                return ApiResponse.error(ErrorCode.PERMISSION_DENIED.getCode(), "只能查看自己的用户信息");
+            }
             // 获取用户实体信息
             User user = userService.getUserById(userId);
             if (user == null) {
@@ -81,13 +98,14 @@ public class UserController {
      */
     @PutMapping("/profile")
     @Operation(summary = "更新个人资料", description = "更新当前登录用户的个人资料")
-    public ApiResponse<User> updateProfile(@RequestBody User userParam) {
+    public ApiResponse<User> updateProfile(@Parameter(hidden = true) @CurrentUser Long userId,
+                                           @RequestBody User userParam) {
         try {
             log.info("更新个人资料");
             
 
             // 获取用户实体信息
-            User currentUser = userService.getUserById(userParam.getUserId());
+            User currentUser = userService.getUserById(userId);
             if (currentUser == null) {
                 return ApiResponse.error(ErrorCode.USER_ACCOUNT_NOT_EXIST.getCode(), "用户不存在");
             }
@@ -123,7 +141,7 @@ public class UserController {
     @PutMapping("/password")
     @Operation(summary = "更新密码", description = "更新当前登录用户的密码")
     public ApiResponse<Boolean> updatePassword(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId,
+            @Parameter(hidden = true) @CurrentUser Long userId,
             @Parameter(description = "旧密码") @RequestParam(value = "currentPassword") String currentPassword,
             @Parameter(description = "新密码") @RequestParam(value = "newPassword") String newPassword
     ) {
@@ -166,7 +184,7 @@ public class UserController {
     @PostMapping("/avatar")
     @Operation(summary = "上传头像", description = "上传当前登录用户的头像")
     public ApiResponse<String> uploadAvatar(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId,
+            @Parameter(hidden = true) @CurrentUser Long userId,
             @Parameter(description = "图片") @RequestParam(value = "image") MultipartFile image) {
         try {
             log.info("上传头像");
@@ -197,9 +215,13 @@ public class UserController {
      */
     @DeleteMapping("/avatar/{userId}")
     @Operation(summary = "删除头像", description = "删除当前登录用户的头像")
-    public ApiResponse<User> deleteAvatar(@Parameter(description = "用户ID") @PathVariable(value = "userId") Long userId) {
+    public ApiResponse<User> deleteAvatar(@Parameter(description = "用户ID") @PathVariable(value = "userId") Long userId,
+                                          @Parameter(hidden = true) @CurrentUser Long currentUserId) {
         try {
             log.info("删除头像");
+            if (!userId.equals(currentUserId)) {
+                return ApiResponse.error(ErrorCode.PERMISSION_DENIED.getCode(), "只能删除自己的头像");
+            }
 
             // 获取用户实体信息
             User currentUser = userService.getUserById(userId);
@@ -223,7 +245,7 @@ public class UserController {
     @PutMapping("/notifications")
     @Operation(summary = "更新通知设置", description = "更新当前登录用户的通知设置")
     public ApiResponse<Boolean> updateNotifications(
-            @Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId,
+            @Parameter(hidden = true) @CurrentUser Long userId,
             @Parameter(description = "是否开启邮件通知") @RequestParam(value = "emailNotification") Boolean emailNotification,
             @Parameter(description = "是否开启到期提醒") @RequestParam(value = "expirationReminder") Boolean expirationReminder,
             @Parameter(description = "提前提醒天数") @RequestParam(value = "reminderDays") Integer reminderDays
@@ -238,13 +260,15 @@ public class UserController {
                 return ApiResponse.error(ErrorCode.USER_ACCOUNT_NOT_EXIST.getCode(), "用户不存在");
             }
 
+            List<SystemSetting> settings = new ArrayList<>();
+
             // 保存邮件通知设置
             if (emailNotification) {
                 SystemSetting emailNotificationSetting = new SystemSetting();
                 emailNotificationSetting.setSettingKey("email_notification");
                 emailNotificationSetting.setSettingValue(String.valueOf(emailNotification));
                 emailNotificationSetting.setType("user");
-                systemSettingService.saveUserSetting(emailNotificationSetting, currentUser.getUserId());
+                settings.add(emailNotificationSetting);
             }
             
             // 保存到期提醒设置
@@ -253,7 +277,7 @@ public class UserController {
                 expirationReminderSetting.setSettingKey("expiration_reminder");
                 expirationReminderSetting.setSettingValue(String.valueOf(expirationReminder));
                 expirationReminderSetting.setType("user");
-                systemSettingService.saveUserSetting(expirationReminderSetting, currentUser.getUserId());
+                settings.add(expirationReminderSetting);
             }
             
             // 保存提前提醒天数设置
@@ -262,8 +286,11 @@ public class UserController {
                 reminderDaysSetting.setSettingKey("reminder_days");
                 reminderDaysSetting.setSettingValue(String.valueOf(reminderDays));
                 reminderDaysSetting.setType("user");
-                systemSettingService.saveUserSetting(reminderDaysSetting, currentUser.getUserId());
+                settings.add(reminderDaysSetting);
             }
+
+            // 整张表单一次保存
+            systemSettingService.saveUserSettings(settings, currentUser.getUserId());
             
             log.info("更新通知设置成功: username={}", currentUser.getUsername());
             return ApiResponse.success(true);
@@ -278,7 +305,7 @@ public class UserController {
      */
     @GetMapping("/notifications")
     @Operation(summary = "获取用户通知设置", description = "获取当前登录用户的通知设置")
-    public ApiResponse<Map<String, Object>> getNotifications(@Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+    public ApiResponse<Map<String, Object>> getNotifications(@Parameter(hidden = true) @CurrentUser Long userId) {
         try {
             log.info("获取用户通知设置");
 
@@ -309,7 +336,7 @@ public class UserController {
      */
     @GetMapping("/settings")
     @Operation(summary = "获取用户个人设置", description = "获取当前登录用户的个人设置")
-    public ApiResponse<Map<String, Object>> getUserSettings(@Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId) {
+    public ApiResponse<Map<String, Object>> getUserSettings(@Parameter(hidden = true) @CurrentUser Long userId) {
         try {
             log.info("获取用户个人设置");
             
@@ -329,12 +356,47 @@ public class UserController {
         }
     }
     
+    /**
+     * 获取当前用户的生效设置
+     */
+    @GetMapping("/settings/effective")
+    @Operation(summary = "获取生效设置", description = "获取当前用户合并系统设置和个人设置后的生效设置")
+    public ApiResponse<Map<String, Object>> getEffectiveSettings(@Parameter(hidden = true) @CurrentUser Long userId) {
+        return ApiResponse.success(systemSettingService.getEffectiveSettings(userId).asMap());
+    }
+
+    /**
+     * 导出当前用户的账户数据包
+     */
+    @GetMapping("/archive")
+    @Operation(summary = "导出账户数据包", description = "将当前用户的实体、标签、图片、维护记录、提醒和个人设置导出为一个ZIP文件，用于迁移到其他实例")
+    public void exportArchive(@Parameter(hidden = true) @CurrentUser Long userId,
+                              HttpServletResponse response) throws IOException {
+        String filename = "account-" + userId + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".zip";
+        log.info("导出账户数据包: userId={}", userId);
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        userArchiveService.exportArchive(userId, response.getOutputStream());
+    }
+
+    /**
+     * 导入账户数据包
+     * 请求体直接为ZIP文件内容，不经过multipart解析，不受上传文件大小限制
+     */
+    @PostMapping(value = "/archive", consumes = {"application/zip", "application/octet-stream"})
+    @Operation(summary = "导入账户数据包", description = "将导出的账户数据包导入到当前用户，与已有数据合并，同名标签合并；导入失败时全部回滚")
+    public ApiResponse<ArchiveImportResult> importArchive(@Parameter(hidden = true) @CurrentUser Long userId,
+                                                          HttpServletRequest request) throws IOException {
+        log.info("导入账户数据包: userId={}, 大小={}", userId, request.getContentLengthLong());
+        return ApiResponse.success(userArchiveService.importArchive(userId, request.getInputStream()));
+    }
+
     /**
      * 更新用户个人设置
      */
     @PutMapping("/settings")
     @Operation(summary = "更新用户个人设置", description = "更新当前用户的个人设置")
-    public ApiResponse<Boolean> updateUserSettings(@Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId,
+    public ApiResponse<Boolean> updateUserSettings(@Parameter(hidden = true) @CurrentUser Long userId,
                                                    @RequestBody Map<String, Object> params) {
         try {
             log.info("更新用户个人设置: {}", params.keySet());
@@ -345,13 +407,16 @@ public class UserController {
                 return ApiResponse.error(ErrorCode.USER_ACCOUNT_NOT_EXIST.getCode(), "用户不存在");
             }
 
+            List<SystemSetting> settings = new ArrayList<>(params.size());
             for (Map.Entry<String, Object> entry : params.entrySet()) {
                 SystemSetting setting = new SystemSetting();
                 setting.setSettingKey(entry.getKey());
                 setting.setSettingValue(entry.getValue().toString());
                 setting.setType("user");
-                systemSettingService.saveUserSetting(setting, currentUser.getUserId());
+                settings.add(setting);
             }
+            // 整张表单一次保存
+            systemSettingService.saveUserSettings(settings, currentUser.getUserId());
             
             log.info("更新用户个人设置成功: username={}", currentUser.getUsername());
             return ApiResponse.success(true);
@@ -366,7 +431,7 @@ public class UserController {
      */
     @DeleteMapping("/settings/{key}")
     @Operation(summary = "删除用户个人设置", description = "删除当前用户的指定个人设置")
-    public ApiResponse<Boolean> deleteUserSetting(@Parameter(description = "用户ID") @RequestParam(value = "userId") Long userId,
+    public ApiResponse<Boolean> deleteUserSetting(@Parameter(hidden = true) @CurrentUser Long userId,
                                                   @PathVariable("key") String key) {
         try {
             log.info("删除用户个人设置: key={}", key);
@@ -0,0 +1,35 @@
+package com.chii.homemanagement.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 缓存版本号
+ * 数据变更时递增，其他节点发现版本号变化后清除本地缓存
+ */
+@Data
+@NoArgsConstructor
+@TableName("cache_version")
+@Schema(description = "缓存版本号")
+public class CacheVersion {
+
+    @TableId(type = IdType.INPUT)
+    @Schema(description = "缓存名称")
+    private String name;
+
+    @Schema(description = "版本号")
+    private Long version;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updatedAt;
+
+    public CacheVersion(String name) {
+        this.name = name;
+    }
+}
@@ -1,5 +1,6 @@
 package com.chii.homemanagement.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
@@ -231,10 +232,11 @@ public class Entity {
     private LocalDateTime createTime;
 
     /**
-     * 更新时间
+     * 更新时间，由数据库在行变更时维护（ON UPDATE CURRENT_TIMESTAMP），插入和更新时不写入
      */
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     @Schema(description = "更新时间")
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private LocalDateTime updateTime;
     
     /**
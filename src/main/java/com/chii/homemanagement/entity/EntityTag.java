@@ -1,6 +1,8 @@
 package com.chii.homemanagement.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -33,5 +35,6 @@ public class EntityTag implements Serializable {
     private LocalDateTime createTime;
 
     @Schema(description = "更新时间", example = "2023-01-01 12:00:00")
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private LocalDateTime updateTime;
 }
\ No newline at end of file
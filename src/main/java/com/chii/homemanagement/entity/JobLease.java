@@ -0,0 +1,69 @@
+package com.chii.homemanagement.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 定时任务分片租约
+ * 多实例部署时保证同一任务分片只由一个节点执行
+ */
+@Data
+@TableName("job_lease")
+@Schema(description = "定时任务分片租约")
+public class JobLease {
+
+    /**
+     * 租约键: 任务名:执行日期:用户ID下限-用户ID上限
+     */
+    @TableId(type = IdType.INPUT)
+    @Schema(description = "租约键")
+    private String leaseKey;
+
+    @Schema(description = "任务名称")
+    private String jobName;
+
+    @Schema(description = "执行日期")
+    private LocalDate runDate;
+
+    @Schema(description = "分片序号")
+    private Integer shardIndex;
+
+    @Schema(description = "用户ID下限")
+    private Long fromUserId;
+
+    @Schema(description = "用户ID上限")
+    private Long toUserId;
+
+    /**
+     * 持有租约的节点标识
+     */
+    @Schema(description = "持有节点")
+    private String owner;
+
+    /**
+     * 状态: running-执行中, done-已完成
+     */
+    @Schema(description = "状态", allowableValues = {"running", "done"})
+    private String status;
+
+    @Schema(description = "获取租约次数")
+    private Integer attempts;
+
+    @Schema(description = "租约到期时间")
+    private LocalDateTime leaseUntil;
+
+    @Schema(description = "最近心跳时间")
+    private LocalDateTime heartbeatTime;
+
+    @Schema(description = "创建时间")
+    private LocalDateTime createTime;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,70 @@
+package com.chii.homemanagement.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 提醒通知发送记录
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("notification_log")
+@Schema(description = "提醒通知发送记录")
+public class NotificationLog {
+
+    @TableId(type = IdType.AUTO)
+    @Schema(description = "主键ID")
+    private Long id;
+
+    @Schema(description = "提醒ID")
+    private Long reminderId;
+
+    @Schema(description = "用户ID")
+    private Long userId;
+
+    /**
+     * 通知渠道: email-邮件
+     */
+    @Schema(description = "通知渠道", allowableValues = {"email"})
+    private String channel;
+
+    @Schema(description = "接收地址")
+    private String recipient;
+
+    /**
+     * 状态: queued-待发送, sending-发送中, sent-已发送, failed-发送失败
+     */
+    @Schema(description = "发送状态", allowableValues = {"queued", "sending", "sent", "failed"})
+    private String status;
+
+    @Schema(description = "尝试次数")
+    private Integer attempts;
+
+    @Schema(description = "失败原因")
+    private String errorMessage;
+
+    @Schema(description = "下次发送时间")
+    private LocalDateTime nextAttemptTime;
+
+    /**
+     * 领取标识，发送中的记录由持有该标识的节点发送
+     */
+    @Schema(description = "领取标识")
+    private String claimToken;
+
+    @Schema(description = "创建时间")
+    private LocalDateTime createTime;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+}
@@ -1,5 +1,6 @@
 package com.chii.homemanagement.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
@@ -12,6 +13,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 /**
  * 提醒实体类
@@ -59,6 +61,12 @@ public class Reminder {
     @Schema(description = "提醒日期", required = true, example = "2023-01-01")
     private LocalDate remindDate;
 
+    /**
+     * 提醒时间（时分），为空时使用默认提醒时间
+     */
+    @Schema(description = "提醒时间", example = "09:00:00")
+    private LocalTime remindTime;
+
     /**
      * 状态: pending-待提醒，sent-已提醒，processed-已处理，ignored-已忽略
      */
@@ -95,6 +103,20 @@ public class Reminder {
     @Schema(description = "重复周期", allowableValues = {"daily", "weekly", "monthly", "yearly"})
     private String recurringCycle;
 
+    /**
+     * 重复提醒系列ID，即系列首条提醒的ID；非重复提醒为空
+     */
+    @Schema(description = "重复提醒系列ID")
+    private Long seriesId;
+
+    /**
+     * 是否为按重复规则推算、尚未写入数据库的提醒（非数据库字段）
+     * 推算的提醒没有ID，需通过seriesId对所属系列操作
+     */
+    @TableField(exist = false)
+    @Schema(description = "是否为推算的提醒")
+    private Boolean projected;
+
     /**
      * 创建时间
      */
@@ -102,8 +124,9 @@ public class Reminder {
     private LocalDateTime createTime;
 
     /**
-     * 更新时间
+     * 更新时间，由数据库在行变更时维护（ON UPDATE CURRENT_TIMESTAMP），插入和更新时不写入
      */
     @Schema(description = "更新时间", example = "2023-01-01 12:00:00")
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private LocalDateTime updateTime;
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.chii.homemanagement.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已吊销的令牌
+ * 以令牌的jti为键，令牌过期后记录即可删除
+ */
+@Data
+@TableName("revoked_token")
+@Schema(description = "已吊销的令牌")
+public class RevokedToken {
+
+    @TableId(type = IdType.INPUT)
+    @Schema(description = "令牌唯一ID（jti）")
+    private String jti;
+
+    @Schema(description = "用户名")
+    private String username;
+
+    @Schema(description = "令牌过期时间")
+    private LocalDateTime expiresAt;
+
+    @Schema(description = "吊销时间")
+    private LocalDateTime revokedAt;
+}
@@ -1,5 +1,6 @@
 package com.chii.homemanagement.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
@@ -52,8 +53,9 @@ public class Tag {
     private LocalDateTime createTime;
 
     /**
-     * 更新时间
+     * 更新时间，由数据库在行变更时维护（ON UPDATE CURRENT_TIMESTAMP），插入和更新时不写入
      */
     @Schema(description = "更新时间")
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private LocalDateTime updateTime;
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.chii.homemanagement.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户令牌失效水位
+ * 早于水位签发的该用户令牌全部失效；删除用户、修改密码或状态时提升水位，
+ * 水位早于令牌最长有效期后记录即可删除
+ */
+@Data
+@TableName("token_watermark")
+@Schema(description = "用户令牌失效水位")
+public class TokenWatermark {
+
+    @TableId(type = IdType.INPUT)
+    @Schema(description = "用户名")
+    private String username;
+
+    @Schema(description = "早于该时间签发的令牌失效")
+    private LocalDateTime notBefore;
+
+    @Schema(description = "更新时间（数据库时间）")
+    private LocalDateTime updatedAt;
+}
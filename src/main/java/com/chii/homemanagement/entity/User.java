@@ -1,4 +1,5 @@
 package com.chii.homemanagement.entity;
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
@@ -53,6 +54,7 @@ public class User {
     private LocalDateTime createTime;
 
     @Schema(description = "更新时间", example = "2023-01-01 12:00:00")
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private LocalDateTime updateTime;
 
     // 添加 getUserId() 方法，返回 id 的值
@@ -0,0 +1,143 @@
+package com.chii.homemanagement.mapper;
+
+import com.chii.homemanagement.common.BackupManifest;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 备份Mapper接口
+ * 表名和列名以${}拼接，只能传入备份服务中固定的表名和从information_schema读取的列名；
+ * 备份记录表backup_record保存集群内已完成的备份
+ */
+@Mapper
+public interface BackupMapper {
+
+    /**
+     * 数据库当前时间
+     */
+    @Select("SELECT NOW()")
+    LocalDateTime selectNow();
+
+    /**
+     * 流式读取表中的行，since为空时读取全部行；变更时间为空的行始终读取
+     *
+     * @param table        表名
+     * @param changeColumn 变更时间列
+     * @param since        变更时间下限
+     * @return 行游标，需在事务中遍历
+     */
+    @Select("<script>" +
+            "SELECT * FROM `${table}`" +
+            "<if test='since != null'> WHERE `${changeColumn}` &gt;= #{since} OR `${changeColumn}` IS NULL</if>" +
+            " ORDER BY id" +
+            "</script>")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Map<String, Object>> streamTable(@Param("table") String table,
+                                            @Param("changeColumn") String changeColumn,
+                                            @Param("since") LocalDateTime since);
+
+    /**
+     * 流式读取表中的全部ID
+     *
+     * @param table 表名
+     * @return ID游标，按ID升序，需在事务中遍历
+     */
+    @Select("SELECT id FROM `${table}` ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Long> streamIds(@Param("table") String table);
+
+    /**
+     * 表的可写列（不含生成列），按定义顺序
+     *
+     * @param table 表名
+     * @return 列名列表
+     */
+    @Select("SELECT COLUMN_NAME FROM information_schema.COLUMNS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = #{table} AND EXTRA NOT LIKE '%GENERATED%' " +
+            "ORDER BY ORDINAL_POSITION")
+    List<String> listWritableColumns(@Param("table") String table);
+
+    /**
+     * 统计表中的行数
+     */
+    @Select("SELECT COUNT(*) FROM `${table}`")
+    long countRows(@Param("table") String table);
+
+    /**
+     * 批量写入行，主键已存在时覆盖
+     *
+     * @param table   表名
+     * @param columns 以逗号分隔、已加反引号的列名
+     * @param rows    每行的值，顺序与列名一致
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "REPLACE INTO `${table}` (${columns}) VALUES " +
+            "<foreach collection='rows' item='values' separator=','>" +
+            "(<foreach collection='values' item='value' separator=','>#{value}</foreach>)" +
+            "</foreach>" +
+            "</script>")
+    int replaceRows(@Param("table") String table, @Param("columns") String columns, @Param("rows") List<List<Object>> rows);
+
+    /**
+     * 删除表中的全部行
+     */
+    @Delete("DELETE FROM `${table}`")
+    int deleteAll(@Param("table") String table);
+
+    /**
+     * 按ID删除行
+     */
+    @Delete("<script>" +
+            "DELETE FROM `${table}` WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteByIds(@Param("table") String table, @Param("ids") Collection<Long> ids);
+
+    /**
+     * 写入已完成的备份记录
+     *
+     * @param manifest 备份清单
+     * @param node     执行备份的节点
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO backup_record(id, type, parent_id, snapshot_time, start_time, node, create_time) " +
+            "VALUES(#{m.id}, #{m.type}, #{m.parentId}, #{m.snapshotTime}, #{m.startTime}, #{node}, NOW())")
+    int insertRecord(@Param("m") BackupManifest manifest, @Param("node") String node);
+
+    /**
+     * 集群内最近一次完成的备份ID
+     *
+     * @return 备份ID，没有备份记录时返回null
+     */
+    @Select("SELECT id FROM backup_record ORDER BY id DESC LIMIT 1")
+    String selectLatestRecordId();
+
+    /**
+     * 集群内最近一次备份的开始时间
+     *
+     * @return 开始时间，没有备份记录时返回null
+     */
+    @Select("SELECT MAX(start_time) FROM backup_record")
+    LocalDateTime selectLatestRecordStartTime();
+
+    /**
+     * 删除已清理的备份记录
+     */
+    @Delete("<script>" +
+            "DELETE FROM backup_record WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteRecords(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,48 @@
+package com.chii.homemanagement.mapper;
+
+import com.chii.homemanagement.entity.CacheVersion;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 缓存版本号Mapper接口
+ * 数据变更时递增对应的版本号，其他节点发现版本号变化后清除本地缓存
+ */
+@Mapper
+public interface CacheVersionMapper {
+
+    /**
+     * 递增版本号，记录不存在时创建
+     *
+     * @param name 缓存名称
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO cache_version(name, version, updated_at) VALUES(#{name}, 1, NOW()) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1, updated_at = NOW()")
+    int increment(@Param("name") String name);
+
+    /**
+     * 递增版本号并取回递增后的值，记录不存在时创建，只需一次数据库往返
+     * 新版本号通过LAST_INSERT_ID(expr)写入语句的last insert id，随执行结果一并返回，
+     * 由生成键回填到cacheVersion.version，无需再执行SELECT LAST_INSERT_ID()
+     *
+     * @param cacheVersion 缓存版本号，name为缓存名称，执行后version为递增后的版本号
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO cache_version(name, version, updated_at) VALUES(#{name}, LAST_INSERT_ID(1), NOW()) " +
+            "ON DUPLICATE KEY UPDATE version = LAST_INSERT_ID(version + 1), updated_at = NOW()")
+    @Options(useGeneratedKeys = true, keyProperty = "version")
+    int incrementAndGet(CacheVersion cacheVersion);
+
+    /**
+     * 查询当前版本号
+     *
+     * @param name 缓存名称
+     * @return 版本号，记录不存在时返回null
+     */
+    @Select("SELECT version FROM cache_version WHERE name = #{name}")
+    Long selectVersion(@Param("name") String name);
+}
@@ -9,6 +9,9 @@ import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Results;
 import org.apache.ibatis.annotations.Result;
 import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 import java.util.List;
 
@@ -46,4 +49,15 @@ public interface EntityImageMapper extends BaseMapper<EntityImage> {
      */
     @Delete("DELETE FROM entity_image WHERE entity_id = #{entityId}")
     int deleteByEntityId(@Param("entityId") Long entityId);
-} 
\ No newline at end of file
+
+    /**
+     * 流式读取用户实体的全部图片（含二进制数据）
+     *
+     * @param userId 用户ID
+     * @return 图片游标，需在事务中遍历
+     */
+    @Select("SELECT i.* FROM entity_image i INNER JOIN entity e ON e.id = i.entity_id " +
+            "WHERE e.user_id = #{userId} ORDER BY i.id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<EntityImage> streamByUserId(@Param("userId") Long userId);
+}
@@ -8,6 +8,9 @@ import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Results;
 import org.apache.ibatis.annotations.Result;
 import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -54,4 +57,15 @@ public interface EntityMaintenanceMapper extends BaseMapper<EntityMaintenance> {
      */
     @Select("SELECT * FROM entity_maintenance WHERE maintenance_type = #{maintenanceType} ORDER BY maintenance_date DESC")
     List<EntityMaintenance> findByMaintenanceType(@Param("maintenanceType") String maintenanceType);
-} 
\ No newline at end of file
+
+    /**
+     * 流式读取用户实体的全部维护记录
+     *
+     * @param userId 用户ID
+     * @return 维护记录游标，需在事务中遍历
+     */
+    @Select("SELECT m.* FROM entity_maintenance m INNER JOIN entity e ON e.id = m.entity_id " +
+            "WHERE e.user_id = #{userId} ORDER BY m.id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<EntityMaintenance> streamByUserId(@Param("userId") Long userId);
+}
@@ -3,10 +3,16 @@ package com.chii.homemanagement.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.chii.homemanagement.entity.Entity;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 实体Mapper接口
@@ -35,4 +41,85 @@ public interface EntityMapper extends BaseMapper<Entity> {
             "INNER JOIN entity_tag et ON e.id = et.entity_id " +
             "WHERE et.tag_id = #{tagId} AND e.user_id = #{userId}")
     List<Entity> listEntitiesByTagId(@Param("tagId") Long tagId, @Param("userId") Long userId);
-} 
\ No newline at end of file
+
+    /**
+     * 按主键游标分页查询保修截止日期在指定范围内、且没有有效（pending/sent）同类提醒的物品
+     * 覆盖所有用户，用于定时任务批量生成提醒
+     *
+     * @param startDate    保修截止日期下限（含），为空表示不限
+     * @param endDate      保修截止日期上限，为空表示不限
+     * @param endInclusive 上限是否包含
+     * @param reminderType 提醒类型
+     * @param fromUserId   用户ID下限（含），为空表示不限
+     * @param toUserId     用户ID上限（含），为空表示不限
+     * @param lastId       上一批最后一个实体ID
+     * @param limit        单批数量
+     * @return 实体列表（按ID升序）
+     */
+    @Select("<script>" +
+            "SELECT e.* FROM entity e " +
+            "WHERE e.id &gt; #{lastId} AND e.user_id IS NOT NULL AND e.status &lt;&gt; 'discarded' " +
+            "AND e.warranty_end_date IS NOT NULL " +
+            "<if test='startDate != null'> AND e.warranty_end_date &gt;= #{startDate}</if>" +
+            "<if test='endDate != null and endInclusive'> AND e.warranty_end_date &lt;= #{endDate}</if>" +
+            "<if test='endDate != null and !endInclusive'> AND e.warranty_end_date &lt; #{endDate}</if>" +
+            "<if test='fromUserId != null'> AND e.user_id &gt;= #{fromUserId}</if>" +
+            "<if test='toUserId != null'> AND e.user_id &lt;= #{toUserId}</if>" +
+            " AND NOT EXISTS (SELECT 1 FROM reminder r WHERE r.entity_id = e.id AND r.type = #{reminderType} " +
+            "AND r.status IN ('pending', 'sent')) " +
+            "ORDER BY e.id LIMIT #{limit}" +
+            "</script>")
+    List<Entity> listWarrantyEntitiesWithoutReminder(@Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate,
+                                                     @Param("endInclusive") boolean endInclusive,
+                                                     @Param("reminderType") String reminderType,
+                                                     @Param("fromUserId") Long fromUserId,
+                                                     @Param("toUserId") Long toUserId,
+                                                     @Param("lastId") Long lastId,
+                                                     @Param("limit") int limit);
+
+    /**
+     * 按名称批量查询用户的空间，用于导入时解析所属空间
+     *
+     * @param userId 用户ID
+     * @param names  空间名称
+     * @return 空间列表（只含id、name、level、path，按ID升序）
+     */
+    @Select("<script>" +
+            "SELECT id, name, level, path FROM entity WHERE user_id = #{userId} AND type = '空间' AND name IN " +
+            "<foreach collection='names' item='name' open='(' separator=',' close=')'>#{name}</foreach>" +
+            " ORDER BY id" +
+            "</script>")
+    List<Entity> listSpacesByNames(@Param("userId") Long userId, @Param("names") Collection<String> names);
+
+    /**
+     * 流式查询用户的全部实体用于导出，包含所属空间名称和以逗号分隔的标签名称
+     * fetchSize为Integer.MIN_VALUE时MySQL驱动逐行读取结果集，需在事务内遍历游标
+     *
+     * @param userId 用户ID
+     * @return 游标，每行的键为导出字段名（按层级和ID排序，空间在其内部物品之前）
+     */
+    @Select("SELECT e.id AS id, e.name AS name, e.type AS type, p.name AS parentName, e.code AS code, " +
+            "e.specification AS specification, e.quantity AS quantity, e.price AS price, " +
+            "e.production_date AS productionDate, e.purchase_date AS purchaseDate, " +
+            "e.warranty_period AS warrantyPeriod, e.warranty_end_date AS warrantyEndDate, " +
+            "e.usage_frequency AS usageFrequency, e.status AS status, e.description AS description, " +
+            "e.barcode AS barcode, " +
+            "(SELECT GROUP_CONCAT(t.name ORDER BY t.id SEPARATOR ',') FROM entity_tag et " +
+            "INNER JOIN tag t ON t.id = et.tag_id WHERE et.entity_id = e.id) AS tags, " +
+            "e.create_time AS createTime " +
+            "FROM entity e LEFT JOIN entity p ON p.id = e.parent_id " +
+            "WHERE e.user_id = #{userId} ORDER BY e.level, e.id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Map<String, Object>> streamForExport(@Param("userId") Long userId);
+
+    /**
+     * 流式读取用户的全部实体，按层级排序，父实体总在子实体之前
+     *
+     * @param userId 用户ID
+     * @return 实体游标，需在事务中遍历
+     */
+    @Select("SELECT * FROM entity WHERE user_id = #{userId} ORDER BY level, id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Entity> streamByUserId(@Param("userId") Long userId);
+}
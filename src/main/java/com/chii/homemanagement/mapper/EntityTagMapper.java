@@ -3,10 +3,26 @@ package com.chii.homemanagement.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.chii.homemanagement.entity.EntityTag;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 /**
  * 实体标签关联Mapper接口
  */
 @Mapper
 public interface EntityTagMapper extends BaseMapper<EntityTag> {
-} 
\ No newline at end of file
+
+    /**
+     * 流式读取用户实体的全部标签关联
+     *
+     * @param userId 用户ID
+     * @return 关联游标，需在事务中遍历
+     */
+    @Select("SELECT et.* FROM entity_tag et INNER JOIN entity e ON e.id = et.entity_id " +
+            "WHERE e.user_id = #{userId} ORDER BY et.id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<EntityTag> streamByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,87 @@
+package com.chii.homemanagement.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chii.homemanagement.entity.JobLease;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 定时任务分片租约Mapper接口
+ * 所有时间均以数据库时间为准，避免节点间时钟偏差
+ */
+@Mapper
+public interface JobLeaseMapper extends BaseMapper<JobLease> {
+
+    /**
+     * 首次获取租约，租约已存在时不插入
+     *
+     * @param lease        租约信息
+     * @param leaseSeconds 租约时长（秒）
+     * @return 1-获取成功，0-租约已存在
+     */
+    @Insert("INSERT IGNORE INTO job_lease(lease_key, job_name, run_date, shard_index, from_user_id, to_user_id, " +
+            "owner, status, attempts, lease_until, heartbeat_time, create_time, update_time) " +
+            "VALUES(#{lease.leaseKey}, #{lease.jobName}, #{lease.runDate}, #{lease.shardIndex}, #{lease.fromUserId}, " +
+            "#{lease.toUserId}, #{lease.owner}, 'running', 1, DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND), NOW(), NOW(), NOW())")
+    int insertLease(@Param("lease") JobLease lease, @Param("leaseSeconds") int leaseSeconds);
+
+    /**
+     * 接管已过期且未完成的租约
+     *
+     * @param leaseKey     租约键
+     * @param owner        新持有节点
+     * @param leaseSeconds 租约时长（秒）
+     * @param maxAttempts  最大获取次数
+     * @return 1-接管成功，0-租约仍有效、已完成或超过最大次数
+     */
+    @Update("UPDATE job_lease SET owner = #{owner}, attempts = attempts + 1, " +
+            "lease_until = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND), heartbeat_time = NOW(), update_time = NOW() " +
+            "WHERE lease_key = #{leaseKey} AND status = 'running' AND lease_until < NOW() AND attempts < #{maxAttempts}")
+    int takeOverLease(@Param("leaseKey") String leaseKey, @Param("owner") String owner,
+                      @Param("leaseSeconds") int leaseSeconds, @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * 续约（心跳）
+     *
+     * @return 1-续约成功，0-租约已被其他节点接管
+     */
+    @Update("UPDATE job_lease SET lease_until = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND), heartbeat_time = NOW() " +
+            "WHERE lease_key = #{leaseKey} AND owner = #{owner} AND status = 'running'")
+    int renewLease(@Param("leaseKey") String leaseKey, @Param("owner") String owner, @Param("leaseSeconds") int leaseSeconds);
+
+    /**
+     * 标记租约已完成
+     */
+    @Update("UPDATE job_lease SET status = 'done', lease_until = NOW(), update_time = NOW() " +
+            "WHERE lease_key = #{leaseKey} AND owner = #{owner}")
+    int completeLease(@Param("leaseKey") String leaseKey, @Param("owner") String owner);
+
+    /**
+     * 释放租约，使其可被其他节点立即接管
+     */
+    @Update("UPDATE job_lease SET lease_until = NOW(), update_time = NOW() " +
+            "WHERE lease_key = #{leaseKey} AND owner = #{owner} AND status = 'running'")
+    int releaseLease(@Param("leaseKey") String leaseKey, @Param("owner") String owner);
+
+    /**
+     * 查询已过期且仍可接管的租约
+     *
+     * @param maxAttempts 最大获取次数
+     * @return 租约列表
+     */
+    @Select("SELECT * FROM job_lease WHERE status = 'running' AND lease_until < NOW() AND attempts < #{maxAttempts} ORDER BY lease_key")
+    List<JobLease> findExpiredLeases(@Param("maxAttempts") int maxAttempts);
+
+    /**
+     * 删除指定日期之前的租约记录
+     */
+    @Delete("DELETE FROM job_lease WHERE run_date < #{date}")
+    int deleteBefore(@Param("date") LocalDate date);
+}
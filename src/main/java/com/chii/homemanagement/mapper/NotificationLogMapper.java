@@ -0,0 +1,130 @@
+package com.chii.homemanagement.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chii.homemanagement.entity.NotificationLog;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 提醒通知发送记录Mapper接口
+ * 发送记录同时作为通知发件箱：到期提醒先写入queued记录，由发送任务领取后发送并更新状态，
+ * 所有时间均以数据库时间为准
+ */
+@Mapper
+public interface NotificationLogMapper extends BaseMapper<NotificationLog> {
+
+    /**
+     * 写入待发送记录，同一提醒同一渠道已存在记录时不插入
+     *
+     * @param log 发送记录
+     * @return 1-写入成功，0-已存在
+     */
+    @Insert("INSERT IGNORE INTO notification_log(reminder_id, user_id, channel, status, attempts, next_attempt_time, create_time, update_time) " +
+            "VALUES(#{log.reminderId}, #{log.userId}, #{log.channel}, 'queued', 0, NOW(), NOW(), NOW())")
+    int insertQueued(@Param("log") NotificationLog log);
+
+    /**
+     * 批量写入待发送记录，同一提醒同一渠道已存在记录时忽略
+     *
+     * @param logs 发送记录列表
+     * @return 实际写入行数
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO notification_log(reminder_id, user_id, channel, status, attempts, next_attempt_time, create_time, update_time) VALUES " +
+            "<foreach collection='logs' item='log' separator=','>" +
+            "(#{log.reminderId}, #{log.userId}, #{log.channel}, 'queued', 0, NOW(), NOW(), NOW())" +
+            "</foreach>" +
+            "</script>")
+    int insertQueuedBatch(@Param("logs") List<NotificationLog> logs);
+
+    /**
+     * 领取到达发送时间的待发送记录，多实例下每条记录只会被一个节点领取
+     *
+     * @param channel    通知渠道
+     * @param claimToken 领取标识，每次领取唯一
+     * @param limit      最多领取数量
+     * @return 领取的记录数
+     */
+    @Update("UPDATE notification_log SET status = 'sending', claim_token = #{claimToken}, update_time = NOW() " +
+            "WHERE channel = #{channel} AND status = 'queued' AND next_attempt_time <= NOW() ORDER BY id LIMIT #{limit}")
+    int claimDue(@Param("channel") String channel, @Param("claimToken") String claimToken, @Param("limit") int limit);
+
+    /**
+     * 查询本次领取的记录
+     *
+     * @param claimToken 领取标识
+     * @return 发送记录列表
+     */
+    @Select("SELECT * FROM notification_log WHERE claim_token = #{claimToken} AND status = 'sending' ORDER BY id")
+    List<NotificationLog> listClaimed(@Param("claimToken") String claimToken);
+
+    /**
+     * 标记发送成功
+     *
+     * @param ids       记录ID列表
+     * @param recipient 接收地址
+     * @return 更新行数
+     */
+    @Update("<script>" +
+            "UPDATE notification_log SET status = 'sent', recipient = #{recipient}, attempts = attempts + 1, " +
+            "error_message = NULL, claim_token = NULL, update_time = NOW() WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markSent(@Param("ids") List<Long> ids, @Param("recipient") String recipient);
+
+    /**
+     * 发送失败后延迟重试
+     *
+     * @param ids          记录ID列表
+     * @param error        失败原因
+     * @param delaySeconds 重试等待时间（秒）
+     * @return 更新行数
+     */
+    @Update("<script>" +
+            "UPDATE notification_log SET status = 'queued', attempts = attempts + 1, error_message = #{error}, claim_token = NULL, " +
+            "next_attempt_time = DATE_ADD(NOW(), INTERVAL #{delaySeconds} SECOND), update_time = NOW() WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markRetry(@Param("ids") List<Long> ids, @Param("error") String error, @Param("delaySeconds") long delaySeconds);
+
+    /**
+     * 标记最终发送失败
+     *
+     * @param ids   记录ID列表
+     * @param error 失败原因
+     * @return 更新行数
+     */
+    @Update("<script>" +
+            "UPDATE notification_log SET status = 'failed', attempts = attempts + 1, error_message = #{error}, claim_token = NULL, " +
+            "update_time = NOW() WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markFailed(@Param("ids") List<Long> ids, @Param("error") String error);
+
+    /**
+     * 归还已领取但未能提交发送的记录，不计入尝试次数
+     *
+     * @param ids 记录ID列表
+     * @return 更新行数
+     */
+    @Update("<script>" +
+            "UPDATE notification_log SET status = 'queued', claim_token = NULL, update_time = NOW() WHERE status = 'sending' AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int release(@Param("ids") List<Long> ids);
+
+    /**
+     * 归还长时间处于发送中的记录（发送节点宕机或重启），重新进入待发送状态
+     *
+     * @param staleSeconds 超时时间（秒）
+     * @return 更新行数
+     */
+    @Update("UPDATE notification_log SET status = 'queued', claim_token = NULL, update_time = NOW() " +
+            "WHERE status = 'sending' AND update_time < DATE_SUB(NOW(), INTERVAL #{staleSeconds} SECOND)")
+    int releaseStale(@Param("staleSeconds") long staleSeconds);
+}
@@ -1,15 +1,23 @@
 package com.chii.homemanagement.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.chii.homemanagement.entity.Reminder;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 import org.apache.ibatis.annotations.Results;
 import org.apache.ibatis.annotations.Result;
 import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,7 +26,52 @@ import java.util.List;
 @Mapper
 public interface ReminderMapper extends BaseMapper<Reminder> {
 
-    
+    /**
+     * 提醒关联物品名称的筛选查询
+     * 物品名称通过关联查询获得，并限定物品与提醒属于同一用户
+     */
+    String REMINDER_WITH_ENTITY_SQL = "<script>" +
+            "SELECT r.*, e.name AS entity_name FROM reminder r " +
+            "LEFT JOIN entity e ON e.id = r.entity_id AND e.user_id = r.user_id " +
+            "<where>" +
+            "<if test='userId != null'> AND r.user_id = #{userId}</if>" +
+            "<if test='entityId != null'> AND r.entity_id = #{entityId}</if>" +
+            "<if test='entityName != null and entityName != \"\"'> AND e.name LIKE CONCAT('%', #{entityName}, '%')</if>" +
+            "<if test='type != null and type != \"\"'> AND r.type = #{type}</if>" +
+            "<if test='status != null and status != \"\"'> AND r.status = #{status}</if>" +
+            "</where>" +
+            " ORDER BY r.remind_date ASC, r.create_time DESC" +
+            "</script>";
+
+    /**
+     * 分页查询提醒（附带物品名称）
+     *
+     * @param page       分页参数
+     * @param userId     用户ID
+     * @param entityId   物品ID
+     * @param entityName 物品名称
+     * @param type       提醒类型
+     * @param status     提醒状态
+     * @return 提醒分页结果
+     */
+    @Select(REMINDER_WITH_ENTITY_SQL)
+    IPage<Reminder> pageRemindersWithEntity(IPage<Reminder> page, @Param("userId") Long userId, @Param("entityId") Long entityId,
+                                            @Param("entityName") String entityName, @Param("type") String type, @Param("status") String status);
+
+    /**
+     * 查询提醒列表（附带物品名称）
+     *
+     * @param userId     用户ID
+     * @param entityId   物品ID
+     * @param entityName 物品名称
+     * @param type       提醒类型
+     * @param status     提醒状态
+     * @return 提醒列表
+     */
+    @Select(REMINDER_WITH_ENTITY_SQL)
+    List<Reminder> listRemindersWithEntity(@Param("userId") Long userId, @Param("entityId") Long entityId,
+                                           @Param("entityName") String entityName, @Param("type") String type, @Param("status") String status);
+
     /**
      * 查询指定日期的提醒
      *
@@ -47,4 +100,158 @@ public interface ReminderMapper extends BaseMapper<Reminder> {
      */
     @Select("SELECT * FROM reminder WHERE entity_id = #{entityId} ORDER BY remind_date ASC, id DESC")
     List<Reminder> findRemindersByEntityId(@Param("entityId") Long entityId);
-} 
\ No newline at end of file
+
+    /**
+     * 按主键游标查询过期的待提醒记录，每次最多返回limit条
+     * 可按用户ID范围限定；fromUserId为空时同时包含未关联用户的提醒
+     *
+     * @param date       截止日期（不含）
+     * @param fromUserId 用户ID下限（含），为空表示不限
+     * @param toUserId   用户ID上限（含），为空表示不限
+     * @param lastId     上一批最后一个提醒ID
+     * @param limit      单批数量
+     * @return 提醒列表
+     */
+    @Select("<script>" +
+            "SELECT * FROM reminder " +
+            "WHERE status = 'pending' AND remind_date &lt; #{date} AND id &gt; #{lastId}" +
+            "<if test='fromUserId != null'> AND user_id &gt;= #{fromUserId}</if>" +
+            "<if test='fromUserId != null and toUserId != null'> AND user_id &lt;= #{toUserId}</if>" +
+            "<if test='fromUserId == null and toUserId != null'> AND (user_id IS NULL OR user_id &lt;= #{toUserId})</if>" +
+            " ORDER BY id LIMIT #{limit}" +
+            "</script>")
+    List<Reminder> listExpiredPendingReminders(@Param("date") LocalDate date, @Param("fromUserId") Long fromUserId,
+                                               @Param("toUserId") Long toUserId, @Param("lastId") long lastId,
+                                               @Param("limit") int limit);
+
+    /**
+     * 按主键游标查询指定日期范围内的待提醒记录（仅返回调度所需字段）
+     *
+     * @param startDate 开始日期（含）
+     * @param endDate   结束日期（含）
+     * @param lastId    上一批最后一个提醒ID
+     * @param limit     单批数量
+     * @return 提醒列表
+     */
+    @Select("SELECT id, remind_date, remind_time FROM reminder " +
+            "WHERE status = 'pending' AND remind_date >= #{startDate} AND remind_date <= #{endDate} AND id > #{lastId} " +
+            "ORDER BY id LIMIT #{limit}")
+    List<Reminder> listPendingForDispatch(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                          @Param("lastId") Long lastId, @Param("limit") int limit);
+
+    /**
+     * 将单条待提醒记录标记为已提醒，多实例下只有一个节点能更新成功
+     *
+     * @param id 提醒ID
+     * @return 1-更新成功，0-已被处理
+     */
+    @Update("UPDATE reminder SET status = 'sent', update_time = NOW() WHERE id = #{id} AND status = 'pending'")
+    int markReminderSent(@Param("id") Long id);
+
+    /**
+     * 将一批提醒中仍为待提醒的记录标记为已提醒并写入领取标识，多实例下每条记录只会被一个节点领取
+     *
+     * @param ids        提醒ID列表
+     * @param claimToken 领取标识，每次领取唯一
+     * @return 领取的记录数
+     */
+    @Update("<script>" +
+            "UPDATE reminder SET status = 'sent', claim_token = #{claimToken}, update_time = NOW() " +
+            "WHERE status = 'pending' AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int claimReminders(@Param("ids") Collection<Long> ids, @Param("claimToken") String claimToken);
+
+    /**
+     * 查询一批提醒中本次领取的记录ID
+     *
+     * @param ids        提醒ID列表
+     * @param claimToken 领取标识
+     * @return 提醒ID列表
+     */
+    @Select("<script>" +
+            "SELECT id FROM reminder WHERE claim_token = #{claimToken} AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<Long> listClaimedIds(@Param("ids") Collection<Long> ids, @Param("claimToken") String claimToken);
+
+    /**
+     * 按主键游标查询重复提醒系列的首条提醒
+     * 可按用户ID范围限定；fromUserId为空时同时包含未关联用户的提醒
+     *
+     * @param fromUserId 用户ID下限（含），为空表示不限
+     * @param toUserId   用户ID上限（含），为空表示不限
+     * @param lastId     上一批最后一个提醒ID
+     * @param limit      单批数量
+     * @return 系列首条提醒列表
+     */
+    @Select("<script>" +
+            "SELECT * FROM reminder " +
+            "WHERE is_recurring = 1 AND recurring_cycle IS NOT NULL AND (series_id IS NULL OR series_id = id) AND id &gt; #{lastId}" +
+            "<if test='fromUserId != null'> AND user_id &gt;= #{fromUserId}</if>" +
+            "<if test='fromUserId != null and toUserId != null'> AND user_id &lt;= #{toUserId}</if>" +
+            "<if test='fromUserId == null and toUserId != null'> AND (user_id IS NULL OR user_id &lt;= #{toUserId})</if>" +
+            " ORDER BY id LIMIT #{limit}" +
+            "</script>")
+    List<Reminder> listRecurringSeries(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId,
+                                       @Param("lastId") Long lastId, @Param("limit") int limit);
+
+    /**
+     * 查询用户的重复提醒系列首条提醒
+     *
+     * @param userId 用户ID
+     * @return 系列首条提醒列表
+     */
+    @Select("SELECT * FROM reminder WHERE user_id = #{userId} AND is_recurring = 1 AND recurring_cycle IS NOT NULL " +
+            "AND (series_id IS NULL OR series_id = id)")
+    List<Reminder> listRecurringSeriesByUser(@Param("userId") Long userId);
+
+    /**
+     * 查询各系列已生成的最后日期（仅返回series_id和remind_date）
+     *
+     * @param seriesIds 系列ID集合
+     * @return 每个系列一条记录
+     */
+    @Select("<script>" +
+            "SELECT series_id, MAX(remind_date) AS remind_date FROM reminder WHERE series_id IN " +
+            "<foreach collection='seriesIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " GROUP BY series_id" +
+            "</script>")
+    List<Reminder> listSeriesLastDates(@Param("seriesIds") Collection<Long> seriesIds);
+
+    /**
+     * 批量插入重复提醒，系列中同一日期已存在时忽略（依赖uk_series_date唯一索引）
+     *
+     * @param reminders 提醒列表
+     * @return 实际插入行数
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO reminder(entity_id, user_id, content, remind_date, remind_time, type, status, notification_methods, " +
+            "days_in_advance, is_recurring, recurring_cycle, series_id, create_time, update_time) VALUES " +
+            "<foreach collection='reminders' item='r' separator=','>" +
+            "(#{r.entityId}, #{r.userId}, #{r.content}, #{r.remindDate}, #{r.remindTime}, #{r.type}, #{r.status}, #{r.notificationMethods}, " +
+            "#{r.daysInAdvance}, #{r.isRecurring}, #{r.recurringCycle}, #{r.seriesId}, #{r.createTime}, #{r.updateTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("reminders") List<Reminder> reminders);
+
+    /**
+     * 删除系列中指定日期之后尚未提醒的后续提醒（不含系列首条）
+     *
+     * @param seriesId 系列ID
+     * @param date     日期（不含）
+     * @return 删除行数
+     */
+    @Delete("DELETE FROM reminder WHERE series_id = #{seriesId} AND id != #{seriesId} AND status = 'pending' AND remind_date > #{date}")
+    int deleteFutureOccurrences(@Param("seriesId") Long seriesId, @Param("date") LocalDate date);
+
+    /**
+     * 流式读取用户的全部提醒，按ID排序，重复提醒系列的首条总在其他提醒之前
+     *
+     * @param userId 用户ID
+     * @return 提醒游标，需在事务中遍历
+     */
+    @Select("SELECT * FROM reminder WHERE user_id = #{userId} ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Reminder> streamByUserId(@Param("userId") Long userId);
+}
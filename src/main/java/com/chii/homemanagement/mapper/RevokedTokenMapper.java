@@ -0,0 +1,51 @@
+package com.chii.homemanagement.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chii.homemanagement.entity.RevokedToken;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 已吊销令牌Mapper接口
+ */
+@Mapper
+public interface RevokedTokenMapper extends BaseMapper<RevokedToken> {
+
+    /**
+     * 记录吊销的令牌，已存在时忽略；吊销时间取数据库时间，作为各节点同步的水位
+     *
+     * @param token 吊销记录
+     * @return 插入行数
+     */
+    @Insert("INSERT IGNORE INTO revoked_token(jti, username, expires_at, revoked_at) " +
+            "VALUES(#{token.jti}, #{token.username}, #{token.expiresAt}, NOW(3))")
+    int insertIgnore(@Param("token") RevokedToken token);
+
+    /**
+     * 查询指定时间之后吊销且尚未过期的令牌
+     *
+     * @param since 吊销时间下限（含），为空表示全部
+     * @return 吊销记录
+     */
+    @Select("<script>" +
+            "SELECT jti, expires_at, revoked_at FROM revoked_token WHERE expires_at &gt; NOW()" +
+            "<if test='since != null'> AND revoked_at &gt;= #{since}</if>" +
+            " ORDER BY revoked_at" +
+            "</script>")
+    List<RevokedToken> listRevokedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 删除已过期的吊销记录
+     *
+     * @param limit 单次删除数量
+     * @return 删除行数
+     */
+    @Delete("DELETE FROM revoked_token WHERE expires_at < NOW() LIMIT #{limit}")
+    int deleteExpired(@Param("limit") int limit);
+}
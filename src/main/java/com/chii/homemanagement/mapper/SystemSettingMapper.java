@@ -19,6 +19,14 @@ public interface SystemSettingMapper {
     @Select("SELECT * FROM system_settings WHERE type = #{type} AND (user_id = #{userId} OR user_id IS NULL)")
     List<SystemSetting> findByTypeAndUserId(@Param("type") String type, @Param("userId") Long userId);
     
+    /**
+     * 获取系统设置和指定用户的个人设置，用于合并生效设置
+     * 系统设置的user_key为0，个人设置的user_key为用户ID，一次索引查询同时取出两者
+     */
+    @Select("SELECT type, user_id, setting_key, setting_value, default_value FROM system_settings " +
+            "WHERE user_key IN (0, #{userId})")
+    List<SystemSetting> findSystemAndUserSettings(@Param("userId") Long userId);
+
     /**
      * 根据类型获取设置列表（仅系统设置）
      */
@@ -44,6 +52,18 @@ public interface SystemSettingMapper {
             "VALUES(#{type}, #{userId}, #{settingKey}, #{settingValue}, #{name}, #{createdAt}, #{updatedAt}, #{createdBy}, #{updatedBy}, #{defaultValue}) " +
             "ON DUPLICATE KEY UPDATE setting_value = #{settingValue}, updated_at = #{updatedAt}, updated_by = #{updatedBy}")
     void saveOrUpdate(SystemSetting setting);
+
+    /**
+     * 批量保存或更新设置，一条多行INSERT语句完成
+     */
+    @Insert("<script>" +
+            "INSERT INTO system_settings(type, user_id, setting_key, setting_value, name, created_at, updated_at, created_by, updated_by, default_value) VALUES " +
+            "<foreach collection='settings' item='s' separator=','>" +
+            "(#{s.type}, #{s.userId}, #{s.settingKey}, #{s.settingValue}, #{s.name}, #{s.createdAt}, #{s.updatedAt}, #{s.createdBy}, #{s.updatedBy}, #{s.defaultValue})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE setting_value = VALUES(setting_value), updated_at = VALUES(updated_at), updated_by = VALUES(updated_by)" +
+            "</script>")
+    int upsertBatch(@Param("settings") List<SystemSetting> settings);
     
     /**
      * 删除用户设置
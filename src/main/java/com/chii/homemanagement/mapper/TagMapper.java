@@ -8,7 +8,11 @@ import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Results;
 import org.apache.ibatis.annotations.Result;
 import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -40,4 +44,28 @@ public interface TagMapper extends BaseMapper<Tag> {
             "WHERE user_id = #{userId} " +
             "ORDER BY id")
     List<Tag> getTagsByUserId(@Param("userId") Long userId);
-} 
\ No newline at end of file
+
+    /**
+     * 按名称批量查询用户的标签
+     *
+     * @param userId 用户ID
+     * @param names  标签名称
+     * @return 标签列表
+     */
+    @Select("<script>" +
+            "SELECT id, name, color, user_id, create_user_id, create_time, update_time FROM tag " +
+            "WHERE user_id = #{userId} AND name IN " +
+            "<foreach collection='names' item='name' open='(' separator=',' close=')'>#{name}</foreach>" +
+            "</script>")
+    List<Tag> listByNames(@Param("userId") Long userId, @Param("names") Collection<String> names);
+
+    /**
+     * 流式读取用户的全部标签，用于账户数据导出
+     *
+     * @param userId 用户ID
+     * @return 标签游标，需在事务中遍历
+     */
+    @Select("SELECT * FROM tag WHERE user_id = #{userId} ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Tag> streamByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,54 @@
+package com.chii.homemanagement.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chii.homemanagement.entity.TokenWatermark;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用户令牌失效水位Mapper接口
+ */
+@Mapper
+public interface TokenWatermarkMapper extends BaseMapper<TokenWatermark> {
+
+    /**
+     * 提升用户的令牌失效水位，水位只增不减；更新时间取数据库时间，作为各节点同步的水位
+     *
+     * @param username  用户名
+     * @param notBefore 早于该时间签发的令牌失效
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO token_watermark(username, not_before, updated_at) VALUES(#{username}, #{notBefore}, NOW(3)) " +
+            "ON DUPLICATE KEY UPDATE not_before = GREATEST(not_before, VALUES(not_before)), updated_at = NOW(3)")
+    int raise(@Param("username") String username, @Param("notBefore") LocalDateTime notBefore);
+
+    /**
+     * 查询指定时间之后更新的水位
+     *
+     * @param since 更新时间下限（含），为空表示全部
+     * @param after 只返回晚于该时间的水位，更早的水位之前签发的令牌都已过期
+     * @return 水位记录
+     */
+    @Select("<script>" +
+            "SELECT username, not_before, updated_at FROM token_watermark WHERE not_before &gt; #{after}" +
+            "<if test='since != null'> AND updated_at &gt;= #{since}</if>" +
+            " ORDER BY updated_at" +
+            "</script>")
+    List<TokenWatermark> listUpdatedSince(@Param("since") LocalDateTime since, @Param("after") LocalDateTime after);
+
+    /**
+     * 删除已不再需要的水位记录
+     *
+     * @param before 水位早于该时间的记录可删除
+     * @param limit  单次删除数量
+     * @return 删除行数
+     */
+    @Delete("DELETE FROM token_watermark WHERE not_before < #{before} LIMIT #{limit}")
+    int deleteBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -43,4 +43,20 @@ public interface UserMapper extends BaseMapper<User> {
      */
     @Select("SELECT username FROM user WHERE userId = #{userId}")
     String getUserName(@Param("userId") Long userId);
-} 
\ No newline at end of file
+
+    /**
+     * 获取最小用户ID
+     *
+     * @return 最小用户ID，无用户时为null
+     */
+    @Select("SELECT MIN(id) FROM user")
+    Long selectMinUserId();
+
+    /**
+     * 获取最大用户ID
+     *
+     * @return 最大用户ID，无用户时为null
+     */
+    @Select("SELECT MAX(id) FROM user")
+    Long selectMaxUserId();
+}
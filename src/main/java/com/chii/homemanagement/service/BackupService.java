@@ -0,0 +1,53 @@
+package com.chii.homemanagement.service;
+
+import com.chii.homemanagement.common.BackupManifest;
+
+import java.util.List;
+
+/**
+ * 备份服务接口
+ * 备份内容为业务表的一致性快照和上传目录，按系统设置中的自动备份参数定时执行
+ */
+public interface BackupService {
+
+    /**
+     * 立即执行一次备份
+     * 存在可用的上一个备份且增量链未超过上限时执行增量备份，只写入变更的行和文件
+     *
+     * @param full 是否强制全量备份
+     * @return 备份清单
+     */
+    BackupManifest backup(boolean full);
+
+    /**
+     * 已完成的备份列表
+     *
+     * @return 按时间升序排列的备份清单
+     */
+    List<BackupManifest> listBackups();
+
+    /**
+     * 校验备份：备份链是否完整、各分卷的大小和SHA-256是否与清单一致
+     *
+     * @param backupId 备份ID
+     * @return 发现的问题，为空表示校验通过
+     */
+    List<String> verify(String backupId);
+
+    /**
+     * 恢复到指定备份
+     * 恢复前校验备份链，数据库在一个事务中恢复并按清单校验各表行数，失败时整体回滚；
+     * 文件逐个校验SHA-256后替换，并删除备份中不存在的文件
+     *
+     * @param backupId 备份ID
+     */
+    void restore(String backupId);
+
+    /**
+     * 按保留数量清理旧备份，仍被保留备份依赖的全量和增量备份不会删除
+     *
+     * @param retention 保留的备份数量
+     * @return 删除的备份数量
+     */
+    int prune(int retention);
+}
@@ -0,0 +1,68 @@
+package com.chii.homemanagement.service;
+
+import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.exception.BusinessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * 实体导出服务接口
+ */
+public interface EntityExportService {
+
+    /**
+     * 将用户的全部实体流式写入输出流
+     * 列与导入模板一致，空间排在其内部物品之前，导出文件可直接重新导入
+     *
+     * @param userId 用户ID
+     * @param format 导出格式
+     * @param gzip   是否gzip压缩
+     * @param out    输出流，由调用方关闭
+     * @return 导出的行数
+     * @throws IOException 写入失败
+     */
+    int exportEntities(Long userId, Format format, boolean gzip, OutputStream out) throws IOException;
+
+    /**
+     * 导出格式
+     */
+    enum Format {
+        CSV("csv", "text/csv;charset=UTF-8"),
+        XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        JSON("json", "application/json;charset=UTF-8");
+
+        private final String extension;
+
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * 解析导出格式
+         *
+         * @param value 格式名称，如csv
+         * @return 导出格式
+         */
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.extension.equals(value == null ? "" : value.toLowerCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+            throw new BusinessException(ErrorCode.PARAM_NOT_VALID.getCode(), "不支持的导出格式: " + value);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.chii.homemanagement.service;
+
+import com.chii.homemanagement.common.ImportResult;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 实体批量导入服务接口
+ */
+public interface EntityImportService {
+
+    /**
+     * 从CSV或XLSX文件导入实体
+     * 第一行为表头，支持中文或英文列名；单行数据有误时记录错误并继续导入其余行
+     *
+     * @param file   导入文件
+     * @param userId 当前用户ID
+     * @return 导入结果
+     */
+    ImportResult importEntities(MultipartFile file, Long userId);
+}
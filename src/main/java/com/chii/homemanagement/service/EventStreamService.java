@@ -0,0 +1,34 @@
+package com.chii.homemanagement.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 实时事件推送服务接口
+ * 以Server-Sent Events向用户的所有连接推送提醒和仪表盘变化
+ */
+public interface EventStreamService {
+
+    /**
+     * 建立用户的事件流连接
+     *
+     * @param userId 用户ID
+     * @return SSE发送器
+     */
+    SseEmitter subscribe(Long userId);
+
+    /**
+     * 向用户的所有连接推送事件
+     *
+     * @param userId 用户ID
+     * @param name   事件名称
+     * @param data   事件数据
+     */
+    void publish(Long userId, String name, Object data);
+
+    /**
+     * 当前连接总数
+     *
+     * @return 连接数量
+     */
+    int getConnectionCount();
+}
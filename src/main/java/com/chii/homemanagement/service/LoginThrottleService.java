@@ -0,0 +1,25 @@
+package com.chii.homemanagement.service;
+
+/**
+ * 登录限流服务接口
+ * 在密码校验之前按客户端IP以及（用户名, 客户端IP）限制登录尝试次数
+ */
+public interface LoginThrottleService {
+
+    /**
+     * 尝试获取一次登录机会
+     *
+     * @param username 用户名
+     * @param clientIp 客户端IP
+     * @return 是否允许本次登录尝试
+     */
+    boolean tryAcquire(String username, String clientIp);
+
+    /**
+     * 登录成功后恢复该用户名在该IP上的登录次数
+     *
+     * @param username 用户名
+     * @param clientIp 客户端IP
+     */
+    void onSuccess(String username, String clientIp);
+}
@@ -0,0 +1,31 @@
+package com.chii.homemanagement.service;
+
+import com.chii.homemanagement.entity.Reminder;
+
+/**
+ * 提醒调度服务接口
+ * 将近期待提醒记录加载到内存时间轮中，在到期分钟触发提醒
+ */
+public interface ReminderDispatchService {
+
+    /**
+     * 将提醒加入调度（不在调度窗口内或非待提醒状态时忽略）
+     *
+     * @param reminder 提醒对象
+     */
+    void schedule(Reminder reminder);
+
+    /**
+     * 从数据库加载调度窗口内的待提醒记录
+     *
+     * @return 新加入调度的提醒数量
+     */
+    int refill();
+
+    /**
+     * 推进时间轮并发送已到期的提醒
+     *
+     * @return 发送的提醒数量
+     */
+    int dispatchDue();
+}
@@ -0,0 +1,35 @@
+package com.chii.homemanagement.service;
+
+import com.chii.homemanagement.entity.Reminder;
+
+import java.util.List;
+
+/**
+ * 提醒通知服务接口
+ * 到期提醒先写入发件箱，再定期按用户汇总为摘要邮件后发送
+ */
+public interface ReminderNotificationService {
+
+    /**
+     * 将到期提醒写入发件箱（通知方式不含email时忽略）
+     *
+     * @param reminder 到期提醒
+     * @return 是否写入发件箱，已存在时返回false
+     */
+    boolean enqueue(Reminder reminder);
+
+    /**
+     * 将一批到期提醒以一条语句写入发件箱（通知方式不含email的提醒忽略）
+     *
+     * @param reminders 到期提醒
+     * @return 实际写入的记录数
+     */
+    int enqueueAll(List<Reminder> reminders);
+
+    /**
+     * 领取发件箱中到期的记录，按用户汇总为摘要并提交发送
+     *
+     * @return 提交发送的摘要数量
+     */
+    int flush();
+}
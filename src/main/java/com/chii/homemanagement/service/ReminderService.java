@@ -64,6 +64,7 @@ public interface ReminderService {
 
     /**
      * 获取指定日期范围的提醒
+     * 超出重复提醒生成窗口的日期按系列规则推算，推算的提醒projected为true且没有ID
      *
      * @param userId  用户ID
      * @param startDate 开始日期
@@ -96,8 +97,48 @@ public interface ReminderService {
 
     /**
      * 检查并更新过期提醒状态
+     *
+     * @return 状态被更新的提醒数量
+     */
+    int processExpiredReminders();
+
+    /**
+     * 检查并更新指定用户ID范围内的过期提醒状态
+     *
+     * @param fromUserId 用户ID下限（含），为空表示不限（同时包含未关联用户的提醒）
+     * @param toUserId   用户ID上限（含），为空表示不限
+     * @return 状态被更新的提醒数量
+     */
+    int processExpiredReminders(Long fromUserId, Long toUserId);
+
+    /**
+     * 为指定用户ID范围内的重复提醒系列生成滚动窗口内的后续提醒
+     * 已生成的日期不会重复生成，可重复执行
+     *
+     * @param fromUserId 用户ID下限（含），为空表示不限
+     * @param toUserId   用户ID上限（含），为空表示不限
+     * @return 生成的提醒数量
+     */
+    int materializeRecurringReminders(Long fromUserId, Long toUserId);
+
+    /**
+     * 为指定用户ID范围内保修即将到期（指定天数内）且尚无保修提醒的物品批量生成提醒
+     *
+     * @param days       提前天数
+     * @param fromUserId 用户ID下限（含），为空表示不限
+     * @param toUserId   用户ID上限（含），为空表示不限
+     * @return 生成的提醒数量
+     */
+    int generateExpiringWarrantyReminders(int days, Long fromUserId, Long toUserId);
+
+    /**
+     * 为指定用户ID范围内保修已过期且尚无过期提醒的物品批量生成提醒
+     *
+     * @param fromUserId 用户ID下限（含），为空表示不限
+     * @param toUserId   用户ID上限（含），为空表示不限
+     * @return 生成的提醒数量
      */
-    void processExpiredReminders();
+    int generateExpiredWarrantyReminders(Long fromUserId, Long toUserId);
 
     /**
      * 按状态查询提醒
@@ -1,5 +1,6 @@
 package com.chii.homemanagement.service;
 
+import com.chii.homemanagement.common.EffectiveSettings;
 import com.chii.homemanagement.entity.SystemSetting;
 
 import java.util.List;
@@ -60,6 +61,12 @@ public interface SystemSettingService {
      */
     Map<String, Object> getUserSettingsAsMap(Long userId);
     
+    /**
+     * 获取用户的生效设置
+     * 按用户个人设置、系统设置值、系统预设值的优先级合并，结果会被缓存
+     */
+    EffectiveSettings getEffectiveSettings(Long userId);
+    
     /**
      * 初始化默认系统参数设置
      */
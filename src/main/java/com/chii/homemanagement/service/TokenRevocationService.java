@@ -0,0 +1,51 @@
+package com.chii.homemanagement.service;
+
+import com.chii.homemanagement.util.JwtUtil;
+
+/**
+ * 令牌吊销服务接口
+ */
+public interface TokenRevocationService {
+
+    /**
+     * 吊销令牌，令牌过期前都将被拒绝
+     * 吊销记录以jti为唯一键写入数据库，多个请求或节点并发吊销同一令牌时只有一个返回true
+     *
+     * @param claims 令牌声明
+     * @return 是否由本次调用完成吊销，已吊销、无效或已过期时返回false
+     */
+    boolean revoke(JwtUtil.TokenClaims claims);
+
+    /**
+     * 解析并吊销令牌，无效或已过期的令牌直接忽略
+     *
+     * @param token JWT令牌
+     */
+    void revoke(String token);
+
+    /**
+     * 判断令牌是否已吊销，每个请求都会调用，只查询内存
+     *
+     * @param jti       令牌唯一ID，为空时视为未吊销
+     * @param expiresAt 令牌过期时间（毫秒时间戳）
+     * @return 是否已吊销
+     */
+    boolean isRevoked(String jti, long expiresAt);
+
+    /**
+     * 吊销用户此前签发的全部令牌（删除用户、修改密码或状态时调用）
+     * 提升该用户的令牌失效水位并写入数据库，其他节点定期同步
+     *
+     * @param username 用户名，为空时忽略
+     */
+    void revokeUserTokens(String username);
+
+    /**
+     * 判断令牌是否签发于用户的令牌失效水位之前，每个请求都会调用，只查询内存
+     *
+     * @param username 用户名
+     * @param issuedAt 令牌签发时间（毫秒时间戳）
+     * @return 是否已失效
+     */
+    boolean isRevokedForUser(String username, long issuedAt);
+}
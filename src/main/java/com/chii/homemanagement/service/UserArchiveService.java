@@ -0,0 +1,33 @@
+package com.chii.homemanagement.service;
+
+import com.chii.homemanagement.common.ArchiveImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 账户数据包服务接口
+ * 用于在不同实例之间迁移一个用户的全部数据：实体、标签、标签关联、图片、维护记录、提醒和个人设置
+ */
+public interface UserArchiveService {
+
+    /**
+     * 将用户的全部数据写为一个ZIP数据包
+     * 逐条从数据库游标读取并写入输出流，图片文件直接复制，内存占用与数据量无关
+     *
+     * @param userId 用户ID
+     * @param out    输出流，不会被关闭
+     */
+    void exportArchive(Long userId, OutputStream out) throws IOException;
+
+    /**
+     * 从ZIP数据包导入数据到指定用户，与该用户已有的数据合并
+     * 单次顺序读取数据包，所有ID重新分配，实体路径按新ID重新计算，数据库写入在一个事务中完成
+     *
+     * @param userId 导入到的用户ID
+     * @param in     数据包输入流
+     * @return 导入结果
+     */
+    ArchiveImportResult importArchive(Long userId, InputStream in) throws IOException;
+}
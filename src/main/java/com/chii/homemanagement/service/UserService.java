@@ -1,6 +1,7 @@
 package com.chii.homemanagement.service;
 
 import com.chii.homemanagement.entity.User;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -8,8 +9,9 @@ import java.util.List;
 
 /**
  * 用户服务接口
+ * 同时作为登录时的密码升级服务，密码哈希强度低于当前配置时在登录成功后重新加密
  */
-public interface UserService extends UserDetailsService {
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
 
     /**
      * 根据ID获取用户
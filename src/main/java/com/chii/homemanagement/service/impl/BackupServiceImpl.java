@@ -0,0 +1,1010 @@
+package com.chii.homemanagement.service.impl;
+
+import com.chii.homemanagement.common.BackupManifest;
+import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.entity.JobLease;
+import com.chii.homemanagement.exception.BusinessException;
+import com.chii.homemanagement.mapper.BackupMapper;
+import com.chii.homemanagement.mapper.CacheVersionMapper;
+import com.chii.homemanagement.mapper.JobLeaseMapper;
+import com.chii.homemanagement.service.BackupService;
+import com.chii.homemanagement.service.SystemSettingService;
+import com.chii.homemanagement.util.ChunkedZipWriter;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 备份服务实现类
+ * <p>
+ * 每个备份是备份目录下的一个子目录，包含若干ZIP分卷、文件索引files.jsonl.gz和清单manifest.json：
+ * <ul>
+ *     <li>db/表名/序号.jsonl：表数据，每行一个JSON对象。全量备份包含全部行，增量备份只包含变更时间不早于上一个备份快照的行</li>
+ *     <li>ids/表名/序号.txt：增量备份时快照中的全部ID，恢复时据此删除已在后续被删除的行</li>
+ *     <li>files/相对路径：新增或内容变化的上传文件，未变化的文件只在索引中引用之前的备份</li>
+ * </ul>
+ * 所有表在同一个可重复读的只读事务中读取，得到一致性快照；备份先写入临时目录，完成后整体重命名，
+ * 没有清单的目录不会被当作可用备份。
+ * <p>
+ * 完成的备份同时写入数据库的备份记录，备份周期按集群内最近一次备份判断；多实例部署时备份目录必须是各节点共享的目录，
+ * 最近一次备份不在本节点备份目录中时拒绝增量备份，避免各节点在各自的目录中形成互不相连的备份链
+ */
+@Service
+@Slf4j
+public class BackupServiceImpl implements BackupService {
+
+    /**
+     * 备份的业务表及其变更时间列；update_time由数据库在行变更时维护，实体更新时不写入该列，避免写回旧值导致漏备份。
+     * 任务租约、吊销令牌、缓存版本和备份记录属于运行状态，不备份
+     */
+    private static final List<TableSpec> TABLES = List.of(
+            new TableSpec("user", "update_time"),
+            new TableSpec("tag", "update_time"),
+            new TableSpec("entity", "update_time"),
+            new TableSpec("entity_tag", "update_time"),
+            new TableSpec("entity_image", "update_time"),
+            new TableSpec("entity_maintenance", "update_time"),
+            new TableSpec("reminder", "update_time"),
+            new TableSpec("notification_log", "update_time"),
+            new TableSpec("system_settings", "updated_at")
+    );
+
+    private static final String MANIFEST_FILE = "manifest.json";
+
+    private static final String FILE_INDEX = "files.jsonl.gz";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 上传目录中的临时文件目录，不备份
+     */
+    private static final String UPLOAD_TEMP_DIR = "temp";
+
+    /**
+     * 已压缩格式的文件不再压缩
+     */
+    private static final Set<String> STORED_EXTENSIONS = Set.of(
+            "jpg", "jpeg", "png", "gif", "webp", "heic", "zip", "gz", "7z", "rar", "mp4", "mov", "mp3", "pdf", "xlsx", "docx");
+
+    /**
+     * 每写入多少行检查一次分卷大小
+     */
+    private static final int ROLL_CHECK_ROWS = 1000;
+
+    /**
+     * 定时备份租约时长（秒），保证多实例部署时同一天只由一个节点执行
+     */
+    private static final int LEASE_SECONDS = 6 * 3600;
+
+    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 备份目录，多实例部署时必须是各节点共享的目录
+     */
+    @Value("${backup.dir:backups}")
+    private String backupDir;
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    /**
+     * 单个分卷的大小上限（MB）
+     */
+    @Value("${backup.chunk-size-mb:64}")
+    private int chunkSizeMb;
+
+    /**
+     * 连续增量备份的最大数量，超出后执行全量备份
+     */
+    @Value("${backup.full-every:7}")
+    private int fullEvery;
+
+    /**
+     * 增量备份读取窗口向前重叠的秒数，覆盖快照时尚未提交的事务
+     */
+    @Value("${backup.incremental-overlap-seconds:300}")
+    private int overlapSeconds;
+
+    /**
+     * 恢复时每批写入的行数
+     */
+    @Value("${backup.restore-batch-size:500}")
+    private int restoreBatchSize;
+
+    @Autowired
+    private BackupMapper backupMapper;
+
+    @Autowired
+    private JobLeaseMapper jobLeaseMapper;
+
+    @Autowired
+    private CacheVersionMapper cacheVersionMapper;
+
+    @Autowired
+    private SystemSettingService systemSettingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate snapshotTransaction;
+
+    private final TransactionTemplate restoreTransaction;
+
+    private final ReentrantLock backupLock = new ReentrantLock();
+
+    private final ExecutorService backupExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "backup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+
+    private Path backupRoot;
+
+    private Path uploadRoot;
+
+    private ObjectReader rowReader;
+
+    public BackupServiceImpl(PlatformTransactionManager transactionManager) {
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.restoreTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        this.backupRoot = Paths.get(backupDir).toAbsolutePath().normalize();
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        // 小数按BigDecimal读取，避免金额精度损失
+        this.rowReader = objectMapper.readerForMapOf(Object.class).with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        backupExecutor.shutdownNow();
+    }
+
+    /**
+     * 按系统设置检查是否需要执行自动备份
+     */
+    @Scheduled(fixedDelayString = "${backup.check-interval-ms:60000}")
+    public void checkSchedule() {
+        try {
+            Map<String, Object> settings = systemSettingService.getSystemSettingsAsMap();
+            if (!Boolean.parseBoolean(String.valueOf(settings.get("autoBackup")))) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (now.toLocalTime().isBefore(parseTime(settings.get("backupTime")))) {
+                return;
+            }
+            LocalDateTime lastBackup = lastBackupTime();
+            if (lastBackup != null) {
+                LocalDate lastDate = lastBackup.toLocalDate();
+                if (now.toLocalDate().isBefore(nextBackupDate(lastDate, String.valueOf(settings.get("backupFrequency"))))) {
+                    return;
+                }
+            }
+            if (backupLock.isLocked()) {
+                return;
+            }
+
+            String leaseKey = "backup:" + now.toLocalDate() + ":0";
+            if (!acquireLease(leaseKey, now.toLocalDate())) {
+                return;
+            }
+            backupExecutor.execute(() -> {
+                try {
+                    backup(false);
+                    jobLeaseMapper.completeLease(leaseKey, nodeId);
+                } catch (Exception e) {
+                    log.error("自动备份失败", e);
+                    jobLeaseMapper.releaseLease(leaseKey, nodeId);
+                }
+            });
+        } catch (Exception e) {
+            log.error("检查自动备份计划失败", e);
+        }
+    }
+
+    @Override
+    public BackupManifest backup(boolean full) {
+        if (!backupLock.tryLock()) {
+            throw new BusinessException(ErrorCode.SYSTEM_BUSY.getCode(), "备份或恢复正在进行中");
+        }
+        try {
+            BackupManifest manifest = doBackup(full);
+            prune(retentionSetting());
+            return manifest;
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.IO_ERROR.getCode(), "备份失败: " + e.getMessage());
+        } finally {
+            backupLock.unlock();
+        }
+    }
+
+    @Override
+    public List<BackupManifest> listBackups() {
+        if (!Files.isDirectory(backupRoot)) {
+            return new ArrayList<>();
+        }
+        List<BackupManifest> backups = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(backupRoot)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                Path manifestFile = dir.resolve(MANIFEST_FILE);
+                if (dir.getFileName().toString().endsWith(TEMP_SUFFIX) || !Files.isRegularFile(manifestFile)) {
+                    continue;
+                }
+                try {
+                    backups.add(objectMapper.readValue(manifestFile.toFile(), BackupManifest.class));
+                } catch (IOException e) {
+                    log.warn("读取备份清单失败: {}, error={}", manifestFile, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.IO_ERROR.getCode(), "读取备份目录失败: " + e.getMessage());
+        }
+        backups.sort(Comparator.comparing(BackupManifest::getId));
+        return backups;
+    }
+
+    @Override
+    public List<String> verify(String backupId) {
+        List<String> problems = new ArrayList<>();
+        Map<String, BackupManifest> byId = indexById(listBackups());
+        BackupManifest target = byId.get(backupId);
+        if (target == null) {
+            problems.add("备份不存在: " + backupId);
+            return problems;
+        }
+        List<BackupManifest> chain;
+        try {
+            chain = chainOf(target, byId);
+        } catch (BusinessException e) {
+            problems.add(e.getMessage());
+            return problems;
+        }
+
+        for (BackupManifest backup : chain) {
+            Path dir = backupRoot.resolve(backup.getId());
+            for (ChunkedZipWriter.Chunk chunk : backup.getChunks()) {
+                Path file = dir.resolve(chunk.name());
+                try {
+                    if (!Files.isRegularFile(file)) {
+                        problems.add("分卷不存在: " + backup.getId() + "/" + chunk.name());
+                    } else if (Files.size(file) != chunk.size()) {
+                        problems.add("分卷大小不一致: " + backup.getId() + "/" + chunk.name());
+                    } else if (!sha256(file).equals(chunk.sha256())) {
+                        problems.add("分卷校验和不一致: " + backup.getId() + "/" + chunk.name());
+                    }
+                } catch (IOException e) {
+                    problems.add("读取分卷失败: " + backup.getId() + "/" + chunk.name() + ", " + e.getMessage());
+                }
+            }
+        }
+
+        Path indexFile = backupRoot.resolve(target.getId()).resolve(FILE_INDEX);
+        try {
+            if (!Files.isRegularFile(indexFile) || !sha256(indexFile).equals(target.getFileIndexSha256())) {
+                problems.add("文件索引缺失或校验和不一致: " + target.getId());
+            } else {
+                Set<String> chainIds = chain.stream().map(BackupManifest::getId).collect(Collectors.toSet());
+                for (FileEntry entry : readFileIndex(target.getId()).values()) {
+                    if (!chainIds.contains(entry.backupId())) {
+                        problems.add("文件 " + entry.path() + " 引用的备份不在备份链中: " + entry.backupId());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            problems.add("读取文件索引失败: " + e.getMessage());
+        }
+        return problems;
+    }
+
+    @Override
+    public void restore(String backupId) {
+        if (!backupLock.tryLock()) {
+            throw new BusinessException(ErrorCode.SYSTEM_BUSY.getCode(), "备份或恢复正在进行中");
+        }
+        try {
+            List<String> problems = verify(backupId);
+            if (!problems.isEmpty()) {
+                problems.forEach(problem -> log.error("备份校验失败: {}", problem));
+                throw new BusinessException(ErrorCode.DATA_VALIDATE_FAILED.getCode(), "备份校验失败: " + problems.get(0));
+            }
+            long startTime = System.currentTimeMillis();
+            Map<String, BackupManifest> byId = indexById(listBackups());
+            List<BackupManifest> chain = chainOf(byId.get(backupId), byId);
+            BackupManifest target = chain.get(chain.size() - 1);
+            log.info("开始恢复备份 {}，备份链: {}", backupId, chain.stream().map(BackupManifest::getId).toList());
+
+            restoreTransaction.executeWithoutResult(status -> restoreTables(chain, target));
+            int files = restoreFiles(chain, target);
+            // 通知各节点重新加载设置缓存
+            cacheVersionMapper.increment("settings");
+
+            log.info("备份 {} 恢复完成: 表={}, 恢复文件={}, 耗时={}ms",
+                    backupId, target.getTables().keySet(), files, System.currentTimeMillis() - startTime);
+        } catch (IOException | UncheckedIOException e) {
+            throw new BusinessException(ErrorCode.IO_ERROR.getCode(), "恢复失败: " + e.getMessage());
+        } finally {
+            backupLock.unlock();
+        }
+    }
+
+    @Override
+    public int prune(int retention) {
+        backupLock.lock();
+        try {
+            List<BackupManifest> backups = listBackups();
+            Map<String, BackupManifest> byId = indexById(backups);
+            Set<String> keep = new HashSet<>();
+            for (int i = Math.max(0, backups.size() - Math.max(1, retention)); i < backups.size(); i++) {
+                BackupManifest backup = backups.get(i);
+                try {
+                    chainOf(backup, byId).forEach(b -> keep.add(b.getId()));
+                } catch (BusinessException e) {
+                    keep.add(backup.getId());
+                }
+            }
+
+            int deleted = 0;
+            List<String> deletedIds = new ArrayList<>();
+            try (Stream<Path> dirs = Files.list(backupRoot)) {
+                for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                    String name = dir.getFileName().toString();
+                    // 未完成的临时目录和不再需要的备份
+                    boolean stale = name.endsWith(TEMP_SUFFIX) || (byId.containsKey(name) && !keep.contains(name));
+                    if (stale) {
+                        deleteDirectory(dir);
+                        deleted++;
+                        if (byId.containsKey(name)) {
+                            deletedIds.add(name);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("清理旧备份失败: {}", e.getMessage());
+            }
+            if (!deletedIds.isEmpty()) {
+                backupMapper.deleteRecords(deletedIds);
+            }
+            if (deleted > 0) {
+                log.info("清理旧备份 {} 个，保留 {} 个", deleted, keep.size());
+            }
+            return deleted;
+        } finally {
+            backupLock.unlock();
+        }
+    }
+
+    private BackupManifest doBackup(boolean forceFull) throws IOException {
+        List<BackupManifest> backups = listBackups();
+        BackupManifest parent = latestBackup(backups, forceFull);
+        boolean full = forceFull || parent == null;
+        if (!full) {
+            try {
+                full = chainOf(parent, indexById(backups)).size() > fullEvery;
+            } catch (BusinessException e) {
+                log.warn("上一个备份的备份链不完整，改为全量备份: {}", e.getMessage());
+                full = true;
+            }
+        }
+
+        LocalDateTime startTime = LocalDateTime.now();
+        BackupManifest manifest = new BackupManifest();
+        manifest.setId(startTime.format(ID_FORMAT) + (full ? "-full" : "-incr"));
+        manifest.setType(full ? BackupManifest.TYPE_FULL : BackupManifest.TYPE_INCREMENTAL);
+        manifest.setParentId(full ? null : parent.getId());
+        manifest.setStartTime(startTime);
+        LocalDateTime since = full ? null : parent.getSnapshotTime().minusSeconds(overlapSeconds);
+
+        Files.createDirectories(backupRoot);
+        Path tempDir = backupRoot.resolve(manifest.getId() + TEMP_SUFFIX);
+        Files.createDirectories(tempDir);
+        try (ChunkedZipWriter writer = new ChunkedZipWriter(tempDir, "part", chunkSizeMb * 1024L * 1024L)) {
+            snapshotTransaction.executeWithoutResult(status -> {
+                manifest.setSnapshotTime(backupMapper.selectNow());
+                for (TableSpec table : TABLES) {
+                    manifest.getTables().put(table.name(), dumpTable(writer, table, since));
+                }
+            });
+            Map<String, FileEntry> previousIndex = full ? Map.of() : readFileIndex(parent.getId());
+            backupFiles(writer, manifest, previousIndex, tempDir);
+            manifest.setChunks(writer.finish());
+        } catch (IOException | RuntimeException e) {
+            deleteDirectory(tempDir);
+            throw e;
+        }
+
+        manifest.setFinishTime(LocalDateTime.now());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempDir.resolve(MANIFEST_FILE).toFile(), manifest);
+        Files.move(tempDir, backupRoot.resolve(manifest.getId()), StandardCopyOption.ATOMIC_MOVE);
+        backupMapper.insertRecord(manifest, nodeId);
+
+        long rows = manifest.getTables().values().stream().mapToLong(BackupManifest.TableStat::changedRows).sum();
+        long bytes = manifest.getChunks().stream().mapToLong(ChunkedZipWriter.Chunk::size).sum();
+        log.info("备份 {} 完成: 类型={}, 写入行数={}, 写入文件={}/{}, 分卷={}, 大小={}KB, 耗时={}ms",
+                manifest.getId(), manifest.getType(), rows, manifest.getChangedFiles(), manifest.getFileCount(),
+                manifest.getChunks().size(), bytes / 1024,
+                Duration.between(startTime, manifest.getFinishTime()).toMillis());
+        return manifest;
+    }
+
+    /**
+     * 在快照事务中写入一张表的变更行；增量备份同时写入快照中的全部ID
+     */
+    private BackupManifest.TableStat dumpTable(ChunkedZipWriter writer, TableSpec table, LocalDateTime since) {
+        try {
+            long changed = 0;
+            int part = 1;
+            OutputStream out = writer.putEntry(entryName("db", table.name(), part, "jsonl"), true);
+            try (Cursor<Map<String, Object>> cursor = backupMapper.streamTable(table.name(), table.changeColumn(), since)) {
+                for (Map<String, Object> row : cursor) {
+                    out.write(objectMapper.writeValueAsBytes(normalize(row)));
+                    out.write('\n');
+                    if (++changed % ROLL_CHECK_ROWS == 0 && writer.isChunkFull()) {
+                        out = writer.putEntry(entryName("db", table.name(), ++part, "jsonl"), true);
+                    }
+                }
+            }
+            if (since == null) {
+                return new BackupManifest.TableStat(changed, changed);
+            }
+
+            long total = 0;
+            part = 1;
+            out = writer.putEntry(entryName("ids", table.name(), part, "txt"), true);
+            try (Cursor<Long> cursor = backupMapper.streamIds(table.name())) {
+                for (Long id : cursor) {
+                    out.write(id.toString().getBytes(StandardCharsets.US_ASCII));
+                    out.write('\n');
+                    if (++total % (ROLL_CHECK_ROWS * 10) == 0 && writer.isChunkFull()) {
+                        out = writer.putEntry(entryName("ids", table.name(), ++part, "txt"), true);
+                    }
+                }
+            }
+            return new BackupManifest.TableStat(changed, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 备份上传目录：大小和修改时间都未变化的文件直接沿用上一个索引；
+     * 修改时间变化但内容哈希相同的文件也不再写入
+     */
+    private void backupFiles(ChunkedZipWriter writer, BackupManifest manifest, Map<String, FileEntry> previousIndex,
+                             Path tempDir) throws IOException {
+        List<FileEntry> index = new ArrayList<>();
+        for (Path file : listUploadFiles()) {
+            String path = uploadRoot.relativize(file).toString().replace('\\', '/');
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            long mtime = attrs.lastModifiedTime().toMillis();
+            FileEntry previous = previousIndex.get(path);
+            if (previous != null && previous.size() == attrs.size()) {
+                if (previous.mtime() == mtime) {
+                    index.add(previous);
+                    continue;
+                }
+                if (sha256(file).equals(previous.sha256())) {
+                    index.add(new FileEntry(path, previous.size(), mtime, previous.sha256(), previous.backupId()));
+                    continue;
+                }
+            }
+
+            // 边复制边计算哈希，只读取一次
+            MessageDigest digest = newDigest();
+            OutputStream out = writer.putEntry("files/" + path, isCompressible(path));
+            long size;
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                size = in.transferTo(out);
+            }
+            index.add(new FileEntry(path, size, mtime, HexFormat.of().formatHex(digest.digest()), manifest.getId()));
+            manifest.setChangedFiles(manifest.getChangedFiles() + 1);
+            manifest.setChangedFileBytes(manifest.getChangedFileBytes() + size);
+        }
+
+        Path indexFile = tempDir.resolve(FILE_INDEX);
+        try (OutputStream out = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(indexFile)))) {
+            for (FileEntry entry : index) {
+                out.write(objectMapper.writeValueAsBytes(entry));
+                out.write('\n');
+            }
+        }
+        manifest.setFileCount(index.size());
+        manifest.setFileIndexSha256(sha256(indexFile));
+    }
+
+    /**
+     * 在一个事务中恢复全部表：清空后依次应用全量和增量备份，删除目标快照中已不存在的行，最后校验行数
+     */
+    private void restoreTables(List<BackupManifest> chain, BackupManifest target) {
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        for (TableSpec table : TABLES) {
+            List<String> tableColumns = backupMapper.listWritableColumns(table.name());
+            if (tableColumns.isEmpty()) {
+                throw new IllegalStateException("表不存在: " + table.name());
+            }
+            columns.put(table.name(), tableColumns);
+            backupMapper.deleteAll(table.name());
+        }
+
+        Map<String, IdSet> targetIds = new HashMap<>();
+        try {
+            for (BackupManifest backup : chain) {
+                boolean isTarget = backup == target;
+                forEachEntry(backup, (name, in) -> {
+                    String[] parts = name.split("/");
+                    if (parts.length < 3 || !columns.containsKey(parts[1])) {
+                        return;
+                    }
+                    if ("db".equals(parts[0])) {
+                        restoreRows(parts[1], columns.get(parts[1]), in);
+                    } else if ("ids".equals(parts[0]) && isTarget) {
+                        readIds(in, targetIds.computeIfAbsent(parts[1], k -> new IdSet()));
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        for (Map.Entry<String, BackupManifest.TableStat> entry : target.getTables().entrySet()) {
+            String table = entry.getKey();
+            if (!columns.containsKey(table)) {
+                continue;
+            }
+            if (!target.isFull()) {
+                deleteRowsNotIn(table, targetIds.getOrDefault(table, new IdSet()));
+            }
+            long count = backupMapper.countRows(table);
+            if (count != entry.getValue().totalRows()) {
+                throw new IllegalStateException("表 " + table + " 恢复后行数为 " + count + "，备份中为 " + entry.getValue().totalRows());
+            }
+        }
+    }
+
+    private void restoreRows(String table, List<String> columns, InputStream in) throws IOException {
+        String columnList = columns.stream().map(c -> "`" + c + "`").collect(Collectors.joining(", "));
+        // 不关闭reader，条目结束后由ZipInputStream继续读取下一个条目
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<List<Object>> batch = new ArrayList<>(restoreBatchSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> row = rowReader.readValue(line);
+            List<Object> values = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                values.add(row.containsKey(column) ? row.get(column) : row.get(toCamelCase(column)));
+            }
+            batch.add(values);
+            if (batch.size() >= restoreBatchSize) {
+                backupMapper.replaceRows(table, columnList, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            backupMapper.replaceRows(table, columnList, batch);
+        }
+    }
+
+    private void readIds(InputStream in, IdSet ids) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty()) {
+                ids.add(Long.parseLong(line));
+            }
+        }
+    }
+
+    private void deleteRowsNotIn(String table, IdSet ids) {
+        List<Long> extra = new ArrayList<>();
+        try (Cursor<Long> cursor = backupMapper.streamIds(table)) {
+            for (Long id : cursor) {
+                if (!ids.contains(id)) {
+                    extra.add(id);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < extra.size(); i += restoreBatchSize) {
+            backupMapper.deleteByIds(table, extra.subList(i, Math.min(i + restoreBatchSize, extra.size())));
+        }
+    }
+
+    /**
+     * 恢复上传目录：内容已一致的文件跳过，其余文件从所在备份中解压并校验哈希后替换，
+     * 最后删除索引中不存在的文件
+     *
+     * @return 解压的文件数
+     */
+    private int restoreFiles(List<BackupManifest> chain, BackupManifest target) throws IOException {
+        Map<String, FileEntry> index = readFileIndex(target.getId());
+        Files.createDirectories(uploadRoot);
+
+        Map<String, Map<String, FileEntry>> pendingByBackup = new HashMap<>();
+        for (FileEntry entry : index.values()) {
+            Path dest = resolveUpload(entry.path());
+            if (Files.isRegularFile(dest) && Files.size(dest) == entry.size() && sha256(dest).equals(entry.sha256())) {
+                continue;
+            }
+            pendingByBackup.computeIfAbsent(entry.backupId(), k -> new HashMap<>()).put(entry.path(), entry);
+        }
+
+        int[] restored = {0};
+        for (BackupManifest backup : chain) {
+            Map<String, FileEntry> pending = pendingByBackup.get(backup.getId());
+            if (pending == null || pending.isEmpty()) {
+                continue;
+            }
+            forEachEntry(backup, (name, in) -> {
+                FileEntry entry = name.startsWith("files/") ? pending.remove(name.substring("files/".length())) : null;
+                if (entry == null) {
+                    return;
+                }
+                Path dest = resolveUpload(entry.path());
+                Files.createDirectories(dest.getParent());
+                Path temp = dest.resolveSibling(dest.getFileName() + ".restore");
+                MessageDigest digest = newDigest();
+                try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                    in.transferTo(out);
+                }
+                if (!HexFormat.of().formatHex(digest.digest()).equals(entry.sha256())) {
+                    Files.deleteIfExists(temp);
+                    throw new IOException("文件校验和不一致: " + entry.path());
+                }
+                Files.move(temp, dest, StandardCopyOption.REPLACE_EXISTING);
+                // 保留原修改时间，恢复后的下一次增量备份不必重新计算哈希
+                Files.setLastModifiedTime(dest, FileTime.fromMillis(entry.mtime()));
+                restored[0]++;
+            });
+            if (!pending.isEmpty()) {
+                throw new IOException("备份 " + backup.getId() + " 中缺少文件: " + pending.keySet().iterator().next());
+            }
+        }
+
+        for (Path file : listUploadFiles()) {
+            String path = uploadRoot.relativize(file).toString().replace('\\', '/');
+            if (!index.containsKey(path)) {
+                Files.deleteIfExists(file);
+            }
+        }
+        return restored[0];
+    }
+
+    private void forEachEntry(BackupManifest backup, EntryHandler handler) throws IOException {
+        Path dir = backupRoot.resolve(backup.getId());
+        for (ChunkedZipWriter.Chunk chunk : backup.getChunks()) {
+            try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(dir.resolve(chunk.name())), 64 * 1024))) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (!entry.isDirectory()) {
+                        handler.accept(entry.getName(), zip);
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, FileEntry> readFileIndex(String backupId) throws IOException {
+        Map<String, FileEntry> index = new LinkedHashMap<>();
+        Path file = backupRoot.resolve(backupId).resolve(FILE_INDEX);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    FileEntry entry = objectMapper.readValue(line, FileEntry.class);
+                    index.put(entry.path(), entry);
+                }
+            }
+        }
+        return index;
+    }
+
+    private List<Path> listUploadFiles() throws IOException {
+        if (!Files.isDirectory(uploadRoot)) {
+            return List.of();
+        }
+        Path tempDir = uploadRoot.resolve(UPLOAD_TEMP_DIR);
+        try (Stream<Path> paths = Files.walk(uploadRoot)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> !path.startsWith(tempDir) && !path.startsWith(backupRoot))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path resolveUpload(String path) throws IOException {
+        Path dest = uploadRoot.resolve(path).normalize();
+        if (!dest.startsWith(uploadRoot)) {
+            throw new IOException("非法的文件路径: " + path);
+        }
+        return dest;
+    }
+
+    /**
+     * 获取备份链：从全量备份开始到目标备份的全部备份，按时间升序
+     */
+    private List<BackupManifest> chainOf(BackupManifest target, Map<String, BackupManifest> byId) {
+        Deque<BackupManifest> chain = new ArrayDeque<>();
+        BackupManifest current = target;
+        while (true) {
+            chain.addFirst(current);
+            if (current.isFull()) {
+                return new ArrayList<>(chain);
+            }
+            BackupManifest parent = byId.get(current.getParentId());
+            if (parent == null || chain.size() > byId.size()) {
+                throw new BusinessException(ErrorCode.DATA_NOT_EXIST.getCode(),
+                        "备份链不完整，备份 " + current.getId() + " 缺少基础备份 " + current.getParentId());
+            }
+            current = parent;
+        }
+    }
+
+    /**
+     * 集群内最近一次备份的开始时间，还没有备份记录时（如升级前已有的备份）使用本地最近的备份
+     */
+    private LocalDateTime lastBackupTime() {
+        LocalDateTime recorded = backupMapper.selectLatestRecordStartTime();
+        if (recorded != null) {
+            return recorded;
+        }
+        List<BackupManifest> backups = listBackups();
+        return backups.isEmpty() ? null : backups.get(backups.size() - 1).getStartTime();
+    }
+
+    /**
+     * 增量备份所基于的备份：集群内最近一次备份，必须能在本节点的备份目录中找到
+     *
+     * @param backups   本节点备份目录中的备份
+     * @param forceFull 是否为全量备份，全量备份不依赖上一个备份
+     * @return 上一个备份，没有时返回null
+     */
+    private BackupManifest latestBackup(List<BackupManifest> backups, boolean forceFull) {
+        String latestId = backupMapper.selectLatestRecordId();
+        if (latestId == null) {
+            return backups.isEmpty() ? null : backups.get(backups.size() - 1);
+        }
+        BackupManifest latest = indexById(backups).get(latestId);
+        if (latest == null && !forceFull) {
+            throw new BusinessException(ErrorCode.DATA_NOT_EXIST.getCode(),
+                    "备份目录 " + backupRoot + " 中找不到最近的备份 " + latestId + "，多实例部署时backup.dir必须是各节点共享的目录");
+        }
+        return latest;
+    }
+
+    private Map<String, BackupManifest> indexById(List<BackupManifest> backups) {
+        Map<String, BackupManifest> byId = new HashMap<>();
+        backups.forEach(backup -> byId.put(backup.getId(), backup));
+        return byId;
+    }
+
+    private boolean acquireLease(String leaseKey, LocalDate runDate) {
+        JobLease lease = new JobLease();
+        lease.setLeaseKey(leaseKey);
+        lease.setJobName("backup");
+        lease.setRunDate(runDate);
+        lease.setShardIndex(0);
+        lease.setOwner(nodeId);
+        return jobLeaseMapper.insertLease(lease, LEASE_SECONDS) > 0
+                || jobLeaseMapper.takeOverLease(leaseKey, nodeId, LEASE_SECONDS, 3) > 0;
+    }
+
+    private int retentionSetting() {
+        Object value = systemSettingService.getSystemSettingsAsMap().get("backupRetention");
+        try {
+            return value != null ? Integer.parseInt(value.toString().trim()) : 5;
+        } catch (NumberFormatException e) {
+            return 5;
+        }
+    }
+
+    private LocalTime parseTime(Object value) {
+        try {
+            return value != null ? LocalTime.parse(value.toString().trim()) : LocalTime.of(3, 0);
+        } catch (Exception e) {
+            return LocalTime.of(3, 0);
+        }
+    }
+
+    private LocalDate nextBackupDate(LocalDate lastDate, String frequency) {
+        return switch (frequency) {
+            case "daily" -> lastDate.plusDays(1);
+            case "weekly" -> lastDate.plusWeeks(1);
+            default -> lastDate.plusMonths(1);
+        };
+    }
+
+    /**
+     * 时间类型统一写为数据库可直接解析的字符串
+     */
+    private Map<String, Object> normalize(Map<String, Object> row) {
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof LocalDateTime dateTime) {
+                entry.setValue(dateTime.format(DATE_TIME_FORMAT));
+            } else if (value instanceof Timestamp timestamp) {
+                entry.setValue(timestamp.toLocalDateTime().format(DATE_TIME_FORMAT));
+            } else if (value instanceof TemporalAccessor || value instanceof java.util.Date) {
+                entry.setValue(value.toString());
+            }
+        }
+        return row;
+    }
+
+    private String toCamelCase(String column) {
+        StringBuilder sb = new StringBuilder(column.length());
+        boolean upper = false;
+        for (char c : column.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                sb.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return sb.toString();
+    }
+
+    private String entryName(String kind, String table, int part, String extension) {
+        return String.format("%s/%s/%05d.%s", kind, table, part, extension);
+    }
+
+    private boolean isCompressible(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot < 0 || !STORED_EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("删除目录失败: {}, error={}", dir, e.getMessage());
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 备份的表
+     *
+     * @param name         表名
+     * @param changeColumn 变更时间列，用于增量备份
+     */
+    private record TableSpec(String name, String changeColumn) {
+    }
+
+    /**
+     * 文件索引项
+     *
+     * @param path     相对上传目录的路径
+     * @param size     文件大小
+     * @param mtime    修改时间（毫秒）
+     * @param sha256   内容的SHA-256
+     * @param backupId 保存该文件内容的备份ID
+     */
+    private record FileEntry(String path, long size, long mtime, String sha256, String backupId) {
+    }
+
+    /**
+     * 分卷条目处理
+     */
+    @FunctionalInterface
+    private interface EntryHandler {
+        void accept(String name, InputStream in) throws IOException;
+    }
+
+    /**
+     * ID集合，自增ID较密集，以位图保存，内存远小于HashSet
+     */
+    private static final class IdSet {
+
+        private final BitSet bits = new BitSet();
+
+        private final Set<Long> others = new HashSet<>();
+
+        void add(long id) {
+            if (id >= 0 && id <= Integer.MAX_VALUE) {
+                bits.set((int) id);
+            } else {
+                others.add(id);
+            }
+        }
+
+        boolean contains(long id) {
+            return id >= 0 && id <= Integer.MAX_VALUE ? bits.get((int) id) : others.contains(id);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.chii.homemanagement.service.impl;
+
+import cn.idev.excel.ExcelWriter;
+import cn.idev.excel.FastExcel;
+import cn.idev.excel.support.ExcelTypeEnum;
+import cn.idev.excel.write.metadata.WriteSheet;
+import com.chii.homemanagement.mapper.EntityMapper;
+import com.chii.homemanagement.service.EntityExportService;
+import com.chii.homemanagement.util.CsvWriter;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 实体导出服务实现类
+ * 在只读事务中以MyBatis游标逐行读取结果集，每行直接写入响应输出流，
+ * 不构建完整的实体列表，内存占用与导出行数无关
+ */
+@Service
+@Slf4j
+public class EntityExportServiceImpl implements EntityExportService {
+
+    /**
+     * 导出列：字段名和表头，表头与导入支持的中文列名一致
+     */
+    private static final String[][] COLUMNS = {
+            {"id", "ID"},
+            {"name", "名称"},
+            {"type", "类型"},
+            {"parentName", "所属空间"},
+            {"code", "编号"},
+            {"specification", "规格"},
+            {"quantity", "数量"},
+            {"price", "价格"},
+            {"productionDate", "生产日期"},
+            {"purchaseDate", "购买日期"},
+            {"warrantyPeriod", "保修期(月)"},
+            {"warrantyEndDate", "保修截止日期"},
+            {"usageFrequency", "使用频率"},
+            {"status", "状态"},
+            {"description", "描述"},
+            {"barcode", "条形码"},
+            {"tags", "标签"},
+            {"createTime", "创建时间"}
+    };
+
+    /**
+     * XLSX每次写入的行数
+     */
+    private static final int XLSX_CHUNK_SIZE = 1000;
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private EntityMapper entityMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public EntityExportServiceImpl(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public int exportEntities(Long userId, Format format, boolean gzip, OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 8192) : null;
+        OutputStream target = gzipOut != null ? gzipOut : out;
+
+        int count;
+        try {
+            count = switch (format) {
+                case CSV -> writeCsv(userId, target);
+                case XLSX -> writeXlsx(userId, target);
+                case JSON -> writeJson(userId, target);
+            };
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        target.flush();
+        log.info("实体导出完成: userId={}, 格式={}, gzip={}, 行数={}, 耗时={}ms",
+                userId, format.getExtension(), gzip, count, System.currentTimeMillis() - startTime);
+        return count;
+    }
+
+    private int writeCsv(Long userId, OutputStream out) throws IOException {
+        CsvWriter writer = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        writer.writeBom();
+        List<Object> header = new ArrayList<>(COLUMNS.length);
+        for (String[] column : COLUMNS) {
+            header.add(column[1]);
+        }
+        writer.writeRow(header);
+
+        List<Object> values = new ArrayList<>(COLUMNS.length);
+        int count = stream(userId, row -> {
+            values.clear();
+            for (String[] column : COLUMNS) {
+                values.add(format(row.get(column[0])));
+            }
+            try {
+                writer.writeRow(values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return count;
+    }
+
+    private int writeXlsx(Long userId, OutputStream out) {
+        List<List<String>> head = new ArrayList<>(COLUMNS.length);
+        for (String[] column : COLUMNS) {
+            head.add(List.of(column[1]));
+        }
+        // 以流式工作簿写入，只在内存中保留最近写入的若干行
+        ExcelWriter excelWriter = FastExcel.write(out)
+                .excelType(ExcelTypeEnum.XLSX)
+                .autoCloseStream(false)
+                .head(head)
+                .build();
+        try {
+            WriteSheet sheet = FastExcel.writerSheet("实体").build();
+            List<List<Object>> chunk = new ArrayList<>(XLSX_CHUNK_SIZE);
+            int count = stream(userId, row -> {
+                List<Object> values = new ArrayList<>(COLUMNS.length);
+                for (String[] column : COLUMNS) {
+                    Object value = row.get(column[0]);
+                    values.add(value instanceof Number ? value : format(value));
+                }
+                chunk.add(values);
+                if (chunk.size() >= XLSX_CHUNK_SIZE) {
+                    excelWriter.write(chunk, sheet);
+                    chunk.clear();
+                }
+            });
+            excelWriter.write(chunk, sheet);
+            return count;
+        } finally {
+            excelWriter.finish();
+        }
+    }
+
+    private int writeJson(Long userId, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.writeStartArray();
+        int count = stream(userId, row -> {
+            try {
+                generator.writeStartObject();
+                for (String[] column : COLUMNS) {
+                    Object value = row.get(column[0]);
+                    generator.writeFieldName(column[0]);
+                    if (value instanceof BigDecimal decimal) {
+                        generator.writeNumber(decimal);
+                    } else if (value instanceof Number number) {
+                        generator.writeNumber(number.longValue());
+                    } else {
+                        String text = format(value);
+                        if (text == null) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeString(text);
+                        }
+                    }
+                }
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.writeEndArray();
+        generator.flush();
+        return count;
+    }
+
+    /**
+     * 在只读事务中遍历游标，事务保证遍历期间连接不被释放
+     *
+     * @param userId 用户ID
+     * @param action 每行的处理
+     * @return 行数
+     */
+    private int stream(Long userId, Consumer<Map<String, Object>> action) {
+        Integer count = readOnlyTransaction.execute(status -> {
+            int rows = 0;
+            try (Cursor<Map<String, Object>> cursor = entityMapper.streamForExport(userId)) {
+                for (Map<String, Object> row : cursor) {
+                    action.accept(row);
+                    rows++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return rows;
+        });
+        return count != null ? count : 0;
+    }
+
+    private String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.format(DATE_TIME_FORMAT);
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().format(DATE_TIME_FORMAT);
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+}
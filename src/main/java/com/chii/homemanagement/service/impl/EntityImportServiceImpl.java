@@ -0,0 +1,550 @@
+package com.chii.homemanagement.service.impl;
+
+import cn.idev.excel.FastExcel;
+import cn.idev.excel.context.AnalysisContext;
+import cn.idev.excel.event.AnalysisEventListener;
+import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.common.ImportResult;
+import com.chii.homemanagement.entity.Entity;
+import com.chii.homemanagement.entity.EntityTag;
+import com.chii.homemanagement.entity.Tag;
+import com.chii.homemanagement.exception.BusinessException;
+import com.chii.homemanagement.mapper.EntityMapper;
+import com.chii.homemanagement.mapper.TagMapper;
+import com.chii.homemanagement.service.EntityImportService;
+import com.chii.homemanagement.service.EntityService;
+import com.chii.homemanagement.service.EntityTagService;
+import com.chii.homemanagement.service.EventStreamService;
+import com.chii.homemanagement.service.TagService;
+import com.chii.homemanagement.util.CsvReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 实体批量导入服务实现类
+ * 逐行流式解析文件，按批处理：所属空间和标签按名称批量查询，层级和路径在内存中计算，
+ * 每批在一个事务中批量插入；整批插入失败时逐行重试，以定位出错的行，其余行照常导入
+ */
+@Service
+@Slf4j
+public class EntityImportServiceImpl implements EntityImportService {
+
+    private static final String SPACE_TYPE = "空间";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-M-d");
+
+    /**
+     * 每批处理的行数
+     */
+    @Value("${entity.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 单个文件最多导入的行数
+     */
+    @Value("${entity.import.max-rows:50000}")
+    private int maxRows;
+
+    @Autowired
+    private EntityService entityService;
+
+    @Autowired
+    private EntityMapper entityMapper;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private EntityTagService entityTagService;
+
+    @Autowired
+    private EventStreamService eventStreamService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public ImportResult importEntities(MultipartFile file, Long userId) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAM_NOT_VALID.getCode(), "请选择要导入的文件");
+        }
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        long startTime = System.currentTimeMillis();
+        ImportSession session = new ImportSession(userId);
+
+        try (InputStream in = file.getInputStream()) {
+            if (filename.endsWith(".csv")) {
+                readCsv(in, session);
+            } else if (filename.endsWith(".xlsx") || filename.endsWith(".xls")) {
+                readExcel(in, session);
+            } else {
+                throw new BusinessException(ErrorCode.UNSUPPORTED_MEDIA_TYPE.getCode(), "仅支持CSV和XLSX文件");
+            }
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.FILE_UPLOAD_ERROR.getCode(), "读取导入文件失败: " + e.getMessage());
+        }
+        session.flush();
+
+        ImportResult result = session.result;
+        if (result.getSucceeded() > 0) {
+            // 导入数量较多，通知前端整体重新拉取
+            eventStreamService.publish(userId, "resync", Map.of("reason", "import"));
+        }
+        log.info("实体导入完成: userId={}, 文件={}, 总行数={}, 成功={}, 失败={}, 耗时={}ms",
+                userId, file.getOriginalFilename(), result.getTotal(), result.getSucceeded(), result.getFailed(),
+                System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private void readCsv(InputStream in, ImportSession session) throws IOException {
+        CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = reader.readRow();
+        if (header == null) {
+            throw new BusinessException(ErrorCode.PARAM_NOT_VALID.getCode(), "导入文件为空");
+        }
+        session.header(header);
+        int rowNum = 1;
+        List<String> row;
+        while ((row = reader.readRow()) != null) {
+            session.row(++rowNum, row);
+        }
+    }
+
+    private void readExcel(InputStream in, ImportSession session) {
+        try {
+            // 以事件方式逐行读取第一个工作表，不在内存中构建整个工作簿
+            FastExcel.read(in, new AnalysisEventListener<Map<Integer, String>>() {
+                @Override
+                public void invokeHeadMap(Map<Integer, String> headMap, AnalysisContext context) {
+                    session.header(toList(headMap));
+                }
+
+                @Override
+                public void invoke(Map<Integer, String> data, AnalysisContext context) {
+                    session.row(context.readRowHolder().getRowIndex() + 1, toList(data));
+                }
+
+                @Override
+                public void doAfterAllAnalysed(AnalysisContext context) {
+                }
+            }).sheet().doRead();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof BusinessException businessException) {
+                throw businessException;
+            }
+            throw e;
+        }
+    }
+
+    private List<String> toList(Map<Integer, String> cells) {
+        int size = cells.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(cells.get(i));
+        }
+        return list;
+    }
+
+    /**
+     * 导入列定义，表头可以使用英文字段名或中文名称
+     */
+    private enum Column {
+        NAME("name", "名称"),
+        TYPE("type", "类型"),
+        PARENT("parent", "所属空间", "位置"),
+        CODE("code", "编号"),
+        SPECIFICATION("specification", "规格"),
+        QUANTITY("quantity", "数量"),
+        PRICE("price", "价格"),
+        PRODUCTION_DATE("productionDate", "生产日期"),
+        PURCHASE_DATE("purchaseDate", "购买日期"),
+        WARRANTY_PERIOD("warrantyPeriod", "保修期"),
+        WARRANTY_END_DATE("warrantyEndDate", "保修截止日期"),
+        USAGE_FREQUENCY("usageFrequency", "使用频率"),
+        STATUS("status", "状态"),
+        DESCRIPTION("description", "描述"),
+        BARCODE("barcode", "条形码"),
+        TAGS("tags", "标签");
+
+        private static final Map<String, Column> BY_NAME = new HashMap<>();
+
+        static {
+            for (Column column : values()) {
+                for (String name : column.names) {
+                    BY_NAME.put(name.toLowerCase(Locale.ROOT), column);
+                }
+            }
+        }
+
+        private final String[] names;
+
+        Column(String... names) {
+            this.names = names;
+        }
+
+        /**
+         * 按表头查找列，忽略大小写和括号中的说明，如“保修期(月)”
+         */
+        static Column of(String header) {
+            if (header == null) {
+                return null;
+            }
+            String name = header.replaceAll("[(（].*?[)）]", "").trim().toLowerCase(Locale.ROOT);
+            return BY_NAME.get(name);
+        }
+    }
+
+    /**
+     * 待插入的行
+     *
+     * @param rowNum     行号
+     * @param entity     实体
+     * @param parentName 所属空间名称
+     * @param tagNames   标签名称
+     */
+    private record PendingRow(int rowNum, Entity entity, String parentName, List<String> tagNames) {
+    }
+
+    /**
+     * 单次导入的状态
+     * 只保存当前批次的行以及空间、标签的名称到ID映射，内存占用与文件行数无关
+     */
+    private class ImportSession {
+
+        private final Long userId;
+
+        private final ImportResult result = new ImportResult();
+
+        private final Map<Integer, Column> columns = new HashMap<>();
+
+        private final List<PendingRow> buffer = new ArrayList<>();
+
+        /**
+         * 当前批次中新建的空间名称，后续行引用这些空间时需先插入当前批次
+         */
+        private final Set<String> pendingSpaceNames = new HashSet<>();
+
+        /**
+         * 空间名称到空间的映射（同名空间取ID最小的一个）
+         */
+        private final Map<String, Entity> spaces = new HashMap<>();
+
+        /**
+         * 已确认不存在的空间名称
+         */
+        private final Set<String> missingSpaces = new HashSet<>();
+
+        private final Map<String, Long> tagIds = new HashMap<>();
+
+        private ImportSession(Long userId) {
+            this.userId = userId;
+        }
+
+        void header(List<String> header) {
+            for (int i = 0; i < header.size(); i++) {
+                Column column = Column.of(header.get(i));
+                if (column != null) {
+                    columns.putIfAbsent(i, column);
+                }
+            }
+            if (!columns.containsValue(Column.NAME)) {
+                throw new BusinessException(ErrorCode.PARAM_NOT_VALID.getCode(), "导入文件缺少名称(name)列");
+            }
+        }
+
+        void row(int rowNum, List<String> cells) {
+            if (cells.stream().noneMatch(StringUtils::hasText)) {
+                return;
+            }
+            result.setTotal(result.getTotal() + 1);
+            if (result.getTotal() > maxRows) {
+                result.addError(rowNum, "超过单次导入上限" + maxRows + "行");
+                return;
+            }
+
+            PendingRow row;
+            try {
+                row = parse(rowNum, cells);
+            } catch (IllegalArgumentException e) {
+                result.addError(rowNum, e.getMessage());
+                return;
+            }
+            if (row.parentName() != null && pendingSpaceNames.contains(row.parentName())) {
+                flush();
+            }
+            buffer.add(row);
+            if (SPACE_TYPE.equals(row.entity().getType())) {
+                pendingSpaceNames.add(row.entity().getName());
+            }
+            if (buffer.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private PendingRow parse(int rowNum, List<String> cells) {
+            Entity entity = new Entity();
+            String parentName = null;
+            List<String> tagNames = List.of();
+            for (Map.Entry<Integer, Column> entry : columns.entrySet()) {
+                String value = entry.getKey() < cells.size() ? trimToNull(cells.get(entry.getKey())) : null;
+                if (value == null) {
+                    continue;
+                }
+                Column column = entry.getValue();
+                switch (column) {
+                    case NAME -> entity.setName(value);
+                    case TYPE -> entity.setType(value);
+                    case PARENT -> parentName = value;
+                    case CODE -> entity.setCode(value);
+                    case SPECIFICATION -> entity.setSpecification(value);
+                    case QUANTITY -> entity.setQuantity(parseInt(value, column));
+                    case PRICE -> entity.setPrice(parseDecimal(value, column));
+                    case PRODUCTION_DATE -> entity.setProductionDate(parseDate(value, column));
+                    case PURCHASE_DATE -> entity.setPurchaseDate(parseDate(value, column));
+                    case WARRANTY_PERIOD -> entity.setWarrantyPeriod(parseInt(value, column));
+                    case WARRANTY_END_DATE -> entity.setWarrantyEndDate(parseDate(value, column));
+                    case USAGE_FREQUENCY -> entity.setUsageFrequency(value);
+                    case STATUS -> entity.setStatus(value);
+                    case DESCRIPTION -> entity.setDescription(value);
+                    case BARCODE -> entity.setBarcode(value);
+                    case TAGS -> tagNames = Arrays.stream(value.split("[,，;；|]"))
+                            .map(String::trim)
+                            .filter(StringUtils::hasText)
+                            .distinct()
+                            .toList();
+                }
+            }
+            if (entity.getName() == null) {
+                throw new IllegalArgumentException("名称不能为空");
+            }
+
+            entity.setUserId(userId);
+            entity.setCreateUserId(userId);
+            LocalDateTime now = LocalDateTime.now();
+            entity.setCreateTime(now);
+            entity.setUpdateTime(now);
+            if (!StringUtils.hasText(entity.getStatus())) {
+                entity.setStatus("normal");
+            }
+            if (entity.getWarrantyPeriod() != null && entity.getWarrantyPeriod() > 0
+                    && entity.getPurchaseDate() != null && entity.getWarrantyEndDate() == null) {
+                entity.setWarrantyEndDate(entity.getPurchaseDate().plusMonths(entity.getWarrantyPeriod()));
+            }
+            return new PendingRow(rowNum, entity, parentName, tagNames);
+        }
+
+        /**
+         * 处理当前批次：解析所属空间和标签后批量插入
+         */
+        void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            try {
+                resolveParents();
+                resolveTags();
+                insert();
+            } finally {
+                buffer.clear();
+                pendingSpaceNames.clear();
+            }
+        }
+
+        private void resolveParents() {
+            Set<String> unknown = new LinkedHashSet<>();
+            for (PendingRow row : buffer) {
+                if (row.parentName() != null && !spaces.containsKey(row.parentName())
+                        && !missingSpaces.contains(row.parentName())) {
+                    unknown.add(row.parentName());
+                }
+            }
+            if (!unknown.isEmpty()) {
+                for (Entity space : entityMapper.listSpacesByNames(userId, unknown)) {
+                    spaces.putIfAbsent(space.getName(), space);
+                }
+                for (String name : unknown) {
+                    if (!spaces.containsKey(name)) {
+                        missingSpaces.add(name);
+                    }
+                }
+            }
+
+            buffer.removeIf(row -> {
+                Entity entity = row.entity();
+                if (row.parentName() == null) {
+                    entity.setLevel(0);
+                    entity.setPath("");
+                    return false;
+                }
+                Entity parent = spaces.get(row.parentName());
+                if (parent == null) {
+                    result.addError(row.rowNum(), "未找到所属空间: " + row.parentName());
+                    return true;
+                }
+                int parentLevel = parent.getLevel() != null ? parent.getLevel() : 0;
+                entity.setParentId(parent.getId());
+                entity.setLevel(parentLevel + 1);
+                entity.setPath(StringUtils.hasText(parent.getPath())
+                        ? parent.getPath() + "," + parent.getId() : parent.getId().toString());
+                return false;
+            });
+        }
+
+        private void resolveTags() {
+            Set<String> unknown = new LinkedHashSet<>();
+            for (PendingRow row : buffer) {
+                for (String name : row.tagNames()) {
+                    if (!tagIds.containsKey(name)) {
+                        unknown.add(name);
+                    }
+                }
+            }
+            if (unknown.isEmpty()) {
+                return;
+            }
+            for (Tag tag : tagMapper.listByNames(userId, unknown)) {
+                tagIds.putIfAbsent(tag.getName(), tag.getId());
+            }
+            List<Tag> created = new ArrayList<>();
+            for (String name : unknown) {
+                if (!tagIds.containsKey(name)) {
+                    Tag tag = new Tag();
+                    tag.setName(name);
+                    tag.setUserId(userId);
+                    tag.setCreateUserId(userId);
+                    created.add(tag);
+                }
+            }
+            if (!created.isEmpty()) {
+                tagService.saveBatch(created, batchSize);
+                created.forEach(tag -> tagIds.put(tag.getName(), tag.getId()));
+            }
+        }
+
+        private void insert() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertRows(buffer));
+                result.setSucceeded(result.getSucceeded() + buffer.size());
+                buffer.forEach(this::registerSpace);
+            } catch (Exception e) {
+                log.warn("实体导入批量插入失败，改为逐行插入: userId={}, 行数={}, error={}", userId, buffer.size(), e.getMessage());
+                for (PendingRow row : buffer) {
+                    row.entity().setId(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insertRows(List.of(row)));
+                        result.setSucceeded(result.getSucceeded() + 1);
+                        registerSpace(row);
+                    } catch (Exception rowError) {
+                        row.entity().setId(null);
+                        result.addError(row.rowNum(), "保存失败: " + rootMessage(rowError));
+                    }
+                }
+            }
+        }
+
+        private void insertRows(List<PendingRow> rows) {
+            List<Entity> entities = new ArrayList<>(rows.size());
+            rows.forEach(row -> entities.add(row.entity()));
+            entityService.saveBatch(entities, batchSize);
+
+            List<EntityTag> entityTags = new ArrayList<>();
+            for (PendingRow row : rows) {
+                for (String name : row.tagNames()) {
+                    EntityTag entityTag = new EntityTag();
+                    entityTag.setEntityId(row.entity().getId());
+                    entityTag.setTagId(tagIds.get(name));
+                    entityTags.add(entityTag);
+                }
+            }
+            if (!entityTags.isEmpty()) {
+                entityTagService.saveBatch(entityTags, batchSize);
+            }
+        }
+
+        /**
+         * 新建的空间可被后续行引用
+         */
+        private void registerSpace(PendingRow row) {
+            Entity entity = row.entity();
+            if (SPACE_TYPE.equals(entity.getType()) && entity.getId() != null) {
+                spaces.putIfAbsent(entity.getName(), entity);
+                missingSpaces.remove(entity.getName());
+            }
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static Integer parseInt(String value, Column column) {
+        try {
+            return new BigDecimal(value).intValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException(column.names[1] + "不是有效的整数: " + value);
+        }
+    }
+
+    private static BigDecimal parseDecimal(String value, Column column) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column.names[1] + "不是有效的数字: " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value, Column column) {
+        String normalized = value.replace('/', '-').replace('.', '-');
+        int space = normalized.indexOf(' ');
+        if (space > 0) {
+            normalized = normalized.substring(0, space);
+        }
+        try {
+            return LocalDate.parse(normalized, DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(column.names[1] + "不是有效的日期: " + value);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -4,6 +4,8 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.chii.homemanagement.common.EntityChangedEvent;
+import com.chii.homemanagement.common.LoginUser;
 import com.chii.homemanagement.entity.Entity;
 import com.chii.homemanagement.entity.Tag;
 import com.chii.homemanagement.entity.User;
@@ -17,8 +19,7 @@ import com.chii.homemanagement.exception.BusinessException;
 import com.chii.homemanagement.common.ErrorCode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -60,6 +61,9 @@ public class EntityServiceImpl extends ServiceImpl<EntityMapper, Entity> impleme
     @Autowired
     private TagService tagService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 分页查询实体
      *
@@ -185,11 +189,10 @@ public class EntityServiceImpl extends ServiceImpl<EntityMapper, Entity> impleme
         
         // 设置创建用户ID（如果未设置）
         if (entity.getCreateUserId() == null) {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.isAuthenticated()) {
-                String username = authentication.getName();
-                User user = userService.getUserByUsername(username);
-                entity.setCreateUserId(user != null ? user.getUserId() : 1L);
+            // 当前用户ID来自认证信息，无需查询用户表
+            Long currentUserId = LoginUser.currentUserId();
+            if (currentUserId != null) {
+                entity.setCreateUserId(currentUserId);
                 log.debug("设置创建用户ID: name={}, createUserId={}", entity.getName(), entity.getCreateUserId());
             } else {
                 entity.setCreateUserId(1L);
@@ -202,6 +205,9 @@ public class EntityServiceImpl extends ServiceImpl<EntityMapper, Entity> impleme
         
         boolean result = save(entity);
         log.info("添加实体结果: id={}, name={}, success={}", entity.getId(), entity.getName(), result);
+        if (result) {
+            eventPublisher.publishEvent(new EntityChangedEvent(this, null, entity));
+        }
         
         return result;
     }
@@ -279,6 +285,10 @@ public class EntityServiceImpl extends ServiceImpl<EntityMapper, Entity> impleme
         
         boolean result = updateById(entity);
         log.info("更新实体结果: id={}, name={}, success={}", entity.getId(), entity.getName(), result);
+        if (result) {
+            // 事务提交后推送仪表盘增量
+            eventPublisher.publishEvent(new EntityChangedEvent(this, existingEntity, getById(entity.getId())));
+        }
         
         return result;
     }
@@ -319,6 +329,9 @@ public class EntityServiceImpl extends ServiceImpl<EntityMapper, Entity> impleme
         
         boolean result = removeById(id);
         log.info("删除实体结果: id={}, name={}, success={}", id, entity.getName(), result);
+        if (result) {
+            eventPublisher.publishEvent(new EntityChangedEvent(this, entity, null));
+        }
         
         return result;
     }
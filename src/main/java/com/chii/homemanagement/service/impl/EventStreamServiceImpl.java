@@ -0,0 +1,350 @@
+package com.chii.homemanagement.service.impl;
+
+import com.chii.homemanagement.common.EntityChangedEvent;
+import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.common.ReminderChangedEvent;
+import com.chii.homemanagement.common.ReminderDueEvent;
+import com.chii.homemanagement.entity.Entity;
+import com.chii.homemanagement.exception.BusinessException;
+import com.chii.homemanagement.service.EventStreamService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 实时事件推送服务实现类
+ * 监听进程内的提醒和实体变更事件，按用户扇出到该用户的所有SSE连接。
+ * 每个连接只在有待发送事件时才占用缓冲区和发送线程，空闲连接只由心跳维持；
+ * 缓冲区满时丢弃积压事件并通知前端重新拉取，避免慢连接拖累内存
+ */
+@Service
+@Slf4j
+public class EventStreamServiceImpl implements EventStreamService {
+
+    /**
+     * 前端收到该事件后应重新拉取提醒和统计数据
+     */
+    private static final String RESYNC_EVENT = "resync";
+
+    /**
+     * 全部连接数上限
+     */
+    @Value("${events.stream.max-connections:10000}")
+    private int maxConnections;
+
+    /**
+     * 单个用户的连接数上限，超出时关闭该用户最早的连接
+     */
+    @Value("${events.stream.max-per-user:8}")
+    private int maxPerUser;
+
+    /**
+     * 每个连接最多积压的事件数
+     */
+    @Value("${events.stream.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${events.stream.heartbeat-seconds:25}")
+    private int heartbeatSeconds;
+
+    /**
+     * 连接超时时间，超时后由前端自动重连
+     */
+    @Value("${events.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Long, List<Connection>> connections = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "event-stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        heartbeatExecutor.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        heartbeatExecutor.shutdownNow();
+        connections.values().forEach(list -> list.forEach(conn -> conn.emitter.complete()));
+        sendExecutor.shutdownNow();
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new BusinessException(ErrorCode.SYSTEM_BUSY.getCode(), "实时连接数已达上限");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection conn = new Connection(userId, emitter);
+        List<Connection> userConnections = connections.compute(userId, (k, list) -> {
+            List<Connection> result = list != null ? list : new CopyOnWriteArrayList<>();
+            result.add(conn);
+            return result;
+        });
+        while (userConnections.size() > maxPerUser) {
+            Connection oldest = userConnections.get(0);
+            close(oldest);
+            oldest.emitter.complete();
+        }
+
+        emitter.onCompletion(() -> close(conn));
+        emitter.onTimeout(() -> close(conn));
+        emitter.onError(e -> close(conn));
+
+        // 立即发送一条事件，使前端确认连接已建立
+        enqueue(conn, SseEmitter.event().name("connected").reconnectTime(3000).data("{}").build());
+        log.debug("用户 {} 建立实时连接，当前连接总数={}", userId, connectionCount.get());
+        return emitter;
+    }
+
+    @Override
+    public void publish(Long userId, String name, Object data) {
+        if (userId == null) {
+            return;
+        }
+        List<Connection> userConnections = connections.get(userId);
+        if (userConnections == null || userConnections.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.warn("实时事件序列化失败: name={}, error={}", name, e.getMessage());
+            return;
+        }
+        // 事件内容只构建一次，所有连接共享
+        Set<ResponseBodyEmitter.DataWithMediaType> event = SseEmitter.event()
+                .id(String.valueOf(eventSequence.incrementAndGet()))
+                .name(name)
+                .data(json)
+                .build();
+        for (Connection conn : userConnections) {
+            enqueue(conn, event);
+        }
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReminderChanged(ReminderChangedEvent event) {
+        if (event.getReminder() == null) {
+            return;
+        }
+        publish(event.getReminder().getUserId(), "reminder", reminderPayload(event.getAction(), event.getReminder()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReminderDue(ReminderDueEvent event) {
+        publish(event.getReminder().getUserId(), "reminder", reminderPayload("sent", event.getReminder()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        Map<String, Object> delta = dashboardDelta(event.getBefore(), event.getAfter());
+        if (delta.isEmpty()) {
+            return;
+        }
+        Entity entity = event.getAfter() != null ? event.getAfter() : event.getBefore();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("action", event.getBefore() == null ? "created" : event.getAfter() == null ? "deleted" : "updated");
+        payload.put("entityId", entity.getId());
+        payload.put("delta", delta);
+        publish(event.getUserId(), "dashboard", payload);
+    }
+
+    private Map<String, Object> reminderPayload(String action, Object reminder) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("action", action);
+        payload.put("reminder", reminder);
+        return payload;
+    }
+
+    /**
+     * 计算实体变更对仪表盘统计的增量，统计口径与仪表盘统计接口一致（不含空间）
+     */
+    private Map<String, Object> dashboardDelta(Entity before, Entity after) {
+        long[] b = counters(before);
+        long[] a = counters(after);
+        String[] names = {"totalItems", "availableItems", "expiringItems", "expiredItems"};
+        Map<String, Object> delta = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (a[i] != b[i]) {
+                delta.put(names[i], a[i] - b[i]);
+            }
+        }
+        BigDecimal value = value(after).subtract(value(before));
+        if (value.signum() != 0) {
+            delta.put("totalValue", value);
+        }
+        return delta;
+    }
+
+    private long[] counters(Entity entity) {
+        long[] counters = new long[4];
+        if (entity == null || "空间".equals(entity.getType())) {
+            return counters;
+        }
+        counters[0] = 1;
+        counters[1] = "normal".equals(entity.getStatus()) ? 1 : 0;
+        LocalDate warrantyEnd = entity.getWarrantyEndDate();
+        if (warrantyEnd != null) {
+            LocalDate today = LocalDate.now();
+            if (warrantyEnd.isAfter(today)) {
+                counters[2] = warrantyEnd.isAfter(today.plusDays(30)) ? 0 : 1;
+            } else {
+                counters[3] = 1;
+            }
+        }
+        return counters;
+    }
+
+    private BigDecimal value(Entity entity) {
+        if (entity == null || "空间".equals(entity.getType()) || entity.getPrice() == null || entity.getQuantity() == null) {
+            return BigDecimal.ZERO;
+        }
+        return entity.getPrice().multiply(new BigDecimal(entity.getQuantity()));
+    }
+
+    /**
+     * 事件放入连接缓冲区，必要时启动发送任务；缓冲区满时以一条重新同步事件替换积压内容
+     */
+    private void enqueue(Connection conn, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        boolean startDrain = false;
+        synchronized (conn) {
+            if (conn.closed) {
+                return;
+            }
+            if (conn.buffer == null) {
+                conn.buffer = new ArrayDeque<>(4);
+            }
+            if (conn.buffer.size() >= bufferSize) {
+                conn.buffer.clear();
+                conn.buffer.add(SseEmitter.event().name(RESYNC_EVENT).data("{}").build());
+            } else {
+                conn.buffer.add(event);
+            }
+            if (!conn.draining) {
+                conn.draining = true;
+                startDrain = true;
+            }
+        }
+        if (startDrain) {
+            sendExecutor.execute(() -> drain(conn));
+        }
+    }
+
+    private void drain(Connection conn) {
+        while (true) {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            synchronized (conn) {
+                event = conn.buffer != null ? conn.buffer.poll() : null;
+                if (event == null || conn.closed) {
+                    conn.draining = false;
+                    // 发送完毕后释放缓冲区，空闲连接不占用额外内存
+                    conn.buffer = null;
+                    return;
+                }
+            }
+            try {
+                conn.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("实时连接已断开: userId={}, error={}", conn.userId, e.getMessage());
+                close(conn);
+                conn.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+            for (List<Connection> userConnections : connections.values()) {
+                for (Connection conn : userConnections) {
+                    // 有待发送事件的连接无需心跳
+                    if (!conn.draining) {
+                        enqueue(conn, heartbeat);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("发送实时连接心跳失败: {}", e.getMessage());
+        }
+    }
+
+    private void close(Connection conn) {
+        synchronized (conn) {
+            if (conn.closed) {
+                return;
+            }
+            conn.closed = true;
+            conn.buffer = null;
+        }
+        connectionCount.decrementAndGet();
+        connections.computeIfPresent(conn.userId, (k, list) -> {
+            list.remove(conn);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * 单个SSE连接
+     */
+    private static final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private ArrayDeque<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        private volatile boolean draining;
+        private boolean closed;
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
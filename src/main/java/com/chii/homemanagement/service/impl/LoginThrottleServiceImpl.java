@@ -0,0 +1,80 @@
+package com.chii.homemanagement.service.impl;
+
+import com.chii.homemanagement.service.LoginThrottleService;
+import com.chii.homemanagement.util.StripedRateLimiter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * 登录限流服务实现类
+ * 按IP限制撞库式的批量尝试，按（用户名, IP）限制从同一来源针对单个账号的猜测；两者均通过才会进入密码校验。
+ * 用户名限流不单独以用户名为键，避免他人通过反复输错密码锁定受害者的账号。
+ * 客户端IP由RemoteIpFilter按受信任代理解析，客户端无法通过伪造X-Forwarded-For绕过
+ */
+@Service
+@Slf4j
+public class LoginThrottleServiceImpl implements LoginThrottleService {
+
+    @Value("${security.login.stripes:8192}")
+    private int stripes;
+
+    /**
+     * 每个用户名在每个IP上允许的连续尝试次数
+     */
+    @Value("${security.login.username-burst:5}")
+    private int usernameBurst;
+
+    /**
+     * 每个用户名在每个IP上每分钟恢复的尝试次数
+     */
+    @Value("${security.login.username-per-minute:1}")
+    private double usernamePerMinute;
+
+    /**
+     * 每个IP允许的连续尝试次数
+     */
+    @Value("${security.login.ip-burst:20}")
+    private int ipBurst;
+
+    /**
+     * 每个IP每分钟恢复的尝试次数
+     */
+    @Value("${security.login.ip-per-minute:20}")
+    private double ipPerMinute;
+
+    private StripedRateLimiter usernameLimiter;
+
+    private StripedRateLimiter ipLimiter;
+
+    @PostConstruct
+    public void init() {
+        usernameLimiter = new StripedRateLimiter(stripes, usernameBurst, usernamePerMinute / 60);
+        ipLimiter = new StripedRateLimiter(stripes, ipBurst, ipPerMinute / 60);
+    }
+
+    @Override
+    public boolean tryAcquire(String username, String clientIp) {
+        if (clientIp != null && !ipLimiter.tryAcquire(clientIp)) {
+            log.warn("登录尝试过于频繁(IP): ip={}, username={}", clientIp, username);
+            return false;
+        }
+        if (!usernameLimiter.tryAcquire(usernameKey(username, clientIp))) {
+            log.warn("登录尝试过于频繁(用户名): ip={}, username={}", clientIp, username);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void onSuccess(String username, String clientIp) {
+        usernameLimiter.reset(usernameKey(username, clientIp));
+    }
+
+    private String usernameKey(String username, String clientIp) {
+        return username.trim().toLowerCase(Locale.ROOT) + "|" + clientIp;
+    }
+}
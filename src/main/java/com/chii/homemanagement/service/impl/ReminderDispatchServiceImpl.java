@@ -0,0 +1,233 @@
+package com.chii.homemanagement.service.impl;
+
+import com.chii.homemanagement.common.ReminderDueEvent;
+import com.chii.homemanagement.entity.Reminder;
+import com.chii.homemanagement.mapper.ReminderMapper;
+import com.chii.homemanagement.service.ReminderDispatchService;
+import com.chii.homemanagement.util.TimingWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 提醒调度服务实现类
+ * 周期性地把未来若干小时内的待提醒记录加载到分层时间轮（分钟轮 + 小时轮），
+ * 每分钟推进一次，到期的提醒以条件更新标记为已提醒后发布{@link ReminderDueEvent}
+ */
+@Service
+@Slf4j
+public class ReminderDispatchServiceImpl implements ReminderDispatchService {
+
+    private static final long TICK_MS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * 每次从数据库加载的提醒数量
+     */
+    private static final int REFILL_BATCH_SIZE = 1000;
+
+    @Value("${reminder.dispatch.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 调度窗口（小时），只加载该时间范围内到期的提醒
+     */
+    @Value("${reminder.dispatch.horizon-hours:24}")
+    private int horizonHours;
+
+    /**
+     * 重新加载间隔（分钟）
+     */
+    @Value("${reminder.dispatch.refill-interval-minutes:30}")
+    private int refillIntervalMinutes;
+
+    /**
+     * 时间轮中最多保存的提醒数量
+     */
+    @Value("${reminder.dispatch.max-entries:100000}")
+    private int maxEntries;
+
+    /**
+     * 未设置提醒时间时的默认提醒时间
+     */
+    @Value("${reminder.dispatch.default-time:09:00}")
+    private String defaultTime;
+
+    @Autowired
+    private ReminderMapper reminderMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final TimingWheel<DispatchEntry> timingWheel = new TimingWheel<>(TICK_MS, 60, System.currentTimeMillis());
+
+    /**
+     * 已调度的提醒ID到触发时间的映射，用于去重和识别已改期的旧任务
+     */
+    private final Map<Long, Long> scheduled = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "reminder-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("提醒调度未启用");
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long delayToNextMinute = TICK_MS - (now % TICK_MS);
+        ticker.scheduleWithFixedDelay(this::safeRefill, 0, refillIntervalMinutes, TimeUnit.MINUTES);
+        ticker.scheduleAtFixedRate(this::safeDispatch, delayToNextMinute, TICK_MS, TimeUnit.MILLISECONDS);
+        log.info("提醒调度已启动: 调度窗口={}小时, 加载间隔={}分钟, 最大任务数={}", horizonHours, refillIntervalMinutes, maxEntries);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public void schedule(Reminder reminder) {
+        if (!enabled || reminder == null || reminder.getId() == null || reminder.getRemindDate() == null
+                || !"pending".equals(reminder.getStatus())) {
+            return;
+        }
+        long fireAt = toFireTime(reminder);
+        if (fireAt > System.currentTimeMillis() + TimeUnit.HOURS.toMillis(horizonHours)) {
+            // 超出调度窗口，由后续加载处理
+            return;
+        }
+        Long previous = scheduled.get(reminder.getId());
+        if (previous != null && previous == fireAt) {
+            return;
+        }
+        if (previous == null && scheduled.size() >= maxEntries) {
+            log.warn("提醒调度任务数已达上限 {}，提醒 {} 等待下次加载", maxEntries, reminder.getId());
+            return;
+        }
+        scheduled.put(reminder.getId(), fireAt);
+        if (!timingWheel.add(fireAt, new DispatchEntry(reminder.getId(), fireAt))) {
+            // 已到期，下一次推进时立即发送
+            timingWheel.add(System.currentTimeMillis() + TICK_MS, new DispatchEntry(reminder.getId(), fireAt));
+        }
+    }
+
+    @Override
+    public int refill() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate startDate = now.toLocalDate();
+        LocalDate endDate = now.plusHours(horizonHours).toLocalDate();
+        int before = scheduled.size();
+        long lastId = 0L;
+        List<Reminder> reminders;
+        do {
+            reminders = reminderMapper.listPendingForDispatch(startDate, endDate, lastId, REFILL_BATCH_SIZE);
+            for (Reminder reminder : reminders) {
+                reminder.setStatus("pending");
+                schedule(reminder);
+            }
+            if (!reminders.isEmpty()) {
+                lastId = reminders.get(reminders.size() - 1).getId();
+            }
+        } while (reminders.size() >= REFILL_BATCH_SIZE && scheduled.size() < maxEntries);
+
+        int added = scheduled.size() - before;
+        log.info("提醒调度加载完成: 新增={}, 当前任务数={}", added, scheduled.size());
+        return added;
+    }
+
+    @Override
+    public int dispatchDue() {
+        long now = System.currentTimeMillis();
+        List<Long> dueIds = timingWheel.advance(now).stream()
+                // 只处理最新的调度记录，改期后遗留的旧任务直接丢弃
+                .filter(entry -> scheduled.remove(entry.reminderId(), entry.fireAt()))
+                .map(DispatchEntry::reminderId)
+                .collect(Collectors.toList());
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+
+        int sent = 0;
+        for (Reminder reminder : reminderMapper.selectBatchIds(dueIds)) {
+            if (!"pending".equals(reminder.getStatus()) || reminder.getRemindDate() == null
+                    || toFireTime(reminder) >= now + TICK_MS) {
+                continue;
+            }
+            // 条件更新保证多实例部署时只有一个节点发送；与事件监听方写入的发件箱记录在同一事务中提交
+            Boolean marked = transactionTemplate.execute(status -> {
+                if (reminderMapper.markReminderSent(reminder.getId()) == 0) {
+                    return false;
+                }
+                reminder.setStatus("sent");
+                eventPublisher.publishEvent(new ReminderDueEvent(this, reminder));
+                return true;
+            });
+            if (Boolean.TRUE.equals(marked)) {
+                sent++;
+            }
+        }
+        log.info("提醒调度发送完成: 到期={}, 发送={}", dueIds.size(), sent);
+        return sent;
+    }
+
+    private void safeRefill() {
+        try {
+            refill();
+        } catch (Exception e) {
+            log.error("加载待提醒记录失败", e);
+        }
+    }
+
+    private void safeDispatch() {
+        try {
+            dispatchDue();
+        } catch (Exception e) {
+            log.error("发送到期提醒失败", e);
+        }
+    }
+
+    /**
+     * 计算提醒的触发时间（毫秒时间戳）
+     */
+    private long toFireTime(Reminder reminder) {
+        LocalTime time = reminder.getRemindTime() != null ? reminder.getRemindTime() : LocalTime.parse(defaultTime);
+        return LocalDateTime.of(reminder.getRemindDate(), time)
+                .atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+    }
+
+    /**
+     * 时间轮中的调度任务
+     *
+     * @param reminderId 提醒ID
+     * @param fireAt     触发时间
+     */
+    private record DispatchEntry(Long reminderId, long fireAt) {
+    }
+}
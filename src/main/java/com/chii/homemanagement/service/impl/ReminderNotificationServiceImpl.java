@@ -0,0 +1,422 @@
+package com.chii.homemanagement.service.impl;
+
+import com.chii.homemanagement.common.ReminderDueEvent;
+import com.chii.homemanagement.entity.NotificationLog;
+import com.chii.homemanagement.entity.Reminder;
+import com.chii.homemanagement.entity.User;
+import com.chii.homemanagement.mapper.NotificationLogMapper;
+import com.chii.homemanagement.mapper.ReminderMapper;
+import com.chii.homemanagement.mapper.UserMapper;
+import com.chii.homemanagement.service.ReminderNotificationService;
+import com.chii.homemanagement.util.TokenBucket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 提醒邮件通知服务实现类
+ * 监听提醒到期事件，将待发送记录写入notification_log作为发件箱，节点重启不会丢失；
+ * 定期领取到期的记录，按用户汇总为摘要邮件，按收件域名分组后同一批次复用一个SMTP连接发送，并按域名限流；
+ * 发送成功后才标记为sent，失败时按指数退避重新排队，超过最大次数后标记为failed
+ */
+@Service
+@Slf4j
+public class ReminderNotificationServiceImpl implements ReminderNotificationService {
+
+    private static final String CHANNEL_EMAIL = "email";
+
+    @Value("${notification.email.enabled:false}")
+    private boolean enabled;
+
+    @Value("${notification.email.from:noreply@localhost}")
+    private String from;
+
+    /**
+     * 发送线程数
+     */
+    @Value("${notification.email.pool-size:2}")
+    private int poolSize;
+
+    /**
+     * 发送队列容量，队列满时剩余记录归还发件箱，下次汇总时再发送
+     */
+    @Value("${notification.email.queue-capacity:100}")
+    private int queueCapacity;
+
+    /**
+     * 每次汇总最多领取的记录数
+     */
+    @Value("${notification.email.claim-size:1000}")
+    private int claimSize;
+
+    /**
+     * 发送中的记录超过该时间（秒）未完成时视为发送节点已宕机，重新排队
+     */
+    @Value("${notification.email.stale-seconds:600}")
+    private long staleSeconds;
+
+    /**
+     * 每个SMTP连接发送的最大邮件数
+     */
+    @Value("${notification.email.batch-size:20}")
+    private int batchSize;
+
+    /**
+     * 每个收件域名每秒允许发送的邮件数
+     */
+    @Value("${notification.email.domain-rate-per-second:1}")
+    private double domainRatePerSecond;
+
+    /**
+     * 每个收件域名允许的突发邮件数
+     */
+    @Value("${notification.email.domain-burst:5}")
+    private int domainBurst;
+
+    @Value("${notification.email.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${notification.email.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    /**
+     * 汇总发送间隔
+     */
+    @Value("${notification.email.flush-interval-ms:60000}")
+    private long flushIntervalMs;
+
+    @Autowired
+    private ObjectProvider<JavaMailSender> mailSenderProvider;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private ReminderMapper reminderMapper;
+
+    @Autowired
+    private NotificationLogMapper notificationLogMapper;
+
+    /**
+     * 本节点标识，用于生成领取标识
+     */
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final AtomicLong claimSequence = new AtomicLong();
+
+    private final Map<String, TokenBucket> domainLimiters = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor sendExecutor;
+
+    private ScheduledExecutorService scheduler;
+
+    private JavaMailSender mailSender;
+
+    @PostConstruct
+    public void init() {
+        mailSender = mailSenderProvider.getIfAvailable();
+        if (enabled && mailSender == null) {
+            log.warn("已启用邮件通知但未配置spring.mail，邮件通知不可用");
+            enabled = false;
+        }
+        if (!enabled) {
+            return;
+        }
+        sendExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "reminder-email");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::safeFlush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("提醒邮件通知已启用: 发送线程={}, 每域名限速={}/秒", poolSize, domainRatePerSecond);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (sendExecutor != null) {
+            sendExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 与提醒状态的更新在同一事务中写入发件箱，提醒标记为已提醒时发送记录一定存在；
+     * 发布方已批量写入发件箱时跳过
+     */
+    @EventListener
+    public void onReminderDue(ReminderDueEvent event) {
+        if (!event.isOutboxQueued()) {
+            enqueue(event.getReminder());
+        }
+    }
+
+    @Override
+    public boolean enqueue(Reminder reminder) {
+        if (!enabled || reminder == null || reminder.getId() == null || reminder.getUserId() == null
+                || !hasEmailMethod(reminder)) {
+            return false;
+        }
+        NotificationLog outbox = NotificationLog.builder()
+                .reminderId(reminder.getId())
+                .userId(reminder.getUserId())
+                .channel(CHANNEL_EMAIL)
+                .build();
+        return notificationLogMapper.insertQueued(outbox) > 0;
+    }
+
+    @Override
+    public int enqueueAll(List<Reminder> reminders) {
+        if (!enabled || reminders == null) {
+            return 0;
+        }
+        List<NotificationLog> outbox = reminders.stream()
+                .filter(reminder -> reminder.getId() != null && reminder.getUserId() != null && hasEmailMethod(reminder))
+                .map(reminder -> NotificationLog.builder()
+                        .reminderId(reminder.getId())
+                        .userId(reminder.getUserId())
+                        .channel(CHANNEL_EMAIL)
+                        .build())
+                .collect(Collectors.toList());
+        return outbox.isEmpty() ? 0 : notificationLogMapper.insertQueuedBatch(outbox);
+    }
+
+    @Override
+    public int flush() {
+        if (!enabled) {
+            return 0;
+        }
+        int stale = notificationLogMapper.releaseStale(staleSeconds);
+        if (stale > 0) {
+            log.warn("{} 条提醒邮件发送超时，已重新排队", stale);
+        }
+
+        // 领取到期的待发送记录
+        String claimToken = nodeId + ":" + claimSequence.incrementAndGet();
+        if (notificationLogMapper.claimDue(CHANNEL_EMAIL, claimToken, claimSize) == 0) {
+            return 0;
+        }
+        List<NotificationLog> claimed = notificationLogMapper.listClaimed(claimToken);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        // 按用户生成摘要
+        Map<Long, Reminder> reminders = reminderMapper.selectBatchIds(claimed.stream()
+                        .map(NotificationLog::getReminderId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Reminder::getId, r -> r));
+        Map<Long, List<NotificationLog>> byUser = claimed.stream()
+                .collect(Collectors.groupingBy(NotificationLog::getUserId));
+        Map<Long, User> users = userMapper.selectBatchIds(byUser.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
+        List<Digest> digests = new ArrayList<>();
+        List<Long> noEmail = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        byUser.forEach((userId, logs) -> {
+            User user = users.get(userId);
+            if (user == null || !StringUtils.hasText(user.getEmail()) || !user.getEmail().contains("@")) {
+                logs.forEach(l -> noEmail.add(l.getId()));
+                return;
+            }
+            List<NotificationLog> deliverable = new ArrayList<>();
+            List<Reminder> items = new ArrayList<>();
+            for (NotificationLog outbox : logs) {
+                Reminder reminder = reminders.get(outbox.getReminderId());
+                if (reminder == null) {
+                    missing.add(outbox.getId());
+                } else {
+                    deliverable.add(outbox);
+                    items.add(reminder);
+                }
+            }
+            if (!deliverable.isEmpty()) {
+                digests.add(new Digest(user.getEmail(), deliverable, buildMessage(user, items)));
+            }
+        });
+        markFailed(noEmail, "用户未设置有效邮箱");
+        markFailed(missing, "提醒已删除");
+
+        // 按收件域名分组，每批复用一个SMTP连接；发送队列已满时归还剩余记录
+        Map<String, List<Digest>> byDomain = digests.stream()
+                .collect(Collectors.groupingBy(Digest::domain));
+        List<Long> rejected = new ArrayList<>();
+        byDomain.forEach((domain, domainDigests) -> {
+            for (int i = 0; i < domainDigests.size(); i += batchSize) {
+                List<Digest> batch = new ArrayList<>(domainDigests.subList(i, Math.min(i + batchSize, domainDigests.size())));
+                try {
+                    sendExecutor.execute(() -> sendBatch(domain, batch));
+                } catch (RejectedExecutionException e) {
+                    batch.forEach(d -> rejected.addAll(d.logIds()));
+                }
+            }
+        });
+        if (!rejected.isEmpty()) {
+            notificationLogMapper.release(rejected);
+            log.warn("提醒邮件发送队列已满，{} 条记录留待下次发送", rejected.size());
+        }
+
+        log.info("提醒邮件汇总完成: 领取={}, 用户数={}, 摘要数={}", claimed.size(), byUser.size(), digests.size());
+        return digests.size();
+    }
+
+    /**
+     * 发送一批同域名的摘要邮件
+     */
+    private void sendBatch(String domain, List<Digest> batch) {
+        try {
+            TokenBucket limiter = domainLimiters.computeIfAbsent(domain,
+                    k -> new TokenBucket(domainBurst, domainRatePerSecond));
+            for (int i = 0; i < batch.size(); i++) {
+                limiter.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // 停机时归还记录，由其他节点或重启后发送
+            notificationLogMapper.release(batch.stream().flatMap(d -> d.logIds().stream()).collect(Collectors.toList()));
+            return;
+        }
+
+        SimpleMailMessage[] messages = batch.stream().map(Digest::message).toArray(SimpleMailMessage[]::new);
+        try {
+            mailSender.send(messages);
+            batch.forEach(this::markSent);
+        } catch (MailSendException e) {
+            // 部分失败：成功的记录结果，失败的重试
+            Set<Object> failedMessages = e.getFailedMessages().keySet();
+            List<Digest> failed = batch.stream().filter(d -> failedMessages.contains(d.message())).collect(Collectors.toList());
+            batch.stream().filter(d -> !failedMessages.contains(d.message())).forEach(this::markSent);
+            retry(domain, failed.isEmpty() ? batch : failed, e);
+        } catch (MailException e) {
+            retry(domain, batch, e);
+        } catch (Exception e) {
+            log.error("发送提醒邮件时发生错误: domain={}", domain, e);
+            batch.forEach(d -> markFailed(d.logIds(), e.getMessage()));
+        }
+    }
+
+    /**
+     * 按指数退避重新排队，超过最大次数后记录失败
+     */
+    private void retry(String domain, List<Digest> digests, Exception cause) {
+        int retried = 0;
+        for (Digest digest : digests) {
+            int attempts = digest.attempts() + 1;
+            if (attempts > maxRetries) {
+                markFailed(digest.logIds(), cause.getMessage());
+                continue;
+            }
+            long delayMs = retryBackoffMs * (1L << Math.min(attempts - 1, 10));
+            notificationLogMapper.markRetry(digest.logIds(), truncate(cause.getMessage()),
+                    Math.max(1, TimeUnit.MILLISECONDS.toSeconds(delayMs)));
+            retried++;
+        }
+        if (retried > 0) {
+            log.warn("提醒邮件发送失败，稍后重试: domain={}, 数量={}, 原因={}", domain, retried, cause.getMessage());
+        }
+    }
+
+    private void markSent(Digest digest) {
+        notificationLogMapper.markSent(digest.logIds(), digest.recipient());
+    }
+
+    private void markFailed(List<Long> ids, String error) {
+        if (!ids.isEmpty()) {
+            notificationLogMapper.markFailed(ids, truncate(error));
+        }
+    }
+
+    private String truncate(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    /**
+     * 构建摘要邮件
+     */
+    private SimpleMailMessage buildMessage(User user, List<Reminder> reminders) {
+        StringBuilder text = new StringBuilder();
+        text.append(StringUtils.hasText(user.getNickname()) ? user.getNickname() : user.getUsername())
+                .append("，您好：\n\n您有 ").append(reminders.size()).append(" 条提醒到期：\n\n");
+        for (Reminder reminder : reminders) {
+            text.append("- [").append(reminder.getRemindDate()).append("] ")
+                    .append(reminder.getContent() != null ? reminder.getContent() : "").append('\n');
+        }
+        text.append("\n此邮件由家庭物品管理系统自动发送，请勿回复。");
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(user.getEmail());
+        message.setSubject("【家庭物品管理】您有 " + reminders.size() + " 条提醒到期");
+        message.setText(text.toString());
+        return message;
+    }
+
+    private boolean hasEmailMethod(Reminder reminder) {
+        String methods = reminder.getNotificationMethods();
+        return methods != null && Arrays.stream(methods.split(","))
+                .map(String::trim)
+                .anyMatch(CHANNEL_EMAIL::equalsIgnoreCase);
+    }
+
+    private void safeFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("汇总提醒邮件失败", e);
+        }
+    }
+
+    /**
+     * 单个用户的摘要邮件
+     *
+     * @param recipient 接收地址
+     * @param logs      摘要包含的发件箱记录
+     * @param message   邮件内容
+     */
+    private record Digest(String recipient, List<NotificationLog> logs, SimpleMailMessage message) {
+
+        String domain() {
+            return recipient.substring(recipient.lastIndexOf('@') + 1).toLowerCase();
+        }
+
+        List<Long> logIds() {
+            return logs.stream().map(NotificationLog::getId).collect(Collectors.toList());
+        }
+
+        /**
+         * 摘要中记录已尝试的最大次数
+         */
+        int attempts() {
+            return logs.stream().mapToInt(l -> l.getAttempts() != null ? l.getAttempts() : 0).max().orElse(0);
+        }
+    }
+}
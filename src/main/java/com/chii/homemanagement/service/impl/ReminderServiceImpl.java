@@ -4,39 +4,106 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.chii.homemanagement.common.ReminderChangedEvent;
+import com.chii.homemanagement.common.ReminderDueEvent;
 import com.chii.homemanagement.entity.Entity;
 import com.chii.homemanagement.entity.Reminder;
 import com.chii.homemanagement.mapper.EntityMapper;
 import com.chii.homemanagement.mapper.ReminderMapper;
+import com.chii.homemanagement.service.ReminderDispatchService;
+import com.chii.homemanagement.service.ReminderNotificationService;
 import com.chii.homemanagement.service.ReminderService;
+import com.chii.homemanagement.util.RecurrenceUtil;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * 提醒服务实现类
  */
 @Service
+@Slf4j
 public class ReminderServiceImpl extends ServiceImpl<ReminderMapper, Reminder> implements ReminderService {
 
+    /**
+     * 过期提醒每批处理的数量
+     */
+    private static final int EXPIRED_BATCH_SIZE = 500;
+
+    /**
+     * 保修扫描每批处理的实体数量
+     */
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    /**
+     * 单个重复提醒系列一次最多生成的提醒数量
+     */
+    private static final int MAX_OCCURRENCES_PER_SERIES = 400;
+
+    /**
+     * 请求级物品名称缓存的属性名
+     */
+    private static final String ENTITY_NAME_CACHE_ATTR = ReminderServiceImpl.class.getName() + ".ENTITY_NAME_CACHE";
+
+    /**
+     * 重复提醒预先生成的天数，超出该范围的日期在查询时按规则推算
+     */
+    @Value("${reminder.recurring.window-days:90}")
+    private int recurringWindowDays;
+
     @Autowired
     private ReminderMapper reminderMapper;
 
     @Autowired
     private EntityMapper entityMapper;
 
+    @Autowired
+    private ReminderDispatchService reminderDispatchService;
+
+    @Autowired
+    private ReminderNotificationService reminderNotificationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Override
     public Reminder createReminder(Reminder reminder) {
         reminder.setCreateTime(LocalDateTime.now());
         reminder.setUpdateTime(LocalDateTime.now());
         save(reminder);
+        // 当天及近期的提醒直接加入调度
+        reminderDispatchService.schedule(reminder);
+        if (isSeriesRoot(reminder)) {
+            // 重复提醒以首条提醒ID作为系列ID，并立即生成滚动窗口内的后续提醒
+            reminder.setSeriesId(reminder.getId());
+            lambdaUpdate().set(Reminder::getSeriesId, reminder.getId()).eq(Reminder::getId, reminder.getId()).update();
+            materializeSeries(List.of(reminder));
+        }
+        eventPublisher.publishEvent(new ReminderChangedEvent(this, reminder, "created"));
         return reminder;
     }
 
@@ -44,12 +111,38 @@ public class ReminderServiceImpl extends ServiceImpl<ReminderMapper, Reminder> i
     public Reminder updateReminder(Reminder reminder) {
         reminder.setUpdateTime(LocalDateTime.now());
         updateById(reminder);
+        reminderDispatchService.schedule(reminder);
+
+        // 系列首条提醒修改后，按新的日期和周期重新生成尚未提醒的后续提醒
+        Reminder stored = getById(reminder.getId());
+        if (stored != null && (reminder.getId().equals(stored.getSeriesId()) || isSeriesRoot(stored))) {
+            reminderMapper.deleteFutureOccurrences(stored.getId(), LocalDate.now());
+            if (isSeriesRoot(stored)) {
+                if (stored.getSeriesId() == null) {
+                    stored.setSeriesId(stored.getId());
+                    lambdaUpdate().set(Reminder::getSeriesId, stored.getId()).eq(Reminder::getId, stored.getId()).update();
+                }
+                materializeSeries(List.of(stored));
+            }
+        }
+        if (stored != null) {
+            eventPublisher.publishEvent(new ReminderChangedEvent(this, stored, "updated"));
+        }
         return reminder;
     }
 
     @Override
     public boolean deleteReminder(Long id) {
-        return removeById(id);
+        Reminder reminder = getById(id);
+        if (reminder != null && id.equals(reminder.getSeriesId())) {
+            // 删除系列首条提醒时一并删除尚未提醒的后续提醒
+            reminderMapper.deleteFutureOccurrences(id, LocalDate.now());
+        }
+        boolean removed = removeById(id);
+        if (removed && reminder != null) {
+            eventPublisher.publishEvent(new ReminderChangedEvent(this, reminder, "deleted"));
+        }
+        return removed;
     }
 
     @Override
@@ -71,15 +164,8 @@ public class ReminderServiceImpl extends ServiceImpl<ReminderMapper, Reminder> i
         
         List<Reminder> reminders = list(queryWrapper);
 
-        // 为每个提醒设置物品名称
-        for (Reminder reminder : reminders) {
-            if (reminder.getEntityId() != null) {
-                Entity entity = entityMapper.selectById(reminder.getEntityId());
-                if (entity != null) {
-                    reminder.setEntityName(entity.getName());
-                }
-            }
-        }
+        // 批量设置物品名称
+        fillEntityNames(reminders);
         return reminders;
     }
 
@@ -90,7 +176,43 @@ public class ReminderServiceImpl extends ServiceImpl<ReminderMapper, Reminder> i
                 .ge(Reminder::getRemindDate, startDate)
                 .le(Reminder::getRemindDate, endDate)
                 .orderByAsc(Reminder::getRemindDate);
-        return list(queryWrapper);
+        List<Reminder> reminders = list(queryWrapper);
+        reminders.forEach(reminder -> reminder.setProjected(false));
+
+        // 已生成的重复提醒直接按日期范围查出；超出生成窗口的部分按系列规则推算，不写入数据库
+        LocalDate windowEnd = LocalDate.now().plusDays(recurringWindowDays);
+        if (endDate.isAfter(windowEnd)) {
+            LocalDate from = startDate.isAfter(windowEnd) ? startDate : windowEnd.plusDays(1);
+            // 已查出的系列提醒按（系列, 日期）去重，避免与推算结果重复
+            Set<String> existing = reminders.stream()
+                    .filter(reminder -> reminder.getSeriesId() != null)
+                    .map(reminder -> reminder.getSeriesId() + ":" + reminder.getRemindDate())
+                    .collect(Collectors.toSet());
+            List<Reminder> projected = new ArrayList<>();
+            for (Reminder root : reminderMapper.listRecurringSeriesByUser(userId)) {
+                if (root.getRemindDate() == null) {
+                    continue;
+                }
+                // 首条提醒本身是数据库记录，推算从首次日期之后开始
+                LocalDate seriesFrom = from.isAfter(root.getRemindDate()) ? from : root.getRemindDate().plusDays(1);
+                for (LocalDate date : RecurrenceUtil.occurrences(root.getRemindDate(), root.getRecurringCycle(),
+                        seriesFrom, endDate, MAX_OCCURRENCES_PER_SERIES)) {
+                    if (!existing.add(root.getId() + ":" + date)) {
+                        continue;
+                    }
+                    Reminder occurrence = buildOccurrence(root, date);
+                    occurrence.setCreateTime(null);
+                    occurrence.setUpdateTime(null);
+                    occurrence.setProjected(true);
+                    projected.add(occurrence);
+                }
+            }
+            if (!projected.isEmpty()) {
+                reminders.addAll(projected);
+                reminders.sort(Comparator.comparing(Reminder::getRemindDate));
+            }
+        }
+        return reminders;
     }
 
     @Override
@@ -143,22 +265,231 @@ public class ReminderServiceImpl extends ServiceImpl<ReminderMapper, Reminder> i
     }
 
     @Override
-    public void processExpiredReminders() {
+    public int processExpiredReminders() {
+        return processExpiredReminders(null, null);
+    }
+
+    @Override
+    public int processExpiredReminders(Long fromUserId, Long toUserId) {
         LocalDate today = LocalDate.now();
+        long startTime = System.currentTimeMillis();
+        int total = 0;
+        int batches = 0;
 
-        // 查询过期但仍为待提醒的提醒
-        LambdaQueryWrapper<Reminder> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(Reminder::getStatus, "pending")
-                .lt(Reminder::getRemindDate, today);
+        // 分批处理过期但仍为待提醒的提醒（调度器未能及时发送的遗漏提醒），每批以一条条件更新领取后发布到期事件，
+        // 保证用户仍能收到通知，且与调度器并发时只发送一次；状态更新与通知发件箱记录在同一事务中提交
+        long lastId = 0L;
+        List<Reminder> reminders;
+        do {
+            reminders = reminderMapper.listExpiredPendingReminders(today, fromUserId, toUserId, lastId, EXPIRED_BATCH_SIZE);
+            if (reminders.isEmpty()) {
+                break;
+            }
+            List<Reminder> batch = reminders;
+            Integer claimed = transactionTemplate.execute(status -> claimExpiredBatch(batch));
+            total += claimed != null ? claimed : 0;
+            lastId = reminders.get(reminders.size() - 1).getId();
+            batches++;
+            log.debug("过期提醒处理进度: 批次={}, 本批={}, 累计={}", batches, reminders.size(), total);
+            // 分片租约被其他节点接管时执行线程会被中断，在批次之间提前结束
+        } while (reminders.size() >= EXPIRED_BATCH_SIZE && !Thread.currentThread().isInterrupted());
 
-        List<Reminder> expiredReminders = list(queryWrapper);
+        log.info("过期提醒处理完成: 用户范围=[{}, {}], 更新数量={}, 批次数={}, 耗时={}ms", fromUserId, toUserId, total, batches, System.currentTimeMillis() - startTime);
+        return total;
+    }
 
-        // 更新过期提醒状态
-        for (Reminder reminder : expiredReminders) {
-            reminder.setStatus("sent");
-            reminder.setUpdateTime(LocalDateTime.now());
-            updateById(reminder);
+    /**
+     * 领取一批过期提醒，并在同一事务中批量写入通知发件箱、逐条发布到期事件
+     * 全部领取成功时无需回查；部分提醒已被调度器或其他节点处理时，按领取标识查出本次领取的记录
+     *
+     * @param reminders 一批过期的待提醒记录
+     * @return 本次领取的数量
+     */
+    private int claimExpiredBatch(List<Reminder> reminders) {
+        List<Long> ids = reminders.stream().map(Reminder::getId).collect(Collectors.toList());
+        String claimToken = UUID.randomUUID().toString();
+        int claimedCount = reminderMapper.claimReminders(ids, claimToken);
+        if (claimedCount == 0) {
+            return 0;
+        }
+        List<Reminder> claimed = reminders;
+        if (claimedCount < reminders.size()) {
+            Set<Long> claimedIds = new HashSet<>(reminderMapper.listClaimedIds(ids, claimToken));
+            claimed = reminders.stream().filter(reminder -> claimedIds.contains(reminder.getId())).collect(Collectors.toList());
         }
+        claimed.forEach(reminder -> reminder.setStatus("sent"));
+        reminderNotificationService.enqueueAll(claimed);
+        for (Reminder reminder : claimed) {
+            eventPublisher.publishEvent(new ReminderDueEvent(this, reminder, true));
+        }
+        return claimed.size();
+    }
+
+    @Override
+    public int materializeRecurringReminders(Long fromUserId, Long toUserId) {
+        long startTime = System.currentTimeMillis();
+        long lastId = 0L;
+        int total = 0;
+        List<Reminder> roots;
+        do {
+            roots = reminderMapper.listRecurringSeries(fromUserId, toUserId, lastId, SCAN_BATCH_SIZE);
+            if (roots.isEmpty()) {
+                break;
+            }
+            total += materializeSeries(roots);
+            lastId = roots.get(roots.size() - 1).getId();
+        } while (roots.size() >= SCAN_BATCH_SIZE && !Thread.currentThread().isInterrupted());
+
+        log.info("重复提醒生成完成: 用户范围=[{}, {}], 生成数量={}, 耗时={}ms", fromUserId, toUserId, total, System.currentTimeMillis() - startTime);
+        return total;
+    }
+
+    /**
+     * 为一批重复提醒系列生成滚动窗口内尚未生成的后续提醒
+     * 一次分组查询取回各系列已生成的最后日期，只追加其后的日期，批量插入并依赖唯一索引去重
+     *
+     * @param roots 系列首条提醒
+     * @return 插入的提醒数量
+     */
+    private int materializeSeries(List<Reminder> roots) {
+        List<Reminder> validRoots = roots.stream()
+                .filter(root -> root.getRemindDate() != null && RecurrenceUtil.isSupported(root.getRecurringCycle()))
+                .collect(Collectors.toList());
+        if (validRoots.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, LocalDate> lastDates = reminderMapper.listSeriesLastDates(
+                        validRoots.stream().map(Reminder::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Reminder::getSeriesId, Reminder::getRemindDate));
+
+        LocalDate today = LocalDate.now();
+        LocalDate windowEnd = today.plusDays(recurringWindowDays);
+        List<Reminder> occurrences = new ArrayList<>();
+        for (Reminder root : validRoots) {
+            // 从已生成的最后日期之后开始，且不补生成今天之前的提醒
+            LocalDate last = lastDates.getOrDefault(root.getId(), root.getRemindDate());
+            if (last.isBefore(root.getRemindDate())) {
+                last = root.getRemindDate();
+            }
+            LocalDate from = last.isBefore(today) ? today : last.plusDays(1);
+            for (LocalDate date : RecurrenceUtil.occurrences(root.getRemindDate(), root.getRecurringCycle(),
+                    from, windowEnd, MAX_OCCURRENCES_PER_SERIES)) {
+                occurrences.add(buildOccurrence(root, date));
+            }
+        }
+
+        int inserted = 0;
+        for (int i = 0; i < occurrences.size(); i += SCAN_BATCH_SIZE) {
+            inserted += reminderMapper.insertIgnoreBatch(occurrences.subList(i, Math.min(i + SCAN_BATCH_SIZE, occurrences.size())));
+        }
+        return inserted;
+    }
+
+    /**
+     * 以系列首条提醒为模板构建指定日期的提醒
+     */
+    private Reminder buildOccurrence(Reminder root, LocalDate date) {
+        LocalDateTime now = LocalDateTime.now();
+        return Reminder.builder()
+                .entityId(root.getEntityId())
+                .entityName(root.getEntityName())
+                .type(root.getType())
+                .content(root.getContent())
+                .remindDate(date)
+                .remindTime(root.getRemindTime())
+                .status("pending")
+                .userId(root.getUserId())
+                .notificationMethods(root.getNotificationMethods())
+                .daysInAdvance(root.getDaysInAdvance())
+                .isRecurring(true)
+                .recurringCycle(root.getRecurringCycle())
+                .seriesId(root.getId())
+                .createTime(now)
+                .updateTime(now)
+                .build();
+    }
+
+    /**
+     * 是否为重复提醒系列的首条提醒
+     */
+    private boolean isSeriesRoot(Reminder reminder) {
+        return Boolean.TRUE.equals(reminder.getIsRecurring())
+                && RecurrenceUtil.isSupported(reminder.getRecurringCycle())
+                && (reminder.getSeriesId() == null || reminder.getSeriesId().equals(reminder.getId()));
+    }
+
+    @Override
+    public int generateExpiringWarrantyReminders(int days, Long fromUserId, Long toUserId) {
+        LocalDate today = LocalDate.now();
+        return generateWarrantyReminders(today, today.plusDays(days), true, "warranty", fromUserId, toUserId,
+                entity -> buildWarrantyReminder(entity, "warranty",
+                        "物品 [" + entity.getName() + "] 的保修将在" + days + "天内到期，到期日期：" + entity.getWarrantyEndDate(),
+                        days));
+    }
+
+    @Override
+    public int generateExpiredWarrantyReminders(Long fromUserId, Long toUserId) {
+        return generateWarrantyReminders(null, LocalDate.now(), false, "expiry", fromUserId, toUserId,
+                entity -> buildWarrantyReminder(entity, "expiry",
+                        "物品 [" + entity.getName() + "] 的保修已于 " + entity.getWarrantyEndDate() + " 过期，请注意处理",
+                        0));
+    }
+
+    /**
+     * 按实体ID游标分批扫描缺少提醒的物品，并批量插入提醒
+     *
+     * @param startDate    保修截止日期下限
+     * @param endDate      保修截止日期上限
+     * @param endInclusive 上限是否包含
+     * @param type         提醒类型
+     * @param fromUserId   用户ID下限
+     * @param toUserId     用户ID上限
+     * @param builder      提醒构建函数
+     * @return 生成的提醒数量
+     */
+    private int generateWarrantyReminders(LocalDate startDate, LocalDate endDate, boolean endInclusive,
+                                          String type, Long fromUserId, Long toUserId,
+                                          Function<Entity, Reminder> builder) {
+        long startTime = System.currentTimeMillis();
+        long lastId = 0L;
+        int total = 0;
+        List<Entity> entities;
+        do {
+            entities = entityMapper.listWarrantyEntitiesWithoutReminder(startDate, endDate, endInclusive, type,
+                    fromUserId, toUserId, lastId, SCAN_BATCH_SIZE);
+            if (entities.isEmpty()) {
+                break;
+            }
+            List<Reminder> reminders = entities.stream().map(builder).collect(Collectors.toList());
+            saveBatch(reminders);
+            total += reminders.size();
+            lastId = entities.get(entities.size() - 1).getId();
+            log.debug("{}提醒生成进度: 本批={}, 累计={}, lastId={}", type, reminders.size(), total, lastId);
+        } while (entities.size() >= SCAN_BATCH_SIZE && !Thread.currentThread().isInterrupted());
+
+        log.info("{}提醒生成完成: 用户范围=[{}, {}], 生成数量={}, 耗时={}ms", type, fromUserId, toUserId, total, System.currentTimeMillis() - startTime);
+        return total;
+    }
+
+    /**
+     * 构建保修相关提醒
+     */
+    private Reminder buildWarrantyReminder(Entity entity, String type, String content, int daysInAdvance) {
+        LocalDateTime now = LocalDateTime.now();
+        return Reminder.builder()
+                .entityId(entity.getId())
+                .type(type)
+                .content(content)
+                .remindDate(LocalDate.now())
+                .status("pending")
+                .userId(entity.getUserId())
+                .notificationMethods("system")
+                .daysInAdvance(daysInAdvance)
+                .isRecurring(false)
+                .createTime(now)
+                .updateTime(now)
+                .build();
     }
 
     @Override
@@ -172,119 +503,76 @@ public class ReminderServiceImpl extends ServiceImpl<ReminderMapper, Reminder> i
         reminder.setStatus("processed");
         reminder.setUpdateTime(LocalDateTime.now());
         updateById(reminder);
+        eventPublisher.publishEvent(new ReminderChangedEvent(this, reminder, "processed"));
         return reminder;
     }
     @Override
     public IPage<Reminder> pageReminders(Page<Reminder> page, Long userId, Long entityId, String entityName, String type, String status){
-        LambdaQueryWrapper<Reminder> queryWrapper = new LambdaQueryWrapper<>();
         // 默认分页参数
         page = Optional.ofNullable(page).orElse(new Page<>(1, 10));
-        // 添加筛选条件
-        if (userId != null) {
-            queryWrapper.eq(Reminder::getUserId, userId);
-        }
-        if (entityId != null) {
-            queryWrapper.eq(Reminder::getEntityId, entityId);
-        }
-        // 添加按实体名称搜索的功能
-        if (StringUtils.hasText(entityName)) {
-            // 先查询符合名称条件的实体ID列表
-            LambdaQueryWrapper<Entity> entityQueryWrapper = new LambdaQueryWrapper<>();
-            entityQueryWrapper.like(Entity::getName, entityName);
-            List<Entity> entities = entityMapper.selectList(entityQueryWrapper);
-
-            if (!entities.isEmpty()) {
-                // 如果找到了匹配的实体，则按这些实体ID进行过滤
-                List<Long> entityIds = entities.stream().map(Entity::getId).collect(Collectors.toList());
-                queryWrapper.in(Reminder::getEntityId, entityIds);
-            } else {
-                // 如果没有找到匹配的实体，返回空列表
-                return null;
-            }
-        }
-        if (StringUtils.hasText(type)) {
-            queryWrapper.eq(Reminder::getType, type);
-        }
+        // 关联物品表一次完成名称筛选、分页和物品名称填充
+        return reminderMapper.pageRemindersWithEntity(page, userId, entityId,
+                StringUtils.hasText(entityName) ? entityName : null, type, status);
+    }
+    @Override
+    public List<Reminder> getReminders(Long userId, Long entityId, String entityName, String type, String status){
+        // 关联物品表一次完成名称筛选和物品名称填充
+        return reminderMapper.listRemindersWithEntity(userId, entityId,
+                StringUtils.hasText(entityName) ? entityName : null, type, status);
+    }
 
-        if (StringUtils.hasText(status)) {
-            queryWrapper.eq(Reminder::getStatus, status);
+    /**
+     * 批量设置提醒的物品名称
+     * 一次IN查询取回本页所有物品名称，并在同一请求内复用已查到的名称
+     *
+     * @param reminders 提醒列表
+     */
+    private void fillEntityNames(List<Reminder> reminders) {
+        if (reminders == null || reminders.isEmpty()) {
+            return;
         }
 
-        // 按提醒日期和创建时间排序
-        queryWrapper.orderByAsc(Reminder::getRemindDate)
-                .orderByDesc(Reminder::getCreateTime);
+        Map<Long, String> nameCache = getEntityNameCache();
 
-        // 执行分页查询
-        Page<Reminder> resultPage = page(page, queryWrapper);
+        // 收集缓存中尚未存在的物品ID
+        Set<Long> missingIds = reminders.stream()
+                .map(Reminder::getEntityId)
+                .filter(Objects::nonNull)
+                .filter(id -> !nameCache.containsKey(id))
+                .collect(Collectors.toSet());
 
-        List<Reminder> reminders = resultPage.getRecords();
+        if (!missingIds.isEmpty()) {
+            LambdaQueryWrapper<Entity> entityQueryWrapper = new LambdaQueryWrapper<>();
+            entityQueryWrapper.select(Entity::getId, Entity::getName)
+                    .in(Entity::getId, missingIds);
+            for (Entity entity : entityMapper.selectList(entityQueryWrapper)) {
+                nameCache.put(entity.getId(), entity.getName());
+            }
+        }
 
-        // 为每个提醒设置物品名称
         for (Reminder reminder : reminders) {
             if (reminder.getEntityId() != null) {
-                Entity entity = entityMapper.selectById(reminder.getEntityId());
-                if (entity != null) {
-                    reminder.setEntityName(entity.getName());
-                }
+                reminder.setEntityName(nameCache.get(reminder.getEntityId()));
             }
         }
-
-        return resultPage;
     }
-    @Override
-    public List<Reminder> getReminders(Long userId, Long entityId, String entityName, String type, String status){
-        LambdaQueryWrapper<Reminder> queryWrapper = new LambdaQueryWrapper<>();
 
-        // 添加筛选条件
-        if (userId != null) {
-            queryWrapper.eq(Reminder::getUserId, userId);
-        }
-        
-        if (entityId != null) {
-            queryWrapper.eq(Reminder::getEntityId, entityId);
-        }
-        
-        // 添加按实体名称搜索的功能
-        if (StringUtils.hasText(entityName)) {
-            // 先查询符合名称条件的实体ID列表
-            LambdaQueryWrapper<Entity> entityQueryWrapper = new LambdaQueryWrapper<>();
-            entityQueryWrapper.like(Entity::getName, entityName);
-            List<Entity> entities = entityMapper.selectList(entityQueryWrapper);
-            
-            if (!entities.isEmpty()) {
-                // 如果找到了匹配的实体，则按这些实体ID进行过滤
-                List<Long> entityIds = entities.stream().map(Entity::getId).collect(Collectors.toList());
-                queryWrapper.in(Reminder::getEntityId, entityIds);
-            } else {
-                // 如果没有找到匹配的实体，返回空列表
-                return null;
-            }
-        }
-        if (StringUtils.hasText(type)) {
-            queryWrapper.eq(Reminder::getType, type);
-        }
-        
-        if (StringUtils.hasText(status)) {
-            queryWrapper.eq(Reminder::getStatus, status);
+    /**
+     * 获取当前请求的物品名称缓存，非Web请求（如定时任务）时返回临时缓存
+     *
+     * @return 物品ID到名称的映射
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, String> getEntityNameCache() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new HashMap<>();
         }
-        
-        // 按提醒日期和创建时间排序
-        queryWrapper.orderByAsc(Reminder::getRemindDate)
-                   .orderByDesc(Reminder::getCreateTime);
-        
-        // 执行分页查询
-        List<Reminder> reminders = list(queryWrapper);
-        
-        // 为每个提醒设置物品名称
-        for (Reminder reminder : reminders) {
-            if (reminder.getEntityId() != null) {
-                Entity entity = entityMapper.selectById(reminder.getEntityId());
-                if (entity != null) {
-                    reminder.setEntityName(entity.getName());
-                }
-            }
+        Map<Long, String> cache = (Map<Long, String>) attributes.getAttribute(ENTITY_NAME_CACHE_ATTR, RequestAttributes.SCOPE_REQUEST);
+        if (cache == null) {
+            cache = new HashMap<>();
+            attributes.setAttribute(ENTITY_NAME_CACHE_ATTR, cache, RequestAttributes.SCOPE_REQUEST);
         }
-        
-        return reminders;
+        return cache;
     }
-} 
\ No newline at end of file
+}
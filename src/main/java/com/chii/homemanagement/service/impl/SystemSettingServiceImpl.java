@@ -1,30 +1,93 @@
 package com.chii.homemanagement.service.impl;
 
+import com.chii.homemanagement.common.EffectiveSettings;
+import com.chii.homemanagement.common.SettingsChangedEvent;
+import com.chii.homemanagement.entity.CacheVersion;
 import com.chii.homemanagement.entity.SystemSetting;
+import com.chii.homemanagement.mapper.CacheVersionMapper;
 import com.chii.homemanagement.mapper.SystemSettingMapper;
 import com.chii.homemanagement.service.SystemSettingService;
+import com.chii.homemanagement.util.SettingValueParser;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 系统设置服务实现类
+ * 系统设置、用户个人设置以及合并后的生效设置解析为只读结果缓存在本地，读取时不访问数据库；
+ * 保存和删除后在事务提交时刷新本地缓存，并递增数据库中的版本号，其他节点定期比对版本号后清除缓存
  */
 @Service
+@Slf4j
 public class SystemSettingServiceImpl implements SystemSettingService {
     
     @Autowired
     private SystemSettingMapper systemSettingMapper;
 
+    @Autowired
+    private CacheVersionMapper cacheVersionMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private static final String SYSTEM_TYPE = "SYSTEM";
     private static final String USER_TYPE = "USER";
 
+    /**
+     * 缓存版本号名称
+     */
+    private static final String CACHE_NAME = "settings";
+
+    /**
+     * 单条批量保存语句的最大行数
+     */
+    private static final int UPSERT_BATCH_SIZE = 500;
+
+    /**
+     * 缓存的用户数上限，达到上限后不再缓存新用户
+     */
+    @Value("${settings.cache.max-users:10000}")
+    private int maxCachedUsers;
+
+    /**
+     * 系统设置缓存
+     */
+    private volatile Map<String, Object> systemSettingsCache;
+
+    /**
+     * 用户个人设置缓存
+     */
+    private final Map<Long, Map<String, Object>> userSettingsCache = new ConcurrentHashMap<>();
+
+    /**
+     * 用户生效设置缓存
+     */
+    private final Map<Long, EffectiveSettings> effectiveSettingsCache = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存失效计数，加载期间发生失效时不写入缓存，避免旧数据覆盖新数据
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * 本节点已知的数据库版本号
+     */
+    private volatile long knownVersion = -1;
+
     @Override
     public List<SystemSetting> getSystemSettings() {
         return systemSettingMapper.findByType(SYSTEM_TYPE);
@@ -38,108 +101,224 @@ public class SystemSettingServiceImpl implements SystemSettingService {
     @Override
     @Transactional
     public void saveSystemSetting(SystemSetting setting, Long operatorId) {
-        setting.setType(SYSTEM_TYPE);
-        setting.setUserId(null);
-        setting.setUpdatedBy(operatorId);
-        
-        if (setting.getId() == null) {
-            setting.setCreatedBy(operatorId);
-            setting.setCreatedAt(LocalDateTime.now());
-        }
-        
-        setting.setUpdatedAt(LocalDateTime.now());
+        prepareSystemSetting(setting, operatorId);
         systemSettingMapper.saveOrUpdate(setting);
+        publishChange(null);
     }
 
     @Override
     @Transactional
     public void saveSystemSettings(List<SystemSetting> settings, Long operatorId) {
+        if (settings == null || settings.isEmpty()) {
+            return;
+        }
         for (SystemSetting setting : settings) {
-            saveSystemSetting(setting, operatorId);
+            prepareSystemSetting(setting, operatorId);
         }
+        upsertBatch(settings);
+        publishChange(null);
     }
 
     @Override
     @Transactional
     public void saveUserSetting(SystemSetting setting, Long userId) {
-        setting.setType(USER_TYPE);
-        setting.setUserId(userId);
-        setting.setCreatedBy(userId);
-        setting.setUpdatedBy(userId);
-        
-        if (setting.getId() == null) {
-            setting.setCreatedAt(LocalDateTime.now());
-        }
-        
-        setting.setUpdatedAt(LocalDateTime.now());
+        prepareUserSetting(setting, userId);
         systemSettingMapper.saveOrUpdate(setting);
+        publishChange(userId);
     }
 
     @Override
     @Transactional
     public void saveUserSettings(List<SystemSetting> settings, Long userId) {
+        if (settings == null || settings.isEmpty()) {
+            return;
+        }
         for (SystemSetting setting : settings) {
-            saveUserSetting(setting, userId);
+            prepareUserSetting(setting, userId);
         }
+        upsertBatch(settings);
+        publishChange(userId);
     }
 
     @Override
     @Transactional
     public void deleteSystemSetting(String key) {
         systemSettingMapper.deleteSystemSetting(key);
+        publishChange(null);
     }
 
     @Override
     @Transactional
     public void deleteUserSetting(String key, Long userId) {
         systemSettingMapper.deleteUserSetting(userId, key);
+        publishChange(userId);
     }
 
     @Override
     public Map<String, Object> getSystemSettingsAsMap() {
-        List<SystemSetting> settings = getSystemSettings();
-        return convertToMap(settings);
+        Map<String, Object> cached = systemSettingsCache;
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = invalidations.get();
+        Map<String, Object> loaded = convertToMap(getSystemSettings());
+        if (invalidations.get() == stamp) {
+            systemSettingsCache = loaded;
+        }
+        return loaded;
     }
 
     @Override
     public Map<String, Object> getUserSettingsAsMap(Long userId) {
-        List<SystemSetting> settings = getUserSettings(userId);
-        return convertToMap(settings);
+        Map<String, Object> cached = userSettingsCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = invalidations.get();
+        Map<String, Object> loaded = convertToMap(getUserSettings(userId));
+        if (invalidations.get() == stamp && userSettingsCache.size() < maxCachedUsers) {
+            userSettingsCache.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public EffectiveSettings getEffectiveSettings(Long userId) {
+        EffectiveSettings cached = effectiveSettingsCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = invalidations.get();
+        EffectiveSettings loaded = resolveEffectiveSettings(userId);
+        if (invalidations.get() == stamp && effectiveSettingsCache.size() < maxCachedUsers) {
+            effectiveSettingsCache.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 一次查询取出系统设置和用户个人设置后合并：个人设置优先，其次系统设置值，系统设置值为空时使用预设值
+     */
+    private EffectiveSettings resolveEffectiveSettings(Long userId) {
+        Map<String, Object> values = new HashMap<>();
+        List<SystemSetting> overrides = new ArrayList<>();
+        for (SystemSetting setting : systemSettingMapper.findSystemAndUserSettings(userId)) {
+            if (setting.getUserId() != null) {
+                overrides.add(setting);
+                continue;
+            }
+            String value = setting.getSettingValue() != null && !setting.getSettingValue().isEmpty()
+                    ? setting.getSettingValue() : setting.getDefaultValue();
+            if (value != null) {
+                values.put(setting.getSettingKey(), SettingValueParser.parse(value));
+            }
+        }
+        for (SystemSetting setting : overrides) {
+            if (setting.getSettingValue() != null) {
+                values.put(setting.getSettingKey(), SettingValueParser.parse(setting.getSettingValue()));
+            }
+        }
+        return new EffectiveSettings(values);
+    }
+
+    /**
+     * 事务提交后刷新本节点的缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSettingsChanged(SettingsChangedEvent event) {
+        invalidations.incrementAndGet();
+        if (event.getUserId() == null) {
+            systemSettingsCache = null;
+            effectiveSettingsCache.clear();
+            // 写后立即重新加载，下一次读取无需访问数据库
+            getSystemSettingsAsMap();
+        } else {
+            userSettingsCache.remove(event.getUserId());
+            effectiveSettingsCache.remove(event.getUserId());
+        }
+        // 只有版本号连续时才认为本节点已同步，中间有其他节点的修改时交由定期同步清除全部缓存
+        if (event.getVersion() == knownVersion + 1) {
+            knownVersion = event.getVersion();
+        }
+    }
+
+    /**
+     * 定期比对数据库版本号，其他节点修改过设置时清除本节点缓存
+     */
+    @Scheduled(fixedDelayString = "${settings.cache.sync-interval-ms:5000}")
+    public void syncCacheVersion() {
+        try {
+            Long version = cacheVersionMapper.selectVersion(CACHE_NAME);
+            long current = version != null ? version : 0L;
+            if (current != knownVersion) {
+                if (knownVersion >= 0) {
+                    log.debug("设置缓存版本变化: {} -> {}，清除本地缓存", knownVersion, current);
+                }
+                invalidations.incrementAndGet();
+                systemSettingsCache = null;
+                userSettingsCache.clear();
+                effectiveSettingsCache.clear();
+                knownVersion = current;
+            }
+        } catch (Exception e) {
+            log.warn("同步设置缓存版本失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 分批执行多行保存，整张表单的设置通常一条语句即可完成
+     */
+    private void upsertBatch(List<SystemSetting> settings) {
+        for (int from = 0; from < settings.size(); from += UPSERT_BATCH_SIZE) {
+            systemSettingMapper.upsertBatch(settings.subList(from, Math.min(from + UPSERT_BATCH_SIZE, settings.size())));
+        }
+    }
+
+    private void prepareSystemSetting(SystemSetting setting, Long operatorId) {
+        setting.setType(SYSTEM_TYPE);
+        setting.setUserId(null);
+        setting.setUpdatedBy(operatorId);
+        
+        if (setting.getId() == null) {
+            setting.setCreatedBy(operatorId);
+            setting.setCreatedAt(LocalDateTime.now());
+        }
+        
+        setting.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void prepareUserSetting(SystemSetting setting, Long userId) {
+        setting.setType(USER_TYPE);
+        setting.setUserId(userId);
+        setting.setCreatedBy(userId);
+        setting.setUpdatedBy(userId);
+        
+        if (setting.getId() == null) {
+            setting.setCreatedAt(LocalDateTime.now());
+        }
+        
+        setting.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * 递增数据库版本号，并在事务提交后刷新本节点缓存；递增与取回新版本号在同一条语句中完成
+     */
+    private void publishChange(Long userId) {
+        CacheVersion cacheVersion = new CacheVersion(CACHE_NAME);
+        cacheVersionMapper.incrementAndGet(cacheVersion);
+        Long version = cacheVersion.getVersion();
+        eventPublisher.publishEvent(new SettingsChangedEvent(this, userId, version != null ? version : 0L));
     }
     
     /**
-     * 将设置列表转换为Map
+     * 将设置列表转换为只读Map，值按布尔型、数字、字符串的顺序解析
      */
     private Map<String, Object> convertToMap(List<SystemSetting> settings) {
         Map<String, Object> result = new HashMap<>();
-        
         for (SystemSetting setting : settings) {
-            String key = setting.getSettingKey();
-            String value = setting.getSettingValue();
-            
-            // 尝试将值转换为布尔型或数字
-            if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
-                result.put(key, Boolean.parseBoolean(value));
-            } else {
-                try {
-                    // 尝试转换为整数
-                    if (value.matches("^\\d+$")) {
-                        result.put(key, Integer.parseInt(value));
-                    } else if (value.matches("^\\d+\\.\\d+$")) {
-                        // 尝试转换为浮点数
-                        result.put(key, Double.parseDouble(value));
-                    } else {
-                        // 保持字符串
-                        result.put(key, value);
-                    }
-                } catch (NumberFormatException e) {
-                    // 如果转换失败，则保持字符串
-                    result.put(key, value);
-                }
-            }
+            result.put(setting.getSettingKey(), SettingValueParser.parse(setting.getSettingValue()));
         }
-        
-        return result;
+        return Collections.unmodifiableMap(result);
     }
 
     @Override
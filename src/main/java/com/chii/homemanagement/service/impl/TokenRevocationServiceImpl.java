@@ -0,0 +1,204 @@
+package com.chii.homemanagement.service.impl;
+
+import com.chii.homemanagement.entity.RevokedToken;
+import com.chii.homemanagement.entity.TokenWatermark;
+import com.chii.homemanagement.mapper.RevokedTokenMapper;
+import com.chii.homemanagement.mapper.TokenWatermarkMapper;
+import com.chii.homemanagement.service.TokenRevocationService;
+import com.chii.homemanagement.util.JwtUtil;
+import com.chii.homemanagement.util.RevocationSet;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌吊销服务实现类
+ * 吊销记录持久化到revoked_token表，并同步到内存中的分桶吊销集合；
+ * 各节点定期按吊销时间水位增量拉取其他节点的吊销记录，令牌过期后记录自动清理。
+ * 用户级吊销（删除用户、修改密码或状态）记录为该用户的令牌失效水位，持久化到token_watermark表，
+ * 同样由各节点定期增量同步到内存，水位早于令牌最长有效期后清理
+ */
+@Service
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    /**
+     * 每次清理的过期记录数量
+     */
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    /**
+     * 每个时间桶的布隆过滤器位数
+     */
+    @Value("${jwt.revocation.bloom-bits:16384}")
+    private int bloomBits;
+
+    @Autowired
+    private RevokedTokenMapper revokedTokenMapper;
+
+    @Autowired
+    private TokenWatermarkMapper tokenWatermarkMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private RevocationSet revocationSet;
+
+    /**
+     * 已同步的最大吊销时间
+     */
+    private volatile LocalDateTime syncedUntil;
+
+    /**
+     * 用户名到令牌失效水位（毫秒时间戳）的映射
+     */
+    private final Map<String, Long> userWatermarks = new ConcurrentHashMap<>();
+
+    /**
+     * 已同步的最大水位更新时间
+     */
+    private volatile LocalDateTime watermarksSyncedUntil;
+
+    @PostConstruct
+    public void init() {
+        revocationSet = new RevocationSet(TimeUnit.HOURS.toMillis(1), jwtUtil.getMaxTokenValidity(), bloomBits);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int loaded = sync();
+        int watermarks = syncWatermarks();
+        log.info("已加载吊销令牌 {} 条，用户令牌失效水位 {} 条", loaded, watermarks);
+    }
+
+    @Override
+    public boolean revoke(JwtUtil.TokenClaims claims) {
+        if (claims == null || claims.id() == null || claims.isExpired()) {
+            return false;
+        }
+        RevokedToken token = new RevokedToken();
+        token.setJti(claims.id());
+        token.setUsername(claims.subject());
+        token.setExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(claims.expiresAt()), ZoneId.systemDefault()));
+        int inserted = revokedTokenMapper.insertIgnore(token);
+        revocationSet.add(claims.id(), claims.expiresAt());
+        return inserted > 0;
+    }
+
+    @Override
+    public void revoke(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        JwtUtil.TokenClaims claims;
+        try {
+            claims = jwtUtil.parseOnce(token);
+        } catch (Exception e) {
+            // 无效或已过期的令牌无需吊销
+            return;
+        }
+        revoke(claims);
+    }
+
+    @Override
+    public boolean isRevoked(String jti, long expiresAt) {
+        return revocationSet.contains(jti, expiresAt);
+    }
+
+    @Override
+    public void revokeUserTokens(String username) {
+        if (username == null || username.isEmpty()) {
+            return;
+        }
+        // 令牌签发时间只精确到秒，水位取下一秒，同一秒内已签发的令牌也会失效
+        long notBefore = (System.currentTimeMillis() / 1000 + 1) * 1000;
+        tokenWatermarkMapper.raise(username, toDateTime(notBefore));
+        userWatermarks.merge(username, notBefore, Math::max);
+    }
+
+    @Override
+    public boolean isRevokedForUser(String username, long issuedAt) {
+        Long notBefore = username != null ? userWatermarks.get(username) : null;
+        return notBefore != null && issuedAt < notBefore;
+    }
+
+    /**
+     * 定期同步其他节点吊销的令牌
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:10000}")
+    public void scheduledSync() {
+        try {
+            sync();
+            syncWatermarks();
+        } catch (Exception e) {
+            log.warn("同步吊销令牌失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 每小时清理已过期的吊销记录
+     */
+    @Scheduled(cron = "0 5 * * * ?")
+    public void purgeExpired() {
+        int buckets = revocationSet.purge(System.currentTimeMillis());
+        int deleted = 0;
+        int batch;
+        do {
+            batch = revokedTokenMapper.deleteExpired(PURGE_BATCH_SIZE);
+            deleted += batch;
+        } while (batch >= PURGE_BATCH_SIZE);
+
+        // 水位早于令牌最长有效期时，水位之前签发的令牌都已过期
+        long horizon = System.currentTimeMillis() - jwtUtil.getMaxTokenValidity();
+        userWatermarks.values().removeIf(notBefore -> notBefore < horizon);
+        int deletedWatermarks = 0;
+        do {
+            batch = tokenWatermarkMapper.deleteBefore(toDateTime(horizon), PURGE_BATCH_SIZE);
+            deletedWatermarks += batch;
+        } while (batch >= PURGE_BATCH_SIZE);
+        log.debug("清理过期吊销令牌: 内存时间桶={}, 数据库记录={}, 用户水位={}", buckets, deleted, deletedWatermarks);
+    }
+
+    private int sync() {
+        // 水位使用>=比较，同一时刻吊销的记录可能重复拉取，加入集合是幂等的
+        List<RevokedToken> tokens = revokedTokenMapper.listRevokedSince(syncedUntil);
+        for (RevokedToken token : tokens) {
+            revocationSet.add(token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            if (syncedUntil == null || token.getRevokedAt().isAfter(syncedUntil)) {
+                syncedUntil = token.getRevokedAt();
+            }
+        }
+        return tokens.size();
+    }
+
+    private int syncWatermarks() {
+        LocalDateTime horizon = toDateTime(System.currentTimeMillis() - jwtUtil.getMaxTokenValidity());
+        // 与吊销记录相同，水位使用>=比较，重复拉取时取较大值是幂等的
+        List<TokenWatermark> watermarks = tokenWatermarkMapper.listUpdatedSince(watermarksSyncedUntil, horizon);
+        for (TokenWatermark watermark : watermarks) {
+            userWatermarks.merge(watermark.getUsername(),
+                    watermark.getNotBefore().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), Math::max);
+            if (watermarksSyncedUntil == null || watermark.getUpdatedAt().isAfter(watermarksSyncedUntil)) {
+                watermarksSyncedUntil = watermark.getUpdatedAt();
+            }
+        }
+        return watermarks.size();
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
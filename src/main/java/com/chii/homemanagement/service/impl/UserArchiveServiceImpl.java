@@ -0,0 +1,807 @@
+package com.chii.homemanagement.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import com.chii.homemanagement.common.ArchiveImportResult;
+import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.entity.Entity;
+import com.chii.homemanagement.entity.EntityImage;
+import com.chii.homemanagement.entity.EntityMaintenance;
+import com.chii.homemanagement.entity.EntityTag;
+import com.chii.homemanagement.entity.Reminder;
+import com.chii.homemanagement.entity.SystemSetting;
+import com.chii.homemanagement.entity.Tag;
+import com.chii.homemanagement.exception.BusinessException;
+import com.chii.homemanagement.mapper.EntityImageMapper;
+import com.chii.homemanagement.mapper.EntityMaintenanceMapper;
+import com.chii.homemanagement.mapper.EntityMapper;
+import com.chii.homemanagement.mapper.EntityTagMapper;
+import com.chii.homemanagement.mapper.ReminderMapper;
+import com.chii.homemanagement.mapper.TagMapper;
+import com.chii.homemanagement.service.EntityImageService;
+import com.chii.homemanagement.service.EntityMaintenanceService;
+import com.chii.homemanagement.service.EntityService;
+import com.chii.homemanagement.service.EntityTagService;
+import com.chii.homemanagement.service.EventStreamService;
+import com.chii.homemanagement.service.ReminderDispatchService;
+import com.chii.homemanagement.service.SystemSettingService;
+import com.chii.homemanagement.service.TagService;
+import com.chii.homemanagement.service.UserArchiveService;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 账户数据包服务实现类
+ * <p>
+ * 数据包为单个ZIP文件，条目顺序即依赖顺序，导入时只需顺序读取一遍：
+ * manifest.json、tags.jsonl、entities.jsonl（按层级排序）、entity_tags.jsonl、
+ * images/旧ID.json与images/旧ID.bin（图片记录和紧随其后的文件内容）、maintenances.jsonl、reminders.jsonl、settings.jsonl
+ * <p>
+ * 导出在一个只读事务中依次遍历各表的游标；导入按批写入，只在内存中保留旧ID到新ID的映射
+ */
+@Service
+@Slf4j
+public class UserArchiveServiceImpl implements UserArchiveService {
+
+    private static final String FORMAT = "home-management-user-archive";
+
+    private static final int VERSION = 1;
+
+    private static final String MANIFEST = "manifest.json";
+    private static final String TAGS = "tags.jsonl";
+    private static final String ENTITIES = "entities.jsonl";
+    private static final String ENTITY_TAGS = "entity_tags.jsonl";
+    private static final String IMAGES_PREFIX = "images/";
+    private static final String MAINTENANCES = "maintenances.jsonl";
+    private static final String REMINDERS = "reminders.jsonl";
+    private static final String SETTINGS = "settings.jsonl";
+
+    /**
+     * 每批写入的记录数
+     */
+    @Value("${archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${file.base-url:/uploads}")
+    private String baseUrl;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private EntityMapper entityMapper;
+
+    @Autowired
+    private EntityTagMapper entityTagMapper;
+
+    @Autowired
+    private EntityImageMapper entityImageMapper;
+
+    @Autowired
+    private EntityMaintenanceMapper entityMaintenanceMapper;
+
+    @Autowired
+    private ReminderMapper reminderMapper;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private EntityService entityService;
+
+    @Autowired
+    private EntityTagService entityTagService;
+
+    @Autowired
+    private EntityImageService entityImageService;
+
+    @Autowired
+    private EntityMaintenanceService entityMaintenanceService;
+
+    @Autowired
+    private SystemSettingService systemSettingService;
+
+    @Autowired
+    private ReminderDispatchService reminderDispatchService;
+
+    @Autowired
+    private EventStreamService eventStreamService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate snapshotTransaction;
+
+    private final TransactionTemplate importTransaction;
+
+    /**
+     * 数据包专用的ObjectMapper，不输出空字段
+     */
+    private ObjectMapper archiveMapper;
+
+    private Path uploadRoot;
+
+    public UserArchiveServiceImpl(PlatformTransactionManager transactionManager) {
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.importTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        this.archiveMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void exportArchive(Long userId, OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, 64 * 1024));
+
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("format", FORMAT);
+        manifest.put("version", VERSION);
+        manifest.put("userId", userId);
+        manifest.put("exportTime", LocalDateTime.now().toString());
+        zip.putNextEntry(new ZipEntry(MANIFEST));
+        zip.write(archiveMapper.writeValueAsBytes(manifest));
+        zip.closeEntry();
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        try {
+            // 同一个可重复读事务中读取，各部分数据相互一致
+            snapshotTransaction.executeWithoutResult(status -> {
+                try {
+                    try (Cursor<Tag> cursor = tagMapper.streamByUserId(userId)) {
+                        counts.put("tags", writeLines(zip, TAGS, cursor));
+                    }
+                    try (Cursor<Entity> cursor = entityMapper.streamByUserId(userId)) {
+                        counts.put("entities", writeLines(zip, ENTITIES, cursor));
+                    }
+                    try (Cursor<EntityTag> cursor = entityTagMapper.streamByUserId(userId)) {
+                        counts.put("entityTags", writeLines(zip, ENTITY_TAGS, cursor));
+                    }
+                    try (Cursor<EntityImage> cursor = entityImageMapper.streamByUserId(userId)) {
+                        counts.put("images", writeImages(zip, cursor));
+                    }
+                    try (Cursor<EntityMaintenance> cursor = entityMaintenanceMapper.streamByUserId(userId)) {
+                        counts.put("maintenances", writeLines(zip, MAINTENANCES, cursor));
+                    }
+                    try (Cursor<Reminder> cursor = reminderMapper.streamByUserId(userId)) {
+                        counts.put("reminders", writeLines(zip, REMINDERS, cursor));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        counts.put("settings", writeLines(zip, SETTINGS, systemSettingService.getUserSettings(userId)));
+        zip.finish();
+        zip.flush();
+        log.info("导出账户数据包完成: userId={}, 数量={}, 耗时={}ms", userId, counts, System.currentTimeMillis() - startTime);
+    }
+
+    @Override
+    public ArchiveImportResult importArchive(Long userId, InputStream in) throws IOException {
+        long startTime = System.currentTimeMillis();
+        ImportSession session = new ImportSession(userId);
+        try {
+            importTransaction.executeWithoutResult(status -> {
+                try {
+                    session.read(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 数据库已回滚，删除已写入的图片文件
+            session.deleteWrittenFiles();
+            if (e instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+
+        ArchiveImportResult result = session.result;
+        result.setElapsedMs(System.currentTimeMillis() - startTime);
+        if (result.getReminders() > 0) {
+            reminderDispatchService.refill();
+        }
+        eventStreamService.publish(userId, "resync", Map.of("reason", "archive-import"));
+        log.info("导入账户数据包完成: userId={}, 结果={}", userId, result);
+        return result;
+    }
+
+    private <T> int writeLines(ZipOutputStream zip, String name, Iterable<T> rows) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        int count = 0;
+        for (T row : rows) {
+            zip.write(archiveMapper.writeValueAsBytes(row));
+            zip.write('\n');
+            count++;
+        }
+        zip.closeEntry();
+        return count;
+    }
+
+    /**
+     * 每张图片写为两个相邻的条目：记录和文件内容；文件优先从上传目录复制，其次使用数据库中的二进制数据
+     */
+    private int writeImages(ZipOutputStream zip, Cursor<EntityImage> images) throws IOException {
+        int count = 0;
+        for (EntityImage image : images) {
+            byte[] data = image.getImageData();
+            image.setImageData(null);
+            zip.putNextEntry(new ZipEntry(IMAGES_PREFIX + image.getId() + ".json"));
+            zip.write(archiveMapper.writeValueAsBytes(image));
+            zip.closeEntry();
+
+            Path file = resolveUploadFile(image.getImageUrl());
+            if (file != null || data != null) {
+                // 图片本身已压缩，直接存储
+                zip.setLevel(Deflater.NO_COMPRESSION);
+                zip.putNextEntry(new ZipEntry(IMAGES_PREFIX + image.getId() + ".bin"));
+                if (file != null) {
+                    Files.copy(file, zip);
+                } else {
+                    zip.write(data);
+                }
+                zip.closeEntry();
+                zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private Path resolveUploadFile(String url) {
+        if (!StringUtils.hasText(url) || !url.startsWith(baseUrl)) {
+            return null;
+        }
+        String relative = url.substring(baseUrl.length());
+        while (relative.startsWith("/")) {
+            relative = relative.substring(1);
+        }
+        Path file = uploadRoot.resolve(relative).normalize();
+        return file.startsWith(uploadRoot) && Files.isRegularFile(file) ? file : null;
+    }
+
+    /**
+     * 单次导入的状态
+     */
+    private final class ImportSession {
+
+        private final Long userId;
+
+        private final ArchiveImportResult result = new ArchiveImportResult();
+
+        private final Map<Long, Long> tagIds = new HashMap<>();
+
+        /**
+         * 旧实体ID到已写入实体的映射
+         */
+        private final Map<Long, Node> entities = new HashMap<>();
+
+        /**
+         * 父实体尚未写入的实体，按旧父实体ID分组
+         */
+        private final Map<Long, List<Entity>> orphans = new HashMap<>();
+
+        private final List<Entity> entityBatch = new ArrayList<>();
+
+        private final List<Long> entityBatchOldIds = new ArrayList<>();
+
+        private final Set<Long> entityBatchOldIdSet = new HashSet<>();
+
+        private final List<Tag> tagBatch = new ArrayList<>();
+
+        private final List<EntityTag> entityTagBatch = new ArrayList<>();
+
+        private final Set<List<Long>> entityTagKeys = new HashSet<>();
+
+        private final List<EntityImage> imageBatch = new ArrayList<>();
+
+        private final List<EntityMaintenance> maintenanceBatch = new ArrayList<>();
+
+        private final List<Reminder> reminderBatch = new ArrayList<>();
+
+        private final List<Long> reminderBatchOldIds = new ArrayList<>();
+
+        private final List<Long> reminderBatchOldSeries = new ArrayList<>();
+
+        private final Map<Long, Long> reminderIds = new HashMap<>();
+
+        /**
+         * 旧系列ID到该系列新提醒ID的映射
+         */
+        private final Map<Long, List<Long>> seriesMembers = new HashMap<>();
+
+        private final List<SystemSetting> settings = new ArrayList<>();
+
+        private final List<Path> writtenFiles = new ArrayList<>();
+
+        private EntityImage pendingImage;
+
+        private Path imageDir;
+
+        private boolean manifestRead;
+
+        private ImportSession(Long userId) {
+            this.userId = userId;
+        }
+
+        void read(InputStream in) throws IOException {
+            ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in, 64 * 1024));
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (!manifestRead && !MANIFEST.equals(name)) {
+                    throw new BusinessException(ErrorCode.PARAM_NOT_VALID.getCode(), "不是有效的账户数据包");
+                }
+                if (name.startsWith(IMAGES_PREFIX)) {
+                    readImageEntry(name, zip);
+                    continue;
+                }
+                finishImages();
+                switch (name) {
+                    case MANIFEST -> readManifest(zip);
+                    case TAGS -> {
+                        readLines(zip, Tag.class, this::addTag);
+                        flushTags();
+                    }
+                    case ENTITIES -> {
+                        readLines(zip, Entity.class, this::addEntity);
+                        finishEntities();
+                    }
+                    case ENTITY_TAGS -> {
+                        readLines(zip, EntityTag.class, this::addEntityTag);
+                        flushEntityTags();
+                    }
+                    case MAINTENANCES -> {
+                        readLines(zip, EntityMaintenance.class, this::addMaintenance);
+                        flushMaintenances();
+                    }
+                    case REMINDERS -> {
+                        readLines(zip, Reminder.class, this::addReminder);
+                        finishReminders();
+                    }
+                    case SETTINGS -> {
+                        readLines(zip, SystemSetting.class, this::addSetting);
+                        saveSettings();
+                    }
+                    default -> log.debug("忽略数据包中的未知条目: {}", name);
+                }
+            }
+            if (!manifestRead) {
+                throw new BusinessException(ErrorCode.PARAM_NOT_VALID.getCode(), "不是有效的账户数据包");
+            }
+            finishImages();
+        }
+
+        private void readManifest(InputStream in) throws IOException {
+            Map<?, ?> manifest = archiveMapper.readValue(in.readAllBytes(), Map.class);
+            Object version = manifest.get("version");
+            if (!FORMAT.equals(manifest.get("format")) || !(version instanceof Number number) || number.intValue() > VERSION) {
+                throw new BusinessException(ErrorCode.PARAM_NOT_VALID.getCode(), "不支持的账户数据包格式或版本");
+            }
+            manifestRead = true;
+        }
+
+        private <T> void readLines(InputStream in, Class<T> type, Consumer<T> consumer) throws IOException {
+            // 不关闭reader，条目结束后由ZipInputStream继续读取下一个条目
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    consumer.accept(archiveMapper.readValue(line, type));
+                }
+            }
+        }
+
+        // ---------- 标签：按名称合并到已有标签 ----------
+
+        private void addTag(Tag tag) {
+            tagBatch.add(tag);
+            if (tagBatch.size() >= batchSize) {
+                flushTags();
+            }
+        }
+
+        private void flushTags() {
+            if (tagBatch.isEmpty()) {
+                return;
+            }
+            Set<String> names = new HashSet<>();
+            for (Tag tag : tagBatch) {
+                if (StringUtils.hasText(tag.getName())) {
+                    names.add(tag.getName().trim());
+                }
+            }
+            Map<String, Long> existing = new HashMap<>();
+            if (!names.isEmpty()) {
+                for (Tag tag : tagMapper.listByNames(userId, names)) {
+                    existing.putIfAbsent(tag.getName(), tag.getId());
+                }
+            }
+
+            Map<String, Tag> created = new LinkedHashMap<>();
+            Map<Long, String> pending = new HashMap<>();
+            for (Tag tag : tagBatch) {
+                if (!StringUtils.hasText(tag.getName())) {
+                    result.setSkipped(result.getSkipped() + 1);
+                    continue;
+                }
+                String name = tag.getName().trim();
+                Long existingId = existing.get(name);
+                if (existingId != null) {
+                    tagIds.put(tag.getId(), existingId);
+                    continue;
+                }
+                pending.put(tag.getId(), name);
+                if (!created.containsKey(name)) {
+                    tag.setId(null);
+                    tag.setName(name);
+                    tag.setUserId(userId);
+                    tag.setCreateUserId(userId);
+                    tag.setUpdateTime(null);
+                    created.put(name, tag);
+                }
+            }
+            if (!created.isEmpty()) {
+                tagService.saveBatch(created.values(), batchSize);
+                result.setTags(result.getTags() + created.size());
+            }
+            pending.forEach((oldId, name) -> tagIds.put(oldId, created.get(name).getId()));
+            tagBatch.clear();
+        }
+
+        // ---------- 实体：父实体先写入，按新ID重新计算层级和路径 ----------
+
+        private void addEntity(Entity entity) {
+            Long oldParentId = entity.getParentId();
+            if (oldParentId != null && !entities.containsKey(oldParentId)) {
+                if (entityBatchOldIdSet.contains(oldParentId)) {
+                    // 父实体在当前批次中，先写入以获得新ID
+                    flushEntities();
+                } else {
+                    orphans.computeIfAbsent(oldParentId, k -> new ArrayList<>()).add(entity);
+                    return;
+                }
+            }
+
+            Node parent = oldParentId != null ? entities.get(oldParentId) : null;
+            entityBatchOldIds.add(entity.getId());
+            entityBatchOldIdSet.add(entity.getId());
+            entity.setId(null);
+            entity.setUserId(userId);
+            entity.setCreateUserId(userId);
+            entity.setUpdateTime(null);
+            if (parent == null) {
+                entity.setParentId(null);
+                entity.setLevel(0);
+                entity.setPath("");
+            } else {
+                entity.setParentId(parent.id());
+                entity.setLevel(parent.level() + 1);
+                entity.setPath(StringUtils.hasText(parent.path()) ? parent.path() + "," + parent.id() : parent.id().toString());
+            }
+            entityBatch.add(entity);
+            if (entityBatch.size() >= batchSize) {
+                flushEntities();
+            }
+        }
+
+        private void flushEntities() {
+            if (entityBatch.isEmpty()) {
+                return;
+            }
+            entityService.saveBatch(entityBatch, batchSize);
+            List<Long> inserted = new ArrayList<>(entityBatchOldIds);
+            for (int i = 0; i < entityBatch.size(); i++) {
+                Entity entity = entityBatch.get(i);
+                entities.put(entityBatchOldIds.get(i), new Node(entity.getId(), entity.getLevel(), entity.getPath()));
+            }
+            result.setEntities(result.getEntities() + entityBatch.size());
+            entityBatch.clear();
+            entityBatchOldIds.clear();
+            entityBatchOldIdSet.clear();
+
+            // 等待这些父实体的子实体现在可以写入
+            for (Long oldId : inserted) {
+                List<Entity> children = orphans.remove(oldId);
+                if (children != null) {
+                    children.forEach(this::addEntity);
+                }
+            }
+        }
+
+        private void finishEntities() {
+            flushEntities();
+            // 父实体不在数据包中的实体作为顶层实体导入
+            while (!orphans.isEmpty()) {
+                List<Entity> roots = new ArrayList<>();
+                orphans.values().forEach(roots::addAll);
+                orphans.clear();
+                for (Entity entity : roots) {
+                    entity.setParentId(null);
+                    addEntity(entity);
+                }
+                flushEntities();
+            }
+        }
+
+        private Long newEntityId(Long oldId) {
+            Node node = oldId != null ? entities.get(oldId) : null;
+            return node != null ? node.id() : null;
+        }
+
+        // ---------- 标签关联 ----------
+
+        private void addEntityTag(EntityTag entityTag) {
+            Long entityId = newEntityId(entityTag.getEntityId());
+            Long tagId = tagIds.get(entityTag.getTagId());
+            // 多个旧标签合并为同一个标签时只保留一条关联
+            if (entityId == null || tagId == null || !entityTagKeys.add(List.of(entityId, tagId))) {
+                result.setSkipped(result.getSkipped() + 1);
+                return;
+            }
+            entityTag.setId(null);
+            entityTag.setEntityId(entityId);
+            entityTag.setTagId(tagId);
+            entityTag.setUpdateTime(null);
+            entityTagBatch.add(entityTag);
+            if (entityTagBatch.size() >= batchSize) {
+                flushEntityTags();
+            }
+        }
+
+        private void flushEntityTags() {
+            if (entityTagBatch.isEmpty()) {
+                return;
+            }
+            entityTagService.saveBatch(entityTagBatch, batchSize);
+            result.setEntityTags(result.getEntityTags() + entityTagBatch.size());
+            entityTagBatch.clear();
+        }
+
+        // ---------- 图片：记录条目之后紧跟文件内容条目 ----------
+
+        private void readImageEntry(String name, InputStream in) throws IOException {
+            if (name.endsWith(".json")) {
+                dropPendingImage();
+                pendingImage = archiveMapper.readValue(in.readAllBytes(), EntityImage.class);
+                return;
+            }
+            if (!name.endsWith(".bin") || pendingImage == null) {
+                return;
+            }
+            EntityImage image = pendingImage;
+            pendingImage = null;
+            Long entityId = newEntityId(image.getEntityId());
+            if (entityId == null) {
+                result.setSkipped(result.getSkipped() + 1);
+                return;
+            }
+
+            if (imageDir == null) {
+                imageDir = uploadRoot.resolve(userId + "/entities");
+                Files.createDirectories(imageDir);
+            }
+            String fileName = UUID.randomUUID() + extensionOf(image);
+            Path dest = imageDir.resolve(fileName);
+            writtenFiles.add(dest);
+            long size = Files.copy(in, dest);
+
+            image.setId(null);
+            image.setEntityId(entityId);
+            image.setImageUrl(baseUrl + "/" + userId + "/entities/" + fileName);
+            image.setFileName(fileName);
+            image.setFileSize(size);
+            image.setImageData(null);
+            imageBatch.add(image);
+            if (imageBatch.size() >= batchSize) {
+                flushImages();
+            }
+        }
+
+        private void dropPendingImage() {
+            if (pendingImage != null) {
+                // 没有文件内容的图片记录无法使用
+                result.setSkipped(result.getSkipped() + 1);
+                pendingImage = null;
+            }
+        }
+
+        private void flushImages() {
+            if (imageBatch.isEmpty()) {
+                return;
+            }
+            entityImageService.saveBatch(imageBatch, batchSize);
+            result.setImages(result.getImages() + imageBatch.size());
+            imageBatch.clear();
+        }
+
+        private void finishImages() {
+            dropPendingImage();
+            flushImages();
+        }
+
+        private String extensionOf(EntityImage image) {
+            String name = StringUtils.hasText(image.getFileName()) ? image.getFileName() : image.getImageUrl();
+            String extension = name != null ? StringUtils.getFilenameExtension(name) : null;
+            if (StringUtils.hasText(extension) && extension.length() <= 10) {
+                return "." + extension.toLowerCase(Locale.ROOT);
+            }
+            String contentType = image.getContentType();
+            if (contentType != null && contentType.startsWith("image/")) {
+                return "." + contentType.substring("image/".length());
+            }
+            return "";
+        }
+
+        // ---------- 维护记录 ----------
+
+        private void addMaintenance(EntityMaintenance maintenance) {
+            Long entityId = newEntityId(maintenance.getEntityId());
+            if (entityId == null) {
+                result.setSkipped(result.getSkipped() + 1);
+                return;
+            }
+            maintenance.setId(null);
+            maintenance.setEntityId(entityId);
+            maintenance.setOperatorId(userId);
+            maintenanceBatch.add(maintenance);
+            if (maintenanceBatch.size() >= batchSize) {
+                flushMaintenances();
+            }
+        }
+
+        private void flushMaintenances() {
+            if (maintenanceBatch.isEmpty()) {
+                return;
+            }
+            entityMaintenanceService.saveBatch(maintenanceBatch, batchSize);
+            result.setMaintenances(result.getMaintenances() + maintenanceBatch.size());
+            maintenanceBatch.clear();
+        }
+
+        // ---------- 提醒：系列ID在全部写入后按新ID回填 ----------
+
+        private void addReminder(Reminder reminder) {
+            if (reminder.getEntityId() != null) {
+                Long entityId = newEntityId(reminder.getEntityId());
+                if (entityId == null) {
+                    result.setSkipped(result.getSkipped() + 1);
+                    return;
+                }
+                reminder.setEntityId(entityId);
+            }
+            reminderBatchOldIds.add(reminder.getId());
+            reminderBatchOldSeries.add(reminder.getSeriesId());
+            reminder.setId(null);
+            reminder.setSeriesId(null);
+            reminder.setUserId(userId);
+            reminder.setUpdateTime(null);
+            reminderBatch.add(reminder);
+            if (reminderBatch.size() >= batchSize) {
+                flushReminders();
+            }
+        }
+
+        private void flushReminders() {
+            if (reminderBatch.isEmpty()) {
+                return;
+            }
+            Db.saveBatch(reminderBatch, batchSize);
+            for (int i = 0; i < reminderBatch.size(); i++) {
+                Long newId = reminderBatch.get(i).getId();
+                reminderIds.put(reminderBatchOldIds.get(i), newId);
+                Long oldSeries = reminderBatchOldSeries.get(i);
+                if (oldSeries != null) {
+                    seriesMembers.computeIfAbsent(oldSeries, k -> new ArrayList<>()).add(newId);
+                }
+            }
+            result.setReminders(result.getReminders() + reminderBatch.size());
+            reminderBatch.clear();
+            reminderBatchOldIds.clear();
+            reminderBatchOldSeries.clear();
+        }
+
+        private void finishReminders() {
+            flushReminders();
+            for (Map.Entry<Long, List<Long>> entry : seriesMembers.entrySet()) {
+                List<Long> members = entry.getValue();
+                Long seriesId = reminderIds.getOrDefault(entry.getKey(), Collections.min(members));
+                for (int i = 0; i < members.size(); i += batchSize) {
+                    reminderMapper.update(null, new LambdaUpdateWrapper<Reminder>()
+                            .set(Reminder::getSeriesId, seriesId)
+                            .in(Reminder::getId, members.subList(i, Math.min(i + batchSize, members.size()))));
+                }
+            }
+            seriesMembers.clear();
+        }
+
+        // ---------- 个人设置 ----------
+
+        private void addSetting(SystemSetting setting) {
+            if (StringUtils.hasText(setting.getSettingKey())) {
+                setting.setId(null);
+                settings.add(setting);
+            }
+        }
+
+        private void saveSettings() {
+            if (settings.isEmpty()) {
+                return;
+            }
+            systemSettingService.saveUserSettings(settings, userId);
+            result.setSettings(result.getSettings() + settings.size());
+            settings.clear();
+        }
+
+        void deleteWrittenFiles() {
+            for (Path file : writtenFiles) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("删除导入失败的图片文件失败: {}, error={}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 已写入的实体
+     *
+     * @param id    新ID
+     * @param level 层级
+     * @param path  路径
+     */
+    private record Node(Long id, Integer level, String path) {
+    }
+}
@@ -1,17 +1,20 @@
 package com.chii.homemanagement.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.chii.homemanagement.common.ErrorCode;
+import com.chii.homemanagement.common.LoginUser;
 import com.chii.homemanagement.entity.User;
 import com.chii.homemanagement.exception.BusinessException;
 import com.chii.homemanagement.mapper.UserMapper;
 import com.chii.homemanagement.service.FileStorageService;
+import com.chii.homemanagement.service.TokenRevocationService;
 import com.chii.homemanagement.service.UserService;
+import com.chii.homemanagement.util.JwtAuthenticationCache;
 import com.chii.homemanagement.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,12 +22,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.Date;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 
@@ -44,6 +45,12 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     @Autowired
     private JwtUtil jwtUtil;
+
+    @Autowired
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
     
     // 密码重置令牌有效期（24小时）
     private static final long PASSWORD_RESET_TOKEN_VALIDITY = 24 * 60 * 60 * 1000;
@@ -60,11 +67,23 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             throw new UsernameNotFoundException("用户名或密码错误");
         }
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-        );
+        return new LoginUser(user.getUserId(), user.getUsername(), user.getPassword(), LoginUser.parseRoles(user.getRoles()));
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        // 登录成功后由认证组件调用，newPassword为按当前强度重新加密后的密码
+        LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(User::getUsername, userDetails.getUsername())
+                .set(User::getPassword, newPassword);
+        update(updateWrapper);
+        jwtAuthenticationCache.evictUser(userDetails.getUsername());
+        if (userDetails instanceof LoginUser loginUser) {
+            return loginUser.withPassword(newPassword);
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
     }
 
     @Override
@@ -96,13 +115,31 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
+        // 修改密码或状态后吊销该用户此前签发的全部令牌，并清除认证缓存
+        boolean credentialsChanged = (user.getPassword() != null && !user.getPassword().isEmpty()) || user.getStatus() != null;
+        String username = user.getUsername();
+        if (credentialsChanged && username == null && user.getId() != null) {
+            User existing = getById(user.getId());
+            username = existing != null ? existing.getUsername() : null;
+        }
         updateById(user);
+        if (credentialsChanged) {
+            tokenRevocationService.revokeUserTokens(username);
+            jwtAuthenticationCache.evictUser(username);
+        }
         return user;
     }
 
     @Override
     public boolean deleteUser(Long userId) {
-        return removeById(userId);
+        User user = getById(userId);
+        boolean removed = removeById(userId);
+        if (removed && user != null) {
+            // 已删除用户的令牌立即失效
+            tokenRevocationService.revokeUserTokens(user.getUsername());
+            jwtAuthenticationCache.evictUser(user.getUsername());
+        }
+        return removed;
     }
 
     @Override
@@ -151,22 +188,14 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Override
     public User validatePasswordResetToken(String token) {
         try {
-            // 尝试从令牌中获取用户名，如果令牌已过期或无效，这将抛出异常
-            String username = jwtUtil.getUsernameFromToken(token);
-            
-            // 如果能成功获取用户名，则令牌有效，返回对应的用户
-            User user = getUserByUsername(username);
-            if (user == null) {
+            // 解析令牌，如果令牌已过期或无效，这将抛出异常
+            JwtUtil.TokenClaims claims = jwtUtil.parseOnce(token);
+            if (claims.isExpired()) {
                 return null;
             }
-            
-            // 验证令牌是否已过期，通过比较过期时间和当前时间
-            Date expiration = jwtUtil.getExpirationDateFromToken(token);
-            if (expiration.before(new Date())) {
-                return null;
-            }
-            
-            return user;
+
+            // 令牌有效，返回对应的用户
+            return getUserByUsername(claims.subject());
         } catch (Exception e) {
             return null;
         }
@@ -178,6 +207,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         user.setPassword(passwordEncoder.encode(newPassword));
         // 更新用户信息
         updateById(user);
+        tokenRevocationService.revokeUserTokens(user.getUsername());
+        jwtAuthenticationCache.evictUser(user.getUsername());
     }
 
     @Override
@@ -199,11 +230,13 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Override
     public User deeleteAvatar(Long userId) {
         // 更新用户信息，清空头像URL
+        // 按实体更新时空字段会被忽略，用条件更新显式置空头像
+        LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(User::getId, userId)
+                .set(User::getAvatar, null);
+        update(updateWrapper);
         User user = new User();
         user.setUserId(userId);
-        user.setAvatar(null);
-        user.setUpdateTime(LocalDateTime.now());
-        updateUser(user);
         return user;
     }
 } 
\ No newline at end of file
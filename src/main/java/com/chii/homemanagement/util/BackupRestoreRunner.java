@@ -0,0 +1,65 @@
+package com.chii.homemanagement.util;
+
+import com.chii.homemanagement.service.BackupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * 备份校验和恢复命令
+ * 以命令行参数启动时执行后退出，退出码0表示成功：
+ * <pre>
+ * java -jar app.jar --spring.main.web-application-type=none --backup.verify=备份ID
+ * java -jar app.jar --spring.main.web-application-type=none --backup.restore=备份ID
+ * </pre>
+ * 恢复前应停止其他节点，恢复过程中会先校验整个备份链
+ */
+@Slf4j
+@Component
+public class BackupRestoreRunner implements CommandLineRunner {
+
+    @Value("${backup.verify:}")
+    private String verifyId;
+
+    @Value("${backup.restore:}")
+    private String restoreId;
+
+    @Autowired
+    private BackupService backupService;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Override
+    public void run(String... args) {
+        if (!StringUtils.hasText(verifyId) && !StringUtils.hasText(restoreId)) {
+            return;
+        }
+        int exitCode = 0;
+        try {
+            if (StringUtils.hasText(verifyId)) {
+                List<String> problems = backupService.verify(verifyId);
+                problems.forEach(problem -> log.error("备份校验失败: {}", problem));
+                if (problems.isEmpty()) {
+                    log.info("备份 {} 校验通过", verifyId);
+                } else {
+                    exitCode = 1;
+                }
+            } else {
+                backupService.restore(restoreId);
+            }
+        } catch (Exception e) {
+            log.error("备份命令执行失败", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,181 @@
+package com.chii.homemanagement.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 分卷ZIP写入器
+ * 按顺序写入多个条目，当前分卷的大小达到上限后，下一个条目写入新的分卷文件；
+ * 写入的同时计算每个分卷的SHA-256，用于恢复前校验分卷是否完整
+ * <p>
+ * 非线程安全
+ */
+public class ChunkedZipWriter implements Closeable {
+
+    private final Path dir;
+
+    private final String prefix;
+
+    /**
+     * 单个分卷的大小上限（字节），单个条目不会被拆分，因此分卷可能略大于该值
+     */
+    private final long chunkSize;
+
+    private final List<Chunk> chunks = new ArrayList<>();
+
+    private ZipOutputStream zip;
+
+    private CountingOutputStream counter;
+
+    private MessageDigest digest;
+
+    private String currentName;
+
+    private boolean entryOpen;
+
+    public ChunkedZipWriter(Path dir, String prefix, long chunkSize) {
+        this.dir = dir;
+        this.prefix = prefix;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 开始写入新条目，当前分卷已满时先切换到新分卷
+     *
+     * @param name     条目名称
+     * @param compress 是否压缩，已压缩的内容（如图片）不再压缩以节省CPU
+     * @return 条目输出流，关闭该流不会关闭分卷
+     */
+    public OutputStream putEntry(String name, boolean compress) throws IOException {
+        closeEntry();
+        if (zip == null || isChunkFull()) {
+            roll();
+        }
+        zip.setLevel(compress ? Deflater.DEFAULT_COMPRESSION : Deflater.NO_COMPRESSION);
+        zip.putNextEntry(new ZipEntry(name));
+        entryOpen = true;
+        return new EntryOutputStream(zip);
+    }
+
+    /**
+     * 当前分卷是否已达到大小上限，调用方可据此把较长的内容拆分为多个条目
+     */
+    public boolean isChunkFull() {
+        return counter != null && counter.count >= chunkSize;
+    }
+
+    /**
+     * 结束写入并返回所有分卷信息
+     *
+     * @return 分卷列表，按写入顺序排列
+     */
+    public List<Chunk> finish() throws IOException {
+        closeChunk();
+        return List.copyOf(chunks);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeChunk();
+    }
+
+    private void closeEntry() throws IOException {
+        if (entryOpen) {
+            zip.closeEntry();
+            entryOpen = false;
+        }
+    }
+
+    private void roll() throws IOException {
+        closeChunk();
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        currentName = String.format("%s-%04d.zip", prefix, chunks.size() + 1);
+        OutputStream file = new BufferedOutputStream(Files.newOutputStream(dir.resolve(currentName)), 64 * 1024);
+        counter = new CountingOutputStream(new DigestOutputStream(file, digest));
+        zip = new ZipOutputStream(counter);
+    }
+
+    private void closeChunk() throws IOException {
+        if (zip == null) {
+            return;
+        }
+        closeEntry();
+        zip.close();
+        chunks.add(new Chunk(currentName, counter.count, HexFormat.of().formatHex(digest.digest())));
+        zip = null;
+        counter = null;
+        digest = null;
+    }
+
+    /**
+     * 分卷信息
+     *
+     * @param name   文件名
+     * @param size   文件大小（字节）
+     * @param sha256 文件的SHA-256
+     */
+    public record Chunk(String name, long size, String sha256) {
+    }
+
+    /**
+     * 统计写入字节数
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * 条目输出流，关闭时只结束写入，不关闭底层分卷
+     */
+    private static final class EntryOutputStream extends FilterOutputStream {
+
+        private EntryOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            // 由putEntry或finish结束条目
+        }
+    }
+}
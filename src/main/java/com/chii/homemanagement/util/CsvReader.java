@@ -0,0 +1,110 @@
+package com.chii.homemanagement.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV流式读取工具类
+ * 按RFC 4180逐行解析，支持引号包裹的字段、字段内的逗号、换行和转义引号，
+ * 只缓存当前行，内存占用与文件大小无关
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private boolean first = true;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * 读取下一行
+     *
+     * @return 字段列表，已到文件末尾时返回null
+     * @throws IOException 读取失败
+     */
+    public List<String> readRow() throws IOException {
+        int c = read();
+        if (first) {
+            first = false;
+            // 跳过UTF-8 BOM
+            if (c == '﻿') {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    // 引号未闭合，按已读取的内容结束
+                    row.add(field.toString());
+                    return row;
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n' && next != -1) {
+                        position--;
+                    }
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position >= limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
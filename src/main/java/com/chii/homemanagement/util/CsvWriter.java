@@ -0,0 +1,76 @@
+package com.chii.homemanagement.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * CSV流式写入工具类
+ * 按RFC 4180转义字段：包含逗号、引号或换行的字段用引号包裹，字段内的引号写为两个引号
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * 写入UTF-8 BOM，便于Excel正确识别中文
+     *
+     * @throws IOException 写入失败
+     */
+    public void writeBom() throws IOException {
+        writer.write('﻿');
+    }
+
+    /**
+     * 写入一行
+     *
+     * @param values 字段值，null写为空字段
+     * @throws IOException 写入失败
+     */
+    public void writeRow(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writeField(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,142 @@
+package com.chii.homemanagement.util;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * JWT认证缓存
+ * 缓存已验证的令牌到用户详情、用户名到用户详情的映射，避免每个请求都解析令牌并查询用户表。
+ * 缓存条目在较短的有效期后失效（令牌缓存同时不超过令牌本身的过期时间），
+ * 修改密码、修改状态和登出时主动清除；命中缓存时仍检查令牌吊销和用户令牌失效水位，
+ * 其他节点上的删除用户、修改密码和状态也会在水位同步后立即生效。
+ * 两个缓存都是有界LRU，达到上限后淘汰最久未使用的条目，新令牌总能进入缓存
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    /**
+     * 缓存有效期（秒）
+     */
+    @Value("${jwt.cache.ttl-seconds:60}")
+    private int ttlSeconds;
+
+    /**
+     * 每个缓存的最大条目数，达到上限后淘汰最久未使用的条目
+     */
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    private LruCache<String, CachedToken> tokens;
+
+    private LruCache<String, CachedEntry> users;
+
+    @PostConstruct
+    public void init() {
+        tokens = new LruCache<>(maxSize);
+        users = new LruCache<>(maxSize);
+    }
+
+    /**
+     * 获取已验证的令牌
+     *
+     * @param token JWT令牌
+     * @return 缓存的令牌信息，未缓存或已过期时返回null
+     */
+    public CachedToken getByToken(String token) {
+        CachedToken cached = tokens.get(token);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expireAt() <= System.currentTimeMillis()) {
+            tokens.remove(token, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * 缓存已验证的令牌
+     *
+     * @param token       JWT令牌
+     * @param userDetails 用户详情
+     * @param claims      令牌声明
+     */
+    public void putToken(String token, UserDetails userDetails, JwtUtil.TokenClaims claims) {
+        long expireAt = Math.min(System.currentTimeMillis() + ttlSeconds * 1000L, claims.expiresAt());
+        tokens.put(token, new CachedToken(userDetails, claims.id(), claims.issuedAt(), claims.expiresAt(), expireAt));
+    }
+
+    /**
+     * 获取用户名对应的用户详情
+     *
+     * @param username 用户名
+     * @return 用户详情，未缓存或已过期时返回null
+     */
+    public UserDetails getByUsername(String username) {
+        CachedEntry entry = users.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt() <= System.currentTimeMillis()) {
+            users.remove(username, entry);
+            return null;
+        }
+        return entry.userDetails();
+    }
+
+    /**
+     * 缓存用户详情
+     *
+     * @param userDetails 用户详情
+     */
+    public void putUser(UserDetails userDetails) {
+        users.put(userDetails.getUsername(), new CachedEntry(userDetails, System.currentTimeMillis() + ttlSeconds * 1000L));
+    }
+
+    /**
+     * 清除令牌缓存（登出时调用）
+     *
+     * @param token JWT令牌
+     */
+    public void evictToken(String token) {
+        if (token != null) {
+            tokens.remove(token);
+        }
+    }
+
+    /**
+     * 清除用户及其所有令牌的缓存（修改密码、修改状态时调用）
+     *
+     * @param username 用户名
+     */
+    public void evictUser(String username) {
+        if (username == null) {
+            return;
+        }
+        users.remove(username);
+        tokens.removeIf(entry -> username.equals(entry.userDetails().getUsername()));
+    }
+
+    /**
+     * 已验证的令牌
+     *
+     * @param userDetails    用户详情
+     * @param tokenId        令牌唯一ID（jti），用于检查吊销
+     * @param tokenIssuedAt  令牌签发时间（毫秒时间戳），用于检查用户令牌失效水位
+     * @param tokenExpiresAt 令牌过期时间（毫秒时间戳）
+     * @param expireAt       缓存过期时间（毫秒时间戳）
+     */
+    public record CachedToken(UserDetails userDetails, String tokenId, long tokenIssuedAt, long tokenExpiresAt, long expireAt) {
+    }
+
+    /**
+     * 用户缓存条目
+     *
+     * @param userDetails 用户详情
+     * @param expireAt    过期时间（毫秒时间戳）
+     */
+    private record CachedEntry(UserDetails userDetails, long expireAt) {
+    }
+}
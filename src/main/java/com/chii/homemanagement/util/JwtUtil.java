@@ -1,6 +1,9 @@
 package com.chii.homemanagement.util;
 
+import com.chii.homemanagement.common.LoginUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -11,6 +14,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
@@ -27,8 +31,23 @@ public class JwtUtil {
     // 刷新Token有效期（毫秒）- 默认7天
     private static final long JWT_REFRESH_TOKEN_VALIDITY = 7 * 24 * 60 * 60 * 1000;
 
+    // 实时事件订阅票据有效期（毫秒）- 30秒，只用于建立连接
+    private static final long STREAM_TICKET_VALIDITY = 30 * 1000;
+
+    // 实时事件订阅票据类型
+    private static final String TYPE_STREAM = "stream";
+
+    // 用户ID声明
+    private static final String CLAIM_USER_ID = "uid";
+
+    // 角色声明
+    private static final String CLAIM_ROLES = "roles";
+
     // 签名密钥
     private Key key;
+
+    // 令牌解析器，不可变且线程安全，所有解析共用同一实例
+    private JwtParser parser;
     
     @Value("${jwt.secret:defaultSecretKeyWhichIsAtLeast32BytesLongForHS512Algorithm}")
     private String secret;
@@ -37,6 +56,32 @@ public class JwtUtil {
     @jakarta.annotation.PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+    }
+
+    /**
+     * 解析并验证token（签名和过期时间），返回不可变的声明视图
+     * 调用方应只解析一次，再从返回结果中读取所需的声明
+     *
+     * @param token JWT令牌
+     * @return 令牌声明
+     * @throws JwtException 令牌无效或已过期
+     */
+    public TokenClaims parseOnce(String token) {
+        Claims claims = getAllClaimsFromToken(token);
+        Object id = claims.getId() != null ? claims.getId() : claims.get("id");
+        Object userId = claims.get(CLAIM_USER_ID);
+        Object roles = claims.get(CLAIM_ROLES);
+        return new TokenClaims(
+                claims.getSubject(),
+                (String) claims.get("type"),
+                id != null ? id.toString() : null,
+                claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE,
+                userId instanceof Number number ? number.longValue() : null,
+                roles instanceof List<?> list ? list.stream().map(String::valueOf).toList() : List.of());
     }
 
     /**
@@ -46,7 +91,7 @@ public class JwtUtil {
      * @return 用户名
      */
     public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return parseOnce(token).subject();
     }
 
     /**
@@ -56,7 +101,7 @@ public class JwtUtil {
      * @return 过期日期
      */
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        return new Date(parseOnce(token).expiresAt());
     }
 
     /**
@@ -78,22 +123,7 @@ public class JwtUtil {
      * @return 所有声明
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * 检查token是否过期
-     *
-     * @param token JWT令牌
-     * @return 是否过期
-     */
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return parser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -107,6 +137,19 @@ public class JwtUtil {
         return doGenerateToken(claims, username, JWT_TOKEN_VALIDITY);
     }
     
+    /**
+     * 为登录用户生成token，令牌中携带用户ID和角色，认证时无需查询用户表
+     *
+     * @param loginUser 登录用户
+     * @return JWT令牌
+     */
+    public String generateToken(LoginUser loginUser) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, loginUser.getUserId());
+        claims.put(CLAIM_ROLES, loginUser.getRoles());
+        return doGenerateToken(claims, loginUser.getUsername(), JWT_TOKEN_VALIDITY);
+    }
+
     /**
      * 为指定用户生成刷新token
      *
@@ -116,10 +159,33 @@ public class JwtUtil {
     public String generateRefreshToken(String username) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("type", "refresh");
-        claims.put("id", UUID.randomUUID().toString()); // 添加随机ID确保每次生成的刷新令牌都不同
         return doGenerateToken(claims, username, JWT_REFRESH_TOKEN_VALIDITY);
     }
 
+    /**
+     * 为登录用户生成实时事件订阅票据
+     * 浏览器EventSource无法设置请求头，票据通过URL参数传递，因此有效期很短、只能使用一次，且不能作为访问令牌使用
+     *
+     * @param loginUser 登录用户
+     * @return 订阅票据
+     */
+    public String generateStreamTicket(LoginUser loginUser) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("type", TYPE_STREAM);
+        claims.put(CLAIM_USER_ID, loginUser.getUserId());
+        claims.put(CLAIM_ROLES, loginUser.getRoles());
+        return doGenerateToken(claims, loginUser.getUsername(), STREAM_TICKET_VALIDITY);
+    }
+
+    /**
+     * 获取实时事件订阅票据有效期（秒）
+     *
+     * @return 有效期（秒）
+     */
+    public int getStreamTicketExpiresIn() {
+        return (int) (STREAM_TICKET_VALIDITY / 1000);
+    }
+
     /**
      * 生成token
      *
@@ -134,6 +200,7 @@ public class JwtUtil {
         
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString()) // jti，用于吊销令牌，同时确保每次生成的令牌都不同
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
@@ -149,8 +216,8 @@ public class JwtUtil {
      * @return 是否有效
      */
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = getUsernameFromToken(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        final TokenClaims claims = parseOnce(token);
+        return (claims.subject().equals(username) && !claims.isExpired());
     }
     
     /**
@@ -161,9 +228,8 @@ public class JwtUtil {
      */
     public Boolean validateRefreshToken(String token) {
         try {
-            Claims claims = getAllClaimsFromToken(token);
-            String type = (String) claims.get("type");
-            return "refresh".equals(type) && !isTokenExpired(token);
+            TokenClaims claims = parseOnce(token);
+            return claims.isRefreshToken() && !claims.isExpired();
         } catch (Exception e) {
             return false;
         }
@@ -177,4 +243,56 @@ public class JwtUtil {
     public int getTokenExpiresIn() {
         return (int) (JWT_TOKEN_VALIDITY / 1000);
     }
+
+    /**
+     * 获取所有令牌中最长的有效期（毫秒）
+     *
+     * @return 最长有效期（毫秒）
+     */
+    public long getMaxTokenValidity() {
+        return Math.max(JWT_TOKEN_VALIDITY, JWT_REFRESH_TOKEN_VALIDITY);
+    }
+
+    /**
+     * 令牌声明的不可变视图
+     *
+     * @param subject   主题（用户名）
+     * @param type      令牌类型，刷新令牌为refresh
+     * @param id        令牌唯一ID
+     * @param issuedAt  签发时间（毫秒时间戳）
+     * @param expiresAt 过期时间（毫秒时间戳）
+     * @param userId    用户ID，早期签发的令牌中没有该声明时为null
+     * @param roles     角色列表
+     */
+    public record TokenClaims(String subject, String type, String id, long issuedAt, long expiresAt,
+                              Long userId, List<String> roles) {
+
+        /**
+         * 由令牌声明构建登录用户，令牌中没有用户ID时返回null
+         */
+        public LoginUser toLoginUser() {
+            return userId != null ? new LoginUser(userId, subject, null, roles) : null;
+        }
+
+        /**
+         * 是否已过期
+         */
+        public boolean isExpired() {
+            return expiresAt <= System.currentTimeMillis();
+        }
+
+        /**
+         * 是否为刷新令牌
+         */
+        public boolean isRefreshToken() {
+            return "refresh".equals(type);
+        }
+
+        /**
+         * 是否为实时事件订阅票据
+         */
+        public boolean isStreamTicket() {
+            return TYPE_STREAM.equals(type);
+        }
+    }
 } 
\ No newline at end of file
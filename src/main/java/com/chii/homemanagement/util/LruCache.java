@@ -0,0 +1,149 @@
+package com.chii.homemanagement.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * 有界LRU缓存
+ * 按键的哈希值分为多个段，每段是一个按访问顺序排列的LinkedHashMap，由各自的锁保护；
+ * 段内条目数超过上限时淘汰最久未访问的条目，读写都是O(1)，不同段之间互不阻塞
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class LruCache<K, V> {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment<K, V>[] segments;
+
+    /**
+     * @param maxSize 最大条目数，平均分配到各段
+     */
+    @SuppressWarnings("unchecked")
+    public LruCache(int maxSize) {
+        int perSegment = Math.max(1, (maxSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * 获取缓存值，命中时将条目移到最近访问的位置
+     *
+     * @param key 键
+     * @return 缓存值，未缓存时返回null
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            return segment.map.get(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 写入缓存，段已满时淘汰最久未访问的条目
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.map.put(key, value);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param key 键
+     */
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.map.remove(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 仅当当前值为指定值时删除
+     *
+     * @param key   键
+     * @param value 期望的值
+     */
+    public void remove(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.map.remove(key, value);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 删除所有满足条件的条目，需要遍历全部条目，只用于低频的批量失效
+     *
+     * @param filter 条件
+     */
+    public void removeIf(Predicate<V> filter) {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.map.values().removeIf(filter);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 当前条目数
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static final class Segment<K, V> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final LinkedHashMap<K, V> map;
+
+        Segment(int capacity) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
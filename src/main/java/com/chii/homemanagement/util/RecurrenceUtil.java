@@ -0,0 +1,86 @@
+package com.chii.homemanagement.util;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 重复提醒日期计算工具
+ * 所有日期均由系列首次日期加上周期的整数倍得出，而不是在上一次日期上累加，
+ * 因此每月31日的提醒在小月取当月最后一天后，下个月仍会回到31日
+ */
+public final class RecurrenceUtil {
+
+    private RecurrenceUtil() {
+    }
+
+    /**
+     * 是否为支持的重复周期
+     *
+     * @param cycle 重复周期: daily, weekly, monthly, yearly
+     * @return 是否支持
+     */
+    public static boolean isSupported(String cycle) {
+        return unitOf(cycle) != null;
+    }
+
+    /**
+     * 计算系列中第n次（从0开始）的日期
+     *
+     * @param anchor 系列首次日期
+     * @param cycle  重复周期
+     * @param n      序号
+     * @return 日期
+     */
+    public static LocalDate occurrence(LocalDate anchor, String cycle, long n) {
+        ChronoUnit unit = unitOf(cycle);
+        if (unit == null) {
+            throw new IllegalArgumentException("不支持的重复周期: " + cycle);
+        }
+        return anchor.plus(n, unit);
+    }
+
+    /**
+     * 计算系列在[from, to]范围内的所有日期
+     *
+     * @param anchor 系列首次日期
+     * @param cycle  重复周期
+     * @param from   开始日期（含）
+     * @param to     结束日期（含）
+     * @param limit  最多返回数量
+     * @return 按时间排序的日期列表
+     */
+    public static List<LocalDate> occurrences(LocalDate anchor, String cycle, LocalDate from, LocalDate to, int limit) {
+        List<LocalDate> dates = new ArrayList<>();
+        ChronoUnit unit = unitOf(cycle);
+        if (unit == null || anchor == null || to.isBefore(from) || to.isBefore(anchor)) {
+            return dates;
+        }
+        // 直接定位到from附近的序号，避免从首次日期逐个迭代
+        long n = from.isAfter(anchor) ? Math.max(0, unit.between(anchor, from) - 1) : 0;
+        while (dates.size() < limit) {
+            LocalDate date = anchor.plus(n++, unit);
+            if (date.isAfter(to)) {
+                break;
+            }
+            if (!date.isBefore(from)) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    private static ChronoUnit unitOf(String cycle) {
+        if (cycle == null) {
+            return null;
+        }
+        return switch (cycle) {
+            case "daily" -> ChronoUnit.DAYS;
+            case "weekly" -> ChronoUnit.WEEKS;
+            case "monthly" -> ChronoUnit.MONTHS;
+            case "yearly" -> ChronoUnit.YEARS;
+            default -> null;
+        };
+    }
+}
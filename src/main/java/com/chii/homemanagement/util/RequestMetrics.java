@@ -0,0 +1,77 @@
+package com.chii.homemanagement.util;
+
+/**
+ * 当前请求的数据库耗时统计
+ * 由RequestMetricsFilter在请求线程上创建和清除，SQL拦截器累加；不在请求线程上执行的SQL不计入
+ */
+public final class RequestMetrics {
+
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+    private long dbNanos;
+
+    private int statements;
+
+    /**
+     * 嵌套的拦截调用层数，只统计最外层，避免插件链中重复计时
+     */
+    private int depth;
+
+    private RequestMetrics() {
+    }
+
+    /**
+     * 为当前线程开始统计
+     */
+    public static RequestMetrics start() {
+        RequestMetrics metrics = new RequestMetrics();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    /**
+     * 当前线程的统计，不在请求中时返回null
+     */
+    public static RequestMetrics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 结束当前线程的统计
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 进入一次数据库调用，返回是否为最外层调用
+     */
+    public boolean enter() {
+        return depth++ == 0;
+    }
+
+    /**
+     * 退出一次数据库调用，最外层调用时累加耗时
+     *
+     * @param outermost enter的返回值
+     * @param nanos     耗时（纳秒）
+     * @param statement 是否为一条执行的语句（批量提交不计数）
+     */
+    public void exit(boolean outermost, long nanos, boolean statement) {
+        depth--;
+        if (outermost) {
+            dbNanos += nanos;
+            if (statement) {
+                statements++;
+            }
+        }
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+}
@@ -0,0 +1,173 @@
+package com.chii.homemanagement.util;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 按过期时间分桶的吊销集合
+ * 每个时间桶包含一个布隆过滤器和一个精确集合：查询时先查布隆过滤器，绝大多数未吊销的令牌在此直接返回，
+ * 只有命中时才查精确集合。查询过程不分配对象，时间复杂度为常数。
+ * 时间桶组成环形数组，桶所覆盖的时间过去后整体清空，过期条目无需逐个删除
+ */
+public class RevocationSet {
+
+    private static final int HASH_COUNT = 3;
+
+    /**
+     * 每个时间桶覆盖的时长（毫秒）
+     */
+    private final long bucketMs;
+
+    /**
+     * 布隆过滤器位数掩码（位数为2的幂）
+     */
+    private final int bitMask;
+
+    private final Bucket[] ring;
+
+    /**
+     * @param bucketMs      每个时间桶覆盖的时长（毫秒）
+     * @param maxLifetimeMs 令牌最长有效期（毫秒），决定时间桶数量
+     * @param bitsPerBucket 每个时间桶的布隆过滤器位数，向上取整为2的幂
+     */
+    public RevocationSet(long bucketMs, long maxLifetimeMs, int bitsPerBucket) {
+        this.bucketMs = bucketMs;
+        int bits = Integer.highestOneBit(Math.max(64, bitsPerBucket - 1) << 1);
+        this.bitMask = bits - 1;
+        int bucketCount = (int) (maxLifetimeMs / bucketMs) + 2;
+        this.ring = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            ring[i] = new Bucket(bits / 64);
+        }
+    }
+
+    /**
+     * 添加吊销的令牌
+     *
+     * @param jti       令牌唯一ID
+     * @param expiresAt 令牌过期时间（毫秒时间戳）
+     */
+    public void add(String jti, long expiresAt) {
+        if (jti == null || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        long epoch = expiresAt / bucketMs;
+        Bucket bucket = ring[(int) (epoch % ring.length)];
+        synchronized (bucket) {
+            if (bucket.epoch != epoch) {
+                if (bucket.epoch > epoch) {
+                    // 超出环形数组覆盖范围的旧条目，对应令牌已过期
+                    return;
+                }
+                bucket.reset(epoch);
+            }
+            int h1 = jti.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < HASH_COUNT; i++) {
+                int bit = (h1 + i * h2) & bitMask;
+                setBit(bucket.bits, bit);
+            }
+            bucket.exact.add(jti);
+        }
+    }
+
+    /**
+     * 判断令牌是否已吊销
+     *
+     * @param jti       令牌唯一ID
+     * @param expiresAt 令牌过期时间（毫秒时间戳）
+     * @return 是否已吊销
+     */
+    public boolean contains(String jti, long expiresAt) {
+        if (jti == null) {
+            return false;
+        }
+        long epoch = expiresAt / bucketMs;
+        Bucket bucket = ring[(int) (epoch % ring.length)];
+        if (bucket.epoch != epoch) {
+            return false;
+        }
+        int h1 = jti.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = (h1 + i * h2) & bitMask;
+            if ((bucket.bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return bucket.exact.contains(jti);
+    }
+
+    /**
+     * 清空已整体过期的时间桶
+     *
+     * @param nowMs 当前时间（毫秒时间戳）
+     * @return 清空的时间桶数量
+     */
+    public int purge(long nowMs) {
+        long currentEpoch = nowMs / bucketMs;
+        int purged = 0;
+        for (Bucket bucket : ring) {
+            synchronized (bucket) {
+                if (bucket.epoch >= 0 && bucket.epoch < currentEpoch) {
+                    bucket.reset(-1);
+                    purged++;
+                }
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * 精确集合中的条目总数
+     */
+    public int size() {
+        int size = 0;
+        for (Bucket bucket : ring) {
+            size += bucket.exact.size();
+        }
+        return size;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return (h ^ (h >>> 16)) | 1;
+    }
+
+    private static void setBit(AtomicLongArray bits, int bit) {
+        int index = bit >>> 6;
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = bits.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(index, current, current | mask));
+    }
+
+    /**
+     * 时间桶
+     */
+    private static final class Bucket {
+
+        private final AtomicLongArray bits;
+        private final Set<String> exact = ConcurrentHashMap.newKeySet();
+        private volatile long epoch = -1;
+
+        private Bucket(int words) {
+            this.bits = new AtomicLongArray(words);
+        }
+
+        private void reset(long newEpoch) {
+            // 先使查询失效，再清空数据
+            epoch = -1;
+            for (int i = 0; i < bits.length(); i++) {
+                bits.set(i, 0L);
+            }
+            exact.clear();
+            epoch = newEpoch;
+        }
+    }
+}
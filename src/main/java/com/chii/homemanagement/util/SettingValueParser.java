@@ -0,0 +1,43 @@
+package com.chii.homemanagement.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * 设置值解析工具类
+ * 将字符串形式的设置值转换为布尔值、整数或浮点数，无法转换时保持字符串
+ */
+public final class SettingValueParser {
+
+    private static final Pattern INTEGER = Pattern.compile("^\\d+$");
+
+    private static final Pattern DECIMAL = Pattern.compile("^\\d+\\.\\d+$");
+
+    private SettingValueParser() {
+    }
+
+    /**
+     * 解析设置值
+     *
+     * @param value 设置值
+     * @return 解析后的值
+     */
+    public static Object parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            return Boolean.parseBoolean(value);
+        }
+        try {
+            if (INTEGER.matcher(value).matches()) {
+                return Integer.parseInt(value);
+            }
+            if (DECIMAL.matcher(value).matches()) {
+                return Double.parseDouble(value);
+            }
+        } catch (NumberFormatException e) {
+            // 超出范围时保持字符串
+        }
+        return value;
+    }
+}
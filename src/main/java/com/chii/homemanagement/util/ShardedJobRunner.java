@@ -0,0 +1,381 @@
+package com.chii.homemanagement.util;
+
+import com.chii.homemanagement.entity.JobLease;
+import com.chii.homemanagement.mapper.JobLeaseMapper;
+import com.chii.homemanagement.mapper.UserMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * 分片任务执行器
+ * 将定时任务按用户ID范围切分为多个分片，在虚拟线程上并发执行，
+ * 通过信号量限制同时访问数据库的分片数量，失败的分片会自动重试，
+ * 同一任务在上一次执行结束前不会再次执行
+ * <p>
+ * 多实例部署时，每个分片执行前需在job_lease表中获取租约，同一天同一分片只由一个节点执行；
+ * 执行期间定期心跳续约，节点宕机导致租约过期后由其他节点接管；续约失败说明租约已被接管，本节点中断该分片的执行
+ */
+@Slf4j
+@Component
+public class ShardedJobRunner {
+
+    /**
+     * 每个分片覆盖的用户ID数量
+     */
+    @Value("${schedule.shard-size:200}")
+    private int shardSize;
+
+    /**
+     * 同时执行的最大分片数量，应小于数据库连接池大小
+     */
+    @Value("${schedule.max-concurrency:4}")
+    private int maxConcurrency;
+
+    /**
+     * 分片失败后的最大重试次数
+     */
+    @Value("${schedule.max-retries:2}")
+    private int maxRetries;
+
+    /**
+     * 重试前的等待时间（毫秒），按重试次数递增
+     */
+    @Value("${schedule.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    /**
+     * 租约时长（秒），超过该时间未心跳的租约可被其他节点接管
+     */
+    @Value("${schedule.lease.ttl-seconds:120}")
+    private int leaseSeconds;
+
+    /**
+     * 同一分片最多被获取的次数（含首次执行和接管）
+     */
+    @Value("${schedule.lease.max-attempts:3}")
+    private int leaseMaxAttempts;
+
+    /**
+     * 租约记录保留天数
+     */
+    @Value("${schedule.lease.retention-days:30}")
+    private int leaseRetentionDays;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private JobLeaseMapper jobLeaseMapper;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "job-lease-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, ReentrantLock> jobLocks = new ConcurrentHashMap<>();
+
+    /**
+     * 本节点执行过的任务，用于接管其他节点遗留的分片
+     */
+    private final Map<String, ToIntFunction<Shard>> jobTasks = new ConcurrentHashMap<>();
+
+    /**
+     * 本节点标识
+     */
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+        heartbeatExecutor.shutdownNow();
+    }
+
+    /**
+     * 按用户ID范围分片执行任务
+     *
+     * @param jobName 任务名称，同名任务不会重叠执行
+     * @param task    分片任务，返回该分片处理的记录数
+     * @return 所有成功分片处理的记录总数，任务正在执行而被跳过时返回-1
+     */
+    public int run(String jobName, ToIntFunction<Shard> task) {
+        ReentrantLock lock = jobLocks.computeIfAbsent(jobName, k -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            log.warn("任务 {} 上一次执行尚未结束，本次跳过", jobName);
+            return -1;
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            jobTasks.put(jobName, task);
+            LocalDate runDate = LocalDate.now();
+            List<Shard> shards = buildShards();
+            log.info("任务 {} 开始执行: 节点={}, 分片数={}, 最大并发={}", jobName, nodeId, shards.size(), maxConcurrency);
+
+            List<Future<Integer>> futures = new ArrayList<>(shards.size());
+            for (Shard shard : shards) {
+                futures.add(executor.submit(() -> runLeasedShard(jobName, runDate, shard, task, false)));
+            }
+
+            int total = 0;
+            int failed = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    total += futures.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("任务 {} 分片 {} 重试后仍失败", jobName, shards.get(i), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("任务 {} 等待分片结果时被中断", jobName);
+                    break;
+                }
+            }
+
+            log.info("任务 {} 执行完成: 处理数量={}, 失败分片={}, 耗时={}ms",
+                    jobName, total, failed, System.currentTimeMillis() - startTime);
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 定期接管其他节点遗留的过期租约，并清理历史租约记录
+     */
+    @Scheduled(fixedDelayString = "${schedule.lease.recover-interval-ms:60000}")
+    public void recoverExpiredLeases() {
+        List<JobLease> expiredLeases = jobLeaseMapper.findExpiredLeases(leaseMaxAttempts);
+        for (JobLease lease : expiredLeases) {
+            ToIntFunction<Shard> task = jobTasks.get(lease.getJobName());
+            if (task == null) {
+                continue;
+            }
+            Shard shard = new Shard(lease.getShardIndex(), lease.getFromUserId(), lease.getToUserId());
+            log.info("发现过期租约 {}，原持有节点={}，尝试接管", lease.getLeaseKey(), lease.getOwner());
+            executor.submit(() -> {
+                try {
+                    runLeasedShard(lease.getJobName(), lease.getRunDate(), shard, task, true);
+                } catch (Exception e) {
+                    log.error("接管租约 {} 后执行失败", lease.getLeaseKey(), e);
+                }
+            });
+        }
+
+        int deleted = jobLeaseMapper.deleteBefore(LocalDate.now().minusDays(leaseRetentionDays));
+        if (deleted > 0) {
+            log.debug("清理历史租约记录 {} 条", deleted);
+        }
+    }
+
+    /**
+     * 获取分片租约后执行分片，执行期间定期续约
+     *
+     * @param takeover 是否为接管过期租约
+     * @return 处理的记录数，未获得租约时返回0
+     */
+    private int runLeasedShard(String jobName, LocalDate runDate, Shard shard, ToIntFunction<Shard> task,
+                               boolean takeover) throws Exception {
+        String leaseKey = jobName + ":" + runDate + ":" + shard.fromUserId() + "-" + shard.toUserId();
+        if (!acquireLease(leaseKey, jobName, runDate, shard, takeover)) {
+            log.debug("任务 {} 分片 {} 已由其他节点执行或已完成，跳过", jobName, shard);
+            return 0;
+        }
+
+        LeaseGuard guard = new LeaseGuard(Thread.currentThread());
+        long heartbeatInterval = Math.max(1, leaseSeconds / 4);
+        ScheduledFuture<?> heartbeat = heartbeatExecutor.scheduleAtFixedRate(() -> {
+            if (guard.isLost()) {
+                return;
+            }
+            try {
+                if (jobLeaseMapper.renewLease(leaseKey, nodeId, leaseSeconds) == 0) {
+                    log.warn("租约 {} 续约失败，已被其他节点接管，取消本节点的执行", leaseKey);
+                    guard.lose();
+                }
+            } catch (Exception e) {
+                log.warn("租约 {} 续约异常: {}", leaseKey, e.getMessage());
+            }
+        }, heartbeatInterval, heartbeatInterval, TimeUnit.SECONDS);
+
+        try {
+            int count = runShard(jobName, shard, task);
+            if (guard.finish()) {
+                log.warn("任务 {} 分片 {} 执行期间租约已被接管，结果以接管节点为准", jobName, shard);
+                return 0;
+            }
+            jobLeaseMapper.completeLease(leaseKey, nodeId);
+            return count;
+        } catch (Exception e) {
+            if (guard.finish()) {
+                log.warn("任务 {} 分片 {} 因租约被接管而取消", jobName, shard);
+                return 0;
+            }
+            // 释放租约，交由后续接管重试
+            jobLeaseMapper.releaseLease(leaseKey, nodeId);
+            throw e;
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    /**
+     * 获取分片租约：首次执行时插入租约记录，接管时更新过期租约
+     */
+    private boolean acquireLease(String leaseKey, String jobName, LocalDate runDate, Shard shard, boolean takeover) {
+        if (!takeover) {
+            JobLease lease = new JobLease();
+            lease.setLeaseKey(leaseKey);
+            lease.setJobName(jobName);
+            lease.setRunDate(runDate);
+            lease.setShardIndex(shard.index());
+            lease.setFromUserId(shard.fromUserId());
+            lease.setToUserId(shard.toUserId());
+            lease.setOwner(nodeId);
+            if (jobLeaseMapper.insertLease(lease, leaseSeconds) > 0) {
+                return true;
+            }
+        }
+        return jobLeaseMapper.takeOverLease(leaseKey, nodeId, leaseSeconds, leaseMaxAttempts) > 0;
+    }
+
+    /**
+     * 执行单个分片，失败时按递增间隔重试
+     */
+    private int runShard(String jobName, Shard shard, ToIntFunction<Shard> task) throws Exception {
+        permits.acquire();
+        try {
+            for (int attempt = 0; ; attempt++) {
+                long startTime = System.currentTimeMillis();
+                try {
+                    int count = task.applyAsInt(shard);
+                    log.info("任务 {} 分片 {} 完成: 处理数量={}, 耗时={}ms, 尝试次数={}",
+                            jobName, shard, count, System.currentTimeMillis() - startTime, attempt + 1);
+                    return count;
+                } catch (Exception e) {
+                    // 租约被接管后线程已被中断，不再重试
+                    if (attempt >= maxRetries || Thread.currentThread().isInterrupted()) {
+                        throw e;
+                    }
+                    log.warn("任务 {} 分片 {} 第{}次执行失败，准备重试: {}", jobName, shard, attempt + 1, e.getMessage());
+                    Thread.sleep(retryBackoffMs * (attempt + 1));
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 根据用户ID范围构建分片
+     * 分片按固定宽度对齐，第k个分片覆盖[k*shardSize, (k+1)*shardSize-1]，分片边界只取决于shardSize，
+     * 与各节点读到的最小、最大用户ID无关，因此不同节点构建的分片不会重叠或留有间隙；
+     * 最大用户ID只决定构建到第几个分片，之后新增且超出该范围的用户在下一次执行时处理。
+     * 各节点的schedule.shard-size必须一致
+     */
+    private List<Shard> buildShards() {
+        Long minId = userMapper.selectMinUserId();
+        Long maxId = userMapper.selectMaxUserId();
+        long size = Math.max(1, shardSize);
+        List<Shard> shards = new ArrayList<>();
+        // 第一个分片始终存在且不设下限，同时处理未关联用户的记录
+        shards.add(new Shard(0, null, size - 1));
+        if (minId == null || maxId == null) {
+            return shards;
+        }
+        for (long index = Math.max(1, minId / size); index <= maxId / size; index++) {
+            long from = index * size;
+            shards.add(new Shard((int) index, from, from + size - 1));
+        }
+        return shards;
+    }
+
+    /**
+     * 分片租约守护：续约失败时中断执行线程，并保证分片结束后不再被中断
+     */
+    private static final class LeaseGuard {
+
+        private final Thread worker;
+
+        private boolean lost;
+
+        private boolean finished;
+
+        LeaseGuard(Thread worker) {
+            this.worker = worker;
+        }
+
+        synchronized boolean isLost() {
+            return lost;
+        }
+
+        /**
+         * 标记租约丢失并中断执行线程；执行线程遇到中断后在下一次数据库访问或批次检查时退出
+         */
+        synchronized void lose() {
+            lost = true;
+            if (!finished) {
+                worker.interrupt();
+            }
+        }
+
+        /**
+         * 标记分片执行结束，清除可能残留的中断状态
+         *
+         * @return 执行期间租约是否已丢失
+         */
+        synchronized boolean finish() {
+            finished = true;
+            if (lost) {
+                Thread.interrupted();
+            }
+            return lost;
+        }
+    }
+
+    /**
+     * 任务分片，表示一个用户ID范围（两端均包含，为空表示不限）
+     *
+     * @param index      分片序号
+     * @param fromUserId 用户ID下限
+     * @param toUserId   用户ID上限
+     */
+    public record Shard(int index, Long fromUserId, Long toUserId) {
+
+        @Override
+        public String toString() {
+            return "#" + index + "[" + fromUserId + ", " + toUserId + "]";
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.chii.homemanagement.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分段无锁令牌桶限流器
+ * 键按哈希映射到固定数量的分段，每个分段的令牌数和上次补充时间打包在一个long中，以CAS更新，
+ * 不加锁也不为每个键分配对象，内存占用与键的数量无关。
+ * 不同的键可能落入同一分段而共享令牌，分段数应远大于同时活跃的键数
+ */
+public class StripedRateLimiter {
+
+    /**
+     * 令牌以千分之一为单位存储
+     */
+    private static final long SCALE = 1000;
+
+    private static final int TOKEN_BITS = 24;
+
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    private final AtomicLongArray stripes;
+
+    private final int mask;
+
+    /**
+     * 桶容量（千分之一令牌）
+     */
+    private final long capacity;
+
+    /**
+     * 每毫秒补充的令牌（千分之一令牌）
+     */
+    private final double refillPerMs;
+
+    private final long startMs = System.currentTimeMillis();
+
+    /**
+     * @param stripes         分段数量，向上取整为2的幂
+     * @param capacity        桶容量（令牌数，不超过16000）
+     * @param tokensPerSecond 每秒补充的令牌数
+     */
+    public StripedRateLimiter(int stripes, int capacity, double tokensPerSecond) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.stripes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.capacity = Math.min(capacity * SCALE, TOKEN_MASK);
+        this.refillPerMs = tokensPerSecond * SCALE / 1000.0;
+    }
+
+    /**
+     * 尝试为键获取一个令牌
+     *
+     * @param key 限流键
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(String key) {
+        int index = indexOf(key);
+        long now = System.currentTimeMillis() - startMs;
+        while (true) {
+            long state = stripes.get(index);
+            long tokens = available(state, now);
+            if (tokens < SCALE) {
+                return false;
+            }
+            if (stripes.compareAndSet(index, state, pack(now, tokens - SCALE))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 将键所在分段恢复为满桶（如登录成功后）
+     *
+     * @param key 限流键
+     */
+    public void reset(String key) {
+        stripes.set(indexOf(key), 0L);
+    }
+
+    private long available(long state, long now) {
+        if (state == 0L) {
+            // 从未使用的分段为满桶
+            return capacity;
+        }
+        long last = state >>> TOKEN_BITS;
+        long tokens = state & TOKEN_MASK;
+        long elapsed = Math.max(0, now - last);
+        return Math.min(capacity, tokens + (long) (elapsed * refillPerMs));
+    }
+
+    private static long pack(long now, long tokens) {
+        // 时间至少为1，避免与未使用状态混淆
+        return (Math.max(1, now) << TOKEN_BITS) | tokens;
+    }
+
+    private int indexOf(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x85EBCA6B;
+        h ^= (h >>> 13);
+        return h & mask;
+    }
+}
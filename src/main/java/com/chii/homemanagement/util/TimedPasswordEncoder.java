@@ -0,0 +1,90 @@
+package com.chii.homemanagement.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 记录耗时的密码编码器
+ * 包装实际的编码器，统计加密和校验的次数与耗时，耗时过长时输出警告
+ */
+@Slf4j
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    /**
+     * 超过该耗时（毫秒）的哈希计算输出警告
+     */
+    private final long slowThresholdMs;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, long slowThresholdMs) {
+        this.delegate = delegate;
+        this.slowThresholdMs = slowThresholdMs;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            record(start);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            record(start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 哈希计算次数
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 哈希计算总耗时（纳秒）
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * 单次哈希计算最大耗时（纳秒）
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    private void record(long start) {
+        long elapsed = System.nanoTime() - start;
+        count.increment();
+        totalNanos.add(elapsed);
+        maxNanos.accumulateAndGet(elapsed, Math::max);
+        if (slowThresholdMs > 0 && elapsed > TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) {
+            log.warn("密码哈希耗时过长: {}ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.chii.homemanagement.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮
+ * 底层时间轮每格代表一个tick，超出当前时间轮范围的任务放入上层时间轮（每格为下层整轮的跨度），
+ * 推进时上层到期的格子中的任务会重新降级放入下层，最终在底层到期时触发。
+ * 添加任务和推进每格的开销均为常数级，与任务总数无关。
+ * <p>
+ * 非线程安全方法均以synchronized保护，适合单个推进线程加少量加载线程的场景
+ *
+ * @param <T> 任务类型
+ */
+public class TimingWheel<T> {
+
+    /**
+     * 每格时长（毫秒）
+     */
+    private final long tickMs;
+
+    /**
+     * 格子数量
+     */
+    private final int wheelSize;
+
+    /**
+     * 本层时间轮覆盖的总时长
+     */
+    private final long interval;
+
+    /**
+     * 每个格子中的任务
+     */
+    private final List<ArrayDeque<Entry<T>>> buckets;
+
+    /**
+     * 当前时间（按tick对齐）
+     */
+    private long currentTime;
+
+    /**
+     * 上层时间轮，按需创建
+     */
+    private TimingWheel<T> overflowWheel;
+
+    /**
+     * 任务总数（仅底层维护）
+     */
+    private int size;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * 添加任务
+     *
+     * @param expirationMs 到期时间（毫秒时间戳）
+     * @param task         任务
+     * @return false表示任务已到期（未放入时间轮），调用方应立即执行
+     */
+    public synchronized boolean add(long expirationMs, T task) {
+        boolean added = addEntry(new Entry<>(expirationMs, task));
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    private boolean addEntry(Entry<T> entry) {
+        if (entry.expirationMs < currentTime + tickMs) {
+            return false;
+        }
+        if (entry.expirationMs < currentTime + interval) {
+            long virtualId = entry.expirationMs / tickMs;
+            buckets.get((int) (virtualId % wheelSize)).addLast(entry);
+            return true;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel<>(interval, wheelSize, currentTime);
+        }
+        return overflowWheel.addEntry(entry);
+    }
+
+    /**
+     * 推进时间轮到指定时间，取出所有已到期的任务
+     * 到期任务由调用方在锁外处理，避免耗时操作阻塞任务添加
+     *
+     * @param nowMs 当前时间（毫秒时间戳）
+     * @return 到期任务列表
+     */
+    public synchronized List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        advanceTo(nowMs, expired);
+        size -= expired.size();
+        return expired;
+    }
+
+    private void advanceTo(long nowMs, List<T> expired) {
+        while (nowMs >= currentTime + tickMs) {
+            currentTime += tickMs;
+            if (overflowWheel != null) {
+                // 上层时间轮推进，到期格子中的任务降级到本层
+                List<Entry<T>> cascaded = new ArrayList<>();
+                overflowWheel.drainTo(currentTime, cascaded);
+                for (Entry<T> entry : cascaded) {
+                    if (!addEntry(entry)) {
+                        expired.add(entry.task);
+                    }
+                }
+            }
+            // 当前格子中的任务到期时间均在[currentTime, currentTime + tickMs)内
+            ArrayDeque<Entry<T>> bucket = buckets.get((int) ((currentTime / tickMs) % wheelSize));
+            while (!bucket.isEmpty()) {
+                expired.add(bucket.pollFirst().task);
+            }
+        }
+    }
+
+    /**
+     * 上层时间轮推进到指定时间，并取出到期格子中的任务
+     */
+    private void drainTo(long nowMs, List<Entry<T>> out) {
+        while (nowMs >= currentTime + tickMs) {
+            currentTime += tickMs;
+            if (overflowWheel != null) {
+                List<Entry<T>> cascaded = new ArrayList<>();
+                overflowWheel.drainTo(currentTime, cascaded);
+                for (Entry<T> entry : cascaded) {
+                    if (!addEntry(entry)) {
+                        out.add(entry);
+                    }
+                }
+            }
+            ArrayDeque<Entry<T>> bucket = buckets.get((int) ((currentTime / tickMs) % wheelSize));
+            out.addAll(bucket);
+            bucket.clear();
+        }
+    }
+
+    /**
+     * 时间轮中的任务数量
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 时间轮中的任务
+     */
+    private record Entry<T>(long expirationMs, T task) {
+    }
+}
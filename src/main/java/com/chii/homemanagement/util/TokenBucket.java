@@ -0,0 +1,81 @@
+package com.chii.homemanagement.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限流器
+ * 以固定速率补充令牌，桶容量决定允许的突发量
+ */
+public class TokenBucket {
+
+    /**
+     * 桶容量
+     */
+    private final double capacity;
+
+    /**
+     * 每纳秒补充的令牌数
+     */
+    private final double refillPerNano;
+
+    /**
+     * 当前令牌数
+     */
+    private double tokens;
+
+    /**
+     * 上次补充时间
+     */
+    private long lastRefillNanos;
+
+    /**
+     * @param capacity        桶容量
+     * @param tokensPerSecond 每秒补充的令牌数
+     */
+    public TokenBucket(double capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 尝试获取一个令牌，不等待
+     *
+     * @return 是否获取成功
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 获取一个令牌，令牌不足时等待
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / refillPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+    }
+}
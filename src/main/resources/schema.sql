@@ -74,6 +74,7 @@ CREATE TABLE IF NOT EXISTS `entity` (
     KEY `idx_user` (`user_id`),
     KEY `idx_status` (`status`),
     KEY `idx_type` (`type`),
+    KEY `idx_warranty_end_date` (`warranty_end_date`),
     KEY `idx_barcode` (`barcode`),
     KEY `idx_qrcode` (`qrcode`)
     ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='实体表（统一的物品和空间）';
@@ -119,21 +120,116 @@ CREATE TABLE IF NOT EXISTS `reminder` (
                                            `user_id` bigint(20) DEFAULT NULL COMMENT '用户ID',
     `content` VARCHAR(500) DEFAULT NULL COMMENT '内容',
     `remind_date` DATE NOT NULL COMMENT '提醒日期',
+    `remind_time` TIME DEFAULT NULL COMMENT '提醒时间，为空时使用默认提醒时间',
     `type` VARCHAR(20) NOT NULL COMMENT '类型: warranty-保修到期, maintenance-维护提醒, other-其他',
     `status` VARCHAR(20) NOT NULL DEFAULT 'pending' COMMENT '状态: pending-待处理,sent-已提醒, processed-已处理, ignored-已忽略',
     `notification_methods` VARCHAR(100) DEFAULT 'system' COMMENT '通知方式: system-系统通知, email-邮箱通知, sms-短信通知 , wx-微信通知, 多个用逗号分隔',
     `days_in_advance` INT DEFAULT 0 COMMENT '提前提醒天数',
     `is_recurring` TINYINT(1) DEFAULT 0 COMMENT '是否重复提醒: 0-否, 1-是',
     `recurring_cycle` VARCHAR(20) DEFAULT NULL COMMENT '重复周期: daily-每日, weekly-每周, monthly-每月, yearly-每年',
+    `series_id` BIGINT DEFAULT NULL COMMENT '重复提醒系列ID，即系列首条提醒的ID',
+    `claim_token` VARCHAR(36) DEFAULT NULL COMMENT '过期提醒批量处理的领取标识',
     `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
     KEY `idx_entity` (`entity_id`),
+    KEY `idx_entity_type_status` (`entity_id`, `type`, `status`),
     KEY `idx_user` (`user_id`),
+    KEY `idx_user_remind_date` (`user_id`, `remind_date`),
     KEY `idx_remind_date` (`remind_date`),
-    KEY `idx_status` (`status`)
+    KEY `idx_status` (`status`),
+    KEY `idx_status_remind_date` (`status`, `remind_date`),
+    UNIQUE KEY `uk_series_date` (`series_id`, `remind_date`)
     ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='提醒表';
 
+ALTER TABLE `reminder` ADD COLUMN `remind_time` TIME DEFAULT NULL COMMENT '提醒时间，为空时使用默认提醒时间' AFTER `remind_date`;
+ALTER TABLE `reminder` ADD COLUMN `series_id` BIGINT DEFAULT NULL COMMENT '重复提醒系列ID，即系列首条提醒的ID' AFTER `recurring_cycle`;
+ALTER TABLE `reminder` ADD UNIQUE KEY `uk_series_date` (`series_id`, `remind_date`);
+UPDATE `reminder` SET `series_id` = `id` WHERE `is_recurring` = 1 AND `series_id` IS NULL;
+ALTER TABLE `reminder` ADD COLUMN `claim_token` VARCHAR(36) DEFAULT NULL COMMENT '过期提醒批量处理的领取标识' AFTER `series_id`;
+
+-- 定时任务分片租约表
+CREATE TABLE IF NOT EXISTS `job_lease` (
+    `lease_key` VARCHAR(150) NOT NULL COMMENT '租约键: 任务名:执行日期:用户ID下限-用户ID上限',
+    `job_name` VARCHAR(100) NOT NULL COMMENT '任务名称',
+    `run_date` DATE NOT NULL COMMENT '执行日期',
+    `shard_index` INT NOT NULL COMMENT '分片序号',
+    `from_user_id` BIGINT DEFAULT NULL COMMENT '用户ID下限',
+    `to_user_id` BIGINT DEFAULT NULL COMMENT '用户ID上限',
+    `owner` VARCHAR(200) NOT NULL COMMENT '持有节点',
+    `status` VARCHAR(20) NOT NULL DEFAULT 'running' COMMENT '状态: running-执行中, done-已完成',
+    `attempts` INT NOT NULL DEFAULT 1 COMMENT '获取租约次数',
+    `lease_until` DATETIME NOT NULL COMMENT '租约到期时间',
+    `heartbeat_time` DATETIME DEFAULT NULL COMMENT '最近心跳时间',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`lease_key`),
+    KEY `idx_status_lease_until` (`status`, `lease_until`),
+    KEY `idx_run_date` (`run_date`)
+    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='定时任务分片租约表';
+
+-- 提醒通知发送记录表
+CREATE TABLE IF NOT EXISTS `notification_log` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `reminder_id` BIGINT DEFAULT NULL COMMENT '提醒ID',
+    `user_id` BIGINT DEFAULT NULL COMMENT '用户ID',
+    `channel` VARCHAR(20) NOT NULL COMMENT '通知渠道: email-邮件',
+    `recipient` VARCHAR(100) DEFAULT NULL COMMENT '接收地址',
+    `status` VARCHAR(20) NOT NULL COMMENT '状态: queued-待发送, sending-发送中, sent-已发送, failed-发送失败',
+    `attempts` INT NOT NULL DEFAULT 0 COMMENT '尝试次数',
+    `error_message` VARCHAR(500) DEFAULT NULL COMMENT '失败原因',
+    `next_attempt_time` DATETIME DEFAULT NULL COMMENT '下次发送时间',
+    `claim_token` VARCHAR(200) DEFAULT NULL COMMENT '领取标识',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_reminder_channel` (`reminder_id`, `channel`),
+    KEY `idx_channel_status_next` (`channel`, `status`, `next_attempt_time`),
+    KEY `idx_claim_token` (`claim_token`),
+    KEY `idx_user_create_time` (`user_id`, `create_time`)
+    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='提醒通知发送记录表（同时作为通知发件箱）';
+
+-- 备份记录表，记录集群内已完成的备份，用于判断备份周期和校验备份目录是否为各节点共享
+CREATE TABLE IF NOT EXISTS `backup_record` (
+    `id` VARCHAR(64) NOT NULL COMMENT '备份ID，与备份目录名一致',
+    `type` VARCHAR(20) NOT NULL COMMENT '备份类型: full-全量, incremental-增量',
+    `parent_id` VARCHAR(64) DEFAULT NULL COMMENT '增量备份所基于的上一个备份ID',
+    `snapshot_time` DATETIME NOT NULL COMMENT '数据库快照时间',
+    `start_time` DATETIME NOT NULL COMMENT '开始时间',
+    `node` VARCHAR(200) NOT NULL COMMENT '执行备份的节点',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`id`)
+    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='备份记录表';
+
+-- 已吊销令牌表
+CREATE TABLE IF NOT EXISTS `revoked_token` (
+    `jti` VARCHAR(64) NOT NULL COMMENT '令牌唯一ID',
+    `username` VARCHAR(50) DEFAULT NULL COMMENT '用户名',
+    `expires_at` DATETIME NOT NULL COMMENT '令牌过期时间',
+    `revoked_at` DATETIME(3) NOT NULL COMMENT '吊销时间',
+    PRIMARY KEY (`jti`),
+    KEY `idx_revoked_at` (`revoked_at`),
+    KEY `idx_expires_at` (`expires_at`)
+    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='已吊销令牌表';
+
+-- 用户令牌失效水位表
+CREATE TABLE IF NOT EXISTS `token_watermark` (
+    `username` VARCHAR(50) NOT NULL COMMENT '用户名',
+    `not_before` DATETIME(3) NOT NULL COMMENT '早于该时间签发的令牌失效',
+    `updated_at` DATETIME(3) NOT NULL COMMENT '更新时间（数据库时间），各节点据此增量同步',
+    PRIMARY KEY (`username`),
+    KEY `idx_updated_at` (`updated_at`),
+    KEY `idx_not_before` (`not_before`)
+    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户令牌失效水位表';
+
+-- 创建缓存版本表
+CREATE TABLE IF NOT EXISTS `cache_version` (
+    `name` VARCHAR(64) NOT NULL COMMENT '缓存名称',
+    `version` BIGINT NOT NULL DEFAULT 0 COMMENT '版本号，数据变更时递增',
+    `updated_at` DATETIME DEFAULT NULL COMMENT '更新时间',
+    PRIMARY KEY (`name`)
+    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='缓存版本表';
+
 -- 创建系统设置表
 CREATE TABLE `system_settings` (
   `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '主键ID',
@@ -147,12 +243,21 @@ CREATE TABLE `system_settings` (
   `updated_at` datetime DEFAULT NULL COMMENT '更新时间',
   `created_by` bigint(20) DEFAULT NULL COMMENT '创建人ID',
   `updated_by` bigint(20) DEFAULT NULL COMMENT '更新人ID',
+  `user_key` bigint(20) GENERATED ALWAYS AS (IFNULL(`user_id`, 0)) STORED COMMENT '唯一键用的用户ID，系统设置为0',
   PRIMARY KEY (`id`),
-  UNIQUE KEY `uk_type_key_user` (`type`, `setting_key`, `user_id`),
+  UNIQUE KEY `uk_type_key_user` (`type`, `setting_key`, `user_key`),
   KEY `idx_user_id` (`user_id`),
+  KEY `idx_user_key` (`user_key`),
   KEY `idx_type` (`type`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='系统设置表';
 
+-- 已有数据库：唯一键中的user_id为NULL时不会冲突，系统设置改用生成列参与唯一键，保留每个键最新的一条
+ALTER TABLE `system_settings` ADD COLUMN `user_key` bigint(20) GENERATED ALWAYS AS (IFNULL(`user_id`, 0)) STORED COMMENT '唯一键用的用户ID，系统设置为0' AFTER `updated_by`;
+DELETE s1 FROM `system_settings` s1 JOIN `system_settings` s2
+    ON s1.`type` = s2.`type` AND s1.`setting_key` = s2.`setting_key` AND s1.`user_key` = s2.`user_key` AND s1.`id` < s2.`id`;
+ALTER TABLE `system_settings` DROP INDEX `uk_type_key_user`, ADD UNIQUE KEY `uk_type_key_user` (`type`, `setting_key`, `user_key`);
+ALTER TABLE `system_settings` ADD KEY `idx_user_key` (`user_key`);
+
 -- 添加初始系统设置数据
 INSERT INTO `system_settings` (`type`, `setting_key`, `setting_value`, `name`, `default_value`, `created_at`, `updated_at`)
 VALUES 
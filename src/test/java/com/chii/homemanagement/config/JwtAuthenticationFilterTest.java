@@ -0,0 +1,135 @@
+package com.chii.homemanagement.config;
+
+import com.chii.homemanagement.common.LoginUser;
+import com.chii.homemanagement.entity.User;
+import com.chii.homemanagement.mapper.RevokedTokenMapper;
+import com.chii.homemanagement.mapper.TokenWatermarkMapper;
+import com.chii.homemanagement.service.impl.TokenRevocationServiceImpl;
+import com.chii.homemanagement.service.impl.UserServiceImpl;
+import com.chii.homemanagement.util.JwtAuthenticationCache;
+import com.chii.homemanagement.util.JwtUtil;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.access.ExceptionTranslationFilter;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * JWT认证过滤器测试，用户删除后其已签发的令牌立即失效
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final Long USER_ID = 1L;
+
+    private static final String USERNAME = "alice";
+
+    /**
+     * 通过认证和授权后直接返回200
+     */
+    private static final HttpServlet OK_SERVLET = new HttpServlet() {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+        }
+    };
+
+    private final TokenWatermarkMapper tokenWatermarkMapper = mock(TokenWatermarkMapper.class);
+
+    private JwtUtil jwtUtil;
+
+    private UserServiceImpl userService;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "testSecretKeyWhichIsAtLeast32BytesLongForHS512Algorithm");
+        jwtUtil.init();
+
+        JwtAuthenticationCache cache = new JwtAuthenticationCache();
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        cache.init();
+
+        TokenRevocationServiceImpl revocationService = new TokenRevocationServiceImpl();
+        ReflectionTestUtils.setField(revocationService, "bloomBits", 1024);
+        ReflectionTestUtils.setField(revocationService, "revokedTokenMapper", mock(RevokedTokenMapper.class));
+        ReflectionTestUtils.setField(revocationService, "tokenWatermarkMapper", tokenWatermarkMapper);
+        ReflectionTestUtils.setField(revocationService, "jwtUtil", jwtUtil);
+        revocationService.init();
+
+        User user = new User();
+        user.setUserId(USER_ID);
+        user.setUsername(USERNAME);
+        userService = spy(new UserServiceImpl(mock(PasswordEncoder.class)));
+        ReflectionTestUtils.setField(userService, "jwtAuthenticationCache", cache);
+        ReflectionTestUtils.setField(userService, "tokenRevocationService", revocationService);
+        doReturn(user).when(userService).getById(USER_ID);
+        doReturn(true).when(userService).removeById(USER_ID);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userService);
+        ReflectionTestUtils.setField(filter, "jwtAuthenticationCache", cache);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", revocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("用户删除后其令牌返回401")
+    void deletedUserTokenIsRejected() throws Exception {
+        String token = jwtUtil.generateToken(new LoginUser(USER_ID, USERNAME, "", List.of("USER")));
+
+        // 首次请求通过，令牌进入认证缓存
+        assertEquals(HttpServletResponse.SC_OK, request(token));
+
+        userService.deleteUser(USER_ID);
+
+        verify(tokenWatermarkMapper).raise(eq(USERNAME), any());
+        // 命中认证缓存的令牌同样被拒绝
+        assertEquals(HttpServletResponse.SC_UNAUTHORIZED, request(token));
+    }
+
+    /**
+     * 按安全配置的顺序经过JWT过滤器、异常转换和授权检查
+     */
+    private int request(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(OK_SERVLET,
+                filter,
+                new ExceptionTranslationFilter(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)),
+                new AuthorizationFilter(AuthenticatedAuthorizationManager.authenticated()));
+        chain.doFilter(request, response);
+        return response.getStatus();
+    }
+}
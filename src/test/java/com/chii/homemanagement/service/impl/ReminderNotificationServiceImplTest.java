@@ -0,0 +1,199 @@
+package com.chii.homemanagement.service.impl;
+
+import com.chii.homemanagement.common.ReminderDueEvent;
+import com.chii.homemanagement.entity.NotificationLog;
+import com.chii.homemanagement.entity.Reminder;
+import com.chii.homemanagement.entity.User;
+import com.chii.homemanagement.mapper.NotificationLogMapper;
+import com.chii.homemanagement.mapper.ReminderMapper;
+import com.chii.homemanagement.mapper.UserMapper;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 提醒邮件通知测试，使用GreenMail作为本地SMTP服务
+ */
+class ReminderNotificationServiceImplTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final NotificationLogMapper notificationLogMapper = mock(NotificationLogMapper.class);
+
+    private final ReminderMapper reminderMapper = mock(ReminderMapper.class);
+
+    private final UserMapper userMapper = mock(UserMapper.class);
+
+    private ReminderNotificationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        service = createService(mailSender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    @DisplayName("只有通知方式包含email的提醒写入发件箱")
+    void enqueueWritesOutboxForEmailReminders() {
+        when(notificationLogMapper.insertQueued(any())).thenReturn(1);
+
+        assertTrue(service.enqueue(reminder(10L, "email,sms", "更换滤芯")));
+        assertFalse(service.enqueue(reminder(11L, "sms", "缴纳物业费")));
+
+        verify(notificationLogMapper).insertQueued(any());
+    }
+
+    @Test
+    @DisplayName("一批到期提醒以一条语句写入发件箱，已批量写入的到期事件不再逐条写入")
+    void enqueueAllWritesOutboxInOneStatement() {
+        when(notificationLogMapper.insertQueuedBatch(anyList())).thenAnswer(invocation -> {
+            List<?> logs = invocation.getArgument(0);
+            return logs.size();
+        });
+
+        assertEquals(2, service.enqueueAll(List.of(reminder(10L, "email", "更换滤芯"),
+                reminder(11L, "sms", "缴纳物业费"), reminder(12L, "system,email", "保修到期"))));
+        service.onReminderDue(new ReminderDueEvent(this, reminder(10L, "email", "更换滤芯"), true));
+
+        verify(notificationLogMapper).insertQueuedBatch(argThat(logs -> logs.size() == 2));
+        verify(notificationLogMapper, never()).insertQueued(any());
+    }
+
+    @Test
+    @DisplayName("同一用户的到期提醒汇总为一封摘要邮件，发送成功后才标记为已发送")
+    void flushSendsOneDigestPerUser() throws Exception {
+        stubClaimed(List.of(outbox(1L, 10L, 0), outbox(2L, 11L, 0)),
+                List.of(reminder(10L, "email", "更换滤芯"), reminder(11L, "email", "保修到期")));
+
+        assertEquals(1, service.flush());
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        assertEquals(1, messages.length);
+        assertEquals("alice@example.com", messages[0].getAllRecipients()[0].toString());
+        assertTrue(messages[0].getSubject().contains("2 条提醒"));
+        String body = GreenMailUtil.getBody(messages[0]);
+        assertTrue(body.contains("更换滤芯"));
+        assertTrue(body.contains("保修到期"));
+
+        verify(notificationLogMapper, timeout(5000)).markSent(List.of(1L, 2L), "alice@example.com");
+        verify(notificationLogMapper, never()).markRetry(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("SMTP不可用时重新排队，超过最大次数后标记为失败")
+    void flushRetriesThenFails() {
+        service.destroy();
+        JavaMailSenderImpl unreachable = new JavaMailSenderImpl();
+        unreachable.setHost(ServerSetupTest.SMTP.getBindAddress());
+        unreachable.setPort(ServerSetupTest.SMTP.getPort() + 1);
+        service = createService(unreachable);
+
+        stubClaimed(List.of(outbox(1L, 10L, 0)), List.of(reminder(10L, "email", "更换滤芯")));
+        service.flush();
+        verify(notificationLogMapper, timeout(5000)).markRetry(eq(List.of(1L)), any(), eq(1L));
+
+        stubClaimed(List.of(outbox(1L, 10L, 2)), List.of(reminder(10L, "email", "更换滤芯")));
+        service.flush();
+        verify(notificationLogMapper, timeout(5000)).markFailed(eq(List.of(1L)), any());
+        verify(notificationLogMapper, never()).markSent(any(), anyString());
+    }
+
+    private ReminderNotificationServiceImpl createService(JavaMailSender mailSender) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<JavaMailSender> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(mailSender);
+
+        ReminderNotificationServiceImpl impl = new ReminderNotificationServiceImpl();
+        ReflectionTestUtils.setField(impl, "enabled", true);
+        ReflectionTestUtils.setField(impl, "from", "noreply@localhost");
+        ReflectionTestUtils.setField(impl, "poolSize", 1);
+        ReflectionTestUtils.setField(impl, "queueCapacity", 10);
+        ReflectionTestUtils.setField(impl, "claimSize", 100);
+        ReflectionTestUtils.setField(impl, "staleSeconds", 600L);
+        ReflectionTestUtils.setField(impl, "batchSize", 20);
+        ReflectionTestUtils.setField(impl, "domainRatePerSecond", 100.0);
+        ReflectionTestUtils.setField(impl, "domainBurst", 10);
+        ReflectionTestUtils.setField(impl, "maxRetries", 2);
+        ReflectionTestUtils.setField(impl, "retryBackoffMs", 1000L);
+        // 测试中手动调用flush，避免定时汇总干扰
+        ReflectionTestUtils.setField(impl, "flushIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(impl, "mailSenderProvider", provider);
+        ReflectionTestUtils.setField(impl, "notificationLogMapper", notificationLogMapper);
+        ReflectionTestUtils.setField(impl, "reminderMapper", reminderMapper);
+        ReflectionTestUtils.setField(impl, "userMapper", userMapper);
+        impl.init();
+        return impl;
+    }
+
+    private void stubClaimed(List<NotificationLog> claimed, List<Reminder> reminders) {
+        when(notificationLogMapper.claimDue(eq("email"), anyString(), anyInt())).thenReturn(claimed.size());
+        when(notificationLogMapper.listClaimed(anyString())).thenReturn(claimed);
+        when(reminderMapper.selectBatchIds(anyCollection())).thenReturn(reminders);
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        when(userMapper.selectBatchIds(anyCollection())).thenReturn(List.of(user));
+    }
+
+    private static NotificationLog outbox(Long id, Long reminderId, int attempts) {
+        return NotificationLog.builder()
+                .id(id)
+                .reminderId(reminderId)
+                .userId(1L)
+                .channel("email")
+                .status("sending")
+                .attempts(attempts)
+                .build();
+    }
+
+    private static Reminder reminder(Long id, String methods, String content) {
+        Reminder reminder = new Reminder();
+        reminder.setId(id);
+        reminder.setUserId(1L);
+        reminder.setContent(content);
+        reminder.setRemindDate(LocalDate.of(2025, 6, 1));
+        reminder.setNotificationMethods(methods);
+        reminder.setStatus("sent");
+        return reminder;
+    }
+}
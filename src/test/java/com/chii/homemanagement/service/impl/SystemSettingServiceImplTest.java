@@ -0,0 +1,142 @@
+package com.chii.homemanagement.service.impl;
+
+import com.chii.homemanagement.common.SettingsChangedEvent;
+import com.chii.homemanagement.entity.CacheVersion;
+import com.chii.homemanagement.entity.SystemSetting;
+import com.chii.homemanagement.mapper.CacheVersionMapper;
+import com.chii.homemanagement.mapper.SystemSettingMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 系统设置批量保存测试，整张表单的保存只执行一条保存语句和一条版本号递增语句
+ */
+class SystemSettingServiceImplTest {
+
+    private final SystemSettingMapper systemSettingMapper = mock(SystemSettingMapper.class);
+
+    private final CacheVersionMapper cacheVersionMapper = mock(CacheVersionMapper.class);
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private SystemSettingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(systemSettingMapper.upsertBatch(anyList())).thenAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(0);
+            return rows.size();
+        });
+        when(cacheVersionMapper.incrementAndGet(any())).thenAnswer(invocation -> {
+            CacheVersion cacheVersion = invocation.getArgument(0);
+            cacheVersion.setVersion(1L);
+            return 1;
+        });
+
+        service = new SystemSettingServiceImpl();
+        ReflectionTestUtils.setField(service, "systemSettingMapper", systemSettingMapper);
+        ReflectionTestUtils.setField(service, "cacheVersionMapper", cacheVersionMapper);
+        ReflectionTestUtils.setField(service, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(service, "maxCachedUsers", 10000);
+    }
+
+    @Test
+    @DisplayName("保存系统设置表单只执行一条多行保存语句")
+    void saveSystemSettingsUsesOneRoundTrip() {
+        List<SystemSetting> form = settings(9);
+
+        service.saveSystemSettings(form, 1L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SystemSetting>> captor = ArgumentCaptor.forClass(List.class);
+        verify(systemSettingMapper, times(1)).upsertBatch(captor.capture());
+        verify(systemSettingMapper, never()).saveOrUpdate(any());
+        List<SystemSetting> saved = captor.getValue();
+        assertEquals(9, saved.size());
+        for (SystemSetting setting : saved) {
+            assertEquals("SYSTEM", setting.getType());
+            assertNull(setting.getUserId());
+            assertEquals(1L, setting.getUpdatedBy());
+        }
+        verify(cacheVersionMapper, times(1)).incrementAndGet(any());
+        verifyNoMoreInteractions(systemSettingMapper, cacheVersionMapper);
+        // 递增后的版本号随变更事件发布，不再单独查询
+        ArgumentCaptor<SettingsChangedEvent> event = ArgumentCaptor.forClass(SettingsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getVersion());
+    }
+
+    @Test
+    @DisplayName("保存个人设置表单只执行一条多行保存语句")
+    void saveUserSettingsUsesOneRoundTrip() {
+        service.saveUserSettings(settings(5), 7L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SystemSetting>> captor = ArgumentCaptor.forClass(List.class);
+        verify(systemSettingMapper, times(1)).upsertBatch(captor.capture());
+        verify(systemSettingMapper, never()).saveOrUpdate(any());
+        for (SystemSetting setting : captor.getValue()) {
+            assertEquals("USER", setting.getType());
+            assertEquals(7L, setting.getUserId());
+        }
+        verify(cacheVersionMapper, times(1)).incrementAndGet(any());
+        verifyNoMoreInteractions(systemSettingMapper, cacheVersionMapper);
+    }
+
+    @Test
+    @DisplayName("初始化默认设置只执行一条多行保存语句")
+    void initDefaultSystemSettingsUsesOneRoundTrip() {
+        service.initDefaultSystemSettings(1L);
+
+        verify(systemSettingMapper, times(1)).upsertBatch(anyList());
+        verify(cacheVersionMapper, times(1)).incrementAndGet(any());
+        verifyNoMoreInteractions(systemSettingMapper, cacheVersionMapper);
+    }
+
+    @Test
+    @DisplayName("超过单条语句行数上限时按上限分批")
+    void saveSystemSettingsSplitsLargeForms() {
+        service.saveSystemSettings(settings(501), 1L);
+
+        verify(systemSettingMapper, times(2)).upsertBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("空表单不访问数据库")
+    void saveEmptyFormSkipsDatabase() {
+        service.saveSystemSettings(List.of(), 1L);
+        service.saveUserSettings(null, 7L);
+
+        verify(systemSettingMapper, never()).upsertBatch(anyList());
+        verifyNoMoreInteractions(systemSettingMapper, cacheVersionMapper);
+    }
+
+    private static List<SystemSetting> settings(int count) {
+        List<SystemSetting> settings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SystemSetting setting = new SystemSetting();
+            setting.setSettingKey("key" + i);
+            setting.setSettingValue("value" + i);
+            settings.add(setting);
+        }
+        return settings;
+    }
+}